@@ -0,0 +1,54 @@
+package com.eventpro.catering.reactive;
+
+import com.eventpro.catering.security.JwtService;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * CLASSE PRINCIPALE DEL MODULO DI LETTURA REATTIVO
+ *
+ * Applicazione separata (WebFlux su Netty + R2DBC) che espone SOLO le letture
+ * degli eventi: GET /api/eventi, /api/eventi?data=, /api/eventi/{id}.
+ * Serve il widget pubblico del calendario, che tiene aperte migliaia di
+ * connessioni quasi sempre inattive.
+ *
+ * PERCHÉ UN'APPLICAZIONE A PARTE:
+ * - Con Tomcat + JPA ogni richiesta in corso occupa un thread (e il suo stack)
+ *   finché la query non risponde; Netty serve tutte le connessioni con pochi
+ *   thread "event loop" (uno per core) e una connessione inattiva costa
+ *   pochi KB di buffer
+ * - Spring MVC e WebFlux nella stessa applicazione non convivono: con
+ *   entrambi nel classpath Spring Boot sceglie MVC
+ *
+ * COSA RIUSA DELL'APPLICAZIONE PRINCIPALE:
+ * - JwtService: i token emessi da POST /api/auth/login valgono anche qui
+ *   (stesso jwt.secret)
+ * - EventoResponseDTO: stesso JSON delle API bloccanti
+ * - Gli script dello schema H2 (db/migration/h2) per il profilo h2
+ *
+ * La configurazione sta in reactive-read.properties (e reactive-read-{profilo}.properties)
+ * e non in application.properties, che nel classpath è quello dell'applicazione principale.
+ *
+ * AVVIO:
+ *   ./mvnw install -DskipTests            (dalla root: installa il jar principale)
+ *   cd reactive-read && ../mvnw spring-boot:run -Dspring-boot.run.profiles=h2
+ *
+ * TEST (non fanno parte di "./mvnw test" dalla root, vedi README):
+ *   ./mvnw install && ./mvnw -f reactive-read/pom.xml test
+ */
+@SpringBootApplication
+@Import(JwtService.class)
+public class ReactiveReadApplication {
+
+    /**
+     * Nome dei file di configurazione del modulo
+     */
+    public static final String CONFIG_NAME = "spring.config.name=reactive-read";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .properties(CONFIG_NAME)
+                .run(args);
+    }
+}
@@ -0,0 +1,43 @@
+package com.eventpro.catering.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+
+/**
+ * CORS PER IL WIDGET DEL CALENDARIO
+ *
+ * Stesse origini del frontend ammesse dall'applicazione principale, ma solo
+ * metodi di lettura: questo modulo non espone POST/PUT/DELETE.
+ *
+ * Il filtro ha la precedenza massima: anche le risposte 401 del JwtWebFilter
+ * devono avere gli header CORS, altrimenti il browser nasconde l'errore al frontend.
+ */
+@Configuration
+public class CorsConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of(
+                "http://localhost:5173",  // Vite dev server
+                "http://localhost:3000",  // React/CRA (backup)
+                "http://127.0.0.1:5173"   // Alternativa localhost
+        ));
+        configuration.setAllowedMethods(List.of("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Accept", "Content-Type"));
+        configuration.setAllowCredentials(true);
+        configuration.setMaxAge(3600L);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", configuration);
+        return new CorsWebFilter(source);
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventpro.catering.reactive.controller;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.exception.EventoNotFoundException;
+import com.eventpro.catering.reactive.repository.EventoReactiveRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * CONTROLLER REATTIVO PER LA LETTURA DEGLI EVENTI
+ *
+ * Stessi URL e stesso JSON di EventoController (applicazione principale),
+ * ma i metodi restituiscono Flux/Mono: il thread di Netty che riceve la
+ * richiesta non aspetta il database, si limita a collegare la query alla
+ * risposta e passa alla connessione successiva.
+ *
+ * FORMATI DI RISPOSTA PER LE LISTE:
+ * - Accept: application/json (default) → array JSON [ {...}, {...} ]
+ * - Accept: application/x-ndjson → un evento per riga, scritto e inviato
+ *   appena letto dal database (il client vede i primi eventi subito)
+ *
+ * ENDPOINT:
+ * - GET /api/eventi                  primi "limit" eventi (default e massimo: eventi.lista-completa.max-righe)
+ * - GET /api/eventi?data=2024-06-15  eventi di una data
+ * - GET /api/eventi/{id}             un evento (404 se non esiste)
+ */
+@RestController
+@RequestMapping("/api/eventi")
+public class EventoReactiveController {
+
+    private final EventoReactiveRepository eventoReactiveRepository;
+
+    // Stesso limite della lista completa dell'applicazione principale
+    @Value("${eventi.lista-completa.max-righe:1000}")
+    private int maxRighe;
+
+    public EventoReactiveController(EventoReactiveRepository eventoReactiveRepository) {
+        this.eventoReactiveRepository = eventoReactiveRepository;
+    }
+
+    /**
+     * LISTA EVENTI (tutti o di una data)
+     *
+     * @param data Data opzionale per filtrare
+     * @param limit Numero massimo di eventi senza filtro per data (1 - max-righe)
+     * @return Flux di eventi in ordine di data e ora di inizio
+     * @throws IllegalArgumentException se limit non è valido (→ HTTP 400)
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<EventoResponseDTO> getEventi(
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate data,
+            @RequestParam(required = false) Integer limit) {
+
+        if (data != null) {
+            return eventoReactiveRepository.findByData(data);
+        }
+        if (limit != null && (limit <= 0 || limit > maxRighe)) {
+            return Flux.error(new IllegalArgumentException(
+                    "Il parametro limit deve essere compreso tra 1 e " + maxRighe));
+        }
+        return eventoReactiveRepository.findAll(limit != null ? limit : maxRighe);
+    }
+
+    /**
+     * DETTAGLIO EVENTO
+     *
+     * @param id ID dell'evento
+     * @return L'evento (o 404 gestito da ReactiveExceptionHandler)
+     */
+    @GetMapping("/{id}")
+    public Mono<EventoResponseDTO> getEventoById(@PathVariable Long id) {
+        return eventoReactiveRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new EventoNotFoundException(id)));
+    }
+}
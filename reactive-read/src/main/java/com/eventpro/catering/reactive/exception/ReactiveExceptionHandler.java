@@ -0,0 +1,28 @@
+package com.eventpro.catering.reactive.exception;
+
+import com.eventpro.catering.exception.EventoNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * ERRORI DEL MODULO REATTIVO
+ *
+ * Stesse risposte del GlobalExceptionHandler dell'applicazione principale
+ * (messaggio come testo semplice), così il frontend gestisce gli errori
+ * allo stesso modo con entrambe le API.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(EventoNotFoundException.class)
+    public ResponseEntity<String> handleEventoNotFound(EventoNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.eventpro.catering.reactive.repository;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * REPOSITORY R2DBC PER LE LETTURE DEGLI EVENTI
+ *
+ * Stesse query di EventoJdbcRepository (evento JOIN tipologia_evento, SQL
+ * standard valido su H2 e MySQL), eseguite con un driver non bloccante:
+ * nessun thread resta fermo ad aspettare il database.
+ *
+ * BACKPRESSURE:
+ * i metodi restituiscono un Flux "freddo". Le righe vengono lette dal driver
+ * solo quando chi sta a valle le chiede (request(n)): se il client HTTP legge
+ * piano, Netty smette di chiedere righe e la query si ferma, invece di
+ * accumulare l'intero risultato in memoria.
+ */
+@Repository
+public class EventoReactiveRepository {
+
+    private static final String SELECT_EVENTI =
+            "SELECT e.id, e.nome, e.data, e.ora_inizio, e.ora_fine, e.location, e.note, " +
+            "e.evento_giornaliero, e.versione, t.id AS tipologia_id, t.nome AS tipologia_nome " +
+            "FROM evento e JOIN tipologia_evento t ON t.id = e.tipologia_evento_id ";
+
+    private static final String ORDINE = "ORDER BY e.data, e.ora_inizio, e.id ";
+
+    private final DatabaseClient databaseClient;
+
+    public EventoReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * PRIMI "limit" EVENTI IN ORDINE DI DATA E ORA
+     */
+    public Flux<EventoResponseDTO> findAll(int limit) {
+        return databaseClient.sql(SELECT_EVENTI + ORDINE + "LIMIT :limit")
+                .bind("limit", limit)
+                .map(EventoReactiveRepository::toDto)
+                .all();
+    }
+
+    /**
+     * EVENTI DI UNA DATA
+     */
+    public Flux<EventoResponseDTO> findByData(LocalDate data) {
+        return databaseClient.sql(SELECT_EVENTI + "WHERE e.data = :data " + ORDINE)
+                .bind("data", data)
+                .map(EventoReactiveRepository::toDto)
+                .all();
+    }
+
+    /**
+     * UN EVENTO PER ID (Mono vuoto se non esiste)
+     */
+    public Mono<EventoResponseDTO> findById(Long id) {
+        return databaseClient.sql(SELECT_EVENTI + "WHERE e.id = :id")
+                .bind("id", id)
+                .map(EventoReactiveRepository::toDto)
+                .one();
+    }
+
+    private static EventoResponseDTO toDto(Readable row) {
+        EventoResponseDTO.TipologiaEventoDTO tipologia = new EventoResponseDTO.TipologiaEventoDTO(
+                row.get("tipologia_id", Long.class),
+                row.get("tipologia_nome", String.class)
+        );
+
+        EventoResponseDTO dto = new EventoResponseDTO(
+                row.get("id", Long.class),
+                row.get("nome", String.class),
+                row.get("data", LocalDate.class),
+                row.get("ora_inizio", LocalTime.class),
+                row.get("ora_fine", LocalTime.class),
+                row.get("location", String.class),
+                row.get("note", String.class),
+                Boolean.TRUE.equals(row.get("evento_giornaliero", Boolean.class)),
+                tipologia
+        );
+        dto.setVersione(row.get("versione", Long.class));
+        return dto;
+    }
+}
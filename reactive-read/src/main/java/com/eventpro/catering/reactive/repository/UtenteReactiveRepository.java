@@ -0,0 +1,52 @@
+package com.eventpro.catering.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * REPOSITORY R2DBC PER I CONTROLLI DI SICUREZZA SUI TOKEN
+ *
+ * Legge le stesse colonne che usa il filtro JWT dell'applicazione principale
+ * (utente.security_stamp, utente.abilitato, token_revocato), con lo schema
+ * creato dalle migrazioni condivise.
+ */
+@Repository
+public class UtenteReactiveRepository {
+
+    /**
+     * Stato di sicurezza dell'utente di un token e revoca del token stesso
+     */
+    public record StatoToken(long idUtente, long securityStamp, boolean abilitato, boolean revocato) {
+    }
+
+    private final DatabaseClient databaseClient;
+
+    public UtenteReactiveRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * STATO DELL'UTENTE E DEL TOKEN IN UNA SOLA QUERY
+     *
+     * Ricerca per email (indice unico uk_utente_email) e per jti (chiave
+     * primaria di token_revocato).
+     *
+     * @param email Subject del token
+     * @param jti Id del token (null per i token emessi prima del claim "jti")
+     * @return Mono vuoto se l'utente non esiste
+     */
+    public Mono<StatoToken> findStato(String email, String jti) {
+        return databaseClient.sql("SELECT u.id, u.security_stamp, u.abilitato, " +
+                        "(SELECT COUNT(*) FROM token_revocato r WHERE r.jti = :jti) AS revocati " +
+                        "FROM utente u WHERE u.email = :email")
+                .bind("jti", jti != null ? jti : "")
+                .bind("email", email)
+                .map(row -> new StatoToken(
+                        row.get("id", Long.class),
+                        row.get("security_stamp", Long.class),
+                        Boolean.TRUE.equals(row.get("abilitato", Boolean.class)),
+                        row.get("revocati", Long.class) > 0))
+                .one();
+    }
+}
@@ -0,0 +1,101 @@
+package com.eventpro.catering.reactive.security;
+
+import com.eventpro.catering.reactive.repository.UtenteReactiveRepository;
+import com.eventpro.catering.security.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * FILTRO JWT PER LE API REATTIVE
+ *
+ * Versione WebFlux di JwtAuthenticationFilter: ogni richiesta a /api/**
+ * deve avere l'header "Authorization: Bearer <token>" con un token emesso
+ * dall'applicazione principale (POST /api/auth/login).
+ *
+ * STESSI CONTROLLI DEL FILTRO BLOCCANTE (JwtAuthenticationFilter):
+ * 1. firma e scadenza con JwtService (calcolo in memoria)
+ * 2. token non revocato con il logout (token_revocato)
+ * 3. utente esistente e abilitato, con lo stesso id ("uid") e lo stesso
+ *    security stamp ("stamp") scritti nel token: logout da tutti i
+ *    dispositivi, cambio di ruolo o password e account disabilitato
+ *    invalidano i token emessi prima
+ *
+ * I punti 2 e 3 sono una sola query per chiave con R2DBC
+ * (UtenteReactiveRepository): il thread event loop non resta fermo ad
+ * aspettarla. L'applicazione principale tiene revoche e stamp in memoria
+ * perché li aggiorna lei stessa; questo modulo è un altro processo e li
+ * rilegge a ogni richiesta, così un logout vale subito anche qui.
+ *
+ * Token mancante, malformato, con firma errata, scaduto, revocato o di un
+ * utente cambiato dopo il login → 401 senza body.
+ */
+@Component
+public class JwtWebFilter implements WebFilter {
+
+    private static final String PREFISSO = "Bearer ";
+
+    // Attributo della richiesta con l'email dell'utente autenticato
+    public static final String ATTRIBUTO_UTENTE = "utente";
+
+    private final JwtService jwtService;
+    private final UtenteReactiveRepository utenteReactiveRepository;
+
+    public JwtWebFilter(JwtService jwtService, UtenteReactiveRepository utenteReactiveRepository) {
+        this.jwtService = jwtService;
+        this.utenteReactiveRepository = utenteReactiveRepository;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.startsWith("/api/") || HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(PREFISSO)) {
+            return nonAutorizzato(exchange);
+        }
+
+        JwtService.VerifiedToken token;
+        try {
+            // verify controlla firma e scadenza con una sola decodifica (eccezione se non validi)
+            token = jwtService.verify(authHeader.substring(PREFISSO.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return nonAutorizzato(exchange);
+        }
+
+        return utenteReactiveRepository.findStato(token.subject(), token.tokenId())
+                .map(stato -> isValido(token, stato))
+                .defaultIfEmpty(false)
+                .flatMap(valido -> {
+                    if (!valido) {
+                        return nonAutorizzato(exchange);
+                    }
+                    exchange.getAttributes().put(ATTRIBUTO_UTENTE, token.subject());
+                    return chain.filter(exchange);
+                });
+    }
+
+    /**
+     * Token non revocato, utente abilitato, stesso id e stesso stamp (se il token lo porta)
+     */
+    private static boolean isValido(JwtService.VerifiedToken token, UtenteReactiveRepository.StatoToken stato) {
+        return !stato.revocato()
+                && stato.abilitato()
+                && token.userId() == stato.idUtente()
+                && (token.securityStamp() == null || token.securityStamp() == stato.securityStamp());
+    }
+
+    private static Mono<Void> nonAutorizzato(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,166 @@
+package com.eventpro.catering.reactive;
+
+import com.eventpro.catering.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * TEST DELLE API REATTIVE (H2 IN MEMORIA)
+ *
+ * Verifica autenticazione con i token di JwtService (compresi revoca,
+ * security stamp e account disabilitato), liste JSON e NDJSON e il 404 del
+ * dettaglio, con lo stesso formato dell'applicazione principale.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = ReactiveReadApplication.CONFIG_NAME)
+@AutoConfigureWebTestClient
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveReadApplicationTests {
+
+    private static final LocalDate DATA = LocalDate.of(2031, 5, 10);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+
+    private static final long ID_UTENTE = 1;
+    private static final String EMAIL = "test@eventpro.it";
+
+    @BeforeAll
+    void popolaDatabase() {
+        databaseClient.sql("INSERT INTO utente (id, email, password, role, security_stamp, abilitato) " +
+                        "VALUES (:id, :email, 'hash', 'USER', 1, TRUE)")
+                .bind("id", ID_UTENTE)
+                .bind("email", EMAIL)
+                .fetch().rowsUpdated().block();
+        databaseClient.sql("INSERT INTO tipologia_evento (id, nome) VALUES (1, 'Matrimonio')")
+                .fetch().rowsUpdated().block();
+        for (long id = 1; id <= 3; id++) {
+            databaseClient.sql("INSERT INTO evento (id, nome, data, ora_inizio, ora_fine, location, note, " +
+                            "evento_giornaliero, tipologia_evento_id) " +
+                            "VALUES (:id, :nome, :data, :inizio, :fine, 'Villa Roma', 'Note', FALSE, 1)")
+                    .bind("id", id)
+                    .bind("nome", "Evento " + id)
+                    .bind("data", DATA)
+                    .bind("inizio", LocalTime.of(10 + (int) id, 0))
+                    .bind("fine", LocalTime.of(11 + (int) id, 0))
+                    .fetch().rowsUpdated().block();
+        }
+        token = jwtService.generateToken(EMAIL, ID_UTENTE, List.of("ROLE_USER"), 1);
+    }
+
+    @AfterEach
+    void ripristinaUtente() {
+        aggiornaUtente(1, true);
+    }
+
+    @Test
+    void richiestaSenzaTokenRifiutata() {
+        webTestClient.get().uri("/api/eventi?data={data}", DATA)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/api/eventi/1")
+                .header("Authorization", "Bearer token-non-valido")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void tokenRevocatoRifiutato() {
+        String revocato = jwtService.generateToken(EMAIL, ID_UTENTE, List.of("ROLE_USER"), 1);
+        richiestaDettaglio(revocato).expectStatus().isNotFound();
+
+        // Logout fatto dall'applicazione principale
+        databaseClient.sql("INSERT INTO token_revocato (jti, scadenza) VALUES (:jti, :scadenza)")
+                .bind("jti", jwtService.verify(revocato).tokenId())
+                .bind("scadenza", LocalDateTime.now().plusDays(1))
+                .fetch().rowsUpdated().block();
+
+        richiestaDettaglio(revocato).expectStatus().isUnauthorized();
+        richiestaDettaglio(token).expectStatus().isNotFound();
+    }
+
+    @Test
+    void tokenConStampVecchioOUtenteDisabilitatoRifiutato() {
+        String conStamp = jwtService.generateToken(EMAIL, ID_UTENTE, List.of("ROLE_USER"), 1);
+
+        // Logout da tutti i dispositivi (o cambio di ruolo/password): lo stamp cresce
+        aggiornaUtente(2, true);
+        richiestaDettaglio(conStamp).expectStatus().isUnauthorized();
+        richiestaDettaglio(jwtService.generateToken(EMAIL, ID_UTENTE, List.of("ROLE_USER"), 2))
+                .expectStatus().isNotFound();
+
+        aggiornaUtente(2, false);
+        richiestaDettaglio(token).expectStatus().isUnauthorized();
+
+        richiestaDettaglio(jwtService.generateToken("sconosciuto@eventpro.it", 99L, List.of("ROLE_USER"), 1)).expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void listaEDettaglio() {
+        webTestClient.get().uri("/api/eventi?data={data}", DATA)
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].id").isEqualTo("1")
+                .jsonPath("$[0].tipologiaEvento.nome").isEqualTo("Matrimonio");
+
+        webTestClient.get().uri("/api/eventi?limit=2")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Object.class).hasSize(2);
+
+        webTestClient.get().uri("/api/eventi/99")
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Evento non trovato con id: 99");
+
+        webTestClient.get().uri("/api/eventi?limit=0")
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private WebTestClient.ResponseSpec richiestaDettaglio(String conToken) {
+        return webTestClient.get().uri("/api/eventi/99")
+                .header("Authorization", "Bearer " + conToken)
+                .exchange();
+    }
+
+    private void aggiornaUtente(long stamp, boolean abilitato) {
+        databaseClient.sql("UPDATE utente SET security_stamp = :stamp, abilitato = :abilitato WHERE id = :id")
+                .bind("stamp", stamp)
+                .bind("abilitato", abilitato)
+                .bind("id", ID_UTENTE)
+                .fetch().rowsUpdated().block();
+    }
+}
@@ -0,0 +1,208 @@
+package com.eventpro.catering.reactive.benchmark;
+
+import com.eventpro.catering.reactive.ReactiveReadApplication;
+import com.eventpro.catering.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BENCHMARK: CONNESSIONI APERTE vs MEMORIA, THREAD E LATENZA
+ *
+ * Simula il widget del calendario: migliaia di connessioni HTTP keep-alive
+ * che hanno fatto una richiesta e ora restano aperte senza fare nulla.
+ * Per ogni livello (0, 1.000, 4.000 connessioni inattive) misura:
+ * - heap usato dopo una GC (server e client stanno nella stessa JVM)
+ * - thread vivi nella JVM
+ * - latenza p50/p99 di GET /api/eventi?data= fatta da 50 client attivi
+ *
+ * Con un server bloccante (Tomcat) ogni connessione in attesa di risposta
+ * occupa un thread; qui il numero di thread deve restare costante.
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo (dopo ./mvnw install -DskipTests nella root):
+ *   cd reactive-read && ../mvnw test -Dtest=ConnessioniBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = ReactiveReadApplication.CONFIG_NAME)
+@ActiveProfiles("h2")
+class ConnessioniBenchmark {
+
+    private static final int[] LIVELLI = {0, 1_000, 4_000};
+    private static final int EVENTI = 2_000;
+    private static final int GIORNI = 100;
+    private static final int CLIENT_ATTIVI = 50;
+    private static final int MISURE = 2_000;
+    private static final LocalDate PRIMO_GIORNO = LocalDate.of(2031, 1, 1);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void connessioniInattive() throws Exception {
+        popolaDatabase();
+        String token = jwtService.generateToken("benchmark@eventpro.it", 1L, List.of("ROLE_USER"), 1);
+        HttpClient http = HttpClient.newHttpClient();
+
+        // Riscaldamento
+        misuraLatenze(http, token, 500);
+
+        List<Socket> aperte = new ArrayList<>();
+        List<String> righe = new ArrayList<>();
+        try {
+            for (int livello : LIVELLI) {
+                while (aperte.size() < livello) {
+                    aperte.add(apriConnessioneInattiva(token, aperte.size()));
+                }
+                long[] latenze = misuraLatenze(http, token, MISURE);
+                righe.add(String.format(Locale.ROOT, "%8d %12.1f %8d %10.2f %10.2f",
+                        aperte.size(), heapUsatoMb(), ManagementFactory.getThreadMXBean().getThreadCount(),
+                        percentile(latenze, 50), percentile(latenze, 99)));
+            }
+        } finally {
+            for (Socket socket : aperte) {
+                socket.close();
+            }
+        }
+
+        System.out.println();
+        System.out.println("=== CONNESSIONI INATTIVE vs MEMORIA E LATENZA ("
+                + Runtime.getRuntime().availableProcessors() + " CPU) ===");
+        System.out.println("conness.   heap (MB)   thread   p50 (ms)   p99 (ms)");
+        righe.forEach(System.out::println);
+    }
+
+    private void popolaDatabase() {
+        // Il filtro JWT controlla utente e stamp nel database
+        databaseClient.sql("INSERT INTO utente (id, email, password, role, security_stamp, abilitato) " +
+                        "VALUES (1, 'benchmark@eventpro.it', 'hash', 'USER', 1, TRUE)")
+                .fetch().rowsUpdated().block();
+        databaseClient.sql("INSERT INTO tipologia_evento (id, nome) VALUES (1, 'Benchmark')")
+                .fetch().rowsUpdated().block();
+        Flux.range(0, EVENTI)
+                .concatMap(i -> databaseClient.sql("INSERT INTO evento (id, nome, data, ora_inizio, ora_fine, " +
+                                "location, note, evento_giornaliero, tipologia_evento_id) " +
+                                "VALUES (:id, :nome, :data, :inizio, :fine, :location, 'Note', FALSE, 1)")
+                        .bind("id", (long) i + 1)
+                        .bind("nome", "Evento " + i)
+                        .bind("data", PRIMO_GIORNO.plusDays(i % GIORNI))
+                        .bind("inizio", LocalTime.of(8 + (i / GIORNI) % 12, 0))
+                        .bind("fine", LocalTime.of(9 + (i / GIORNI) % 12, 0))
+                        .bind("location", "Sala " + i)
+                        .fetch().rowsUpdated())
+                .blockLast();
+    }
+
+    /**
+     * Latenze (ns) di "richieste" GET /api/eventi?data= eseguite da CLIENT_ATTIVI client in parallelo
+     */
+    private long[] misuraLatenze(HttpClient http, String token, int richieste) throws Exception {
+        long[] latenze = new long[richieste];
+        try (ExecutorService client = Executors.newFixedThreadPool(CLIENT_ATTIVI)) {
+            List<Future<?>> risultati = new ArrayList<>(richieste);
+            for (int i = 0; i < richieste; i++) {
+                int indice = i;
+                HttpRequest richiesta = HttpRequest.newBuilder(URI.create("http://localhost:" + porta
+                                + "/api/eventi?data=" + PRIMO_GIORNO.plusDays(i % GIORNI)))
+                        .header("Authorization", "Bearer " + token)
+                        .build();
+                risultati.add(client.submit(() -> {
+                    long inizio = System.nanoTime();
+                    HttpResponse<String> risposta = http.send(richiesta, HttpResponse.BodyHandlers.ofString());
+                    latenze[indice] = System.nanoTime() - inizio;
+                    assertEquals(200, risposta.statusCode());
+                    return null;
+                }));
+            }
+            for (Future<?> risultato : risultati) {
+                risultato.get();
+            }
+        }
+        return latenze;
+    }
+
+    /**
+     * Apre una connessione, fa una richiesta, legge la risposta e la lascia aperta (keep-alive)
+     */
+    private Socket apriConnessioneInattiva(String token, int numero) throws IOException {
+        Socket socket = new Socket("localhost", porta);
+        String richiesta = "GET /api/eventi/" + (numero % EVENTI + 1) + " HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Authorization: Bearer " + token + "\r\n" +
+                "Connection: keep-alive\r\n\r\n";
+        socket.getOutputStream().write(richiesta.getBytes(StandardCharsets.US_ASCII));
+        leggiRisposta(socket.getInputStream());
+        return socket;
+    }
+
+    private static void leggiRisposta(InputStream in) throws IOException {
+        String intestazioni = leggiFinoA(in, "\r\n\r\n").toLowerCase(Locale.ROOT);
+        assertEquals(true, intestazioni.startsWith("http/1.1 200"), intestazioni);
+        int contentLength = intestazioni.indexOf("content-length:");
+        if (contentLength >= 0) {
+            int fineRiga = intestazioni.indexOf("\r\n", contentLength);
+            int lunghezza = Integer.parseInt(intestazioni.substring(contentLength + 15, fineRiga).trim());
+            in.readNBytes(lunghezza);
+        } else {
+            // Transfer-Encoding: chunked, termina con il blocco vuoto
+            leggiFinoA(in, "0\r\n\r\n");
+        }
+    }
+
+    private static String leggiFinoA(InputStream in, String terminatore) throws IOException {
+        StringBuilder letto = new StringBuilder();
+        while (letto.length() < terminatore.length()
+                || !letto.substring(letto.length() - terminatore.length()).equals(terminatore)) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connessione chiusa dal server");
+            }
+            letto.append((char) b);
+        }
+        return letto.toString();
+    }
+
+    private static double heapUsatoMb() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0);
+    }
+
+    private static double percentile(long[] latenze, int percentile) {
+        long[] ordinate = latenze.clone();
+        Arrays.sort(ordinate);
+        return ordinate[Math.min(ordinate.length - 1, ordinate.length * percentile / 100)] / 1_000_000.0;
+    }
+}
@@ -7,6 +7,7 @@ import com.eventpro.catering.repository.TipologiaEventoRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation. Configuration;
+import org.springframework.core.annotation.Order;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -28,6 +29,7 @@ import java.time.LocalTime;
  *
  * IMPORTANTE:
  * - Questo DataLoader viene eseguito DOPO DataLoaderTipologiaEvento
+ *   (garantito da @Order(2) contro @Order(1) del loader delle tipologie)
  * - Verifica che le tipologie esistano prima di creare eventi
  * - Per ora, tutti gli eventi hanno cliente = null
  *
@@ -50,6 +52,7 @@ public class DataLoaderEvento {
      * @return CommandLineRunner che esegue la logica di caricamento
      */
     @Bean
+    @Order(2)
     CommandLineRunner initDatabaseEvento(EventoRepository eventoRepository,
                                          TipologiaEventoRepository tipologiaEventoRepository) {
         return args -> {
@@ -5,6 +5,7 @@ import com.eventpro.catering.repository.TipologiaEventoRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 
 /**
  * DATA LOADER PER TIPOLOGIA_EVENTO
@@ -39,6 +40,7 @@ public class DataLoaderTipologiaEvento {
      * @return CommandLineRunner che esegue la logica di caricamento
      */
     @Bean
+    @Order(1)
     CommandLineRunner initDatabaseTipologiaEvento(TipologiaEventoRepository tipologiaEventoRepository) {
         return args -> {
             // Conta quante tipologie esistono già nel database
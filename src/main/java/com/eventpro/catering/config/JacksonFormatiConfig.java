@@ -0,0 +1,43 @@
+package com.eventpro.catering.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * FORMATI BINARI DELLE RISPOSTE (CBOR E SMILE)
+ *
+ * Oltre al JSON, le risposte possono essere codificate in:
+ * - CBOR  (Accept: application/cbor)              standard RFC 8949
+ * - Smile (Accept: application/x-jackson-smile)   formato binario di Jackson
+ *
+ * Stessi oggetti e stessi campi del JSON: cambia solo la codifica (numeri e
+ * lunghezze in binario, niente virgolette né escape). Il client sceglie con
+ * l'header Accept; senza Accept o con application/json la risposta resta JSON.
+ *
+ * COME FUNZIONA:
+ * i due converter partono dallo stesso Jackson2ObjectMapperBuilder configurato
+ * da Spring Boot per il JSON (date ISO, moduli, spring.jackson.*), cambiando
+ * solo la factory. Registrati come bean, Spring Boot li aggiunge ai converter
+ * di Spring MVC al posto di quelli predefiniti.
+ */
+@Configuration
+public class JacksonFormatiConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
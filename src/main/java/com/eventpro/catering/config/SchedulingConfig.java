@@ -0,0 +1,17 @@
+package com.eventpro.catering.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ATTIVA I METODI @Scheduled
+ *
+ * Usati per i lavori periodici in background, ad esempio la riconciliazione
+ * delle statistiche degli eventi con il database (EventoStatisticheService).
+ * Spring Boot li esegue su un proprio pool ("scheduling-*"), separato dai
+ * thread che servono le richieste HTTP.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
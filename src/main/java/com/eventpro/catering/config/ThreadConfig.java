@@ -0,0 +1,56 @@
+package com.eventpro.catering.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+
+/**
+ * MODELLO DI THREAD: PLATFORM THREAD O VIRTUAL THREAD (JAVA 21)
+ *
+ * Il passaggio si fa con UNA proprietà di Spring Boot:
+ *   spring.threads.virtual.enabled=true
+ *
+ * COSA CAMBIA CON I VIRTUAL THREAD:
+ * - Tomcat serve ogni richiesta su un virtual thread invece che su un pool
+ *   di 200 thread: una richiesta ferma su una query non occupa un thread del SO
+ * - Anche i metodi @Scheduled e l'executor applicativo di Boot
+ *   (applicationTaskExecutor) usano virtual thread
+ *
+ * COSA NON CAMBIA:
+ * - Le connessioni al database restano quelle del pool Hikari: con i virtual
+ *   thread il limite reale di richieste che lavorano sul DB in parallelo è
+ *   spring.datasource.hikari.maximum-pool-size, non il numero di thread
+ *
+ * Questa classe non configura nulla: all'avvio scrive nel log il modello
+ * attivo e la dimensione del pool, così da capire subito con cosa gira l'app.
+ */
+@Configuration
+public class ThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThread;
+
+    private final DataSource dataSource;
+
+    public ThreadConfig(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logModelloThread() {
+        String pool = dataSource instanceof HikariDataSource hikari
+                ? hikari.getMaximumPoolSize() + " connessioni (timeout " + hikari.getConnectionTimeout() + " ms)"
+                : dataSource.getClass().getSimpleName();
+        logger.info("Modello di thread: {} (Java {}) - pool database: {}",
+                virtualThread ? "virtual thread" : "platform thread",
+                Runtime.version().feature(), pool);
+    }
+}
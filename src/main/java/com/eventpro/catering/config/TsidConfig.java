@@ -0,0 +1,65 @@
+package com.eventpro.catering.config;
+
+import com.eventpro.catering.model.id.TsidGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+/**
+ * CONFIGURAZIONE DEL GENERATORE DI ID (TSID)
+ *
+ * Gli id delle entity sono generati da TsidGenerator (vedi @Tsid).
+ * Ogni istanza dell'applicazione deve avere un "nodo" diverso (0-1023),
+ * altrimenti due istanze potrebbero generare lo stesso id nello stesso millisecondo.
+ *
+ * COME SI IMPOSTA IL NODO:
+ * 1. Proprietà Spring tsid.node-id (application.properties, -Dtsid.node-id=...
+ *    o variabile d'ambiente TSID_NODE_ID)
+ * 2. Nessuna: nodo casuale scelto all'avvio, ammesso SOLO con i profili dev e h2
+ *
+ * Il valore viene letto e validato solo qui: un valore non numerico o fuori
+ * da 0-1023 blocca l'avvio, invece di far fallire il primo salvataggio.
+ *
+ * Con qualsiasi altro profilo il nodo mancante blocca l'avvio: con un nodo casuale
+ * due istanze hanno una probabilità su 1024 di condividerlo, e a quel punto gli id
+ * duplicati compaiono solo come errori di chiave primaria sotto carico.
+ *
+ * Eseguita durante l'avvio del contesto, prima dei DataLoader e di qualsiasi richiesta.
+ */
+@Configuration
+public class TsidConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TsidConfig.class);
+
+    public TsidConfig(@Value("${tsid.node-id:}") String nodeId, Environment environment) {
+        if (!nodeId.isBlank()) {
+            TsidGenerator.setDefault(new TsidGenerator(nodo(nodeId.trim())));
+        } else if (environment.acceptsProfiles(Profiles.of("dev", "h2"))) {
+            logger.warn("tsid.node-id non impostato: nodo TSID casuale, va bene solo con una istanza");
+        } else {
+            throw new IllegalStateException("tsid.node-id (o TSID_NODE_ID) obbligatorio fuori dai profili "
+                    + "dev e h2: ogni istanza deve avere un nodo diverso (0-" + TsidGenerator.MAX_NODO + ")");
+        }
+        logger.info("Generatore TSID attivo sul nodo {}", TsidGenerator.getDefault().getNodo());
+    }
+
+    /**
+     * @throws IllegalStateException se il valore non è un numero tra 0 e 1023
+     */
+    private static int nodo(String valore) {
+        int nodo;
+        try {
+            nodo = Integer.parseInt(valore);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("tsid.node-id non valido: \"" + valore + "\" non è un numero");
+        }
+        if (nodo < 0 || nodo > TsidGenerator.MAX_NODO) {
+            throw new IllegalStateException("tsid.node-id non valido: " + nodo
+                    + " (ammessi 0-" + TsidGenerator.MAX_NODO + ")");
+        }
+        return nodo;
+    }
+}
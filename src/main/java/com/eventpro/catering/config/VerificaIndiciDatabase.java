@@ -0,0 +1,129 @@
+package com.eventpro.catering.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * VERIFICA ALL'AVVIO DEGLI INDICI DELLA TABELLA EVENTO
+ *
+ * Le query sugli eventi (per data, per intervallo, lista ordinata, cursore)
+ * sono veloci solo se esistono gli indici creati dalle migrazioni
+ * V2__indici_evento.sql e V3__modifiche_evento.sql. Un indice mancante non dà errori: le query
+ * funzionano lo stesso, ma fanno full scan e rallentano con la crescita
+ * della tabella. Meglio accorgersene subito.
+ *
+ * COME FUNZIONA:
+ * 1. Viene eseguita dopo le migrazioni Flyway (@DependsOnDatabaseInitialization)
+ * 2. Legge gli indici di "evento" dai metadati JDBC (funziona su H2 e MySQL)
+ * 3. Per ogni indice atteso controlla che esista e che inizi con le colonne previste
+ *    (colonne aggiuntive in coda sono ammesse)
+ * 4. Se qualcosa manca lancia IllegalStateException → l'applicazione NON si avvia
+ *
+ * Disattivabile con database.verifica-indici.abilitata=false (es. durante una
+ * manutenzione in cui gli indici vengono ricreati).
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class VerificaIndiciDatabase {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificaIndiciDatabase.class);
+
+    private static final String TABELLA = "evento";
+
+    /**
+     * Nome indice → colonne iniziali attese (nell'ordine)
+     */
+    static final Map<String, List<String>> INDICI_ATTESI = new LinkedHashMap<>();
+
+    static {
+        INDICI_ATTESI.put("idx_evento_lista", List.of("data", "ora_inizio", "id"));
+        INDICI_ATTESI.put("idx_evento_tipologia", List.of("tipologia_evento_id", "data"));
+        INDICI_ATTESI.put("idx_evento_location", List.of("location", "data"));
+        INDICI_ATTESI.put("idx_evento_modifica", List.of("versione_modifica", "id"));
+    }
+
+    private final DataSource dataSource;
+
+    @Value("${database.verifica-indici.abilitata:true}")
+    private boolean abilitata;
+
+    public VerificaIndiciDatabase(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void verifica() throws SQLException {
+        if (!abilitata) {
+            logger.warn("Verifica degli indici su '{}' disattivata", TABELLA);
+            return;
+        }
+
+        Map<String, List<String>> presenti = leggiIndici();
+        List<String> problemi = new ArrayList<>();
+
+        INDICI_ATTESI.forEach((nome, colonne) -> {
+            List<String> trovate = presenti.get(nome);
+            if (trovate == null) {
+                problemi.add(nome + " mancante (atteso su " + colonne + ")");
+            } else if (trovate.size() < colonne.size() || !trovate.subList(0, colonne.size()).equals(colonne)) {
+                problemi.add(nome + " su " + trovate + " invece di " + colonne);
+            }
+        });
+
+        if (!problemi.isEmpty()) {
+            throw new IllegalStateException("Indici non validi sulla tabella " + TABELLA + ": "
+                    + String.join("; ", problemi)
+                    + ". Eseguire le migrazioni in db/migration o controllare lo schema.");
+        }
+        logger.info("Indici sulla tabella '{}' verificati: {}", TABELLA, INDICI_ATTESI.keySet());
+    }
+
+    /**
+     * LEGGE GLI INDICI DELLA TABELLA DAI METADATI JDBC
+     *
+     * @return Nome indice (minuscolo) → colonne nell'ordine dell'indice (minuscole)
+     */
+    private Map<String, List<String>> leggiIndici() throws SQLException {
+        Map<String, TreeMap<Short, String>> perPosizione = new HashMap<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // H2 salva i nomi non quotati in maiuscolo, MySQL così come sono scritti
+            String tabella = metaData.storesUpperCaseIdentifiers() ? TABELLA.toUpperCase(Locale.ROOT) : TABELLA;
+
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    tabella, false, false)) {
+                while (rs.next()) {
+                    String indice = rs.getString("INDEX_NAME");
+                    String colonna = rs.getString("COLUMN_NAME");
+                    if (indice == null || colonna == null) {
+                        continue; // righe di statistica della tabella
+                    }
+                    perPosizione.computeIfAbsent(indice.toLowerCase(Locale.ROOT), k -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), colonna.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        Map<String, List<String>> indici = new HashMap<>();
+        perPosizione.forEach((nome, colonne) -> indici.put(nome, new ArrayList<>(colonne.values())));
+        return indici;
+    }
+}
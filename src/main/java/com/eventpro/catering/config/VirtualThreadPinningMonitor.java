@@ -0,0 +1,100 @@
+package com.eventpro.catering.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DIAGNOSTICA DEL "PINNING" DEI VIRTUAL THREAD
+ *
+ * Un virtual thread che si blocca (I/O, lock) normalmente si "stacca" dal
+ * thread del SO che lo esegue, lasciandolo libero per altri. Non ci riesce
+ * quando il blocco avviene dentro un blocco synchronized o in codice nativo:
+ * in quel caso resta "inchiodato" (pinned) e il thread del SO resta fermo
+ * con lui. Con pochi thread del SO (uno per core) bastano poche richieste
+ * inchiodate su una query per fermare l'intera applicazione.
+ *
+ * COME FUNZIONA:
+ * - Uno stream JFR (Java Flight Recorder) in-process ascolta l'evento
+ *   jdk.VirtualThreadPinned, emesso dalla JVM quando un virtual thread resta
+ *   inchiodato più di "diagnostica.pinning.soglia-ms"
+ * - Ogni evento finisce nel log (WARN) con i primi frame dello stack, che
+ *   indicano il synchronized da sostituire con un ReentrantLock
+ *
+ * Attivo solo con spring.threads.virtual.enabled=true. In alternativa, senza
+ * codice: avviare la JVM con -Djdk.tracePinnedThreads=short (stampa su stdout).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "diagnostica.pinning.abilitata", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENTO_PINNING = "jdk.VirtualThreadPinned";
+    private static final int FRAME_NEL_LOG = 6;
+
+    @Value("${diagnostica.pinning.soglia-ms:20}")
+    private long sogliaMs;
+
+    private final LongAdder eventiPinning = new LongAdder();
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void avvia() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO_PINNING)
+                .withThreshold(Duration.ofMillis(sogliaMs))
+                .withStackTrace();
+        stream.onEvent(EVENTO_PINNING, this::registra);
+        stream.startAsync();
+        logger.info("Monitor del pinning dei virtual thread attivo (soglia {} ms)", sogliaMs);
+    }
+
+    @PreDestroy
+    public void ferma() {
+        if (stream != null) {
+            stream.close();
+        }
+        if (eventiPinning.sum() > 0) {
+            logger.warn("Virtual thread inchiodati durante l'esecuzione: {}", eventiPinning.sum());
+        }
+    }
+
+    /**
+     * Numero di pinning sopra soglia dall'avvio
+     */
+    public long getEventiPinning() {
+        return eventiPinning.sum();
+    }
+
+    private void registra(RecordedEvent evento) {
+        eventiPinning.increment();
+        StringBuilder stack = new StringBuilder();
+        RecordedStackTrace stackTrace = evento.getStackTrace();
+        if (stackTrace != null) {
+            List<RecordedFrame> frame = stackTrace.getFrames();
+            for (int i = 0; i < Math.min(FRAME_NEL_LOG, frame.size()); i++) {
+                RecordedFrame f = frame.get(i);
+                stack.append("\n    at ").append(f.getMethod().getType().getName())
+                        .append('.').append(f.getMethod().getName())
+                        .append(" (riga ").append(f.getLineNumber()).append(')');
+            }
+        }
+        logger.warn("Virtual thread inchiodato per {} ms{}", evento.getDuration().toMillis(), stack);
+    }
+}
@@ -2,45 +2,87 @@ package com.eventpro.catering.controller;
 
 import com.eventpro.catering.dto.AuthResponse;
 import com.eventpro.catering.dto.LoginRequest;
+import com.eventpro.catering.dto.RegisterRequest;
+import com.eventpro.catering.exception.ServizioSovraccaricoException;
 import com.eventpro.catering.model.Utente;
 import com.eventpro.catering.repository.UtenteRepository;
 import com.eventpro.catering.security.JwtService;
+import com.eventpro.catering.security.PasswordHashingExecutor;
+import com.eventpro.catering.security.SecurityStampService;
+import com.eventpro.catering.security.TokenRevocationService;
+import com.eventpro.catering.security.UtenteAutenticato;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 /**
  * CONTROLLER PER AUTENTICAZIONE E REGISTRAZIONE
  *
  * Gestisce gli endpoint per:
  * - Registrazione nuovi utenti
  * - Login utenti esistenti (con generazione JWT)
+ * - Logout (revoca del token) e logout da tutti i dispositivi
  *
- * Tutti gli endpoint sono sotto il path /api/auth
+ * Tutti gli endpoint sono sotto il path /api/auth.
+ * Registrazione e login usano BCrypt in PasswordHashingExecutor (pool
+ * separato dai thread di Tomcat). Quando il pool non riesce a servirli la
+ * risposta è 503 SERVICE UNAVAILABLE con header Retry-After (secondi):
+ * - coda piena: rifiuto immediato, prima di qualsiasi lavoro
+ *   (ServizioSovraccaricoException → GlobalExceptionHandler)
+ * - richiesta rimasta in coda oltre "auth.hash.attesa-massima-ms", oppure
+ *   applicazione in chiusura: il future fallisce e la risposta è la stessa
+ * Il client riprova dopo Retry-After; non è un errore delle credenziali.
  */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     private final UtenteRepository utenteRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;  // AGGIUNTO: Service per gestire JWT
+    private final SecurityStampService securityStampService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    // Executor applicativo di Spring Boot: salvataggio dell'utente dopo l'hash
+    private final Executor applicationTaskExecutor;
 
     // Costruttore per dependency injection
     public AuthController(UtenteRepository utenteRepository,
                           PasswordEncoder passwordEncoder,
                           AuthenticationManager authenticationManager,
-                          JwtService jwtService) {  // AGGIUNTO: Inietta JwtService
+                          JwtService jwtService,  // AGGIUNTO: Inietta JwtService
+                          SecurityStampService securityStampService,
+                          TokenRevocationService tokenRevocationService,
+                          PasswordHashingExecutor passwordHashingExecutor,
+                          @Qualifier("applicationTaskExecutor") Executor applicationTaskExecutor) {
         this.utenteRepository = utenteRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.securityStampService = securityStampService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.applicationTaskExecutor = applicationTaskExecutor;
     }
 
     /**
@@ -48,43 +90,66 @@ public class AuthController {
      *
      * POST /api/auth/register
      *
-     * Riceve i dati dell'utente, cripta la password con BCrypt
-     * e salva l'utente nel database.
+     * Riceve email e password, cripta la password con BCrypt
+     * e salva l'utente nel database. Ruolo (USER), abilitazione e security
+     * stamp iniziale li assegna il server: il body non può sceglierli.
+     *
+     * RISPOSTE:
+     * - 201 CREATED: utente registrato
+     * - 400 BAD REQUEST: email o password mancanti, email già registrata (anche se registrata da una
+     *   richiesta concorrente dopo il controllo iniziale: vincolo unico sull'email)
+     * - 500 INTERNAL SERVER ERROR: messaggio generico, il dettaglio è nel log
+     * - 503 SERVICE UNAVAILABLE + Retry-After: pool BCrypt saturo (coda piena
+     *   o attesa troppo lunga), riprovare dopo i secondi indicati
      *
-     * @param utente I dati dell'utente da registrare (email, password, nome, cognome, role)
+     * @param registerRequest DTO con email e password
      * @return ResponseEntity con messaggio di successo o errore
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Utente utente) {
-        try {
-            // Verifica se l'email esiste già
-            if (utenteRepository.existsByEmail(utente.getEmail())) {
-                return ResponseEntity
-                        .status(HttpStatus.BAD_REQUEST)
-                        .body(new AuthResponse("Email già registrata"));
-            }
-
-            // Cripta la password con BCrypt prima di salvare
-            String passwordCriptata = passwordEncoder.encode(utente.getPassword());
-            utente.setPassword(passwordCriptata);
-
-            // Se il ruolo non è specificato, assegna un ruolo di default
-            if (utente.getRole() == null || utente.getRole().isEmpty()) {
-                utente.setRole("USER");
-            }
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest registerRequest) {
+        String email = registerRequest.getEmail();
+        String password = registerRequest.getPassword();
+        if (email == null || email.isBlank() || password == null || password.isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new AuthResponse("Email e password sono obbligatorie")));
+        }
 
-            // Salva l'utente nel database
-            Utente utenteRegistrato = utenteRepository.save(utente);
+        // Verifica se l'email esiste già
+        if (utenteRepository.existsByEmail(email)) {
+            return CompletableFuture.completedFuture(ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(new AuthResponse("Email già registrata")));
+        }
 
-            return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body(new AuthResponse("Registrazione completata con successo"));
+        // Cripta la password con BCrypt nel pool dedicato (coda piena → 503).
+        // Solo encode gira lì: il salvataggio passa all'executor applicativo,
+        // così il pool e il suo tempo di attesa restano per BCrypt
+        return passwordHashingExecutor.esegui("registrazione", () -> passwordEncoder.encode(password))
+                .thenApplyAsync(passwordCriptata -> {
+                    // Sempre ruolo USER; abilitato e security stamp iniziale sono i default di Utente
+                    utenteRepository.save(new Utente(email, passwordCriptata, "USER"));
 
-        } catch (Exception e) {
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new AuthResponse("Errore durante la registrazione: " + e.getMessage()));
-        }
+                    return ResponseEntity
+                            .status(HttpStatus.CREATED)
+                            .body(new AuthResponse("Registrazione completata con successo"));
+                }, applicationTaskExecutor)
+                .exceptionally(e -> {
+                    if (causa(e) instanceof ServizioSovraccaricoException sovraccarico) {
+                        return serviceUnavailable(sovraccarico);
+                    }
+                    if (causa(e) instanceof DataIntegrityViolationException) {
+                        // Stessa email registrata da un'altra richiesta dopo il controllo existsByEmail
+                        return ResponseEntity
+                                .status(HttpStatus.BAD_REQUEST)
+                                .body(new AuthResponse("Email già registrata"));
+                    }
+                    // Il dettaglio (SQL, Hibernate) resta nel log, non va a un chiamante anonimo
+                    logger.error("Errore durante la registrazione", causa(e));
+                    return ResponseEntity
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new AuthResponse("Errore durante la registrazione"));
+                });
     }
 
     /**
@@ -107,42 +172,157 @@ public class AuthController {
      * 5. Restituisce il token nel campo "accessToken" dell'AuthResponse
      * 6. Se le credenziali sono sbagliate, lancia AuthenticationException
      *
+     * I passi 3-5 girano in PasswordHashingExecutor: il thread della richiesta
+     * non resta bloccato su BCrypt.
+     *
+     * RISPOSTE:
+     * - 200 OK: token JWT in "accessToken"
+     * - 401 UNAUTHORIZED: email o password non corretti
+     * - 500 INTERNAL SERVER ERROR: messaggio generico, il dettaglio è nel log
+     * - 503 SERVICE UNAVAILABLE + Retry-After: pool BCrypt saturo (coda piena
+     *   o attesa troppo lunga), riprovare dopo i secondi indicati
+     *
      * @param loginRequest DTO con email e password
      * @return ResponseEntity con token JWT o messaggio di errore
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        try {
-            // Crea un token di autenticazione con email e password
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()
-                    );
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@RequestBody LoginRequest loginRequest) {
+        // Crea un token di autenticazione con email e password
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        loginRequest.getEmail(),
+                        loginRequest.getPassword()
+                );
 
-            // AuthenticationManager verifica le credenziali
-            // Se le credenziali sono sbagliate, lancia un'eccezione
-            Authentication authentication = authenticationManager.authenticate(authToken);
+        // AuthenticationManager verifica le credenziali nel pool dedicato a BCrypt
+        // (coda piena → 503); se le credenziali sono sbagliate il future fallisce
+        return passwordHashingExecutor.esegui("login", () -> authenticationManager.authenticate(authToken))
+                .thenApply(authentication -> {
+                    // MODIFICATO: Se arriviamo qui, le credenziali sono corrette
+                    // Genera il token JWT con email, id, ruoli e security stamp dell'utente:
+                    // le richieste successive si autenticano dai claims, senza leggere UTENTE
+                    UtenteAutenticato utente = (UtenteAutenticato) authentication.getPrincipal();
+                    List<String> ruoli = utente.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .toList();
+                    String jwtToken = jwtService.generateToken(utente.getUsername(), utente.getId(), ruoli,
+                            utente.getSecurityStamp());
+                    securityStampService.aggiorna(utente.getId(), utente.getSecurityStamp(), utente.isEnabled());
 
-            // MODIFICATO: Se arriviamo qui, le credenziali sono corrette
-            // Genera il token JWT usando l'email dell'utente
-            String jwtToken = jwtService.generateToken(loginRequest.getEmail());
-
-            // MODIFICATO: Restituisce il token JWT nell'AuthResponse
-            return ResponseEntity.ok(
-                    new AuthResponse("Login effettuato con successo", jwtToken)
-            );
+                    // MODIFICATO: Restituisce il token JWT nell'AuthResponse
+                    return ResponseEntity.ok(
+                            new AuthResponse("Login effettuato con successo", jwtToken)
+                    );
+                })
+                .exceptionally(e -> {
+                    if (causa(e) instanceof ServizioSovraccaricoException sovraccarico) {
+                        return serviceUnavailable(sovraccarico);
+                    }
+                    if (causa(e) instanceof AuthenticationException) {
+                        // Credenziali sbagliate
+                        return ResponseEntity
+                                .status(HttpStatus.UNAUTHORIZED)
+                                .body(new AuthResponse("Email o password non corretti"));
+                    }
+                    // Altri errori: il dettaglio resta nel log
+                    logger.error("Errore durante il login", causa(e));
+                    return ResponseEntity
+                            .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new AuthResponse("Errore durante il login"));
+                });
+    }
 
-        } catch (AuthenticationException e) {
-            // Credenziali sbagliate
+    /**
+     * LOGOUT: REVOCA IL TOKEN DELLA RICHIESTA
+     *
+     * POST /api/auth/logout con header Authorization: Bearer <token>
+     *
+     * Da questo momento il token viene rifiutato (401) anche se non è
+     * ancora scaduto. La revoca è salvata nel database (tabella
+     * token_revocato) e sopravvive ai riavvii.
+     *
+     * RISPOSTE:
+     * - 200 OK: token revocato (anche se lo era già)
+     * - 401 UNAUTHORIZED: header mancante o token non valido / scaduto
+     *
+     * @param authorization Header Authorization della richiesta
+     * @return ResponseEntity con l'esito
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        JwtService.VerifiedToken token = tokenDaHeader(authorization);
+        if (token == null) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
-                    .body(new AuthResponse("Email o password non corretti"));
-        } catch (Exception e) {
-            // Altri errori
+                    .body(new AuthResponse("Token mancante o non valido"));
+        }
+        tokenRevocationService.revoca(token.tokenId(), token.expiresAt());
+        return ResponseEntity.ok(new AuthResponse("Logout effettuato con successo"));
+    }
+
+    /**
+     * LOGOUT DA TUTTI I DISPOSITIVI
+     *
+     * POST /api/auth/logout-all con header Authorization: Bearer <token>
+     *
+     * Cambia il security stamp dell'utente: TUTTI i suoi token emessi finora
+     * smettono di funzionare (es. telefono perso, password compromessa).
+     * Per continuare serve un nuovo login.
+     *
+     * RISPOSTE:
+     * - 200 OK: sessioni revocate
+     * - 401 UNAUTHORIZED: header mancante, token non valido o utente inesistente
+     *
+     * @param authorization Header Authorization della richiesta
+     * @return ResponseEntity con l'esito
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<AuthResponse> logoutOvunque(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        JwtService.VerifiedToken token = tokenDaHeader(authorization);
+        Utente utente = token != null && !tokenRevocationService.isRevocato(token.tokenId())
+                ? utenteRepository.findByEmail(token.subject()).orElse(null)
+                : null;
+        if (utente == null) {
             return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new AuthResponse("Errore durante il login: " + e.getMessage()));
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new AuthResponse("Token mancante o non valido"));
+        }
+        // Il nuovo stamp arriva in memoria dopo il commit (UtenteListener)
+        utente.revocaSessioni();
+        utenteRepository.save(utente);
+        return ResponseEntity.ok(new AuthResponse("Logout effettuato su tutti i dispositivi"));
+    }
+
+    /**
+     * 503 con Retry-After, come GlobalExceptionHandler per il rifiuto immediato
+     */
+    private static ResponseEntity<AuthResponse> serviceUnavailable(ServizioSovraccaricoException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRiprovaTra().toSeconds())))
+                .body(new AuthResponse(e.getMessage()));
+    }
+
+    /**
+     * Errore originale di un future fallito (senza il CompletionException che lo avvolge)
+     */
+    private static Throwable causa(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Token verificato dall'header "Bearer ..." (null se manca o non è valido)
+     */
+    private JwtService.VerifiedToken tokenDaHeader(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            return jwtService.verify(authorization.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 }
@@ -1,14 +1,41 @@
 package com.eventpro.catering.controller;
 
+import com.eventpro.catering.config.JacksonFormatiConfig;
+import com.eventpro.catering.dto.CalendarioDTO;
+import com.eventpro.catering.dto.DisponibilitaDTO;
+import com.eventpro.catering.dto.EventoBatchResponseDTO;
+import com.eventpro.catering.dto.EventoListaCompattaDTO;
+import com.eventpro.catering.dto.EventoModificheDTO;
+import com.eventpro.catering.dto.EventoPageDTO;
 import com.eventpro.catering.dto.EventoRequestDTO;
 import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.dto.StatisticheEventiDTO;
+import com.eventpro.catering.repository.EventoVersione;
+import com.eventpro.catering.service.EventoCalendarioIndex;
+import com.eventpro.catering.service.EventoDisponibilitaService;
+import com.eventpro.catering.service.EventoEtagService;
+import com.eventpro.catering.service.EventoExportService;
+import com.eventpro.catering.service.EventoJsonCache;
+import com.eventpro.catering.service.EventoModificheService;
+import com.eventpro.catering.service.EventoNotificheService;
+import com.eventpro.catering.service.EventoSearchIndex;
 import com.eventpro.catering.service.EventoService;
+import com.eventpro.catering.service.EventoStatisticheService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Locale;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -17,7 +44,18 @@ import org.springframework.web.bind.annotation.RequestParam;
  *
  * Espone gli endpoint:
  * - POST /api/eventi      -> crea un nuovo evento
+ * - POST /api/eventi/batch -> crea più eventi in una sola transazione
+ * - PUT  /api/eventi/{id} -> modifica un evento esistente
+ * - DELETE /api/eventi/{id} -> elimina un evento
  * - GET  /api/eventi/{id} -> restituisce il dettaglio di un evento
+ * - GET  /api/eventi/search?q= -> ricerca testuale su nome, location e note
+ * - GET  /api/eventi/disponibilita -> finestre libere in un range di date
+ * - GET  /api/eventi/calendario/mese, /anno -> heatmap dei giorni occupati
+ * - GET  /api/eventi/stats -> statistiche per la dashboard
+ * - GET  /api/eventi/changes?since= -> solo le modifiche dopo una versione (sincronizzazione delta)
+ * - GET  /api/eventi/stream -> notifiche push (SSE) di creazioni, modifiche ed eliminazioni
+ * - GET  /api/eventi      -> lista eventi (per data, paginata con cursore, o completa deprecata)
+ * - GET  /api/eventi/export -> export NDJSON/CSV in streaming di un range di date
  *
  * Nessuna logica di utenti, solo gestione eventi.
  */
@@ -26,9 +64,36 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class EventoController {
 
     private final EventoService eventoService;
+    private final EventoExportService eventoExportService;
+    private final EventoEtagService eventoEtagService;
+    private final EventoSearchIndex eventoSearchIndex;
+    private final EventoDisponibilitaService eventoDisponibilitaService;
+    private final EventoCalendarioIndex eventoCalendarioIndex;
+    private final EventoStatisticheService eventoStatisticheService;
+    private final EventoJsonCache eventoJsonCache;
+    private final EventoModificheService eventoModificheService;
+    private final EventoNotificheService eventoNotificheService;
 
-    public EventoController(EventoService eventoService) {
+    public EventoController(EventoService eventoService,
+                            EventoExportService eventoExportService,
+                            EventoEtagService eventoEtagService,
+                            EventoSearchIndex eventoSearchIndex,
+                            EventoDisponibilitaService eventoDisponibilitaService,
+                            EventoCalendarioIndex eventoCalendarioIndex,
+                            EventoStatisticheService eventoStatisticheService,
+                            EventoJsonCache eventoJsonCache,
+                            EventoModificheService eventoModificheService,
+                            EventoNotificheService eventoNotificheService) {
         this.eventoService = eventoService;
+        this.eventoExportService = eventoExportService;
+        this.eventoEtagService = eventoEtagService;
+        this.eventoSearchIndex = eventoSearchIndex;
+        this.eventoDisponibilitaService = eventoDisponibilitaService;
+        this.eventoCalendarioIndex = eventoCalendarioIndex;
+        this.eventoStatisticheService = eventoStatisticheService;
+        this.eventoJsonCache = eventoJsonCache;
+        this.eventoModificheService = eventoModificheService;
+        this.eventoNotificheService = eventoNotificheService;
     }
 
     /**
@@ -45,29 +110,354 @@ public class EventoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * CREA PIÙ EVENTI IN UNA SOLA RICHIESTA
+     *
+     * POST /api/eventi/batch
+     * Body: [ {EventoRequestDTO}, {EventoRequestDTO}, ... ]
+     *
+     * Tutto o niente: gli elementi vengono validati tutti prima di salvare;
+     * se anche uno solo non è valido non viene salvato nessun evento.
+     *
+     * RISPOSTE:
+     * - 201 CREATED: tutti gli eventi creati, un esito "CREATO" per elemento
+     * - 400 BAD REQUEST: almeno un elemento non valido, esito "ERRORE" con il
+     *   messaggio sugli elementi sbagliati e "VALIDO" sugli altri
+     *   (oppure lista vuota / troppo lunga, gestito dal GlobalExceptionHandler)
+     *
+     * @param richieste Lista degli eventi da creare
+     * @return EventoBatchResponseDTO con l'esito di ogni elemento
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<EventoBatchResponseDTO> createEventiBatch(@RequestBody List<EventoRequestDTO> richieste) {
+        EventoBatchResponseDTO response = eventoService.createEventiBatch(richieste);
+        HttpStatus status = response.getErrori() > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    /**
+     * MODIFICA UN EVENTO ESISTENTE
+     *
+     * PUT /api/eventi/{id}
+     * Body: EventoRequestDTO completo (tutti i campi vengono sovrascritti)
+     *
+     * RISPOSTE:
+     * - 200 OK: evento modificato, con il nuovo ETag
+     * - 400 BAD REQUEST: dati non validi
+     * - 404 NOT FOUND: evento inesistente
+     * - 409 CONFLICT: evento modificato nel frattempo da un'altra richiesta,
+     *   oppure location già occupata nel nuovo orario
+     *
+     * @param id ID dell'evento
+     * @param request Nuovi dati dell'evento
+     * @return EventoResponseDTO aggiornato
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<EventoResponseDTO> updateEvento(@PathVariable Long id,
+                                                          @RequestBody EventoRequestDTO request) {
+        EventoResponseDTO response = eventoService.updateEvento(id, request);
+        return ResponseEntity.ok()
+                .eTag(eventoEtagService.etagEvento(response.getId(), response.getVersione()))
+                .body(response);
+    }
+
+    /**
+     * ELIMINA UN EVENTO
+     *
+     * DELETE /api/eventi/{id}
+     *
+     * RISPOSTE:
+     * - 204 NO CONTENT: evento eliminato
+     * - 404 NOT FOUND: evento inesistente
+     *
+     * @param id ID dell'evento
+     * @return Risposta vuota
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteEvento(@PathVariable Long id) {
+        eventoService.deleteEvento(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * STATISTICHE DEGLI EVENTI PER LA DASHBOARD
+     *
+     * GET /api/eventi/stats
+     * GET /api/eventi/stats?anno=2024
+     *
+     * Totale, eventi giornalieri, conteggi per tipologia e per mese.
+     * Risponde dai contatori in memoria (EventoStatisticheService): nessuna query.
+     *
+     * @param anno Solo gli eventi di quest'anno (opzionale)
+     * @return Statistiche correnti
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StatisticheEventiDTO> getStatistiche(@RequestParam(required = false) Integer anno) {
+        return ResponseEntity.ok(eventoStatisticheService.getStatistiche(anno));
+    }
+
+    /**
+     * MODIFICHE AGLI EVENTI DOPO UNA VERSIONE (SINCRONIZZAZIONE DELTA)
+     *
+     * GET /api/eventi/changes?since=0           → prima sincronizzazione (tutti gli eventi)
+     * GET /api/eventi/changes?since=41          → solo creati/modificati/eliminati dopo la 41
+     * GET /api/eventi/changes?cursor=...        → pagina successiva (se hasNext = true)
+     *
+     * Il client salva il campo "versione" della risposta e lo rimanda come
+     * since la volta successiva. Se non è cambiato niente la risposta è vuota
+     * e arriva dalla memoria, senza query (vedi EventoModificheService).
+     *
+     * POSSIBILI ERRORI:
+     * - 400 BAD REQUEST: since e cursor mancanti, since negativo, limit <= 0, cursore non valido
+     *
+     * @param since Ultima versione ricevuta (0 = tutto)
+     * @param cursor Cursore della pagina precedente (opzionale)
+     * @param limit Massimo di modifiche nella risposta (opzionale)
+     * @return Eventi modificati ed eliminati, con la nuova versione
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<EventoModificheDTO> getModifiche(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(eventoModificheService.getModifiche(since, cursor, limit));
+    }
+
+    /**
+     * NOTIFICHE PUSH DELLE MODIFICHE (SERVER-SENT EVENTS)
+     *
+     * GET /api/eventi/stream                                   → tutte le modifiche
+     * GET /api/eventi/stream?da=2024-06-01&a=2024-06-30        → solo eventi di giugno
+     * GET /api/eventi/stream?tipologiaId=1&tipologiaId=3       → solo queste tipologie
+     *
+     * La connessione resta aperta (text/event-stream). Eventi SSE:
+     * - "connesso": { "versione": 42 } appena aperta, da usare come since
+     *   per GET /api/eventi/changes (recupera quanto perso offline)
+     * - "evento": una notifica (EventoNotificaDTO) dopo ogni commit
+     * - "resync": il client era troppo lento e alcune notifiche sono state
+     *   scartate → rileggere GET /api/eventi/changes?since=<ultima versione>
+     * - commento ": ping" periodico (heartbeat, da ignorare)
+     *
+     * Con la connessione aperta il client non deve più interrogare /api/eventi
+     * a intervalli.
+     *
+     * POSSIBILI ERRORI:
+     * - 400 BAD REQUEST: da successiva ad a, date non valide
+     * - 503 SERVICE UNAVAILABLE: troppe connessioni aperte (header Retry-After)
+     *
+     * @param da Solo eventi da questa data (opzionale)
+     * @param a Solo eventi fino a questa data (opzionale)
+     * @param tipologiaId Solo eventi di queste tipologie (opzionale, ripetibile)
+     * @return Stream SSE delle notifiche
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamModifiche(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate da,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate a,
+            @RequestParam(required = false) List<Long> tipologiaId) {
+        return eventoNotificheService.iscrivi(da, a, tipologiaId);
+    }
+
+    /**
+     * RICERCA TESTUALE DEGLI EVENTI
+     *
+     * GET /api/eventi/search?q=matrimonio roma
+     * GET /api/eventi/search?q=villa&limit=50
+     *
+     * Cerca in nome, location e note con l'indice in memoria (EventoSearchIndex):
+     * nessuna query al database. Tutti i termini devono comparire (AND);
+     * maiuscole e accenti non contano e un termine trova anche le parole
+     * che lo contengono ("mat" → "Matrimonio").
+     *
+     * POSSIBILI ERRORI:
+     * - 400 BAD REQUEST: q mancante o vuoto, limit <= 0
+     *
+     * @param q Testo da cercare
+     * @param limit Numero massimo di risultati (opzionale)
+     * @return Eventi trovati, ordinati per data e ora di inizio
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<EventoResponseDTO>> cercaEventi(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(eventoSearchIndex.cerca(q, limit));
+    }
+
+    /**
+     * CERCA LE FINESTRE LIBERE IN UN RANGE DI DATE
+     *
+     * GET /api/eventi/disponibilita?da=2027-01-01&a=2027-12-31&giorni=sabato
+     *     &oraInizio=18:00&oraFine=23:00&location=Villa Roma&soloLiberi=true
+     *
+     * Un anno intero in una sola chiamata (e una sola query): per ogni data
+     * dice se la fascia oraria è libera e quali finestre libere restano.
+     *
+     * POSSIBILI ERRORI:
+     * - 400 BAD REQUEST: date mancanti o invertite, più di 366 giorni,
+     *   fascia oraria vuota, giorno della settimana non riconosciuto
+     *
+     * @param da Prima data (inclusa)
+     * @param a Ultima data (inclusa)
+     * @param giorni Giorni della settimana, ripetuto o separato da virgole (opzionale)
+     * @param oraInizio Inizio della fascia oraria (opzionale, default 00:00)
+     * @param oraFine Fine della fascia oraria (opzionale, default fine giornata)
+     * @param location Location da verificare (opzionale)
+     * @param tipologiaId Considera solo gli eventi di questa tipologia (opzionale)
+     * @param durataMinima Minuti minimi di una finestra libera (opzionale)
+     * @param soloLiberi Solo i giorni con la fascia completamente libera
+     * @return Disponibilità giorno per giorno
+     */
+    @GetMapping("/disponibilita")
+    public ResponseEntity<DisponibilitaDTO> cercaDisponibilita(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate da,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate a,
+            @RequestParam(required = false) List<String> giorni,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime oraInizio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime oraFine,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Long tipologiaId,
+            @RequestParam(required = false) Integer durataMinima,
+            @RequestParam(defaultValue = "false") boolean soloLiberi) {
+        return ResponseEntity.ok(eventoDisponibilitaService.cerca(
+                da, a, giorni, oraInizio, oraFine, location, tipologiaId, durataMinima, soloLiberi));
+    }
+
+    /**
+     * HEATMAP DI UN MESE: NUMERO DI EVENTI PER GIORNO
+     *
+     * GET /api/eventi/calendario/mese?anno=2027&mese=6
+     * GET /api/eventi/calendario/mese?anno=2027&mese=6&tipologiaId=3   (solo matrimoni)
+     *
+     * Risponde dal calendario in memoria, nessuna query al database.
+     *
+     * POSSIBILI ERRORI:
+     * - 400 BAD REQUEST: anno o mese non validi
+     *
+     * @param anno Anno
+     * @param mese Mese (1-12)
+     * @param tipologiaId Solo eventi di queste tipologie (opzionale, ripetibile)
+     * @return Un contatore per ogni giorno del mese
+     */
+    @GetMapping("/calendario/mese")
+    public ResponseEntity<CalendarioDTO> calendarioMese(
+            @RequestParam int anno,
+            @RequestParam int mese,
+            @RequestParam(required = false) List<Long> tipologiaId) {
+        return ResponseEntity.ok(eventoCalendarioIndex.mese(anno, mese, tipologiaId));
+    }
+
+    /**
+     * HEATMAP DI UN ANNO: NUMERO DI EVENTI PER GIORNO
+     *
+     * GET /api/eventi/calendario/anno?anno=2027
+     *
+     * Come la vista mensile, con 365 (o 366) contatori.
+     *
+     * @param anno Anno
+     * @param tipologiaId Solo eventi di queste tipologie (opzionale, ripetibile)
+     * @return Un contatore per ogni giorno dell'anno
+     */
+    @GetMapping("/calendario/anno")
+    public ResponseEntity<CalendarioDTO> calendarioAnno(
+            @RequestParam int anno,
+            @RequestParam(required = false) List<Long> tipologiaId) {
+        return ResponseEntity.ok(eventoCalendarioIndex.anno(anno, tipologiaId));
+    }
+
     /**
      * RESTITUISCE IL DETTAGLIO DI UN EVENTO PER ID
      *
      * GET /api/eventi/{id}
      *
+     * Il JSON arriva già serializzato da EventoJsonCache: se l'evento è in
+     * cache la richiesta non esegue query e non usa Jackson.
+     *
+     * SENZA If-None-Match: l'evento (dalla cache o con una query) e l'ETag
+     * calcolato dalla sua versione, nessuna lettura in più.
+     *
+     * RICHIESTA CONDIZIONALE (If-None-Match):
+     * 1. Legge solo (id, versione, data) per chiave primaria
+     * 2. Se l'ETag coincide → 304 Not Modified, senza body
+     * 3. Altrimenti restituisce l'evento come sopra, con il nuovo ETag
+     *
+     * Gli eventi con data passata hanno un Cache-Control lungo (non cambiano più).
+     *
+     * FORMATI: con Accept: application/cbor o application/x-jackson-smile
+     * l'evento viene serializzato nel formato binario richiesto (vedi
+     * JacksonFormatiConfig); la cache contiene solo JSON.
+     *
      * @param id ID dell'evento
-     * @return EventoResponseDTO con HTTP 200 (o 404 gestito dal GlobalExceptionHandler)
+     * @param ifNoneMatch Header If-None-Match (opzionale)
+     * @param request Richiesta corrente (per il confronto dell'ETag)
+     * @return JSON di EventoResponseDTO con HTTP 200, 304 se non modificato
+     *         (o 404 gestito dal GlobalExceptionHandler)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EventoResponseDTO> getEventoById(@PathVariable Long id) {
-        EventoResponseDTO response = eventoService.getEventoById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> getEventoById(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           WebRequest request) {
+        String binario = formatoBinario(accept);
+
+        // Richiesta condizionale: per l'ETag bastano (id, versione, data)
+        Long versioneMinima = null;
+        if (ifNoneMatch != null) {
+            EventoVersione corrente = eventoService.getVersioneEvento(id);
+            String etag = variante(eventoEtagService.etagEvento(id, corrente.getVersione()), binario);
+            if (request.checkNotModified(etag)) {
+                return nonModificato(etag, eventoEtagService.cacheControlPer(corrente.getData()));
+            }
+            versioneMinima = corrente.getVersione();
+        }
+
+        if (binario != null) {
+            EventoResponseDTO evento = eventoService.getEventoById(id);
+            return ResponseEntity.ok()
+                    .eTag(variante(eventoEtagService.etagEvento(evento.getId(), evento.getVersione()), binario))
+                    .cacheControl(eventoEtagService.cacheControlPer(evento.getData()))
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(evento);
+        }
+
+        // Una sola query (o nessuna, dalla cache), ETag dalla versione letta;
+        // la copia in cache non può essere più vecchia della versione appena letta
+        EventoJsonCache.EventoJson evento = eventoJsonCache.evento(id, versioneMinima);
+        return ResponseEntity.ok()
+                .eTag(eventoEtagService.etagEvento(evento.id(), evento.versione()))
+                .cacheControl(eventoEtagService.cacheControlPer(evento.data()))
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(evento.json());
     }
 
     /**
-     * RESTITUISCE LISTA EVENTI (con filtro opzionale per data)
+     * RESTITUISCE LISTA EVENTI (con filtro opzionale per data o paginazione)
      *
      * GET /api/eventi
      * GET /api/eventi?data=2024-06-15
+     * GET /api/eventi?size=50
+     * GET /api/eventi?size=50&cursor=MjAyNC0wNi0xNXwxODowMHwx
      *
-     * Questo endpoint supporta due modalità:
-     * 1. SENZA PARAMETRO: restituisce tutti gli eventi
-     * 2. CON PARAMETRO data: restituisce solo eventi di quella data
+     * Questo endpoint supporta tre modalità:
+     * 1. CON PARAMETRO data: restituisce solo eventi di quella data
+     * 2. CON PARAMETRO size e/o cursor: restituisce una pagina (EventoPageDTO)
+     *    con il cursore per chiedere la pagina successiva
+     * 3. SENZA PARAMETRI (DEPRECATO): restituisce la lista non paginata,
+     *    limitata a "eventi.lista-completa.max-righe" eventi, con header "Deprecation"
+     *
+     * In tutte le modalità la risposta ha un ETag di collezione, preso dal
+     * contatore delle modifiche nel database: se nessun evento è cambiato
+     * dall'ultima richiesta (If-None-Match) → 304 dopo quella sola lettura.
+     *
+     * FORMA COMPATTA (formato=compatto, in tutte e tre le modalità):
+     * una colonna per campo, tipologie in un dizionario, date in giorni e
+     * orari in minuti (vedi EventoListaCompattaDTO).
+     *
+     * CODIFICA (header Accept): JSON (default), application/cbor o
+     * application/x-jackson-smile. Ogni combinazione forma/codifica ha un
+     * proprio ETag (stesso valore di collezione con un suffisso).
      *
      * @RequestParam(required = false):
      * - Il parametro è opzionale
@@ -79,44 +469,202 @@ public class EventoController {
      *
      * ESEMPI DI RICHIESTA:
      *
-     * 1. Tutti gli eventi:
+     * 1. Eventi filtrati:
+     *    GET http://localhost:8080/api/eventi?data=2024-06-15
+     *    Risposta: [ {evento1}, {evento2} ] (solo del 15 giugno)
+     *
+     * 2. Prima pagina e pagina successiva:
+     *    GET http://localhost:8080/api/eventi?size=50
+     *    Risposta: { "eventi": [...], "size": 50, "hasNext": true, "nextCursor": "..." }
+     *    GET http://localhost:8080/api/eventi?size=50&cursor=<nextCursor>
+     *
+     * 3. Tutti gli eventi (deprecato):
      *    GET http://localhost:8080/api/eventi
      *    Risposta: [ {evento1}, {evento2}, ... ]
      *
-     * 2. Eventi filtrati:
-     *    GET http://localhost:8080/api/eventi? data=2024-06-15
-     *    Risposta: [ {evento1}, {evento2} ] (solo del 15 giugno)
-     *
      * POSSIBILI ERRORI:
-     * - 400 BAD REQUEST: formato data non valido (es: "2024-13-45")
+     * - 400 BAD REQUEST: formato data non valido (es: "2024-13-45"), cursore non valido, size <= 0,
+     *   formato diverso da "compatto"
      * - 200 OK con lista vuota []:  nessun evento trovato
+     * - 304 NOT MODIFIED: nessun evento cambiato rispetto all'ETag inviato
      *
      * @param data Data opzionale per filtrare (può essere null)
-     * @return ResponseEntity con lista di eventi e HTTP 200
+     * @param cursor Cursore opaco della pagina precedente (può essere null)
+     * @param size Dimensione della pagina (può essere null)
+     * @param formato "compatto" per la forma a colonne (può essere null)
+     * @param accept Header Accept (sceglie JSON, CBOR o Smile)
+     * @param request Richiesta corrente (per leggere If-None-Match)
+     * @return ResponseEntity con lista o pagina di eventi e HTTP 200 (o 304)
      */
     @GetMapping
-    public ResponseEntity<List<EventoResponseDTO>> getEventi(
+    public ResponseEntity<?> getEventi(
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-            LocalDate data) {
+            LocalDate data,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String formato,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest request) {
 
-        // Dichiara la lista che conterrà i risultati
-        List<EventoResponseDTO> eventi;
+        boolean compatto = formatoCompatto(formato);
+        String binario = formatoBinario(accept);
 
-        // LOGICA CONDIZIONALE: Verifica se il parametro data è presente
+        // Versione letta PRIMA della query (vedi EventoEtagService.etagCollezione)
+        long versione = eventoModificheService.leggiVersioneCorrente();
+        String etag = variante(eventoEtagService.etagCollezione(versione), binario);
+        if (compatto) {
+            etag = variante(etag, "compatto");
+        }
+        CacheControl cacheControl = eventoEtagService.cacheControlPer(data);
+        if (request.checkNotModified(etag)) {
+            return nonModificato(etag, cacheControl);
+        }
+
+        // CASO 1: Parametro data fornito
+        // Esempio: GET /api/eventi?data=2024-06-15
+        // (in JSON: array composto dai frammenti già serializzati in EventoJsonCache)
         if (data != null) {
-            // CASO 1: Parametro data fornito
-            // Esempio: GET /api/eventi?data=2024-06-15
-            // → Chiama il service per recuperare eventi filtrati
-            eventi = eventoService.getEventiByData(data);
-        } else {
-            // CASO 2: Nessun parametro fornito
-            // Esempio: GET /api/eventi
-            // → Chiama il service per recuperare tutti gli eventi
-            eventi = eventoService.getAllEventi();
+            if (compatto || binario != null) {
+                List<EventoResponseDTO> eventi = eventoService.getEventiByData(data);
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(compatto ? EventoListaCompattaDTO.da(eventi) : eventi);
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(eventoJsonCache.eventiDelGiorno(data, versione));
+        }
+
+        // CASO 2: Paginazione keyset
+        // Esempio: GET /api/eventi?size=50&cursor=...
+        if (cursor != null || size != null) {
+            EventoPageDTO pagina = eventoService.getEventiPaginati(cursor, size);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(compatto ? EventoListaCompattaDTO.da(pagina) : pagina);
         }
 
-        // Restituisce la risposta HTTP 200 OK con la lista di eventi
-        return ResponseEntity.ok(eventi);
+        // CASO 3: Nessun parametro fornito (lista completa limitata, deprecata)
+        // Esempio: GET /api/eventi
+        List<EventoResponseDTO> eventi = eventoService.getAllEventi();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/eventi?size=50>; rel=\"successor-version\"")
+                .body(compatto ? EventoListaCompattaDTO.da(eventi) : eventi);
+    }
+
+    private static ResponseEntity<?> nonModificato(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * true se è richiesta la forma compatta (unico valore ammesso: "compatto")
+     */
+    private static boolean formatoCompatto(String formato) {
+        if (formato == null) {
+            return false;
+        }
+        if (!"compatto".equals(formato.trim().toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Formato di lista non supportato: " + formato);
+        }
+        return true;
+    }
+
+    /**
+     * "cbor" o "smile" se il tipo preferito nell'header Accept è un formato
+     * binario, null se la risposta deve essere JSON.
+     * A parità di qualità (q) vince il tipo elencato per primo.
+     */
+    private static String formatoBinario(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        MediaType preferito = null;
+        try {
+            for (MediaType tipo : MediaType.parseMediaTypes(accept)) {
+                if (preferito == null || tipo.getQualityValue() > preferito.getQualityValue()) {
+                    preferito = tipo;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return null;    // Spring MVC risponderà 406 / 400 come per qualsiasi Accept non valido
+        }
+        if (preferito == null) {
+            return null;
+        }
+        if (preferito.isCompatibleWith(MediaType.APPLICATION_CBOR) && !preferito.isWildcardSubtype()) {
+            return "cbor";
+        }
+        if (preferito.isCompatibleWith(JacksonFormatiConfig.APPLICATION_SMILE) && !preferito.isWildcardSubtype()) {
+            return "smile";
+        }
+        return null;
+    }
+
+    /**
+     * ETag di una variante della risposta: "c-1-2-3" → "c-1-2-3-cbor"
+     */
+    private static String variante(String etag, String suffisso) {
+        if (suffisso == null) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + suffisso + "\"";
+    }
+
+    /**
+     * ESPORTA GLI EVENTI DI UN RANGE DI DATE (STREAMING)
+     *
+     * GET /api/eventi/export?da=2024-01-01&a=2024-12-31&formato=ndjson
+     * GET /api/eventi/export?da=2024-01-01&a=2024-12-31&formato=csv
+     *
+     * La risposta viene scritta riga per riga mentre si leggono i dati dal
+     * database (StreamingResponseBody): la memoria usata non dipende dal
+     * numero di eventi esportati.
+     *
+     * FORMATI:
+     * - ndjson (default): un oggetto JSON EventoResponseDTO per riga
+     * - csv: intestazione + una riga per evento
+     *
+     * POSSIBILI ERRORI (validati PRIMA di iniziare lo streaming):
+     * - 400 BAD REQUEST: date mancanti o non valide, "da" successiva ad "a",
+     *   formato non supportato
+     *
+     * @param da Data di inizio (inclusa)
+     * @param a Data di fine (inclusa)
+     * @param formato "ndjson" o "csv"
+     * @return Corpo della risposta scritto in streaming
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEventi(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate da,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate a,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+
+        if (da.isAfter(a)) {
+            throw new IllegalArgumentException("La data 'da' deve precedere o coincidere con la data 'a'");
+        }
+        EventoExportService.Formato formatoExport = EventoExportService.Formato.from(formato);
+
+        StreamingResponseBody body = out -> eventoExportService.esporta(da, a, formatoExport, out);
+
+        String nomeFile = "eventi_" + da + "_" + a + "." + formatoExport.getEstensione();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExport.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nomeFile + "\"")
+                .body(body);
     }
 }
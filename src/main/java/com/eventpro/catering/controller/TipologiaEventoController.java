@@ -0,0 +1,75 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.TipologiaEventoResponseDTO;
+import com.eventpro.catering.service.TipologiaEventoRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * CONTROLLER REST PER LE TIPOLOGIE EVENTO
+ *
+ * Espone gli endpoint:
+ * - GET /api/tipologie -> lista delle tipologie (dati di riferimento)
+ *
+ * Le tipologie cambiano raramente: la risposta arriva dal registro in memoria
+ * (nessuna query) ed è pensata per essere tenuta in cache dal client.
+ */
+@RestController
+@RequestMapping("/api/tipologie")
+public class TipologiaEventoController {
+
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+
+    @Value("${tipologie.cache.max-age-secondi:3600}")
+    private long maxAgeSecondi;
+
+    public TipologiaEventoController(TipologiaEventoRegistry tipologiaEventoRegistry) {
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+    }
+
+    /**
+     * RESTITUISCE TUTTE LE TIPOLOGIE EVENTO
+     *
+     * GET /api/tipologie
+     *
+     * HEADER DI CACHE:
+     * - Cache-Control: private, max-age=3600 → il browser riusa la risposta per un'ora
+     *   senza nemmeno contattare il server
+     * - ETag: "<hash del contenuto>" → scaduto il max-age, il browser richiede
+     *   con If-None-Match e, se nulla è cambiato, riceve 304 senza body
+     *
+     * ESEMPIO:
+     * GET /api/tipologie
+     * → 200 [ {"id":1,"nome":"Matrimonio","descrizione":"..."}, ... ]  ETag: "9f86d0..."
+     * GET /api/tipologie  (If-None-Match: "9f86d0...")
+     * → 304 Not Modified
+     *
+     * @param request Richiesta corrente (per leggere If-None-Match)
+     * @return Lista delle tipologie ordinate per nome, oppure 304
+     */
+    @GetMapping
+    public ResponseEntity<List<TipologiaEventoResponseDTO>> getTipologie(WebRequest request) {
+        // ETag e lista dallo stesso snapshot: una ricarica in mezzo non li disallinea
+        TipologiaEventoRegistry.Snapshot snapshot = tipologiaEventoRegistry.getSnapshot();
+        String etag = snapshot.getEtag();
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSecondi)).cachePrivate();
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(snapshot.getTutte());
+    }
+}
@@ -0,0 +1,96 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO PER LA HEATMAP DEL CALENDARIO (MESE O ANNO)
+ *
+ * "eventiPerGiorno" ha un elemento per ogni giorno da "da" ad "a" (inclusi):
+ * l'elemento 0 è "da", l'ultimo è "a". Un array di numeri al posto di una
+ * lista di eventi: un anno intero sono meno di 1 KB di JSON.
+ *
+ * ESEMPIO (giugno 2027, solo matrimoni):
+ * {
+ *   "da": "2027-06-01", "a": "2027-06-30",
+ *   "tipologie": ["369627940182282240"],
+ *   "giorniOccupati": 3, "totaleEventi": 4,
+ *   "eventiPerGiorno": [0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 2, 0, ...]
+ * }
+ */
+public class CalendarioDTO {
+
+    private LocalDate da;
+    private LocalDate a;
+    @JsonSerialize(contentUsing = ToStringSerializer.class)
+    private List<Long> tipologie;
+    private int giorniOccupati;
+    private int totaleEventi;
+    private int[] eventiPerGiorno;
+
+    public CalendarioDTO() {
+    }
+
+    public CalendarioDTO(LocalDate da, LocalDate a, List<Long> tipologie,
+                         int giorniOccupati, int[] eventiPerGiorno) {
+        this.da = da;
+        this.a = a;
+        this.tipologie = tipologie;
+        this.giorniOccupati = giorniOccupati;
+        this.eventiPerGiorno = eventiPerGiorno;
+        for (int eventi : eventiPerGiorno) {
+            this.totaleEventi += eventi;
+        }
+    }
+
+    public LocalDate getDa() {
+        return da;
+    }
+
+    public void setDa(LocalDate da) {
+        this.da = da;
+    }
+
+    public LocalDate getA() {
+        return a;
+    }
+
+    public void setA(LocalDate a) {
+        this.a = a;
+    }
+
+    public List<Long> getTipologie() {
+        return tipologie;
+    }
+
+    public void setTipologie(List<Long> tipologie) {
+        this.tipologie = tipologie;
+    }
+
+    public int getGiorniOccupati() {
+        return giorniOccupati;
+    }
+
+    public void setGiorniOccupati(int giorniOccupati) {
+        this.giorniOccupati = giorniOccupati;
+    }
+
+    public int getTotaleEventi() {
+        return totaleEventi;
+    }
+
+    public void setTotaleEventi(int totaleEventi) {
+        this.totaleEventi = totaleEventi;
+    }
+
+    public int[] getEventiPerGiorno() {
+        return eventiPerGiorno;
+    }
+
+    public void setEventiPerGiorno(int[] eventiPerGiorno) {
+        this.eventiPerGiorno = eventiPerGiorno;
+    }
+}
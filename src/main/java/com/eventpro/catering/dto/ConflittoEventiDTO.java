@@ -0,0 +1,42 @@
+package com.eventpro.catering.dto;
+
+import java.util.List;
+
+/**
+ * DTO PER LA RISPOSTA 409 DI UNA PRENOTAZIONE IN CONFLITTO
+ *
+ * ESEMPIO:
+ * {
+ *   "messaggio": "La location \"Villa Roma\" è già occupata in quell'orario da 1 evento",
+ *   "conflitti": [ { "id": "192548752588800000", "nome": "Matrimonio ...", ... } ]
+ * }
+ */
+public class ConflittoEventiDTO {
+
+    private String messaggio;
+    private List<EventoResponseDTO> conflitti;
+
+    public ConflittoEventiDTO() {
+    }
+
+    public ConflittoEventiDTO(String messaggio, List<EventoResponseDTO> conflitti) {
+        this.messaggio = messaggio;
+        this.conflitti = conflitti;
+    }
+
+    public String getMessaggio() {
+        return messaggio;
+    }
+
+    public void setMessaggio(String messaggio) {
+        this.messaggio = messaggio;
+    }
+
+    public List<EventoResponseDTO> getConflitti() {
+        return conflitti;
+    }
+
+    public void setConflitti(List<EventoResponseDTO> conflitti) {
+        this.conflitti = conflitti;
+    }
+}
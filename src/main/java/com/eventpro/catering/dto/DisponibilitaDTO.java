@@ -0,0 +1,208 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * DTO PER LA RISPOSTA DI GET /api/eventi/disponibilita
+ *
+ * Per ogni data richiesta (filtrata per giorno della settimana) dice se la
+ * fascia oraria è completamente libera e quali finestre libere restano.
+ *
+ * ESEMPIO (sabati di gennaio 2027, Villa Roma, 18:00-23:00):
+ * {
+ *   "da": "2027-01-01", "a": "2027-01-31",
+ *   "oraInizio": "18:00:00", "oraFine": "23:00:00",
+ *   "location": "Villa Roma", "tipologiaEventoId": null,
+ *   "giorniLiberi": 4,
+ *   "giorni": [
+ *     { "data": "2027-01-02", "giornoSettimana": "SATURDAY", "libero": true,
+ *       "finestreLibere": [ { "inizio": "18:00:00", "fine": "23:00:00" } ] },
+ *     { "data": "2027-01-09", "giornoSettimana": "SATURDAY", "libero": false,
+ *       "finestreLibere": [ { "inizio": "21:30:00", "fine": "23:00:00" } ] },
+ *     ...
+ *   ]
+ * }
+ */
+public class DisponibilitaDTO {
+
+    /**
+     * FINESTRA LIBERA [inizio, fine) DENTRO LA FASCIA RICHIESTA
+     */
+    public static class FinestraDTO {
+
+        private LocalTime inizio;
+        private LocalTime fine;
+
+        public FinestraDTO() {
+        }
+
+        public FinestraDTO(LocalTime inizio, LocalTime fine) {
+            this.inizio = inizio;
+            this.fine = fine;
+        }
+
+        public LocalTime getInizio() {
+            return inizio;
+        }
+
+        public void setInizio(LocalTime inizio) {
+            this.inizio = inizio;
+        }
+
+        public LocalTime getFine() {
+            return fine;
+        }
+
+        public void setFine(LocalTime fine) {
+            this.fine = fine;
+        }
+    }
+
+    /**
+     * DISPONIBILITÀ DI UNA SINGOLA DATA
+     */
+    public static class GiornoDTO {
+
+        private LocalDate data;
+        private DayOfWeek giornoSettimana;
+        private boolean libero;
+        private List<FinestraDTO> finestreLibere;
+
+        public GiornoDTO() {
+        }
+
+        public GiornoDTO(LocalDate data, boolean libero, List<FinestraDTO> finestreLibere) {
+            this.data = data;
+            this.giornoSettimana = data.getDayOfWeek();
+            this.libero = libero;
+            this.finestreLibere = finestreLibere;
+        }
+
+        public LocalDate getData() {
+            return data;
+        }
+
+        public void setData(LocalDate data) {
+            this.data = data;
+        }
+
+        public DayOfWeek getGiornoSettimana() {
+            return giornoSettimana;
+        }
+
+        public void setGiornoSettimana(DayOfWeek giornoSettimana) {
+            this.giornoSettimana = giornoSettimana;
+        }
+
+        public boolean isLibero() {
+            return libero;
+        }
+
+        public void setLibero(boolean libero) {
+            this.libero = libero;
+        }
+
+        public List<FinestraDTO> getFinestreLibere() {
+            return finestreLibere;
+        }
+
+        public void setFinestreLibere(List<FinestraDTO> finestreLibere) {
+            this.finestreLibere = finestreLibere;
+        }
+    }
+
+    private LocalDate da;
+    private LocalDate a;
+    private LocalTime oraInizio;
+    private LocalTime oraFine;
+    private String location;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long tipologiaEventoId;
+    private int giorniLiberi;
+    private List<GiornoDTO> giorni;
+
+    public DisponibilitaDTO() {
+    }
+
+    public DisponibilitaDTO(LocalDate da, LocalDate a, LocalTime oraInizio, LocalTime oraFine,
+                            String location, Long tipologiaEventoId, List<GiornoDTO> giorni) {
+        this.da = da;
+        this.a = a;
+        this.oraInizio = oraInizio;
+        this.oraFine = oraFine;
+        this.location = location;
+        this.tipologiaEventoId = tipologiaEventoId;
+        this.giorni = giorni;
+        this.giorniLiberi = (int) giorni.stream().filter(GiornoDTO::isLibero).count();
+    }
+
+    public LocalDate getDa() {
+        return da;
+    }
+
+    public void setDa(LocalDate da) {
+        this.da = da;
+    }
+
+    public LocalDate getA() {
+        return a;
+    }
+
+    public void setA(LocalDate a) {
+        this.a = a;
+    }
+
+    public LocalTime getOraInizio() {
+        return oraInizio;
+    }
+
+    public void setOraInizio(LocalTime oraInizio) {
+        this.oraInizio = oraInizio;
+    }
+
+    public LocalTime getOraFine() {
+        return oraFine;
+    }
+
+    public void setOraFine(LocalTime oraFine) {
+        this.oraFine = oraFine;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Long getTipologiaEventoId() {
+        return tipologiaEventoId;
+    }
+
+    public void setTipologiaEventoId(Long tipologiaEventoId) {
+        this.tipologiaEventoId = tipologiaEventoId;
+    }
+
+    public int getGiorniLiberi() {
+        return giorniLiberi;
+    }
+
+    public void setGiorniLiberi(int giorniLiberi) {
+        this.giorniLiberi = giorniLiberi;
+    }
+
+    public List<GiornoDTO> getGiorni() {
+        return giorni;
+    }
+
+    public void setGiorni(List<GiornoDTO> giorni) {
+        this.giorni = giorni;
+    }
+}
@@ -0,0 +1,146 @@
+package com.eventpro.catering.dto;
+
+import java.util.List;
+
+/**
+ * DTO PER LA RISPOSTA DI POST /api/eventi/batch
+ *
+ * Contiene un esito per ogni elemento della richiesta, nello stesso ordine.
+ *
+ * ESEMPIO (tutto valido → 201):
+ * {
+ *   "totale": 2, "creati": 2, "errori": 0,
+ *   "esiti": [
+ *     { "indice": 0, "esito": "CREATO", "evento": {...}, "errore": null },
+ *     { "indice": 1, "esito": "CREATO", "evento": {...}, "errore": null }
+ *   ]
+ * }
+ *
+ * ESEMPIO (almeno un elemento non valido → 400, nessun evento salvato):
+ * {
+ *   "totale": 2, "creati": 0, "errori": 1,
+ *   "esiti": [
+ *     { "indice": 0, "esito": "VALIDO", "evento": null, "errore": null },
+ *     { "indice": 1, "esito": "ERRORE", "evento": null,
+ *       "errore": "L'ora di fine deve essere successiva all'ora di inizio" }
+ *   ]
+ * }
+ */
+public class EventoBatchResponseDTO {
+
+    /**
+     * ESITO DI UN SINGOLO ELEMENTO
+     */
+    public static class EsitoDTO {
+
+        public static final String CREATO = "CREATO";
+        public static final String VALIDO = "VALIDO";
+        public static final String ERRORE = "ERRORE";
+
+        private int indice;
+        private String esito;
+        private EventoResponseDTO evento;
+        private String errore;
+
+        public EsitoDTO() {
+        }
+
+        public EsitoDTO(int indice, String esito, EventoResponseDTO evento, String errore) {
+            this.indice = indice;
+            this.esito = esito;
+            this.evento = evento;
+            this.errore = errore;
+        }
+
+        public static EsitoDTO creato(int indice, EventoResponseDTO evento) {
+            return new EsitoDTO(indice, CREATO, evento, null);
+        }
+
+        public static EsitoDTO valido(int indice) {
+            return new EsitoDTO(indice, VALIDO, null, null);
+        }
+
+        public static EsitoDTO errore(int indice, String errore) {
+            return new EsitoDTO(indice, ERRORE, null, errore);
+        }
+
+        public int getIndice() {
+            return indice;
+        }
+
+        public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        public String getEsito() {
+            return esito;
+        }
+
+        public void setEsito(String esito) {
+            this.esito = esito;
+        }
+
+        public EventoResponseDTO getEvento() {
+            return evento;
+        }
+
+        public void setEvento(EventoResponseDTO evento) {
+            this.evento = evento;
+        }
+
+        public String getErrore() {
+            return errore;
+        }
+
+        public void setErrore(String errore) {
+            this.errore = errore;
+        }
+    }
+
+    private int totale;
+    private int creati;
+    private int errori;
+    private List<EsitoDTO> esiti;
+
+    public EventoBatchResponseDTO() {
+    }
+
+    public EventoBatchResponseDTO(List<EsitoDTO> esiti) {
+        this.esiti = esiti;
+        this.totale = esiti.size();
+        this.creati = (int) esiti.stream().filter(e -> EsitoDTO.CREATO.equals(e.getEsito())).count();
+        this.errori = (int) esiti.stream().filter(e -> EsitoDTO.ERRORE.equals(e.getEsito())).count();
+    }
+
+    public int getTotale() {
+        return totale;
+    }
+
+    public void setTotale(int totale) {
+        this.totale = totale;
+    }
+
+    public int getCreati() {
+        return creati;
+    }
+
+    public void setCreati(int creati) {
+        this.creati = creati;
+    }
+
+    public int getErrori() {
+        return errori;
+    }
+
+    public void setErrori(int errori) {
+        this.errori = errori;
+    }
+
+    public List<EsitoDTO> getEsiti() {
+        return esiti;
+    }
+
+    public void setEsiti(List<EsitoDTO> esiti) {
+        this.esiti = esiti;
+    }
+}
@@ -0,0 +1,90 @@
+package com.eventpro.catering.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * CURSORE OPACO PER LA PAGINAZIONE KEYSET DEGLI EVENTI
+ *
+ * Rappresenta la posizione dell'ultimo evento restituito in una pagina,
+ * cioè la tripla (data, oraInizio, id) usata come chiave di ordinamento.
+ *
+ * PERCHÉ KEYSET E NON OFFSET:
+ * - Con OFFSET il database deve scorrere e scartare tutte le righe precedenti
+ *   (pagina 1000 = leggere 1000 pagine)
+ * - Con il cursore la query riparte dall'ultima chiave vista:
+ *   WHERE (data, ora_inizio, id) > (?, ?, ?) ORDER BY data, ora_inizio, id
+ *   e il costo resta costante a qualsiasi profondità
+ *
+ * Il client non deve interpretare il cursore: lo riceve come stringa
+ * Base64 URL-safe e lo rimanda così com'è per chiedere la pagina successiva.
+ */
+public final class EventoCursor {
+
+    private static final String SEPARATORE = "|";
+
+    private final LocalDate data;
+    private final LocalTime oraInizio;
+    private final Long id;
+
+    public EventoCursor(LocalDate data, LocalTime oraInizio, Long id) {
+        this.data = data;
+        this.oraInizio = oraInizio;
+        this.id = id;
+    }
+
+    /**
+     * Crea il cursore che punta DOPO l'evento indicato
+     */
+    public static EventoCursor dopo(EventoResponseDTO evento) {
+        return new EventoCursor(evento.getData(), evento.getOraInizio(), evento.getId());
+    }
+
+    /**
+     * Codifica il cursore nella stringa opaca da restituire al client
+     *
+     * ESEMPIO: 2024-06-15|18:00|1 → "MjAyNC0wNi0xNXwxODowMHwx"
+     */
+    public String encode() {
+        String raw = data + SEPARATORE + oraInizio + SEPARATORE + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica il cursore ricevuto dal client
+     *
+     * @throws IllegalArgumentException se il cursore è malformato (→ HTTP 400)
+     */
+    public static EventoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parti = raw.split("\\" + SEPARATORE);
+            if (parti.length != 3) {
+                throw new IllegalArgumentException("Cursore non valido");
+            }
+            return new EventoCursor(
+                    LocalDate.parse(parti[0]),
+                    LocalTime.parse(parti[1]),
+                    Long.valueOf(parti[2])
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursore non valido: " + cursor);
+        }
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public LocalTime getOraInizio() {
+        return oraInizio;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,181 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO PER UNA LISTA DI EVENTI IN FORMA COMPATTA (A COLONNE)
+ *
+ * GET /api/eventi?data=...&formato=compatto (anche con size/cursor)
+ *
+ * Nella lista normale ogni evento ripete i nomi dei campi, date e orari
+ * come stringhe ISO e l'oggetto tipologia completo. Qui:
+ * - una colonna (array) per campo: i nomi dei campi compaiono una volta sola
+ * - la riga i è formata dall'elemento i di ogni colonna
+ * - "data" in giorni dal 1970-01-01 (LocalDate.ofEpochDay / new Date(giorni * 86400000))
+ * - "oraInizio" / "oraFine" in minuti dalla mezzanotte (18:30 → 1110)
+ * - "tipologie" è un dizionario inviato una volta; "tipologia" contiene
+ *   l'indice nel dizionario
+ *
+ * ESEMPIO (due eventi dello stesso giorno):
+ * {
+ *   "righe": 2,
+ *   "tipologie": [ { "id": "369627940182282240", "nome": "Matrimonio" } ],
+ *   "id": ["369627940182282300", "369627940182282301"],
+ *   "nome": ["Matrimonio Rossi", "Cena aziendale"],
+ *   "data": [19889, 19889],
+ *   "oraInizio": [660, 1140],
+ *   "oraFine": [900, 1380],
+ *   "location": ["Villa Roma", "Hotel Milano"],
+ *   "note": [null, "Menu vegetariano"],
+ *   "eventoGiornaliero": [false, false],
+ *   "tipologia": [0, 0],
+ *   "versione": [0, 2]
+ * }
+ *
+ * Per le pagine (size/cursor) ci sono anche "hasNext" e "nextCursor".
+ * I secondi degli orari non vengono trasmessi (gli eventi sono al minuto).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoListaCompattaDTO {
+
+    private final int righe;
+    private final List<EventoResponseDTO.TipologiaEventoDTO> tipologie;
+    @JsonSerialize(contentUsing = ToStringSerializer.class)
+    private final List<Long> id;
+    private final List<String> nome;
+    private final long[] data;
+    private final int[] oraInizio;
+    private final int[] oraFine;
+    private final List<String> location;
+    private final List<String> note;
+    private final boolean[] eventoGiornaliero;
+    private final int[] tipologia;
+    private final long[] versione;
+    private Boolean hasNext;
+    private String nextCursor;
+
+    private EventoListaCompattaDTO(List<EventoResponseDTO> eventi) {
+        int n = eventi.size();
+        this.righe = n;
+        this.tipologie = new ArrayList<>();
+        this.id = new ArrayList<>(n);
+        this.nome = new ArrayList<>(n);
+        this.data = new long[n];
+        this.oraInizio = new int[n];
+        this.oraFine = new int[n];
+        this.location = new ArrayList<>(n);
+        this.note = new ArrayList<>(n);
+        this.eventoGiornaliero = new boolean[n];
+        this.tipologia = new int[n];
+        this.versione = new long[n];
+
+        Map<Long, Integer> indiciTipologie = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            EventoResponseDTO evento = eventi.get(i);
+            id.add(evento.getId());
+            nome.add(evento.getNome());
+            data[i] = evento.getData().toEpochDay();
+            oraInizio[i] = minuti(evento.getOraInizio());
+            oraFine[i] = minuti(evento.getOraFine());
+            location.add(evento.getLocation());
+            note.add(evento.getNote());
+            eventoGiornaliero[i] = Boolean.TRUE.equals(evento.getEventoGiornaliero());
+            versione[i] = evento.getVersione() != null ? evento.getVersione() : 0;
+
+            EventoResponseDTO.TipologiaEventoDTO t = evento.getTipologiaEvento();
+            if (t == null) {
+                tipologia[i] = -1;
+            } else {
+                tipologia[i] = indiciTipologie.computeIfAbsent(t.getId(), k -> {
+                    tipologie.add(t);
+                    return tipologie.size() - 1;
+                });
+            }
+        }
+    }
+
+    /**
+     * Lista compatta di una lista di eventi (tipologia -1 = evento senza tipologia)
+     */
+    public static EventoListaCompattaDTO da(List<EventoResponseDTO> eventi) {
+        return new EventoListaCompattaDTO(eventi);
+    }
+
+    /**
+     * Lista compatta di una pagina, con hasNext e nextCursor
+     */
+    public static EventoListaCompattaDTO da(EventoPageDTO pagina) {
+        EventoListaCompattaDTO compatta = new EventoListaCompattaDTO(pagina.getEventi());
+        compatta.hasNext = pagina.isHasNext();
+        compatta.nextCursor = pagina.getNextCursor();
+        return compatta;
+    }
+
+    private static int minuti(LocalTime ora) {
+        return ora.getHour() * 60 + ora.getMinute();
+    }
+
+    public int getRighe() {
+        return righe;
+    }
+
+    public List<EventoResponseDTO.TipologiaEventoDTO> getTipologie() {
+        return tipologie;
+    }
+
+    public List<Long> getId() {
+        return id;
+    }
+
+    public List<String> getNome() {
+        return nome;
+    }
+
+    public long[] getData() {
+        return data;
+    }
+
+    public int[] getOraInizio() {
+        return oraInizio;
+    }
+
+    public int[] getOraFine() {
+        return oraFine;
+    }
+
+    public List<String> getLocation() {
+        return location;
+    }
+
+    public List<String> getNote() {
+        return note;
+    }
+
+    public boolean[] getEventoGiornaliero() {
+        return eventoGiornaliero;
+    }
+
+    public int[] getTipologia() {
+        return tipologia;
+    }
+
+    public long[] getVersione() {
+        return versione;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
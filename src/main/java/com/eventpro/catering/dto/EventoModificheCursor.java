@@ -0,0 +1,58 @@
+package com.eventpro.catering.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * CURSORE OPACO PER LE PAGINE DI GET /api/eventi/changes
+ *
+ * Contiene:
+ * - limite: la versione massima fissata alla prima pagina. Tutte le pagine
+ *   leggono fino a lì, anche se nel frattempo arrivano altre modifiche
+ *   (verranno restituite alla sincronizzazione successiva)
+ * - (versione, id) dell'ultima modifica restituita, la chiave di ordinamento.
+ *   Più eventi possono avere la stessa versione (creati nella stessa
+ *   transazione, es. un batch): per questo serve anche l'id
+ * - completa: se le pagine sono un invio completo (partito da zero). Un invio
+ *   completo non ha bisogno dei tombstone; uno parziale sì, e se nel frattempo
+ *   la pulizia li ha cancellati va ricominciato da zero
+ *
+ * I cursori senza "completa" (formato precedente) valgono come invio parziale.
+ *
+ * Come EventoCursor, il client lo rimanda così com'è senza interpretarlo.
+ */
+public record EventoModificheCursor(long limite, long versione, long id, boolean completa) {
+
+    private static final String SEPARATORE = "|";
+
+    /**
+     * Codifica il cursore nella stringa opaca da restituire al client
+     *
+     * ESEMPIO: 57|42|369627940182282300|0 → "NTd8NDJ8MzY5NjI3OTQwMTgyMjgyMzAwfDA"
+     */
+    public String encode() {
+        String raw = limite + SEPARATORE + versione + SEPARATORE + id + SEPARATORE + (completa ? 1 : 0);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica il cursore ricevuto dal client
+     *
+     * @throws IllegalArgumentException se il cursore è malformato (→ HTTP 400)
+     */
+    public static EventoModificheCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parti = raw.split("\\" + SEPARATORE);
+            if (parti.length != 3 && parti.length != 4) {
+                throw new IllegalArgumentException("Cursore non valido");
+            }
+            boolean completa = parti.length == 4 && "1".equals(parti[3]);
+            return new EventoModificheCursor(Long.parseLong(parti[0]), Long.parseLong(parti[1]),
+                    Long.parseLong(parti[2]), completa);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursore non valido: " + cursor);
+        }
+    }
+}
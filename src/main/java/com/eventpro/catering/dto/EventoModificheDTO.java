@@ -0,0 +1,106 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO PER LE MODIFICHE AGLI EVENTI DOPO UNA VERSIONE (SINCRONIZZAZIONE DELTA)
+ *
+ * GET /api/eventi/changes?since=41
+ *
+ * ESEMPIO DI RISPOSTA:
+ * {
+ *   "versione": 57,
+ *   "completa": false,
+ *   "modificati": [ {evento1}, {evento2} ],
+ *   "eliminati": [ { "id": "369627940182282300", "data": "2024-06-15" } ],
+ *   "hasNext": false,
+ *   "nextCursor": null
+ * }
+ *
+ * COME LO USA IL CLIENT:
+ * 1. Sostituisce o aggiunge gli eventi di "modificati" (stesso JSON di GET /api/eventi/{id})
+ * 2. Toglie gli eventi di "eliminati"
+ * 3. Se hasNext = true chiede subito la pagina successiva con ?cursor=nextCursor
+ * 4. Alla fine salva "versione": la userà come since alla prossima sincronizzazione
+ *
+ * completa = true: la risposta parte da zero (since=0, oppure una versione che
+ * il server non conosce, es. database ricreato). Il client deve svuotare la
+ * propria copia e tenere solo gli eventi ricevuti.
+ */
+public class EventoModificheDTO {
+
+    /**
+     * EVENTO CANCELLATO
+     */
+    public static class EliminatoDTO {
+
+        @JsonSerialize(using = ToStringSerializer.class)
+        private final Long id;
+        private final LocalDate data;
+
+        public EliminatoDTO(Long id, LocalDate data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public LocalDate getData() {
+            return data;
+        }
+    }
+
+    private final long versione;
+    private final boolean completa;
+    private final List<EventoResponseDTO> modificati;
+    private final List<EliminatoDTO> eliminati;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public EventoModificheDTO(long versione, boolean completa, List<EventoResponseDTO> modificati,
+                              List<EliminatoDTO> eliminati, boolean hasNext, String nextCursor) {
+        this.versione = versione;
+        this.completa = completa;
+        this.modificati = modificati;
+        this.eliminati = eliminati;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Nessuna modifica dopo "versione"
+     */
+    public static EventoModificheDTO nessuna(long versione) {
+        return new EventoModificheDTO(versione, false, List.of(), List.of(), false, null);
+    }
+
+    public long getVersione() {
+        return versione;
+    }
+
+    public boolean isCompleta() {
+        return completa;
+    }
+
+    public List<EventoResponseDTO> getModificati() {
+        return modificati;
+    }
+
+    public List<EliminatoDTO> getEliminati() {
+        return eliminati;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
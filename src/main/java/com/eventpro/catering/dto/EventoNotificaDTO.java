@@ -0,0 +1,52 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDate;
+
+/**
+ * DTO DI UNA NOTIFICA PUSH (GET /api/eventi/stream, evento SSE "evento")
+ *
+ * ESEMPI:
+ * { "tipo": "CREATO", "id": "369627940182282300", "evento": {evento} }
+ * { "tipo": "MODIFICATO", "id": "369627940182282300", "evento": {evento}, "dataPrecedente": "2024-06-15" }
+ * { "tipo": "ELIMINATO", "id": "369627940182282300", "dataPrecedente": "2024-06-15" }
+ *
+ * - evento: stato nuovo, stesso JSON di GET /api/eventi/{id} (assente per ELIMINATO)
+ * - dataPrecedente: giorno in cui l'evento si trovava prima (assente per CREATO),
+ *   per toglierlo dal giorno giusto quando la data cambia
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoNotificaDTO {
+
+    private final String tipo;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Long id;
+    private final EventoResponseDTO evento;
+    private final LocalDate dataPrecedente;
+
+    public EventoNotificaDTO(String tipo, Long id, EventoResponseDTO evento, LocalDate dataPrecedente) {
+        this.tipo = tipo;
+        this.id = id;
+        this.evento = evento;
+        this.dataPrecedente = dataPrecedente;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EventoResponseDTO getEvento() {
+        return evento;
+    }
+
+    public LocalDate getDataPrecedente() {
+        return dataPrecedente;
+    }
+}
@@ -0,0 +1,67 @@
+package com.eventpro.catering.dto;
+
+import java.util.List;
+
+/**
+ * DTO PER UNA PAGINA DI EVENTI (PAGINAZIONE KEYSET)
+ *
+ * ESEMPIO DI RISPOSTA:
+ * {
+ *   "eventi": [ {evento1}, {evento2}, ... ],
+ *   "size": 50,
+ *   "hasNext": true,
+ *   "nextCursor": "MjAyNC0wNi0xNXwxODowMHwx"
+ * }
+ *
+ * Per la pagina successiva il client chiama:
+ * GET /api/eventi?size=50&cursor=MjAyNC0wNi0xNXwxODowMHwx
+ */
+public class EventoPageDTO {
+
+    private List<EventoResponseDTO> eventi;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public EventoPageDTO() {
+    }
+
+    public EventoPageDTO(List<EventoResponseDTO> eventi, int size, boolean hasNext, String nextCursor) {
+        this.eventi = eventi;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventoResponseDTO> getEventi() {
+        return eventi;
+    }
+
+    public void setEventi(List<EventoResponseDTO> eventi) {
+        this.eventi = eventi;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
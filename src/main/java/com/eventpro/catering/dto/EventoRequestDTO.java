@@ -31,6 +31,8 @@ public class EventoRequestDTO {
 
     private Boolean eventoGiornaliero = false;
 
+    // Accetta numero o stringa: il frontend rimanda la stringa ricevuta nelle risposte,
+    // perché un TSID convertito in Number JavaScript perde precisione oltre 2^53
     @NotNull(message = "La tipologia evento è obbligatoria")
     @Positive(message = "L'ID della tipologia evento deve essere positivo")
     private Long tipologiaEventoId;
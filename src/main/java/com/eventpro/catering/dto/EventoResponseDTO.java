@@ -1,5 +1,8 @@
 package com.eventpro.catering.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
 import java.time.LocalDate;
 import java.time.LocalTime;
 
@@ -10,6 +13,8 @@ import java.time.LocalTime;
  */
 public class EventoResponseDTO {
 
+    // ID TSID a 64 bit: serializzato come stringa (JavaScript perde precisione oltre 2^53)
+    @JsonSerialize(using = ToStringSerializer.class)
     private Long id;
     private String nome;
     private LocalDate data;
@@ -19,11 +24,13 @@ public class EventoResponseDTO {
     private String note;
     private Boolean eventoGiornaliero;
     private TipologiaEventoDTO tipologiaEvento;
+    private Long versione;
 
     /**
      * DTO NESTED PER TIPOLOGIA EVENTO
      */
     public static class TipologiaEventoDTO {
+        @JsonSerialize(using = ToStringSerializer.class)
         private Long id;
         private String nome;
 
@@ -142,4 +149,12 @@ public class EventoResponseDTO {
     public void setTipologiaEvento(TipologiaEventoDTO tipologiaEvento) {
         this.tipologiaEvento = tipologiaEvento;
     }
+
+    public Long getVersione() {
+        return versione;
+    }
+
+    public void setVersione(Long versione) {
+        this.versione = versione;
+    }
 }
@@ -0,0 +1,42 @@
+package com.eventpro.catering.dto;
+
+/**
+ * DTO PER LA REGISTRAZIONE (POST /api/auth/register)
+ *
+ * Contiene SOLO i dati che sceglie chi si registra. Ruolo, abilitazione e
+ * security stamp li decide il server: con l'entity Utente nel body un client
+ * poteva registrarsi con "role": "ADMIN" o "abilitato" a piacere.
+ * Altri campi nel JSON (es. "role") vengono ignorati.
+ */
+public class RegisterRequest {
+
+    private String email;
+    private String password;
+
+    // Costruttore vuoto (richiesto da Spring per deserializzazione JSON)
+    public RegisterRequest() {
+    }
+
+    // Costruttore con parametri
+    public RegisterRequest(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    // Getter e Setter
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
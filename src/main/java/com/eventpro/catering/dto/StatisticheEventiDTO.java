@@ -0,0 +1,181 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * DTO PER LA RISPOSTA DI GET /api/eventi/stats
+ *
+ * ESEMPIO:
+ * {
+ *   "anno": null,
+ *   "totale": 8, "giornalieri": 3,
+ *   "perTipologia": [
+ *     { "tipologiaId": "369627940182282240", "nome": "Matrimonio", "eventi": 2, "giornalieri": 2 },
+ *     { "tipologiaId": "369627940182282241", "nome": "Compleanno", "eventi": 0, "giornalieri": 0 }
+ *   ],
+ *   "perMese": [ { "mese": "2024-06", "eventi": 1 }, { "mese": "2024-08", "eventi": 2 } ],
+ *   "ultimaRiconciliazione": "2026-10-16T23:40:00Z"
+ * }
+ */
+public class StatisticheEventiDTO {
+
+    /**
+     * EVENTI DI UNA TIPOLOGIA
+     */
+    public static class TipologiaDTO {
+
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long tipologiaId;
+        private String nome;
+        private long eventi;
+        private long giornalieri;
+
+        public TipologiaDTO() {
+        }
+
+        public TipologiaDTO(Long tipologiaId, String nome, long eventi, long giornalieri) {
+            this.tipologiaId = tipologiaId;
+            this.nome = nome;
+            this.eventi = eventi;
+            this.giornalieri = giornalieri;
+        }
+
+        public Long getTipologiaId() {
+            return tipologiaId;
+        }
+
+        public void setTipologiaId(Long tipologiaId) {
+            this.tipologiaId = tipologiaId;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public long getEventi() {
+            return eventi;
+        }
+
+        public void setEventi(long eventi) {
+            this.eventi = eventi;
+        }
+
+        public long getGiornalieri() {
+            return giornalieri;
+        }
+
+        public void setGiornalieri(long giornalieri) {
+            this.giornalieri = giornalieri;
+        }
+    }
+
+    /**
+     * EVENTI DI UN MESE (tutte le tipologie)
+     */
+    public static class MeseDTO {
+
+        private YearMonth mese;
+        private long eventi;
+
+        public MeseDTO() {
+        }
+
+        public MeseDTO(YearMonth mese, long eventi) {
+            this.mese = mese;
+            this.eventi = eventi;
+        }
+
+        public YearMonth getMese() {
+            return mese;
+        }
+
+        public void setMese(YearMonth mese) {
+            this.mese = mese;
+        }
+
+        public long getEventi() {
+            return eventi;
+        }
+
+        public void setEventi(long eventi) {
+            this.eventi = eventi;
+        }
+    }
+
+    private Integer anno;
+    private long totale;
+    private long giornalieri;
+    private List<TipologiaDTO> perTipologia;
+    private List<MeseDTO> perMese;
+    private Instant ultimaRiconciliazione;
+
+    public StatisticheEventiDTO() {
+    }
+
+    public StatisticheEventiDTO(Integer anno, long totale, long giornalieri, List<TipologiaDTO> perTipologia,
+                                List<MeseDTO> perMese, Instant ultimaRiconciliazione) {
+        this.anno = anno;
+        this.totale = totale;
+        this.giornalieri = giornalieri;
+        this.perTipologia = perTipologia;
+        this.perMese = perMese;
+        this.ultimaRiconciliazione = ultimaRiconciliazione;
+    }
+
+    public Integer getAnno() {
+        return anno;
+    }
+
+    public void setAnno(Integer anno) {
+        this.anno = anno;
+    }
+
+    public long getTotale() {
+        return totale;
+    }
+
+    public void setTotale(long totale) {
+        this.totale = totale;
+    }
+
+    public long getGiornalieri() {
+        return giornalieri;
+    }
+
+    public void setGiornalieri(long giornalieri) {
+        this.giornalieri = giornalieri;
+    }
+
+    public List<TipologiaDTO> getPerTipologia() {
+        return perTipologia;
+    }
+
+    public void setPerTipologia(List<TipologiaDTO> perTipologia) {
+        this.perTipologia = perTipologia;
+    }
+
+    public List<MeseDTO> getPerMese() {
+        return perMese;
+    }
+
+    public void setPerMese(List<MeseDTO> perMese) {
+        this.perMese = perMese;
+    }
+
+    public Instant getUltimaRiconciliazione() {
+        return ultimaRiconciliazione;
+    }
+
+    public void setUltimaRiconciliazione(Instant ultimaRiconciliazione) {
+        this.ultimaRiconciliazione = ultimaRiconciliazione;
+    }
+}
@@ -0,0 +1,37 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+/**
+ * DTO PER LA RISPOSTA TIPOLOGIA EVENTO
+ *
+ * Usato da GET /api/tipologie. Immutabile: le istanze vengono condivise
+ * dal TipologiaEventoRegistry tra tutte le richieste.
+ */
+public class TipologiaEventoResponseDTO {
+
+    // ID TSID: serializzato come stringa, come in EventoResponseDTO
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Long id;
+    private final String nome;
+    private final String descrizione;
+
+    public TipologiaEventoResponseDTO(Long id, String nome, String descrizione) {
+        this.id = id;
+        this.nome = nome;
+        this.descrizione = descrizione;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDescrizione() {
+        return descrizione;
+    }
+}
@@ -0,0 +1,28 @@
+package com.eventpro.catering.exception;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+
+import java.util.List;
+
+/**
+ * ECCEZIONE PER SOVRAPPOSIZIONE DI EVENTI NELLA STESSA LOCATION
+ *
+ * Viene lanciata quando un evento creato o modificato si sovrappone, nella
+ * stessa location e nella stessa data, a eventi già prenotati.
+ * Il GlobalExceptionHandler la trasforma in HTTP 409 con l'elenco degli
+ * eventi in conflitto.
+ */
+public class EventoConflittoException extends RuntimeException {
+
+    private final transient List<EventoResponseDTO> conflitti;
+
+    public EventoConflittoException(String location, List<EventoResponseDTO> conflitti) {
+        super("La location \"" + location + "\" è già occupata in quell'orario da "
+                + conflitti.size() + (conflitti.size() == 1 ? " evento" : " eventi"));
+        this.conflitti = List.copyOf(conflitti);
+    }
+
+    public List<EventoResponseDTO> getConflitti() {
+        return conflitti;
+    }
+}
@@ -1,5 +1,8 @@
 package com.eventpro.catering.exception;
 
+import com.eventpro.catering.dto.ConflittoEventiDTO;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,4 +26,34 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
+
+    /**
+     * Evento sovrapposto ad altri nella stessa location e data:
+     * il body elenca gli eventi in conflitto
+     */
+    @ExceptionHandler(EventoConflittoException.class)
+    public ResponseEntity<ConflittoEventiDTO> handleEventoConflitto(EventoConflittoException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ConflittoEventiDTO(ex.getMessage(), ex.getConflitti()));
+    }
+
+    /**
+     * Modifica concorrente dello stesso evento (controllo di @Version fallito):
+     * il client deve rileggere l'evento e riprovare
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("L'evento è stato modificato da un'altra richiesta: rileggerlo e riprovare");
+    }
+
+    /**
+     * Limite del server raggiunto: il client riprova dopo Retry-After secondi
+     */
+    @ExceptionHandler(ServizioSovraccaricoException.class)
+    public ResponseEntity<String> handleServizioSovraccarico(ServizioSovraccaricoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRiprovaTra().toSeconds())))
+                .body(ex.getMessage());
+    }
 }
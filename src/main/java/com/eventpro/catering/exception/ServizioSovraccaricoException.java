@@ -0,0 +1,25 @@
+package com.eventpro.catering.exception;
+
+import java.time.Duration;
+
+/**
+ * ECCEZIONE PER UNA RISORSA DEL SERVER ESAURITA (TEMPORANEAMENTE)
+ *
+ * Lanciata quando una richiesta non può essere servita perché un limite
+ * voluto è stato raggiunto (es. troppe connessioni di notifica aperte).
+ * Il GlobalExceptionHandler la trasforma in HTTP 503 con l'header
+ * Retry-After: il client può riprovare dopo quel numero di secondi.
+ */
+public class ServizioSovraccaricoException extends RuntimeException {
+
+    private final Duration riprovaTra;
+
+    public ServizioSovraccaricoException(String message, Duration riprovaTra) {
+        super(message);
+        this.riprovaTra = riprovaTra;
+    }
+
+    public Duration getRiprovaTra() {
+        return riprovaTra;
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventpro.catering. model;
 
+import com.eventpro.catering.model.id.Tsid;
 import jakarta.persistence.*;
 
 /**
@@ -20,7 +21,7 @@ public class Cliente {
      * ID UNIVOCO DEL CLIENTE
      */
     @Id
-    @GeneratedValue(strategy = GenerationType. IDENTITY)
+    @Tsid
     private Long id;
 
     /**
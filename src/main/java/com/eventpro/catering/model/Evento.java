@@ -1,7 +1,14 @@
 package com.eventpro.catering.model;
 
+import com.eventpro.catering.model.id.Tsid;
+import com.eventpro.catering.service.EventoListener;
+import com.eventpro.catering.service.EventoModificheListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 /**
@@ -28,28 +35,37 @@ import java.time.LocalTime;
  * - @Entity: dice a Hibernate che questa classe rappresenta una tabella
  * - @Table: specifica il nome della tabella nel database
  * - @Id: specifica la colonna che è la chiave primaria
- * - @GeneratedValue: genera automaticamente l'ID
+ * - @Tsid: genera l'ID lato applicazione, ordinato nel tempo (vedi model.id.TsidGenerator)
  * - @Column: configura le proprietà delle colonne
  * - @ManyToOne: definisce una relazione molti-a-uno con un'altra entità
  * - @JoinColumn: specifica il nome della colonna foreign key
+ * - @EntityListeners: dopo ogni commit invalida il JSON in cache dell'evento
+ *   e del suo giorno (EventoJsonCache); prima di ogni scrittura assegna la
+ *   versione di modifica e registra le cancellazioni (EventoModificheListener)
  */
 @Entity
 @Table(name = "evento")
+@EntityListeners({EventoListener.class, EventoModificheListener.class})
 public class Evento {
 
     /**
      * ID UNIVOCO DELL'EVENTO
      *
      * @Id: questa colonna è la chiave primaria (ogni evento ha un ID unico)
-     * @GeneratedValue(strategy = GenerationType.IDENTITY): genera automaticamente l'ID
-     * - IDENTITY: il database genera l'ID automaticamente (1, 2, 3, ...)
+     * @Tsid: l'ID è un TSID a 64 bit assegnato dall'applicazione prima della INSERT
+     * - è ordinato nel tempo: i nuovi eventi finiscono in fondo all'indice, come con AUTO_INCREMENT
+     * - non serve una INSERT immediata per conoscerlo: POST /api/eventi/batch
+     *   può inviare le INSERT in batch JDBC
      *
      * ESEMPIO:
-     * - Primo evento creato: ID = 1 (es. "Matrimonio Mario e Lucia")
-     * - Secondo evento creato: ID = 2 (es. "Compleanno Giovanni")
+     * - Evento creato il 15/06/2025 alle 10:00 → ID = 192548752588800000
+     * - Evento creato un attimo dopo → ID = 192548752588800001 (stesso ms, sequenza + 1)
+     *
+     * NEL JSON l'ID è una stringa ("192548752588800000"): JavaScript perde
+     * precisione sui numeri interi oltre 2^53.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long id;
 
     /**
@@ -175,8 +191,12 @@ public class Evento {
      *
      * QUERY SQL GENERATA:
      * - FOREIGN KEY (tipologia_evento_id) REFERENCES tipologia_evento(id)
+     *
+     * fetch = LAZY: la tipologia NON viene caricata insieme all'evento.
+     * Le query che la usano (liste, dettaglio) la caricano con una JOIN
+     * (@EntityGraph o JOIN FETCH in EventoRepository), evitando una SELECT in più per riga.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tipologia_evento_id", nullable = false)
     private TipologiaEvento tipologiaEvento;
 
@@ -196,11 +216,64 @@ public class Evento {
      * - FOREIGN KEY (cliente_id) REFERENCES cliente(id)
      *
      * NOTA: Questa relazione sarà popolata quando il Task BE-03 (Cliente) sarà completato
+     *
+     * fetch = LAZY: il cliente viene letto solo se qualcuno chiama getCliente().
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = true)
     private Cliente cliente;
 
+    /**
+     * VERSIONE DELL'EVENTO (OPTIMISTIC LOCKING)
+     *
+     * @Version: Hibernate la incrementa a ogni UPDATE dell'evento
+     * (UPDATE ... SET versione = versione + 1 WHERE id = ? AND versione = ?).
+     *
+     * USATA PER:
+     * - ETag di GET /api/eventi/{id}: se la versione non cambia, l'evento non è cambiato
+     *   e il server risponde 304 leggendo solo (id, versione, data)
+     * - Evitare che due modifiche concorrenti si sovrascrivano a vicenda
+     *
+     * ESEMPIO:
+     * - Evento appena creato → versione = 0
+     * - Dopo una modifica → versione = 1
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versione;
+
+    /**
+     * VERSIONE DI MODIFICA (SINCRONIZZAZIONE DELTA)
+     *
+     * A differenza di "versione" non è un contatore dell'evento ma un numero
+     * crescente condiviso da tutti gli eventi: a ogni INSERT e UPDATE lo assegna
+     * EventoModificheService con SQL diretto, subito prima del commit. Il valore
+     * in memoria resta quello precedente (0 per un evento nuovo).
+     *
+     * USATA PER:
+     * - GET /api/eventi/changes?since=N → eventi con versioneModifica > N
+     *
+     * ESEMPIO:
+     * - Evento A creato → versioneModifica = 41
+     * - Evento B creato dopo → 42; A modificato dopo ancora → 43
+     */
+    @Column(name = "versione_modifica", nullable = false)
+    private Long versioneModifica;
+
+    /**
+     * DATA E ORA DI CREAZIONE (impostata da Hibernate alla INSERT)
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime creatoIl;
+
+    /**
+     * DATA E ORA DELL'ULTIMA MODIFICA (impostata da Hibernate a ogni INSERT e UPDATE)
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime aggiornatoIl;
+
     // ========================================================================
     // COSTRUTTORI
     // ========================================================================
@@ -356,6 +429,30 @@ public class Evento {
         this.cliente = cliente;
     }
 
+    public Long getVersione() {
+        return versione;
+    }
+
+    public void setVersione(Long versione) {
+        this.versione = versione;
+    }
+
+    public Long getVersioneModifica() {
+        return versioneModifica;
+    }
+
+    public void setVersioneModifica(Long versioneModifica) {
+        this.versioneModifica = versioneModifica;
+    }
+
+    public LocalDateTime getCreatoIl() {
+        return creatoIl;
+    }
+
+    public LocalDateTime getAggiornatoIl() {
+        return aggiornatoIl;
+    }
+
     // ========================================================================
     // METODO toString (UTILE PER DEBUG)
     // ========================================================================
@@ -1,5 +1,7 @@
 package com.eventpro.catering.model;
 
+import com.eventpro.catering.model.id.Tsid;
+import com.eventpro.catering.service.TipologiaEventoListener;
 import jakarta.persistence.*;
 
 /**
@@ -24,26 +26,28 @@ import jakarta.persistence.*;
  * - @Entity: dice a Hibernate che questa classe rappresenta una tabella
  * - @Table: specifica il nome della tabella nel database
  * - @Id: specifica la colonna che è la chiave primaria
- * - @GeneratedValue: genera automaticamente l'ID
+ * - @Tsid: genera l'ID lato applicazione, ordinato nel tempo (vedi model.id.TsidGenerator)
  * - @Column: configura le proprietà delle colonne
+ * - @EntityListeners: dopo ogni modifica ricarica il registro in memoria
+ *   delle tipologie (TipologiaEventoRegistry)
  */
 @Entity
 @Table(name = "TIPOLOGIA_EVENTO")
+@EntityListeners(TipologiaEventoListener.class)
 public class TipologiaEvento {
 
     /**
      * ID UNIVOCO DELLA TIPOLOGIA
      *
      * @Id: questa colonna è la chiave primaria (ogni tipologia ha un ID unico)
-     * @GeneratedValue(strategy = GenerationType.IDENTITY): genera automaticamente l'ID
-     *     - IDENTITY: il database genera l'ID automaticamente (1, 2, 3, ...)
+     * @Tsid: l'ID viene generato dall'applicazione (TsidGenerator), non dal database
      *
      * ESEMPIO:
-     * - Prima tipologia creata: ID = 1 (es. "Matrimonio")
-     * - Seconda tipologia creata: ID = 2 (es. "Compleanno")
+     * - Tipologie già presenti prima del passaggio ai TSID: ID = 1, 2, 3, ...
+     * - Nuove tipologie: ID = 192548752588800000 (millisecondi + nodo + sequenza)
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long id;
 
     /**
@@ -1,7 +1,11 @@
 package com.eventpro.catering.model;
 
+import com.eventpro.catering.model.id.Tsid;
+import com.eventpro.catering.security.UtenteListener;
 import jakarta.persistence.*;
 
+import java.util.Objects;
+
 /**
  * ENTITY UTENTE - RAPPRESENTA UN UTENTE NEL DATABASE
  *
@@ -17,27 +21,28 @@ import jakarta.persistence.*;
  * - @Entity: dice a Hibernate che questa classe rappresenta una tabella
  * - @Table: specifica il nome della tabella nel database (opzionale, usa il nome della classe se non specificato)
  * - @Id: specifica la colonna che è la chiave primaria (identificatore unico di ogni riga)
- * - @GeneratedValue: genera automaticamente l'ID (1, 2, 3, ...)
+ * - @Tsid: genera l'ID lato applicazione, ordinato nel tempo (vedi model.id.TsidGenerator)
  * - @Column: configura le proprietà della colonna nel database
+ * - @EntityListeners: dopo ogni commit aggiorna il security stamp in memoria (UtenteListener)
  */
 @Entity
 @Table(name = "UTENTE")
+@EntityListeners(UtenteListener.class)
 public class Utente {
 
     /**
      * ID UNIVOCO DELL'UTENTE
      *
      * @Id: questa colonna è la chiave primaria (ogni utente ha un ID unico)
-     * @GeneratedValue(strategy = GenerationType.IDENTITY): genera automaticamente l'ID
-     *     - IDENTITY: il database genera l'ID automaticamente (1, 2, 3, ...)
-     *     - Ogni nuovo utente riceve un ID univoco
+     * @Tsid: l'ID viene generato dall'applicazione prima della INSERT
+     *     - Ogni nuovo utente riceve un ID univoco e crescente nel tempo
      *
      * ESEMPIO:
-     * - Primo utente creato: ID = 1
-     * - Secondo utente creato: ID = 2
+     * - Utente registrato prima del passaggio ai TSID: ID = 1
+     * - Utente registrato dopo: ID = 192548752588800000
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Tsid
     private Long id;
 
     /**
@@ -80,6 +85,30 @@ public class Utente {
     @Column(nullable = false)
     private String role;
 
+    /**
+     * SECURITY STAMP (NUMERO CHE CAMBIA A OGNI MODIFICA "DI SICUREZZA")
+     *
+     * Viene scritto nei token JWT al login (claim "stamp"). Cresce quando
+     * cambiano ruolo, password o abilitazione: da quel momento i token
+     * emessi prima non sono più accettati (vedi security.SecurityStampService),
+     * senza dover rileggere l'utente dal database a ogni richiesta.
+     *
+     * Gli utenti non ancora salvati (id null) non cambiano stamp: la
+     * registrazione imposta password e ruolo prima del primo salvataggio.
+     * Chi modifica queste colonne con SQL diretto deve incrementare anche
+     * security_stamp.
+     */
+    @Column(name = "security_stamp", nullable = false)
+    private long securityStamp = 1;
+
+    /**
+     * ACCOUNT ABILITATO
+     *
+     * false = l'utente non può fare login e i suoi token vengono rifiutati.
+     */
+    @Column(nullable = false)
+    private boolean abilitato = true;
+
     // ========================================================================
     // COSTRUTTORI
     // ========================================================================
@@ -163,6 +192,9 @@ public class Utente {
      * @param password la nuova password
      */
     public void setPassword(String password) {
+        if (id != null && !Objects.equals(this.password, password)) {
+            securityStamp++;
+        }
         this.password = password;
     }
 
@@ -179,9 +211,46 @@ public class Utente {
      * @param role il nuovo ruolo da assegnare
      */
     public void setRole(String role) {
+        if (id != null && !Objects.equals(this.role, role)) {
+            securityStamp++;
+        }
         this.role = role;
     }
 
+    /**
+     * Restituisce il security stamp (cambia a ogni modifica di ruolo, password o abilitazione)
+     * @return il security stamp attuale
+     */
+    public long getSecurityStamp() {
+        return securityStamp;
+    }
+
+    /**
+     * Invalida tutti i token emessi finora (logout da tutti i dispositivi)
+     */
+    public void revocaSessioni() {
+        securityStamp++;
+    }
+
+    /**
+     * Indica se l'account è abilitato
+     * @return true se l'utente può autenticarsi
+     */
+    public boolean isAbilitato() {
+        return abilitato;
+    }
+
+    /**
+     * Abilita o disabilita l'account (invalida i token già emessi)
+     * @param abilitato false per bloccare l'utente
+     */
+    public void setAbilitato(boolean abilitato) {
+        if (id != null && this.abilitato != abilitato) {
+            securityStamp++;
+        }
+        this.abilitato = abilitato;
+    }
+
 
     // ========================================================================
     // METODO toString (FACOLTATIVO MA UTILE)
@@ -201,6 +270,7 @@ public class Utente {
                 ", email='" + email + '\'' +
                 ", password='" + password + '\'' +
                 ", role='" + role + '\'' +
+                ", abilitato=" + abilitato +
                 '}';
     }
 
@@ -0,0 +1,29 @@
+package com.eventpro.catering.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ID GENERATO LATO APPLICAZIONE CON UN TSID (TIME-SORTED ID)
+ *
+ * Da usare al posto di @GeneratedValue(strategy = GenerationType.IDENTITY):
+ *
+ *   @Id
+ *   @Tsid
+ *   private Long id;
+ *
+ * L'id viene assegnato da TsidIdentifierGenerator PRIMA della INSERT:
+ * Hibernate non deve eseguire subito la INSERT per conoscere la chiave,
+ * quindi può raggruppare le INSERT in batch JDBC al momento del flush.
+ *
+ * @see TsidGenerator per il formato dell'id
+ */
+@IdGeneratorType(TsidIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Tsid {
+}
@@ -0,0 +1,32 @@
+package com.eventpro.catering.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+import static org.hibernate.generator.EventTypeSets.INSERT_ONLY;
+
+/**
+ * GENERATORE HIBERNATE PER GLI ID @Tsid
+ *
+ * BeforeExecutionGenerator: Hibernate chiede l'id in memoria, prima di
+ * scrivere la INSERT (al contrario di IDENTITY, dove l'id arriva dal
+ * database DOPO la INSERT).
+ *
+ * Gli id vengono da TsidGenerator.getDefault(), condiviso da tutte le entity.
+ */
+public class TsidIdentifierGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner,
+                           Object currentValue, EventType eventType) {
+        return TsidGenerator.getDefault().nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return INSERT_ONLY;
+    }
+}
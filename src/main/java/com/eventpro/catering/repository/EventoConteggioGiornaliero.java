@@ -0,0 +1,12 @@
+package com.eventpro.catering.repository;
+
+import java.time.LocalDate;
+
+/**
+ * NUMERO DI EVENTI DI UNA TIPOLOGIA IN UNA DATA
+ *
+ * Riga della query raggruppata (GROUP BY data, tipologia) usata per
+ * costruire il calendario in memoria.
+ */
+public record EventoConteggioGiornaliero(LocalDate data, Long tipologiaId, int eventi) {
+}
@@ -0,0 +1,9 @@
+package com.eventpro.catering.repository;
+
+/**
+ * NUMERO DI EVENTI PER (TIPOLOGIA, ANNO, MESE, EVENTO GIORNALIERO)
+ *
+ * Riga della query raggruppata usata dalle statistiche.
+ */
+public record EventoConteggioMensile(Long tipologiaId, int anno, int mese, boolean giornaliero, long eventi) {
+}
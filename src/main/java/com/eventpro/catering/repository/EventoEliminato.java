@@ -0,0 +1,12 @@
+package com.eventpro.catering.repository;
+
+import java.time.LocalDate;
+
+/**
+ * TOMBSTONE DI UN EVENTO CANCELLATO (tabella evento_eliminato)
+ *
+ * La data permette al client di togliere l'evento dal giorno giusto
+ * senza cercarlo in tutto il calendario.
+ */
+public record EventoEliminato(Long id, LocalDate data, long versioneModifica) {
+}
@@ -0,0 +1,216 @@
+package com.eventpro.catering.repository;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * REPOSITORY JDBC PER LE LETTURE DEGLI EVENTI (SENZA HIBERNATE)
+ *
+ * Legge le liste di eventi con una sola query SQL (evento JOIN tipologia_evento)
+ * e costruisce direttamente gli EventoResponseDTO dal ResultSet.
+ *
+ * PERCHÉ ESISTE:
+ * Con JPA ogni riga diventa prima un'entity Evento "managed" (con snapshot per il
+ * dirty checking e registrazione nel persistence context) e poi viene copiata
+ * campo per campo nel DTO. Per le sole letture questo lavoro è inutile:
+ * qui si passa dal ResultSet al DTO in un solo passaggio.
+ *
+ * Le query sono SQL standard, valide sia su H2 che su MySQL.
+ */
+@Repository
+public class EventoJdbcRepository {
+
+    /**
+     * Colonne della proiezione usata da tutte le query di lista
+     */
+    private static final String SELECT_EVENTI =
+            "SELECT e.id, e.nome, e.data, e.ora_inizio, e.ora_fine, e.location, e.note, " +
+            "e.evento_giornaliero, e.versione, t.id AS tipologia_id, t.nome AS tipologia_nome " +
+            "FROM evento e JOIN tipologia_evento t ON t.id = e.tipologia_evento_id ";
+
+    private static final String ORDINE = "ORDER BY e.data, e.ora_inizio, e.id ";
+
+    private static final RowMapper<EventoResponseDTO> EVENTO_ROW_MAPPER = new EventoResponseRowMapper();
+
+    private final JdbcClient jdbcClient;
+
+    public EventoJdbcRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    /**
+     * EVENTI DI UNA DATA
+     *
+     * QUERY SQL:
+     * SELECT ... FROM evento e JOIN tipologia_evento t ... WHERE e.data = ? ORDER BY ...
+     *
+     * @param data La data da cercare
+     * @return Lista di DTO in ordine di ora di inizio
+     */
+    public List<EventoResponseDTO> findByData(LocalDate data) {
+        return jdbcClient.sql(SELECT_EVENTI + "WHERE e.data = :data " + ORDINE)
+                .param("data", data)
+                .query(EVENTO_ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * PRIMA PAGINA IN ORDINE (data, oraInizio, id)
+     *
+     * @param limit Numero massimo di righe
+     * @return Lista di DTO
+     */
+    public List<EventoResponseDTO> findFirstPage(int limit) {
+        return jdbcClient.sql(SELECT_EVENTI + ORDINE + "LIMIT :limit")
+                .param("limit", limit)
+                .query(EVENTO_ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * PAGINA SUCCESSIVA AL CURSORE (data, oraInizio, id)
+     *
+     * Stessa condizione di seek di EventoRepository.findPageAfter.
+     *
+     * @param data Data dell'ultimo evento visto
+     * @param oraInizio Ora di inizio dell'ultimo evento visto
+     * @param id ID dell'ultimo evento visto
+     * @param limit Numero massimo di righe
+     * @return Lista di DTO
+     */
+    public List<EventoResponseDTO> findPageAfter(LocalDate data, LocalTime oraInizio, Long id, int limit) {
+        return jdbcClient.sql(SELECT_EVENTI +
+                        "WHERE e.data > :data " +
+                        "OR (e.data = :data AND e.ora_inizio > :oraInizio) " +
+                        "OR (e.data = :data AND e.ora_inizio = :oraInizio AND e.id > :id) " +
+                        ORDINE + "LIMIT :limit")
+                .param("data", data)
+                .param("oraInizio", oraInizio)
+                .param("id", id)
+                .param("limit", limit)
+                .query(EVENTO_ROW_MAPPER)
+                .list();
+    }
+
+    /**
+     * OCCUPAZIONI (data, orario, location) IN UN RANGE DI DATE
+     *
+     * QUERY SQL:
+     * SELECT data, ora_inizio, ora_fine, location FROM evento
+     * WHERE data BETWEEN ? AND ? [AND tipologia_evento_id = ?] ORDER BY data, ora_inizio
+     *
+     * Niente JOIN e niente colonne di testo lungo: un anno intero arriva
+     * in una sola query, letta dall'indice idx_evento_lista.
+     *
+     * @param da Prima data (inclusa)
+     * @param a Ultima data (inclusa)
+     * @param tipologiaId Solo eventi di questa tipologia (null = tutte)
+     * @return Occupazioni in ordine di data e ora di inizio
+     */
+    public List<EventoOccupazione> findOccupazioni(LocalDate da, LocalDate a, Long tipologiaId) {
+        String filtroTipologia = tipologiaId != null ? "AND tipologia_evento_id = :tipologiaId " : "";
+        JdbcClient.StatementSpec query = jdbcClient.sql(
+                        "SELECT data, ora_inizio, ora_fine, location FROM evento " +
+                        "WHERE data BETWEEN :da AND :a " + filtroTipologia +
+                        "ORDER BY data, ora_inizio")
+                .param("da", da)
+                .param("a", a);
+        if (tipologiaId != null) {
+            query = query.param("tipologiaId", tipologiaId);
+        }
+        return query.query((rs, rowNum) -> new EventoOccupazione(
+                        rs.getObject("data", LocalDate.class),
+                        rs.getObject("ora_inizio", LocalTime.class),
+                        rs.getObject("ora_fine", LocalTime.class),
+                        rs.getString("location")))
+                .list();
+    }
+
+    /**
+     * NUMERO DI EVENTI PER (DATA, TIPOLOGIA) SU TUTTA LA TABELLA
+     *
+     * QUERY SQL:
+     * SELECT data, tipologia_evento_id, COUNT(*) FROM evento
+     * GROUP BY data, tipologia_evento_id
+     *
+     * Una riga per ogni giorno "occupato" e tipologia, non per evento:
+     * anche con milioni di eventi il risultato resta di poche decine di migliaia di righe.
+     *
+     * @return Conteggi per data e tipologia (nessun ordine garantito)
+     */
+    public List<EventoConteggioGiornaliero> findConteggiGiornalieri() {
+        return jdbcClient.sql("SELECT data, tipologia_evento_id, COUNT(*) AS eventi FROM evento " +
+                        "GROUP BY data, tipologia_evento_id")
+                .query((rs, rowNum) -> new EventoConteggioGiornaliero(
+                        rs.getObject("data", LocalDate.class),
+                        rs.getLong("tipologia_evento_id"),
+                        rs.getInt("eventi")))
+                .list();
+    }
+
+    /**
+     * NUMERO DI EVENTI PER TIPOLOGIA, MESE E FLAG "GIORNALIERO"
+     *
+     * QUERY SQL:
+     * SELECT tipologia_evento_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data),
+     *        evento_giornaliero, COUNT(*)
+     * FROM evento GROUP BY ...
+     *
+     * Una sola query al posto di un COUNT per ogni tipologia.
+     *
+     * @return Conteggi raggruppati (nessun ordine garantito)
+     */
+    public List<EventoConteggioMensile> findConteggiMensili() {
+        return jdbcClient.sql("SELECT tipologia_evento_id, EXTRACT(YEAR FROM data) AS anno, " +
+                        "EXTRACT(MONTH FROM data) AS mese, evento_giornaliero, COUNT(*) AS eventi " +
+                        "FROM evento " +
+                        "GROUP BY tipologia_evento_id, EXTRACT(YEAR FROM data), EXTRACT(MONTH FROM data), " +
+                        "evento_giornaliero")
+                .query((rs, rowNum) -> new EventoConteggioMensile(
+                        rs.getLong("tipologia_evento_id"),
+                        rs.getInt("anno"),
+                        rs.getInt("mese"),
+                        rs.getBoolean("evento_giornaliero"),
+                        rs.getLong("eventi")))
+                .list();
+    }
+
+    /**
+     * ROW MAPPER: RIGA DEL RESULTSET → EventoResponseDTO (+ TipologiaEventoDTO)
+     *
+     * Scritto a mano (niente reflection): legge le colonne per nome
+     * e costruisce i due DTO con i costruttori completi.
+     */
+    static final class EventoResponseRowMapper implements RowMapper<EventoResponseDTO> {
+
+        @Override
+        public EventoResponseDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+            EventoResponseDTO.TipologiaEventoDTO tipologia = new EventoResponseDTO.TipologiaEventoDTO(
+                    rs.getLong("tipologia_id"),
+                    rs.getString("tipologia_nome")
+            );
+
+            EventoResponseDTO dto = new EventoResponseDTO(
+                    rs.getLong("id"),
+                    rs.getString("nome"),
+                    rs.getObject("data", LocalDate.class),
+                    rs.getObject("ora_inizio", LocalTime.class),
+                    rs.getObject("ora_fine", LocalTime.class),
+                    rs.getString("location"),
+                    rs.getString("note"),
+                    rs.getBoolean("evento_giornaliero"),
+                    tipologia
+            );
+            dto.setVersione(rs.getLong("versione"));
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.eventpro.catering.repository;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+
+/**
+ * EVENTO CREATO O MODIFICATO, CON LA SUA VERSIONE DI MODIFICA
+ *
+ * La versione serve solo a costruire il cursore della pagina successiva
+ * di GET /api/eventi/changes: nel JSON esce il solo EventoResponseDTO.
+ */
+public record EventoModificato(EventoResponseDTO evento, long versioneModifica) {
+}
@@ -0,0 +1,226 @@
+package com.eventpro.catering.repository;
+
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REPOSITORY JDBC PER IL TRACCIAMENTO DELLE MODIFICHE AGLI EVENTI
+ *
+ * Contatore delle versioni di modifica, tombstone degli eventi cancellati
+ * e letture di GET /api/eventi/changes (schema in V3__modifiche_evento.sql).
+ *
+ * PERCHÉ JDBC E NON JPA:
+ * le scritture partono da EventoModificheService subito prima del commit, dopo
+ * l'ultimo flush di Hibernate: una UPDATE per blocco di id invece di rendere
+ * "dirty" ogni entity (che farebbe anche crescere la sua @Version).
+ * JdbcClient usa comunque la stessa connessione (e la stessa transazione)
+ * aperta da Spring per Hibernate.
+ *
+ * Le query sono SQL standard, valide sia su H2 che su MySQL.
+ */
+@Repository
+public class EventoModificheRepository {
+
+    private static final String CONTATORE = "evento";
+
+    // Versione più alta tra i tombstone cancellati dalla pulizia (V6__pulizia_tombstone.sql)
+    private static final String TOMBSTONE_RIMOSSI = "evento-eliminati-rimossi";
+
+    // Id per istruzione in assegnaVersione
+    private static final int ID_PER_UPDATE = 1000;
+
+    /**
+     * Id e data di un evento creato, modificato o cancellato
+     */
+    public record EventoToccato(long id, LocalDate data) {
+    }
+
+    private static final String SELECT_MODIFICATI =
+            "SELECT e.id, e.nome, e.data, e.ora_inizio, e.ora_fine, e.location, e.note, " +
+            "e.evento_giornaliero, e.versione, e.versione_modifica, " +
+            "t.id AS tipologia_id, t.nome AS tipologia_nome " +
+            "FROM evento e JOIN tipologia_evento t ON t.id = e.tipologia_evento_id ";
+
+    private static final EventoJdbcRepository.EventoResponseRowMapper EVENTO_ROW_MAPPER =
+            new EventoJdbcRepository.EventoResponseRowMapper();
+
+    private final JdbcClient jdbcClient;
+
+    public EventoModificheRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    /**
+     * INCREMENTA IL CONTATORE E RESTITUISCE IL NUOVO VALORE
+     *
+     * La UPDATE blocca la riga del contatore fino alla fine della transazione:
+     * un'altra transazione che scrive eventi aspetta qui il nostro commit.
+     * Per questo EventoModificheService la chiama solo subito prima del commit.
+     */
+    public long incrementaVersione() {
+        jdbcClient.sql("UPDATE contatore_modifiche SET valore = valore + 1 WHERE nome = :nome")
+                .param("nome", CONTATORE)
+                .update();
+        return versioneCorrente();
+    }
+
+    /**
+     * ULTIMA VERSIONE ASSEGNATA (quella della transazione corrente, se ha incrementato)
+     */
+    public long versioneCorrente() {
+        return jdbcClient.sql("SELECT valore FROM contatore_modifiche WHERE nome = :nome")
+                .param("nome", CONTATORE)
+                .query(Long.class)
+                .single();
+    }
+
+    /**
+     * ASSEGNA LA VERSIONE DI MODIFICA AGLI EVENTI SCRITTI NELLA TRANSAZIONE
+     *
+     * Una UPDATE ... WHERE id IN (...) per blocco di id, per restare sotto il
+     * limite di parametri per istruzione anche con i batch grandi. Gli id di
+     * eventi creati e poi cancellati nella stessa transazione non trovano righe.
+     */
+    public void assegnaVersione(List<Long> ids, long versioneModifica) {
+        for (int inizio = 0; inizio < ids.size(); inizio += ID_PER_UPDATE) {
+            jdbcClient.sql("UPDATE evento SET versione_modifica = :versione WHERE id IN (:ids)")
+                    .param("versione", versioneModifica)
+                    .param("ids", ids.subList(inizio, Math.min(inizio + ID_PER_UPDATE, ids.size())))
+                    .update();
+        }
+    }
+
+    /**
+     * REGISTRA LA CANCELLAZIONE DI UN EVENTO (tombstone)
+     */
+    public void inserisciEliminato(Long id, LocalDate data, long versioneModifica) {
+        jdbcClient.sql("INSERT INTO evento_eliminato (id, data, versione_modifica) VALUES (:id, :data, :versione)")
+                .param("id", id)
+                .param("data", data)
+                .param("versione", versioneModifica)
+                .update();
+    }
+
+    /**
+     * CANCELLA I TOMBSTONE REGISTRATI PRIMA DI "soglia"
+     *
+     * Cancella per versione (tutti quelli fino alla versione più alta tra i
+     * vecchi) e registra quella versione nella stessa transazione: chi legge
+     * il contatore sa esattamente quali tombstone mancano.
+     *
+     * @return Versione più alta tra i tombstone cancellati, oppure 0 se non c'era niente da cancellare
+     */
+    @Transactional
+    public long eliminaTombstonePrimaDi(Instant soglia) {
+        Long fino = jdbcClient.sql("SELECT MAX(versione_modifica) FROM evento_eliminato WHERE eliminato_il < :soglia")
+                .param("soglia", Timestamp.from(soglia))
+                .query(Long.class)
+                .optional()
+                .orElse(null);
+        if (fino == null) {
+            return 0;
+        }
+        jdbcClient.sql("DELETE FROM evento_eliminato WHERE versione_modifica <= :versione")
+                .param("versione", fino)
+                .update();
+        jdbcClient.sql("UPDATE contatore_modifiche SET valore = :versione WHERE nome = :nome AND valore < :versione")
+                .param("versione", fino)
+                .param("nome", TOMBSTONE_RIMOSSI)
+                .update();
+        return fino;
+    }
+
+    /**
+     * VERSIONE PIÙ ALTA TRA I TOMBSTONE CANCELLATI (0 = nessuno)
+     *
+     * Sono conservati tutti i tombstone con versione maggiore: una since più
+     * bassa potrebbe non vedere alcune cancellazioni.
+     */
+    public long versioneTombstoneRimossi() {
+        return jdbcClient.sql("SELECT valore FROM contatore_modifiche WHERE nome = :nome")
+                .param("nome", TOMBSTONE_RIMOSSI)
+                .query(Long.class)
+                .single();
+    }
+
+    /**
+     * EVENTI CREATI O MODIFICATI DOPO LA POSIZIONE (versione, id), FINO A "limite" INCLUSO
+     *
+     * QUERY SQL:
+     * SELECT ... WHERE (versione_modifica, id) > (?, ?) AND versione_modifica <= ?
+     * ORDER BY versione_modifica, id LIMIT ?
+     *
+     * Usa idx_evento_modifica: con nessuna modifica recente legge zero righe.
+     */
+    public List<EventoModificato> findModificati(long dopoVersione, long dopoId, long limite, int righe) {
+        return jdbcClient.sql(SELECT_MODIFICATI +
+                        "WHERE (e.versione_modifica > :versione " +
+                        "OR (e.versione_modifica = :versione AND e.id > :id)) " +
+                        "AND e.versione_modifica <= :limite " +
+                        "ORDER BY e.versione_modifica, e.id LIMIT :righe")
+                .param("versione", dopoVersione)
+                .param("id", dopoId)
+                .param("limite", limite)
+                .param("righe", righe)
+                .query((rs, rowNum) -> new EventoModificato(
+                        EVENTO_ROW_MAPPER.mapRow(rs, rowNum), rs.getLong("versione_modifica")))
+                .list();
+    }
+
+    /**
+     * EVENTI CANCELLATI DOPO LA POSIZIONE (versione, id), FINO A "limite" INCLUSO
+     *
+     * Stessa condizione di findModificati, sulla tabella dei tombstone.
+     */
+    public List<EventoEliminato> findEliminati(long dopoVersione, long dopoId, long limite, int righe) {
+        return jdbcClient.sql("SELECT id, data, versione_modifica FROM evento_eliminato " +
+                        "WHERE (versione_modifica > :versione " +
+                        "OR (versione_modifica = :versione AND id > :id)) " +
+                        "AND versione_modifica <= :limite " +
+                        "ORDER BY versione_modifica, id LIMIT :righe")
+                .param("versione", dopoVersione)
+                .param("id", dopoId)
+                .param("limite", limite)
+                .param("righe", righe)
+                .query((rs, rowNum) -> new EventoEliminato(
+                        rs.getLong("id"),
+                        rs.getObject("data", LocalDate.class),
+                        rs.getLong("versione_modifica")))
+                .list();
+    }
+
+    /**
+     * EVENTI TOCCATI TRA DUE VERSIONI: dopoVersione < versione_modifica <= limite
+     *
+     * Id e data degli eventi creati o modificati (tabella evento) e di quelli
+     * cancellati (tombstone), al massimo "righe" per tabella. Servono alle
+     * cache in memoria per scartare solo ciò che è cambiato su altre istanze.
+     * Entrambe le query usano gli indici su (versione_modifica, id).
+     */
+    public List<EventoToccato> findToccati(long dopoVersione, long limite, int righe) {
+        List<EventoToccato> toccati = new ArrayList<>(jdbcClient.sql("SELECT id, data FROM evento " +
+                        "WHERE versione_modifica > :versione AND versione_modifica <= :limite " +
+                        "ORDER BY versione_modifica, id LIMIT :righe")
+                .param("versione", dopoVersione)
+                .param("limite", limite)
+                .param("righe", righe)
+                .query((rs, rowNum) -> new EventoToccato(rs.getLong("id"), rs.getObject("data", LocalDate.class)))
+                .list());
+        toccati.addAll(jdbcClient.sql("SELECT id, data FROM evento_eliminato " +
+                        "WHERE versione_modifica > :versione AND versione_modifica <= :limite " +
+                        "ORDER BY versione_modifica, id LIMIT :righe")
+                .param("versione", dopoVersione)
+                .param("limite", limite)
+                .param("righe", righe)
+                .query((rs, rowNum) -> new EventoToccato(rs.getLong("id"), rs.getObject("data", LocalDate.class)))
+                .list());
+        return toccati;
+    }
+}
@@ -0,0 +1,13 @@
+package com.eventpro.catering.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * PROIEZIONE MINIMA DI UN EVENTO PER IL CALCOLO DELLA DISPONIBILITÀ
+ *
+ * Solo data, orario e location: tutte colonne dell'indice idx_evento_lista,
+ * quindi la query del range di date non legge le righe della tabella.
+ */
+public record EventoOccupazione(LocalDate data, LocalTime oraInizio, LocalTime oraFine, String location) {
+}
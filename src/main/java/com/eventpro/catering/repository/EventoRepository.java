@@ -3,12 +3,21 @@ package com.eventpro.catering.repository;
 import com.eventpro.catering.model.Evento;
 import com.eventpro.catering. model.TipologiaEvento;
 import com.eventpro.catering. model.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org. springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java. util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * REPOSITORY EVENTO - INTERFACE PER ACCEDERE AI DATI DEGLI EVENTI
@@ -36,6 +45,46 @@ import java.util.Optional;
 @Repository
 public interface EventoRepository extends JpaRepository<Evento, Long> {
 
+    // ========================================================================
+    // STRATEGIA DI FETCH
+    // ========================================================================
+    // Le relazioni di Evento sono LAZY. I metodi che restituiscono eventi da
+    // convertire in DTO caricano la tipologia nella STESSA query con
+    // @EntityGraph(attributePaths = "tipologiaEvento") o JOIN FETCH:
+    //
+    //   SELECT e.*, t.* FROM evento e JOIN tipologia_evento t ON ...
+    //
+    // Senza, Hibernate eseguirebbe una SELECT in più per ogni tipologia
+    // diversa (problema N+1). I test con @QueryBudget verificano il numero
+    // di query per endpoint.
+    // ========================================================================
+
+    /**
+     * TROVA UN EVENTO PER ID (CON TIPOLOGIA)
+     *
+     * Ridefinisce findById di JpaRepository per caricare anche la tipologia
+     * con una sola query.
+     *
+     * @param id ID dell'evento
+     * @return L'evento, se esiste
+     */
+    @Override
+    @EntityGraph(attributePaths = "tipologiaEvento")
+    Optional<Evento> findById(Long id);
+
+    /**
+     * LEGGE SOLO (id, versione, data) DI UN EVENTO
+     *
+     * QUERY SQL GENERATA AUTOMATICAMENTE:
+     * SELECT e.id, e.versione, e.data FROM evento e WHERE e.id = ?
+     *
+     * Serve per rispondere 304 Not Modified senza caricare l'evento.
+     *
+     * @param id ID dell'evento
+     * @return La proiezione, se l'evento esiste
+     */
+    Optional<EventoVersione> findVersioneById(Long id);
+
     /**
      * TROVA EVENTI PER NOME
      *
@@ -57,6 +106,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param nome Il nome dell'evento da cercare
      * @return Lista di eventi con quel nome
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByNome(String nome);
 
     /**
@@ -75,8 +125,26 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param data La data da cercare
      * @return Lista di eventi in quella data
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByData(LocalDate data);
 
+    /**
+     * TROVA EVENTI PER DATA, IN ORDINE DI LISTA
+     *
+     * Come findByData, ma con l'ordine promesso da EventoReadEngine
+     * (ora di inizio, poi id): quello della lista GET /api/eventi?data=
+     * e del motore JDBC. Senza ORDER BY l'ordine dipenderebbe dal piano
+     * di esecuzione del database.
+     *
+     * QUERY SQL GENERATA AUTOMATICAMENTE:
+     * SELECT * FROM evento WHERE data = ? ORDER BY ora_inizio, id
+     *
+     * @param data La data da cercare
+     * @return Eventi di quella data ordinati per ora di inizio e id
+     */
+    @EntityGraph(attributePaths = "tipologiaEvento")
+    List<Evento> findByDataOrderByOraInizioAscIdAsc(LocalDate data);
+
     /**
      * TROVA EVENTI PER TIPOLOGIA
      *
@@ -93,6 +161,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param tipologiaEvento La tipologia da cercare
      * @return Lista di eventi di quella tipologia
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByTipologiaEvento(TipologiaEvento tipologiaEvento);
 
     /**
@@ -111,6 +180,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param cliente Il cliente da cercare
      * @return Lista di eventi di quel cliente
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByCliente(Cliente cliente);
 
     /**
@@ -128,6 +198,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param eventoGiornaliero true per eventi giornalieri, false per eventi con orari specifici
      * @return Lista di eventi filtrati per flag giornaliero
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByEventoGiornaliero(Boolean eventoGiornaliero);
 
     /**
@@ -148,6 +219,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param dataFine Data di fine del range
      * @return Lista di eventi nel range di date
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByDataBetween(LocalDate dataInizio, LocalDate dataFine);
 
     /**
@@ -166,6 +238,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      * @param location Testo da cercare nella location
      * @return Lista di eventi con location che contiene il testo
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findByLocationContaining(String location);
 
     /**
@@ -220,6 +293,7 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      *
      * @return Lista di tutti gli eventi ordinati per data crescente
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findAllByOrderByDataAsc();
 
     /**
@@ -232,8 +306,91 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      *
      * @return Lista di tutti gli eventi ordinati per data decrescente
      */
+    @EntityGraph(attributePaths = "tipologiaEvento")
     List<Evento> findAllByOrderByDataDesc();
 
+    // ========================================================================
+    // PAGINAZIONE KEYSET (CURSORE)
+    // ========================================================================
+
+    /**
+     * PRIMA PAGINA DI EVENTI (ORDINE STABILE)
+     *
+     * Ordina per (data, oraInizio, id): l'id rende l'ordinamento totale,
+     * così due eventi con stessa data e ora non vengono mai saltati o duplicati
+     * tra una pagina e l'altra.
+     *
+     * QUERY SQL GENERATA AUTOMATICAMENTE:
+     * SELECT * FROM evento ORDER BY data, ora_inizio, id LIMIT ?
+     *
+     * @param limit Numero massimo di righe da leggere
+     * @return I primi eventi in ordine cronologico
+     */
+    @EntityGraph(attributePaths = "tipologiaEvento")
+    List<Evento> findAllByOrderByDataAscOraInizioAscIdAsc(Limit limit);
+
+    /**
+     * PAGINE SUCCESSIVE (SEEK DOPO IL CURSORE)
+     *
+     * Riparte dalla chiave dell'ultimo evento restituito invece di usare OFFSET,
+     * quindi il costo non cresce con la profondità della pagina.
+     * La condizione è l'equivalente portabile di
+     * (data, ora_inizio, id) > (:data, :oraInizio, :id)
+     *
+     * ESEMPIO DI USO:
+     * EventoCursor c = EventoCursor.decode(cursor);
+     * eventoRepository.findPageAfter(c.getData(), c.getOraInizio(), c.getId(), Limit.of(50));
+     *
+     * @param data Data dell'ultimo evento visto
+     * @param oraInizio Ora di inizio dell'ultimo evento visto
+     * @param id ID dell'ultimo evento visto
+     * @param limit Numero massimo di righe da leggere
+     * @return Gli eventi successivi al cursore
+     */
+    @Query("SELECT e FROM Evento e JOIN FETCH e.tipologiaEvento " +
+            "WHERE e.data > :data " +
+            "OR (e.data = :data AND e.oraInizio > :oraInizio) " +
+            "OR (e.data = :data AND e.oraInizio = :oraInizio AND e.id > :id) " +
+            "ORDER BY e.data ASC, e.oraInizio ASC, e.id ASC")
+    List<Evento> findPageAfter(@Param("data") LocalDate data,
+                               @Param("oraInizio") LocalTime oraInizio,
+                               @Param("id") Long id,
+                               Limit limit);
+
+    // ========================================================================
+    // EXPORT IN STREAMING
+    // ========================================================================
+
+    /**
+     * STREAM DEGLI EVENTI IN UN RANGE DI DATE (PER EXPORT)
+     *
+     * A differenza di findByDataBetween non costruisce una List in memoria:
+     * le righe arrivano dal cursore JDBC a blocchi di "fetchSize" e vengono
+     * lette una alla volta.
+     *
+     * HINT USATI:
+     * - fetchSize: quante righe il driver legge per ogni round trip
+     *   (su MySQL serve anche useCursorFetch=true nell'URL)
+     * - readOnly: Hibernate non salva lo snapshot per il dirty checking
+     *
+     * IMPORTANTE:
+     * - Va chiamato dentro una transazione (@Transactional(readOnly = true))
+     * - Lo Stream va chiuso (try-with-resources) per rilasciare il cursore
+     *
+     * @param dataInizio Data di inizio del range (inclusa)
+     * @param dataFine Data di fine del range (inclusa)
+     * @return Stream di eventi ordinati per (data, oraInizio, id)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Evento e JOIN FETCH e.tipologiaEvento " +
+            "WHERE e.data BETWEEN :dataInizio AND :dataFine " +
+            "ORDER BY e.data ASC, e.oraInizio ASC, e.id ASC")
+    Stream<Evento> streamByDataBetween(@Param("dataInizio") LocalDate dataInizio,
+                                       @Param("dataFine") LocalDate dataFine);
+
     // ========================================================================
     // METODI EREDITATI DA JpaRepository (già disponibili automaticamente):
     // ========================================================================
@@ -0,0 +1,19 @@
+package com.eventpro.catering.repository;
+
+import java.time.LocalDate;
+
+/**
+ * PROIEZIONE MINIMA DI UN EVENTO: (id, versione, data)
+ *
+ * Usata per calcolare ETag e Cache-Control di GET /api/eventi/{id}
+ * senza caricare l'evento completo: una lettura per chiave primaria
+ * di tre colonne, nessuna entity managed.
+ */
+public interface EventoVersione {
+
+    Long getId();
+
+    Long getVersione();
+
+    LocalDate getData();
+}
@@ -0,0 +1,66 @@
+package com.eventpro.catering.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REPOSITORY JDBC DEI TOKEN REVOCATI (tabella token_revocato, V5)
+ *
+ * Viene letto solo all'avvio e dalla sincronizzazione periodica: i controlli
+ * sulle richieste usano la copia in memoria di TokenRevocationService.
+ */
+@Repository
+public class TokenRevocatoRepository {
+
+    /**
+     * Un token revocato: id (claim "jti") e scadenza del token
+     */
+    public record TokenRevocato(String jti, Instant scadenza) {
+    }
+
+    private final JdbcClient jdbcClient;
+
+    public TokenRevocatoRepository(JdbcClient jdbcClient) {
+        this.jdbcClient = jdbcClient;
+    }
+
+    /**
+     * REGISTRA UNA REVOCA (revocare due volte lo stesso token non è un errore)
+     */
+    public void inserisci(String jti, Instant scadenza) {
+        try {
+            jdbcClient.sql("INSERT INTO token_revocato (jti, scadenza) VALUES (:jti, :scadenza)")
+                    .param("jti", jti)
+                    .param("scadenza", Timestamp.from(scadenza))
+                    .update();
+        } catch (DuplicateKeyException e) {
+            // già revocato
+        }
+    }
+
+    /**
+     * TOKEN REVOCATI NON ANCORA SCADUTI
+     */
+    public List<TokenRevocato> findNonScaduti(Instant adesso) {
+        return jdbcClient.sql("SELECT jti, scadenza FROM token_revocato WHERE scadenza > :adesso")
+                .param("adesso", Timestamp.from(adesso))
+                .query((rs, n) -> new TokenRevocato(rs.getString("jti"), rs.getTimestamp("scadenza").toInstant()))
+                .list();
+    }
+
+    /**
+     * CANCELLA LE RIGHE DEI TOKEN ORMAI SCADUTI
+     *
+     * @return Righe cancellate
+     */
+    public int eliminaScaduti(Instant adesso) {
+        return jdbcClient.sql("DELETE FROM token_revocato WHERE scadenza <= :adesso")
+                .param("adesso", Timestamp.from(adesso))
+                .update();
+    }
+}
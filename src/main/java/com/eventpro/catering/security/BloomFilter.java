@@ -0,0 +1,78 @@
+package com.eventpro.catering.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BLOOM FILTER CONCORRENTE PER STRINGHE (id dei token revocati)
+ *
+ * Risponde "sicuramente assente" oppure "forse presente". Con n elementi
+ * attesi e probabilità di falso positivo p:
+ * - bit = -n·ln(p) / ln(2)²   (100.000 elementi, 1% → ~117 KB)
+ * - funzioni di hash k = bit/n · ln(2)   (→ 7)
+ *
+ * I bit stanno in un AtomicLongArray: mightContain fa solo letture volatili
+ * (nessun lock, nessuna allocazione), add imposta i bit con CAS. Un
+ * elemento aggiunto è visibile a chi legge dopo la fine di add.
+ *
+ * Gli elementi non si possono togliere: chi lo usa ricostruisce il filtro
+ * quando gli elementi scadono.
+ *
+ * Le k posizioni vengono da due hash a 64 bit (h1 + i·h2, Kirsch–Mitzenmacher)
+ * ricavati da String.hashCode (vettorizzato dalla JVM) con il mescolamento di
+ * SplitMix64. Il numero di bit è una potenza di 2: la posizione è un AND,
+ * non una divisione.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long maschera;
+    private final int numeroHash;
+
+    BloomFilter(int elementiAttesi, double probabilitaFalsoPositivo) {
+        int n = Math.max(1, elementiAttesi);
+        long m = (long) Math.ceil(-n * Math.log(probabilitaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        long potenza = Long.highestOneBit(Math.max(64, m - 1)) << 1;
+        this.bits = new AtomicLongArray((int) (potenza >>> 6));
+        this.maschera = potenza - 1;
+        this.numeroHash = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    void add(String valore) {
+        long h1 = mescola(valore.hashCode());
+        long h2 = mescola(h1) | 1;
+        for (int i = 0; i < numeroHash; i++) {
+            long bit = (h1 + i * h2) & maschera;
+            int parola = (int) (bit >>> 6);
+            long valoreBit = 1L << bit;
+            long attuale;
+            do {
+                attuale = bits.get(parola);
+                if ((attuale & valoreBit) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(parola, attuale, attuale | valoreBit));
+        }
+    }
+
+    boolean mightContain(String valore) {
+        long h1 = mescola(valore.hashCode());
+        long h2 = mescola(h1) | 1;
+        for (int i = 0; i < numeroHash; i++) {
+            long bit = (h1 + i * h2) & maschera;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mescolamento finale di SplitMix64: ogni bit in ingresso cambia metà dei bit in uscita
+     */
+    private static long mescola(long h) {
+        h += 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
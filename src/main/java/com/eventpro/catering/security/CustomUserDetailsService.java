@@ -4,7 +4,6 @@ import com.eventpro.catering.model.Utente;
 import com.eventpro.catering.repository.UtenteRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -22,7 +21,8 @@ import java.util.List;
  * FLUSSO:
  * 1. Quando un utente tenta il login, Spring Security chiama loadUserByUsername(email)
  * 2. Questo metodo cerca l'utente nel database usando UtenteRepository
- * 3. Se trovato, costruisce un oggetto UserDetails con email, password e ruoli
+ * 3. Se trovato, costruisce un oggetto UserDetails (UtenteAutenticato) con email, password,
+ *    ruoli, abilitazione, id e security stamp
  * 4. Spring Security usa questo oggetto per verificare le credenziali
  */
 @Service
@@ -68,15 +68,14 @@ public class CustomUserDetailsService implements UserDetailsService {
         authorities.add(new SimpleGrantedAuthority(role));
 
         // Costruisce e restituisce l'oggetto UserDetails
-        // Spring Security usa questo per verificare email e password
-        return User.builder()
-                .username(utente.getEmail())           // Email come username
-                .password(utente.getPassword())         // Password criptata dal DB
-                .authorities(authorities)               // Ruoli/permessi
-                .accountExpired(false)                  // Account non scaduto
-                .accountLocked(false)                   // Account non bloccato
-                .credentialsExpired(false)              // Credenziali non scadute
-                .disabled(false)                        // Account abilitato
-                .build();
+        // Spring Security usa questo per verificare email e password;
+        // id e security stamp servono al login per scriverli nel token JWT
+        return new UtenteAutenticato(
+                utente.getId(),
+                utente.getEmail(),                      // Email come username
+                utente.getPassword(),                   // Password criptata dal DB
+                utente.isAbilitato(),                   // Account disabilitato → login rifiutato
+                utente.getSecurityStamp(),
+                authorities);                           // Ruoli/permessi
     }
 }
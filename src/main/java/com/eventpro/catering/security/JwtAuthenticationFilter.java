@@ -1,9 +1,11 @@
 package com.eventpro.catering.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org. springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core. context.SecurityContextHolder;
@@ -24,11 +26,22 @@ import java.io.IOException;
  * 1. Estrae l'header "Authorization" dalla richiesta HTTP
  * 2. Verifica che inizi con "Bearer"
  * 3. Estrae il token JWT (rimuovendo "Bearer")
- * 4. Usa JwtService per estrarre l'username (email) dal token
- * 5. Carica l'utente dal database usando CustomUserDetailsService
- * 6. Valida il token
+ * 4. Verifica il token (firma e scadenza) e ne ricava l'username (email);
+ *    un token già visto arriva da VerifiedTokenCache senza ripetere la verifica.
+ *    Un token revocato con il logout viene ignorato (TokenRevocationService, in memoria)
+ * 5. Ricava l'utente:
+ *    - MODALITÀ STATELESS (jwt.stateless=true, default): id e ruoli arrivano dai
+ *      claims del token; si controlla solo che il security stamp sia ancora
+ *      quello attuale (SecurityStampService, in memoria) → nessuna query
+ *    - altrimenti, o per i token emessi prima dei claims "uid"/"stamp":
+ *      carica l'utente dal database usando CustomUserDetailsService
+ * 6. Controlla che il token sia proprio di quell'utente e che l'account sia abilitato
  * 7. Se tutto è ok, setta l'utente nel SecurityContext (così Spring Security sa chi è l'utente loggato)
  *
+ * Un token non valido (malformato, firma sbagliata, scaduto) non blocca il
+ * filtro: la richiesta prosegue senza autenticazione e Spring Security la
+ * rifiuta con 401 se l'endpoint è protetto (vedi SecurityConfig).
+ *
  * QUANDO VIENE ESEGUITO:
  * - Prima di ogni richiesta HTTP (tranne /api/auth/** che è pubblico)
  * - OncePerRequestFilter garantisce che venga eseguito UNA SOLA VOLTA per richiesta
@@ -36,13 +49,25 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     private final UserDetailsService userDetailsService;
+    private final SecurityStampService securityStampService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // true = utente costruito dai claims del token, senza leggere il database
+    private final boolean stateless;
 
     // Costruttore per dependency injection
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
-        this.jwtService = jwtService;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                   UserDetailsService userDetailsService,
+                                   SecurityStampService securityStampService,
+                                   TokenRevocationService tokenRevocationService,
+                                   @Value("${jwt.stateless:true}") boolean stateless) {
+        this.verifiedTokenCache = verifiedTokenCache;
         this.userDetailsService = userDetailsService;
+        this.securityStampService = securityStampService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.stateless = stateless;
     }
 
     /**
@@ -76,19 +101,44 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Esempio: "Bearer eyJhbGciOiJIUzI1NiJ9..." → "eyJhbGciOiJIUzI1NiJ9..."
         final String jwt = authHeader.substring(7);
 
-        // STEP 4: Estrae l'username (email) dal token usando JwtService
-        final String userEmail = jwtService.extractUsername(jwt);
+        // STEP 4: Verifica il token (firma + scadenza) e ne estrae l'username (email)
+        // Il token viene decodificato UNA sola volta (poi resta in cache fino alla scadenza)
+        final JwtService.VerifiedToken token;
+        try {
+            token = verifiedTokenCache.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (tokenRevocationService.isRevocato(token.tokenId())) {
+            // Token revocato (logout): come se non ci fosse
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String userEmail = token.subject();
 
-        // STEP 5: Verifica che l'email non sia null e che l'utente non sia già autenticato
+        // STEP 5: Verifica che l'utente non sia già autenticato
         // SecurityContextHolder.getContext().getAuthentication() == null significa che l'utente non è ancora loggato
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            // STEP 6: Carica i dettagli dell'utente dal database
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+            // STEP 6: Ricava l'utente dal token (stateless) o dal database
+            UserDetails userDetails;
+            if (stateless && token.isStateless()) {
+                // Stamp diverso = ruolo/password cambiati o account disabilitato dopo il login
+                userDetails = securityStampService.isValido(token.userId(), token.securityStamp())
+                        ? UtenteAutenticato.fromToken(token)
+                        : null;
+            } else {
+                userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                if (token.securityStamp() != null && userDetails instanceof UtenteAutenticato utente
+                        && utente.getSecurityStamp() != token.securityStamp()) {
+                    userDetails = null;
+                }
+            }
 
-            // STEP 7: Valida il token JWT
-            // Verifica che il token non sia scaduto e che l'username corrisponda
-            if (jwtService.validateToken(jwt, userDetails)) {
+            // STEP 7: Il token deve appartenere proprio a questo utente, ancora abilitato
+            // (la scadenza è già stata controllata da verify)
+            if (userDetails != null && userDetails.isEnabled() && userEmail.equals(userDetails.getUsername())) {
 
                 // STEP 8: Crea un oggetto di autenticazione per Spring Security
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
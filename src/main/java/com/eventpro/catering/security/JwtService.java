@@ -1,6 +1,8 @@
 package com.eventpro.catering.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,9 +12,13 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -28,27 +34,81 @@ import java.util.function.Function;
  * Header.Payload.Signature
  *
  * Esempio: eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ1c2VyQGV4YW1wbGUuY29tIn0.xyz123
+ *
+ * CHIAVE E PARSER CREATI UNA VOLTA SOLA:
+ * la SecretKey e il JwtParser sono immutabili e thread-safe, quindi vengono
+ * costruiti all'avvio e condivisi da tutte le richieste. Per verificare un
+ * token si usa verify(): una sola decodifica e un solo controllo HMAC,
+ * con il risultato già tipizzato (VerifiedToken).
  */
 @Service
 public class JwtService {
 
-    // Secret key dal file application.properties
-    @Value("${jwt.secret}")
-    private String secretKey;
+    /**
+     * Claim con i ruoli dell'utente (es. ["ROLE_USER"])
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * Claim con l'id dell'utente (stringa, come gli id nel JSON)
+     */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Claim con il security stamp dell'utente al momento del login
+     */
+    public static final String SECURITY_STAMP_CLAIM = "stamp";
+
+    /**
+     * TOKEN GIÀ VERIFICATO (firma valida e non scaduto)
+     *
+     * @param tokenId Id univoco del token, claim "jti" (sempre presente: serve per la revoca)
+     * @param subject L'email dell'utente
+     * @param userId Id dell'utente, claim "uid" (sempre presente)
+     * @param roles I ruoli presenti nel token (vuota per i token senza claim "roles")
+     * @param securityStamp Security stamp al login (null per i token senza claim "stamp")
+     * @param expiresAt Scadenza del token
+     */
+    public record VerifiedToken(String tokenId, String subject, Long userId, List<String> roles,
+                                Long securityStamp, Instant expiresAt) {
+
+        /**
+         * true se il token porta tutto quello che serve per autenticare senza leggere il database
+         */
+        public boolean isStateless() {
+            return securityStamp != null;
+        }
+    }
 
     // Durata del token in millisecondi dal file application.properties
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+
+    // Chiave HMAC e parser costruiti una volta all'avvio (immutabili, thread-safe)
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
 
     /**
      * GENERA UN TOKEN JWT PER UN UTENTE
      *
      * Crea un nuovo token JWT contenente:
      * - Username (email) come "subject"
+     * - Id univoco del token ("jti"), per poterlo revocare al logout
      * - Data di creazione
      * - Data di scadenza
      * - Firma digitale con la secret key
      *
+     * Il token non contiene l'id utente: verify() lo rifiuta. Per il login
+     * si usa generateToken(username, userId, roles, securityStamp).
+     *
      * @param username L'email dell'utente (usata come identificatore univoco)
      * @return Il token JWT generato come stringa
      */
@@ -71,6 +131,43 @@ public class JwtService {
         return createToken(extraClaims, username);
     }
 
+    /**
+     * GENERA UN TOKEN JWT CON I RUOLI DELL'UTENTE
+     *
+     * I ruoli finiscono nel claim "roles" e si ritrovano in VerifiedToken.roles().
+     * Come generateToken(username) non contiene l'id utente: verify() lo rifiuta.
+     *
+     * @param username L'email dell'utente
+     * @param roles I ruoli (es. "ROLE_USER")
+     * @return Il token JWT generato
+     */
+    public String generateToken(String username, Collection<String> roles) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, List.copyOf(roles));
+        return createToken(claims, username);
+    }
+
+    /**
+     * GENERA IL TOKEN DI LOGIN (AUTENTICAZIONE DAI CLAIMS)
+     *
+     * Oltre a email e ruoli contiene id e security stamp dell'utente: il
+     * filtro JWT costruisce l'utente autenticato direttamente dal token e
+     * controlla solo che lo stamp sia ancora quello attuale.
+     *
+     * @param username L'email dell'utente
+     * @param userId L'id dell'utente
+     * @param roles I ruoli (es. "ROLE_USER")
+     * @param securityStamp Il security stamp attuale dell'utente
+     * @return Il token JWT generato
+     */
+    public String generateToken(String username, Long userId, Collection<String> roles, long securityStamp) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, String.valueOf(userId));
+        claims.put(ROLES_CLAIM, List.copyOf(roles));
+        claims.put(SECURITY_STAMP_CLAIM, securityStamp);
+        return createToken(claims, username);
+    }
+
     /**
      * CREA EFFETTIVAMENTE IL TOKEN JWT
      *
@@ -86,13 +183,66 @@ public class JwtService {
 
         return Jwts.builder()
                 .claims(claims)                             // Informazioni personalizzate
+                .id(UUID.randomUUID().toString())           // Id univoco del token (jti), per la revoca
                 .subject(subject)                           // Username (email)
                 .issuedAt(now)                             // Data di creazione
                 .expiration(expiryDate)                     // Data di scadenza
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)  // Firma con algoritmo HS256
+                .signWith(signInKey, SignatureAlgorithm.HS256)       // Firma con algoritmo HS256
                 .compact();                                 // Genera la stringa finale
     }
 
+    /**
+     * VERIFICA IL TOKEN (UNA SOLA DECODIFICA)
+     *
+     * Controlla firma e scadenza e restituisce subject, ruoli e scadenza.
+     * È il metodo da usare per autenticare una richiesta: gli extract* qui
+     * sotto decodificano e verificano il token a ogni chiamata.
+     *
+     * Un token senza "jti" non si potrebbe revocare al logout e uno senza
+     * "uid" non si può legare all'utente: entrambi vengono rifiutati.
+     *
+     * @param token Il token JWT (senza "Bearer ")
+     * @return Il token verificato
+     * @throws JwtException se il token è malformato, ha una firma non valida, è scaduto
+     *         o non ha subject, "jti" o "uid"
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token senza subject");
+        }
+        if (claims.getId() == null || claims.getId().isBlank()) {
+            throw new JwtException("Token senza jti");
+        }
+        Long userId = userId(claims);
+        Date expiration = claims.getExpiration();
+        Number securityStamp = claims.get(SECURITY_STAMP_CLAIM, Number.class);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                userId,
+                roles(claims),
+                securityStamp != null ? securityStamp.longValue() : null,
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    /**
+     * Id utente dal claim "uid" (stringa numerica)
+     *
+     * @throws JwtException se il claim manca o non è un numero
+     */
+    private static Long userId(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            throw new JwtException("Token senza uid");
+        }
+        try {
+            return Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            throw new JwtException("Claim uid non valido");
+        }
+    }
+
     /**
      * ESTRAE L'USERNAME (EMAIL) DAL TOKEN
      *
@@ -143,23 +293,11 @@ public class JwtService {
      * @return Oggetto Claims con tutte le informazioni del token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())         // Verifica la firma con la chiave
-                .build()
+        return parser
                 .parseSignedClaims(token)           // Parsifica e valida il token
                 .getPayload();                      // Restituisce i claims (payload)
     }
 
-    /**
-     * VERIFICA SE IL TOKEN È SCADUTO
-     *
-     * @param token Il token JWT
-     * @return true se il token è scaduto, false altrimenti
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     /**
      * VALIDA IL TOKEN JWT
      *
@@ -167,25 +305,25 @@ public class JwtService {
      * 1. L'username nel token corrisponda a quello dell'utente
      * 2. Il token non sia scaduto
      *
+     * Decodifica il token una volta sola (verify). Un token scaduto o con
+     * firma non valida fa lanciare JwtException già al parsing.
+     *
      * @param token Il token JWT da validare
      * @param userDetails I dettagli dell'utente dal database
      * @return true se il token è valido, false altrimenti
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verify(token).subject().equals(userDetails.getUsername());
     }
 
     /**
-     * CONVERTE LA SECRET KEY IN UN OGGETTO SecretKey
-     *
-     * La secret key è una stringa, ma JJWT 0.12.x ha bisogno di un oggetto SecretKey.
-     * Questo metodo fa la conversione usando l'algoritmo HMAC-SHA256.
-     *
-     * @return Oggetto SecretKey per firmare/verificare i token
+     * Ruoli dal claim "roles" (lista vuota se assente o non è una lista)
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> lista)) {
+            return List.of();
+        }
+        return lista.stream().map(String::valueOf).toList();
     }
 }
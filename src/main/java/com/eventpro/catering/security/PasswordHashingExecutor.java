@@ -0,0 +1,162 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.exception.ServizioSovraccaricoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * POOL DEDICATO (BULKHEAD) PER HASH E VERIFICA DELLE PASSWORD
+ *
+ * BCrypt è lento di proposito: ~50-100 ms di CPU per ogni login o
+ * registrazione. Fatto sui thread di Tomcat, un'ondata di login (es. tutti
+ * che rientrano dopo un disservizio) occupava ogni thread e ogni core, e le
+ * API degli eventi restavano senza risposta.
+ *
+ * COME FUNZIONA:
+ * - login e registrazione passano il lavoro BCrypt a questo pool, con un
+ *   numero fisso di thread ("auth.hash.thread", default: numero di core)
+ * - i lavori in attesa stanno in una coda limitata ("auth.hash.coda");
+ *   a coda piena la richiesta viene rifiutata SUBITO con 503 e
+ *   Retry-After, invece di accumularsi
+ * - un lavoro rimasto in coda più di "auth.hash.attesa-massima-ms" non
+ *   viene eseguito: il future fallisce con ServizioSovraccaricoException
+ *   (→ 503). Il client probabilmente ha già rinunciato, e un BCrypt per
+ *   una risposta che nessuno legge toglierebbe CPU a chi è ancora in coda
+ * - alla chiusura dell'applicazione i lavori ancora in coda falliscono
+ *   allo stesso modo, invece di lasciare le richieste senza risposta;
+ *   quelli già partiti ricevono l'interruzione, ma BCrypt non la controlla
+ *   e finisce comunque
+ * - il controller restituisce un CompletableFuture: il thread di Tomcat
+ *   torna libero mentre la password viene verificata
+ *
+ * Così un picco di autenticazioni usa al massimo quei thread: il resto
+ * della CPU e i thread di Tomcat restano alle altre API.
+ *
+ * METRICHE:
+ * - auth.hash.coda / auth.hash.attivi: lavori in coda / in esecuzione
+ * - auth.hash.durata (tag operazione): tempo di esecuzione del lavoro
+ * - auth.hash.attesa: tempo passato in coda prima di partire
+ * - auth.hash.rifiutati: richieste respinte con 503 (coda piena, attesa
+ *   troppo lunga o chiusura), con tag motivo=coda-piena|attesa|chiusura
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Duration RIPROVA_TRA = Duration.ofSeconds(1);
+
+    private final ThreadPoolExecutor pool;
+    private final MeterRegistry meterRegistry;
+    private final Timer attesa;
+    private final long attesaMassimaNanos;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${auth.hash.thread:0}") int thread,
+                                   @Value("${auth.hash.coda:100}") int coda,
+                                   @Value("${auth.hash.attesa-massima-ms:5000}") long attesaMassimaMs) {
+        int numeroThread = thread > 0 ? thread : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(numeroThread, numeroThread, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(coda),
+                Thread.ofPlatform().name("hash-password-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.meterRegistry = meterRegistry;
+        this.attesaMassimaNanos = TimeUnit.MILLISECONDS.toNanos(attesaMassimaMs);
+
+        Gauge.builder("auth.hash.coda", pool, p -> p.getQueue().size())
+                .description("Lavori di hash/verifica password in attesa")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.attivi", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Lavori di hash/verifica password in esecuzione")
+                .register(meterRegistry);
+        this.attesa = Timer.builder("auth.hash.attesa")
+                .description("Tempo in coda prima dell'hash/verifica della password")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ESEGUE UN LAVORO CON BCRYPT NEL POOL DEDICATO
+     *
+     * @param operazione Nome dell'operazione per le metriche (es. "login")
+     * @param lavoro Il lavoro (verifica credenziali, hash della password)
+     * @return Future completato con il risultato, con l'eccezione del lavoro,
+     *         oppure con ServizioSovraccaricoException se il lavoro è rimasto
+     *         in coda troppo a lungo o l'applicazione si sta chiudendo (→ 503)
+     * @throws ServizioSovraccaricoException se la coda è piena (→ 503)
+     */
+    public <T> CompletableFuture<T> esegui(String operazione, Supplier<T> lavoro) {
+        Timer durata = Timer.builder("auth.hash.durata")
+                .description("Durata dell'hash/verifica della password")
+                .tag("operazione", operazione)
+                .register(meterRegistry);
+        Lavoro<T> daEseguire = new Lavoro<>(lavoro, durata);
+        try {
+            pool.execute(daEseguire);
+        } catch (RejectedExecutionException e) {
+            throw rifiuta("coda-piena");
+        }
+        return daEseguire.risultato;
+    }
+
+    /**
+     * Alla chiusura i lavori in coda falliscono con 503 invece di restare senza risposta
+     */
+    @PreDestroy
+    void chiudi() {
+        for (Runnable inCoda : pool.shutdownNow()) {
+            ((Lavoro<?>) inCoda).risultato.completeExceptionally(rifiuta("chiusura"));
+        }
+    }
+
+    private ServizioSovraccaricoException rifiuta(String motivo) {
+        Counter.builder("auth.hash.rifiutati")
+                .description("Login e registrazioni rifiutati (coda piena, attesa troppo lunga o chiusura)")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+        return new ServizioSovraccaricoException(
+                "Troppe richieste di autenticazione in corso, riprovare tra poco", RIPROVA_TRA);
+    }
+
+    /**
+     * Lavoro in coda con il suo future (serve a chiudi() per completarlo)
+     */
+    private final class Lavoro<T> implements Runnable {
+
+        private final Supplier<T> lavoro;
+        private final Timer durata;
+        private final long inCoda = System.nanoTime();
+        private final CompletableFuture<T> risultato = new CompletableFuture<>();
+
+        private Lavoro(Supplier<T> lavoro, Timer durata) {
+            this.lavoro = lavoro;
+            this.durata = durata;
+        }
+
+        @Override
+        public void run() {
+            long atteso = System.nanoTime() - inCoda;
+            attesa.record(atteso, TimeUnit.NANOSECONDS);
+            if (atteso > attesaMassimaNanos) {
+                risultato.completeExceptionally(rifiuta("attesa"));
+                return;
+            }
+            try {
+                risultato.complete(durata.record(lavoro));
+            } catch (Throwable e) {
+                risultato.completeExceptionally(e);
+            }
+        }
+    }
+}
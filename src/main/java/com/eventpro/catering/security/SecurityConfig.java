@@ -1,7 +1,9 @@
 package com.eventpro.catering.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -10,6 +12,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -18,7 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  *
  * Configura Spring Security per proteggere le API della tua applicazione.
  * - Concede accesso pubblico agli endpoint di autenticazione (/api/auth/**)
- * - Richiede autenticazione per tutto il resto
+ * - Richiede autenticazione per tutto il resto: senza un token valido → 401
  * - Disabilita CSRF (per semplicità) e configura SESSION_STATELESS (ideale per API REST)
  * - Registra il filtro JWT per validare i token in ogni richiesta
  */
@@ -69,6 +72,10 @@ public class SecurityConfig {
      * - Configura SESSION_STATELESS (adatto per API REST, senza memorizzare sessioni Server-Side).
      * - Permette accesso pubblico alle rotte /api/auth/**
      * - Richiede autenticazione per tutte le altre rotte.
+     * - Richiesta senza autenticazione (token mancante, non valido, scaduto o
+     *   revocato) → 401 UNAUTHORIZED, come descritto in API_SPEC. Senza
+     *   un entry point Spring Security risponderebbe 403, che resta per
+     *   gli utenti autenticati senza i permessi necessari.
      *
      * @param http Oggetto HttpSecurity fornito da Spring
      * @return SecurityFilterChain
@@ -85,10 +92,17 @@ public class SecurityConfig {
 
                 // Configura i permessi per gli endpoint
                 .authorizeHttpRequests(auth -> auth
+                        // Il dispatch ASYNC completa una richiesta già autorizzata
+                        // (es. export in streaming): non va ricontrollato
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll() // Accesso pubblico agli endpoint di autenticazione
                         .anyRequest().authenticated() // Protegge tutto il resto
                 )
 
+                // Nessuna autenticazione valida → 401 (403 solo per permessi insufficienti)
+                .exceptionHandling(errori -> errori
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
                 // Registra il filtro JWT PRIMA del filtro di autenticazione standard
                 // Questo permette di intercettare ogni richiesta e validare il token JWT
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
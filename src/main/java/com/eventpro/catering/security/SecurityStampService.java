@@ -0,0 +1,98 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.repository.UtenteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * CONTROLLO DEL SECURITY STAMP DEI TOKEN (SENZA QUERY PER RICHIESTA)
+ *
+ * Con l'autenticazione dai claims il filtro JWT non rilegge l'utente: serve
+ * però accorgersi se nel frattempo è cambiato qualcosa (ruolo, password,
+ * account disabilitato). Ogni token porta lo "stamp" che l'utente aveva al
+ * login; qui si tiene in memoria lo stamp attuale di ogni utente attivo.
+ *
+ * COME FUNZIONA:
+ * - al login lo stamp viene messo in cache (nessuna query in più: l'utente
+ *   è appena stato letto per verificare la password)
+ * - a ogni richiesta: token valido solo se stamp uguale e account abilitato
+ *   → una lettura in una mappa
+ * - dopo il commit di una modifica all'utente (UtenteListener) lo stato in
+ *   cache viene sostituito subito: su questa istanza il token vecchio è
+ *   rifiutato già dalla richiesta successiva
+ * - utente non in cache (riavvio, eviction) → una query per id, poi di
+ *   nuovo solo memoria
+ *
+ * PIÙ ISTANZE: una modifica fatta su un'altra istanza si vede qui al più
+ * dopo "jwt.security-stamp.ttl-ms" (le voci vengono rilette dopo questo
+ * tempo). È il ritardo massimo con cui un token revocato altrove può
+ * ancora passare.
+ *
+ * Gli stamp crescono sempre: se due aggiornamenti arrivano fuori ordine
+ * vince quello con lo stamp più alto.
+ */
+@Component
+public class SecurityStampService {
+
+    /**
+     * Stato di sicurezza di un utente (NESSUNO = utente inesistente)
+     */
+    private record Stato(long stamp, boolean abilitato) {
+        static final Stato NESSUNO = new Stato(-1, false);
+    }
+
+    private final UtenteRepository utenteRepository;
+    private final Cache<Long, Stato> stati;
+
+    public SecurityStampService(UtenteRepository utenteRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.security-stamp.ttl-ms:300000}") long ttlMs,
+                                @Value("${jwt.security-stamp.max-utenti:100000}") long maxUtenti) {
+        this.utenteRepository = utenteRepository;
+        this.stati = Caffeine.newBuilder()
+                .maximumSize(maxUtenti)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, stati, "jwt.security-stamp");
+    }
+
+    /**
+     * IL TOKEN CON QUESTO STAMP È ANCORA VALIDO?
+     *
+     * @param idUtente Id dell'utente (claim "uid")
+     * @param stamp Stamp scritto nel token (claim "stamp")
+     * @return true se l'utente esiste, è abilitato e ha ancora lo stesso stamp
+     */
+    public boolean isValido(Long idUtente, long stamp) {
+        Stato stato = stati.get(idUtente, this::carica);
+        return stato.abilitato() && stato.stamp() == stamp;
+    }
+
+    /**
+     * REGISTRA LO STATO ATTUALE DI UN UTENTE (login, modifica dopo il commit)
+     */
+    public void aggiorna(Long idUtente, long stamp, boolean abilitato) {
+        stati.asMap().merge(idUtente, new Stato(stamp, abilitato),
+                (attuale, nuovo) -> nuovo.stamp() >= attuale.stamp() ? nuovo : attuale);
+    }
+
+    /**
+     * DIMENTICA UN UTENTE (es. eliminato): la prossima richiesta lo rilegge
+     */
+    public void invalida(Long idUtente) {
+        stati.invalidate(idUtente);
+    }
+
+    private Stato carica(Long idUtente) {
+        return utenteRepository.findById(idUtente)
+                .map(utente -> new Stato(utente.getSecurityStamp(), utente.isAbilitato()))
+                .orElse(Stato.NESSUNO);
+    }
+}
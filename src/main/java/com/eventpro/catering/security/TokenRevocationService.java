@@ -0,0 +1,150 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.repository.TokenRevocatoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * REVOCA DEI TOKEN JWT (LOGOUT) SENZA QUERY PER RICHIESTA
+ *
+ * Un token dura jwt.expiration (24 ore): per il logout serve poter dire
+ * "questo token non vale più" prima della scadenza. Ogni token ha un id
+ * (claim "jti"); i token revocati sono nella tabella token_revocato e, per
+ * i controlli, in memoria.
+ *
+ * CONTROLLO (isRevocato, a ogni richiesta autenticata):
+ * 1. Bloom filter: quasi sempre risponde "sicuramente non revocato" con
+ *    qualche lettura di bit, senza lock né allocazioni → fine
+ * 2. solo se il filtro dice "forse": ricerca esatta nella mappa jti → scadenza
+ *    (i falsi positivi del filtro, ~1%, finiscono qui e non sono errori)
+ *
+ * REVOCA (revoca): riga nella tabella, poi mappa e filtro. Le revoche sono
+ * rare e passano da un lock; le letture non lo usano mai.
+ *
+ * SINCRONIZZAZIONE (all'avvio e ogni "jwt.revoca.sincronizzazione-ms"):
+ * - rilegge le revoche non scadute (anche quelle fatte da altre istanze)
+ * - toglie dalla memoria e dal database quelle dei token ormai scaduti
+ *   (verrebbero rifiutati comunque) e ricostruisce il filtro, che non
+ *   permette di togliere elementi
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final double PROBABILITA_FALSO_POSITIVO = 0.01;
+
+    private final TokenRevocatoRepository tokenRevocatoRepository;
+    private final Map<String, Instant> revocati = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int capacita;
+    private final Counter revoche;
+    private final Counter falsiPositivi;
+
+    private volatile BloomFilter filtro;
+    private int capacitaFiltro;
+
+    public TokenRevocationService(TokenRevocatoRepository tokenRevocatoRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.revoca.capacita:100000}") int capacita) {
+        this.tokenRevocatoRepository = tokenRevocatoRepository;
+        this.capacita = capacita;
+        this.filtro = new BloomFilter(capacita, PROBABILITA_FALSO_POSITIVO);
+        this.capacitaFiltro = capacita;
+
+        Gauge.builder("jwt.revoca.token", revocati, Map::size)
+                .description("Token revocati non ancora scaduti tenuti in memoria")
+                .register(meterRegistry);
+        this.revoche = Counter.builder("jwt.revoca.revoche")
+                .description("Token revocati (logout)")
+                .register(meterRegistry);
+        this.falsiPositivi = Counter.builder("jwt.revoca.falsi.positivi")
+                .description("Controlli in cui il Bloom filter ha risposto \"forse\" per un token non revocato")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carica le revoche all'avvio, prima che arrivino richieste
+     */
+    @PostConstruct
+    void caricaAllAvvio() {
+        sincronizza();
+    }
+
+    /**
+     * IL TOKEN CON QUESTO ID È STATO REVOCATO?
+     *
+     * @param jti Id del token (null per i token emessi prima del claim "jti": mai revocati)
+     * @return true se il token è stato revocato
+     */
+    public boolean isRevocato(String jti) {
+        if (jti == null || !filtro.mightContain(jti)) {
+            return false;
+        }
+        if (revocati.containsKey(jti)) {
+            return true;
+        }
+        falsiPositivi.increment();
+        return false;
+    }
+
+    /**
+     * REVOCA UN TOKEN FINO ALLA SUA SCADENZA
+     *
+     * @param jti Id del token
+     * @param scadenza Scadenza del token (dopo, la revoca non serve più)
+     */
+    public void revoca(String jti, Instant scadenza) {
+        if (jti == null || scadenza == null || !scadenza.isAfter(Instant.now())) {
+            return;
+        }
+        tokenRevocatoRepository.inserisci(jti, scadenza);
+        lock.lock();
+        try {
+            revocati.put(jti, scadenza);
+            filtro.add(jti);
+        } finally {
+            lock.unlock();
+        }
+        revoche.increment();
+    }
+
+    /**
+     * RILEGGE LE REVOCHE E TOGLIE QUELLE SCADUTE
+     */
+    @Scheduled(initialDelayString = "${jwt.revoca.sincronizzazione-ms:30000}",
+            fixedDelayString = "${jwt.revoca.sincronizzazione-ms:30000}")
+    public void sincronizza() {
+        Instant adesso = Instant.now();
+        tokenRevocatoRepository.eliminaScaduti(adesso);
+        List<TokenRevocatoRepository.TokenRevocato> nonScaduti = tokenRevocatoRepository.findNonScaduti(adesso);
+
+        lock.lock();
+        try {
+            boolean tolti = revocati.values().removeIf(scadenza -> !scadenza.isAfter(adesso));
+            for (TokenRevocatoRepository.TokenRevocato token : nonScaduti) {
+                revocati.putIfAbsent(token.jti(), token.scadenza());
+            }
+            if (tolti || revocati.size() > capacitaFiltro) {
+                // Nuovo filtro con solo i token ancora validi (più grande se sono più del previsto)
+                capacitaFiltro = Math.max(capacita, revocati.size() * 2);
+                BloomFilter nuovo = new BloomFilter(capacitaFiltro, PROBABILITA_FALSO_POSITIVO);
+                revocati.keySet().forEach(nuovo::add);
+                filtro = nuovo;
+            } else {
+                nonScaduti.forEach(token -> filtro.add(token.jti()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
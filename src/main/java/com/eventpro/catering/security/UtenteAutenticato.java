@@ -0,0 +1,54 @@
+package com.eventpro.catering.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UTENTE AUTENTICATO (PRINCIPAL DI SPRING SECURITY)
+ *
+ * Un normale User di Spring Security con in più l'id dell'utente e il suo
+ * security stamp, che servono per scriverli nel token al login.
+ *
+ * Lo stesso tipo di principal arriva ai controller in entrambi i casi:
+ * - al login, costruito da CustomUserDetailsService con i dati del database
+ * - sulle richieste con token, costruito dai claims (fromToken), senza
+ *   password e senza leggere il database
+ *
+ * getUsername() resta l'email, come prima.
+ */
+public class UtenteAutenticato extends User {
+
+    private final Long id;
+    private final long securityStamp;
+
+    public UtenteAutenticato(Long id, String email, String password, boolean abilitato,
+                             long securityStamp, Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, abilitato, true, true, true, authorities);
+        this.id = id;
+        this.securityStamp = securityStamp;
+    }
+
+    /**
+     * PRINCIPAL DAI CLAIMS DI UN TOKEN GIÀ VERIFICATO (nessuna query)
+     */
+    public static UtenteAutenticato fromToken(JwtService.VerifiedToken token) {
+        return new UtenteAutenticato(
+                token.userId(),
+                token.subject(),
+                "",
+                true,
+                token.securityStamp(),
+                token.roles().stream().map(SimpleGrantedAuthority::new).toList());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getSecurityStamp() {
+        return securityStamp;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.model.Utente;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * LISTENER JPA CHE AGGIORNA IL SECURITY STAMP IN MEMORIA
+ *
+ * Registrato su Utente con @EntityListeners. Dopo il commit di una modifica
+ * (ruolo, password, abilitazione → nuovo stamp) mette lo stato nuovo in
+ * SecurityStampService, così i token emessi prima vengono rifiutati subito
+ * invece che alla scadenza della cache. Se l'utente viene eliminato lo si
+ * toglie dalla cache: alla prossima richiesta risulterà inesistente.
+ *
+ * Dopo il commit e non prima: se la transazione fallisce lo stamp nel
+ * database non cambia e i token restano validi.
+ */
+public class UtenteListener {
+
+    private final ObjectProvider<SecurityStampService> securityStampService;
+
+    public UtenteListener(ObjectProvider<SecurityStampService> securityStampService) {
+        this.securityStampService = securityStampService;
+    }
+
+    @PostUpdate
+    void utenteModificato(Utente utente) {
+        Long id = utente.getId();
+        long stamp = utente.getSecurityStamp();
+        boolean abilitato = utente.isAbilitato();
+        dopoIlCommit(() -> securityStampService.ifAvailable(s -> s.aggiorna(id, stamp, abilitato)));
+    }
+
+    @PostRemove
+    void utenteEliminato(Utente utente) {
+        Long id = utente.getId();
+        dopoIlCommit(() -> securityStampService.ifAvailable(s -> s.invalida(id)));
+    }
+
+    private static void dopoIlCommit(Runnable azione) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    azione.run();
+                }
+            });
+        } else {
+            azione.run();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.eventpro.catering.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * CACHE DEI TOKEN JWT GIÀ VERIFICATI
+ *
+ * Il frontend manda lo stesso token centinaia di volte per sessione e ogni
+ * volta JwtService.verify rifaceva decodifica Base64, parsing JSON e HMAC.
+ * Qui si tiene il risultato (VerifiedToken) della prima verifica: le
+ * richieste successive con lo stesso token costano un hash e una lettura.
+ *
+ * COME FUNZIONA:
+ * - chiave: SHA-256 del token (il token in chiaro non resta in memoria)
+ * - miss: JwtService.verify; se il token non è valido l'eccezione passa al
+ *   chiamante e non viene messo in cache nulla
+ * - ogni voce scade ESATTAMENTE alla scadenza del suo token (Expiry di
+ *   Caffeine per singola voce), con lo scheduler di sistema che la rimuove
+ *   senza aspettare la lettura successiva; in più la scadenza viene
+ *   ricontrollata a ogni lettura, quindi un token scaduto non viene mai
+ *   restituito dalla cache
+ * - dimensione massima "jwt.cache.max-size" voci (eviction W-TinyLFU)
+ *
+ * Caffeine è thread-safe: con molte richieste contemporanee sullo stesso
+ * token nuovo la verifica viene fatta una volta sola, le altre aspettano
+ * il risultato.
+ *
+ * METRICHE: cache.gets (hit/miss), cache.evictions, cache.size con tag
+ * cache=jwt.token.cache, più jwt.token.cache.hit.ratio.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    /**
+     * SHA-256 del token in quattro long (equals e hashCode senza array)
+     */
+    private record TokenHash(long h0, long h1, long h2, long h3) {
+
+        static TokenHash of(String token) {
+            ByteBuffer digest = ByteBuffer.wrap(sha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        }
+    }
+
+    private final JwtService jwtService;
+    private final Cache<TokenHash, JwtService.VerifiedToken> tokens;
+
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.jwtService = jwtService;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ScadenzaToken())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.token.cache");
+        Gauge.builder("jwt.token.cache.hit.ratio", tokens, c -> c.stats().hitRate())
+                .description("Frazione di token verificati trovati in cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * VERIFICA UN TOKEN, DALLA CACHE SE GIÀ VISTO
+     *
+     * @param token Il token JWT (senza "Bearer ")
+     * @return Il token verificato
+     * @throws io.jsonwebtoken.JwtException se il token non è valido o è scaduto
+     */
+    public JwtService.VerifiedToken verify(String token) {
+        TokenHash chiave = TokenHash.of(token);
+        JwtService.VerifiedToken verificato = tokens.get(chiave, k -> jwtService.verify(token));
+        if (verificato.expiresAt() != null && !verificato.expiresAt().isAfter(Instant.now())) {
+            // Scaduto tra l'inserimento e ora: lo si toglie e lo si fa rifiutare da JwtService
+            tokens.invalidate(chiave);
+            return jwtService.verify(token);
+        }
+        return verificato;
+    }
+
+    /**
+     * TOGLIE UN TOKEN DALLA CACHE (la prossima richiesta lo riverifica)
+     */
+    public void invalidate(String token) {
+        tokens.invalidate(TokenHash.of(token));
+    }
+
+    /**
+     * Numero (approssimato) di token in cache
+     */
+    public long size() {
+        return tokens.estimatedSize();
+    }
+
+    /**
+     * Ogni voce vive fino alla scadenza del suo token (subito scaduta se non ne ha una)
+     */
+    private static final class ScadenzaToken implements Expiry<TokenHash, JwtService.VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(TokenHash key, JwtService.VerifiedToken value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return 0;
+            }
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenHash key, JwtService.VerifiedToken value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenHash key, JwtService.VerifiedToken value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.eventpro.catering.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ALBERO DI INTERVALLI (INTERVAL TREE)
+ *
+ * Contiene intervalli semiaperti [inizio, fine) identificati da un id e
+ * risponde alla domanda "quali intervalli si sovrappongono a [a, b)?"
+ * in O(log n + k), dove k è il numero di intervalli trovati.
+ *
+ * COME FUNZIONA:
+ * - Albero binario di ricerca ordinato per (inizio, id)
+ * - Ogni nodo ricorda la "fine" massima del proprio sottoalbero (maxFine):
+ *   se maxFine <= a, nessun intervallo lì sotto può sovrapporsi e il
+ *   sottoalbero viene saltato
+ * - Bilanciato come treap: ogni nodo ha una priorità casuale e le rotazioni
+ *   mantengono l'ordine di heap sulle priorità, quindi l'altezza attesa è O(log n)
+ *   anche se gli eventi arrivano già ordinati per orario
+ *
+ * Gli estremi sono interi (es. secondi dalla mezzanotte). Intervalli che si
+ * toccano soltanto ([10, 12) e [12, 14)) NON si sovrappongono.
+ *
+ * NON thread-safe: chi lo usa deve proteggerlo con un lock.
+ */
+final class AlberoIntervalli {
+
+    private static final class Nodo {
+        final int inizio;
+        final int fine;
+        final long id;
+        final int priorita;
+        int maxFine;
+        Nodo sinistro;
+        Nodo destro;
+
+        Nodo(int inizio, int fine, long id) {
+            this.inizio = inizio;
+            this.fine = fine;
+            this.id = id;
+            this.priorita = ThreadLocalRandom.current().nextInt();
+            this.maxFine = fine;
+        }
+    }
+
+    private Nodo radice;
+    private int dimensione;
+
+    /**
+     * AGGIUNGE L'INTERVALLO [inizio, fine) CON IL SUO ID
+     *
+     * @throws IllegalArgumentException se fine <= inizio
+     */
+    void aggiungi(int inizio, int fine, long id) {
+        if (fine <= inizio) {
+            throw new IllegalArgumentException("Intervallo vuoto: [" + inizio + ", " + fine + ")");
+        }
+        radice = aggiungi(radice, new Nodo(inizio, fine, id));
+        dimensione++;
+    }
+
+    /**
+     * TOGLIE L'INTERVALLO CHE INIZIA IN "inizio" CON QUESTO ID
+     *
+     * @return true se l'intervallo c'era
+     */
+    boolean rimuovi(int inizio, long id) {
+        int prima = dimensione;
+        radice = rimuovi(radice, inizio, id);
+        return dimensione < prima;
+    }
+
+    /**
+     * ID DEGLI INTERVALLI CHE SI SOVRAPPONGONO A [inizio, fine), IN ORDINE DI INIZIO
+     */
+    List<Long> sovrapposti(int inizio, int fine) {
+        List<Long> risultato = new ArrayList<>();
+        cerca(radice, inizio, fine, risultato);
+        return risultato;
+    }
+
+    int dimensione() {
+        return dimensione;
+    }
+
+    boolean isEmpty() {
+        return dimensione == 0;
+    }
+
+    private static int confronta(int inizio, long id, Nodo nodo) {
+        int confronto = Integer.compare(inizio, nodo.inizio);
+        return confronto != 0 ? confronto : Long.compare(id, nodo.id);
+    }
+
+    private static Nodo aggiungi(Nodo nodo, Nodo nuovo) {
+        if (nodo == null) {
+            return nuovo;
+        }
+        if (confronta(nuovo.inizio, nuovo.id, nodo) < 0) {
+            nodo.sinistro = aggiungi(nodo.sinistro, nuovo);
+            if (nodo.sinistro.priorita > nodo.priorita) {
+                nodo = ruotaADestra(nodo);
+            }
+        } else {
+            nodo.destro = aggiungi(nodo.destro, nuovo);
+            if (nodo.destro.priorita > nodo.priorita) {
+                nodo = ruotaASinistra(nodo);
+            }
+        }
+        aggiorna(nodo);
+        return nodo;
+    }
+
+    private Nodo rimuovi(Nodo nodo, int inizio, long id) {
+        if (nodo == null) {
+            return null;
+        }
+        int confronto = confronta(inizio, id, nodo);
+        if (confronto < 0) {
+            nodo.sinistro = rimuovi(nodo.sinistro, inizio, id);
+        } else if (confronto > 0) {
+            nodo.destro = rimuovi(nodo.destro, inizio, id);
+        } else {
+            dimensione--;
+            return unisci(nodo.sinistro, nodo.destro);
+        }
+        aggiorna(nodo);
+        return nodo;
+    }
+
+    /**
+     * Unisce due sottoalberi (tutte le chiavi di "sinistro" < quelle di "destro")
+     * rispettando le priorità
+     */
+    private static Nodo unisci(Nodo sinistro, Nodo destro) {
+        if (sinistro == null) {
+            return destro;
+        }
+        if (destro == null) {
+            return sinistro;
+        }
+        if (sinistro.priorita > destro.priorita) {
+            sinistro.destro = unisci(sinistro.destro, destro);
+            aggiorna(sinistro);
+            return sinistro;
+        }
+        destro.sinistro = unisci(sinistro, destro.sinistro);
+        aggiorna(destro);
+        return destro;
+    }
+
+    private static void cerca(Nodo nodo, int inizio, int fine, List<Long> risultato) {
+        if (nodo == null || nodo.maxFine <= inizio) {
+            return;
+        }
+        cerca(nodo.sinistro, inizio, fine, risultato);
+        if (nodo.inizio < fine) {
+            if (nodo.fine > inizio) {
+                risultato.add(nodo.id);
+            }
+            // A destra gli intervalli iniziano dopo nodo.inizio: utili solo se nodo.inizio < fine
+            cerca(nodo.destro, inizio, fine, risultato);
+        }
+    }
+
+    private static Nodo ruotaADestra(Nodo nodo) {
+        Nodo nuovaRadice = nodo.sinistro;
+        nodo.sinistro = nuovaRadice.destro;
+        nuovaRadice.destro = nodo;
+        aggiorna(nodo);
+        aggiorna(nuovaRadice);
+        return nuovaRadice;
+    }
+
+    private static Nodo ruotaASinistra(Nodo nodo) {
+        Nodo nuovaRadice = nodo.destro;
+        nodo.destro = nuovaRadice.sinistro;
+        nuovaRadice.sinistro = nodo;
+        aggiorna(nodo);
+        aggiorna(nuovaRadice);
+        return nuovaRadice;
+    }
+
+    private static void aggiorna(Nodo nodo) {
+        int max = nodo.fine;
+        if (nodo.sinistro != null) {
+            max = Math.max(max, nodo.sinistro.maxFine);
+        }
+        if (nodo.destro != null) {
+            max = Math.max(max, nodo.destro.maxFine);
+        }
+        nodo.maxFine = max;
+    }
+}
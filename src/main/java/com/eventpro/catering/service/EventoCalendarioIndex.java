@@ -0,0 +1,248 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.CalendarioDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoConteggioGiornaliero;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * CALENDARIO IN MEMORIA: GIORNI OCCUPATI E NUMERO DI EVENTI PER GIORNO
+ *
+ * La vista mensile del frontend deve solo sapere quali giorni sono occupati
+ * (e quanto): scaricare le liste complete di eventi per colorare una heatmap
+ * è lavoro sprecato. Questo indice risponde senza query.
+ *
+ * STRUTTURE (una coppia per ogni tipologia, più una per tutti gli eventi):
+ * - BitSet dei giorni occupati: un bit per giorno a partire dal 1900-01-01
+ *   (un secolo di calendario sono circa 4,5 KB)
+ * - Contatori giornalieri: array di int a blocchi di 512 giorni, allocati
+ *   solo per i periodi che contengono eventi
+ *
+ * COME SI INTERROGA:
+ * - "Giorni del mese con un matrimonio" = BitSet dei matrimoni AND maschera
+ *   del mese (BitSet.get(da, a) estrae solo quei bit, a parole di 64 giorni)
+ * - Più tipologie insieme = OR dei loro BitSet
+ * - I contatori vengono letti solo per i bit accesi (i giorni occupati)
+ *
+ * AGGIORNAMENTO:
+ * - All'avvio (ApplicationReadyEvent) da UNA query raggruppata per (data, tipologia)
+ * - Dopo ogni commit (EventoModificatoEvent): +1 / -1 sul giorno e sulla
+ *   tipologia dell'evento (una modifica toglie dal vecchio giorno e aggiunge al nuovo)
+ *
+ * Una modifica che arriva proprio mentre gira la query di avvio può essere
+ * contata due volte o persa: la ricostruzione successiva la corregge.
+ */
+@Component
+public class EventoCalendarioIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoCalendarioIndex.class);
+
+    // Giorno 0 del BitSet (il BitSet accetta solo indici >= 0)
+    private static final LocalDate PRIMO_GIORNO = LocalDate.of(1900, 1, 1);
+    private static final LocalDate ULTIMO_GIORNO = LocalDate.of(2999, 12, 31);
+    private static final long BASE = PRIMO_GIORNO.toEpochDay();
+
+    /**
+     * GIORNI OCCUPATI E CONTATORI DI UN INSIEME DI EVENTI (una tipologia, o tutti)
+     *
+     * NON thread-safe: protetto dal ReadWriteLock dell'indice.
+     */
+    private static final class Calendario {
+
+        private static final int BITS_BLOCCO = 9;
+        private static final int DIMENSIONE_BLOCCO = 1 << BITS_BLOCCO;
+
+        final BitSet occupati = new BitSet();
+        private final Map<Integer, int[]> blocchi = new HashMap<>();
+
+        void aggiungi(int giorno, int delta) {
+            int[] blocco = blocchi.computeIfAbsent(giorno >>> BITS_BLOCCO, b -> new int[DIMENSIONE_BLOCCO]);
+            int eventi = Math.max(0, blocco[giorno & (DIMENSIONE_BLOCCO - 1)] + delta);
+            blocco[giorno & (DIMENSIONE_BLOCCO - 1)] = eventi;
+            occupati.set(giorno, eventi > 0);
+        }
+
+        int eventi(int giorno) {
+            int[] blocco = blocchi.get(giorno >>> BITS_BLOCCO);
+            return blocco != null ? blocco[giorno & (DIMENSIONE_BLOCCO - 1)] : 0;
+        }
+    }
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Calendario tutti = new Calendario();
+    private Map<Long, Calendario> perTipologia = new HashMap<>();
+
+    public EventoCalendarioIndex(EventoJdbcRepository eventoJdbcRepository) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+    }
+
+    /**
+     * HEATMAP DI UN MESE
+     *
+     * @param anno Anno (1900-2999)
+     * @param mese Mese (1-12)
+     * @param tipologie Solo eventi di queste tipologie (null o vuota = tutti)
+     * @throws IllegalArgumentException se anno o mese non sono validi (→ HTTP 400)
+     */
+    public CalendarioDTO mese(int anno, int mese, List<Long> tipologie) {
+        verificaAnno(anno);
+        if (mese < 1 || mese > 12) {
+            throw new IllegalArgumentException("Mese non valido: " + mese + " (valori ammessi: 1-12)");
+        }
+        YearMonth yearMonth = YearMonth.of(anno, mese);
+        return calendario(yearMonth.atDay(1), yearMonth.atEndOfMonth(), tipologie);
+    }
+
+    /**
+     * HEATMAP DI UN ANNO (365 o 366 valori)
+     *
+     * @param anno Anno (1900-2999)
+     * @param tipologie Solo eventi di queste tipologie (null o vuota = tutti)
+     * @throws IllegalArgumentException se l'anno non è valido (→ HTTP 400)
+     */
+    public CalendarioDTO anno(int anno, List<Long> tipologie) {
+        verificaAnno(anno);
+        return calendario(LocalDate.of(anno, 1, 1), LocalDate.of(anno, 12, 31), tipologie);
+    }
+
+    private CalendarioDTO calendario(LocalDate da, LocalDate a, List<Long> tipologie) {
+        List<Long> filtro = tipologie != null ? List.copyOf(new LinkedHashSet<>(tipologie)) : List.of();
+        int inizio = indice(da);
+        int fine = indice(a) + 1;
+        int[] eventiPerGiorno = new int[fine - inizio];
+
+        lock.readLock().lock();
+        try {
+            List<Calendario> scelti = new ArrayList<>();
+            if (filtro.isEmpty()) {
+                scelti.add(tutti);
+            } else {
+                for (Long tipologia : filtro) {
+                    Calendario calendario = perTipologia.get(tipologia);
+                    if (calendario != null) {
+                        scelti.add(calendario);
+                    }
+                }
+            }
+
+            // Giorni occupati nel periodo: (BitSet tipologia AND periodo) OR ...
+            BitSet occupati = new BitSet(fine - inizio);
+            for (Calendario calendario : scelti) {
+                occupati.or(calendario.occupati.get(inizio, fine));
+            }
+
+            for (int giorno = occupati.nextSetBit(0); giorno >= 0; giorno = occupati.nextSetBit(giorno + 1)) {
+                for (Calendario calendario : scelti) {
+                    eventiPerGiorno[giorno] += calendario.eventi(inizio + giorno);
+                }
+            }
+            return new CalendarioDTO(da, a, filtro, occupati.cardinality(), eventiPerGiorno);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * AGGIORNA I CONTATORI DOPO IL COMMIT DI UNA MODIFICA
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventoModificato(EventoModificatoEvent evento) {
+        lock.writeLock().lock();
+        try {
+            if (evento.getPrima() != null) {
+                aggiorna(evento.getPrima(), -1);
+            }
+            if (evento.getDopo() != null) {
+                aggiorna(evento.getDopo(), +1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * RICOSTRUISCE IL CALENDARIO CON UNA QUERY RAGGRUPPATA
+     *
+     * I nuovi BitSet e contatori vengono costruiti a parte e sostituiti
+     * in un colpo solo: le letture non vedono mai un calendario a metà.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ricostruisci() {
+        long avvio = System.nanoTime();
+        List<EventoConteggioGiornaliero> conteggi = eventoJdbcRepository.findConteggiGiornalieri();
+
+        Calendario nuovoTutti = new Calendario();
+        Map<Long, Calendario> nuoviPerTipologia = new HashMap<>();
+        for (EventoConteggioGiornaliero conteggio : conteggi) {
+            if (!nelCalendario(conteggio.data())) {
+                continue;
+            }
+            int giorno = indice(conteggio.data());
+            nuovoTutti.aggiungi(giorno, conteggio.eventi());
+            nuoviPerTipologia.computeIfAbsent(conteggio.tipologiaId(), t -> new Calendario())
+                    .aggiungi(giorno, conteggio.eventi());
+        }
+
+        lock.writeLock().lock();
+        try {
+            tutti = nuovoTutti;
+            perTipologia = nuoviPerTipologia;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Calendario eventi costruito: {} giorni occupati, {} tipologie in {} ms",
+                nuovoTutti.occupati.cardinality(), nuoviPerTipologia.size(),
+                (System.nanoTime() - avvio) / 1_000_000);
+    }
+
+    /**
+     * +delta sul giorno dell'evento (chiamato con il write lock)
+     */
+    private void aggiorna(EventoResponseDTO evento, int delta) {
+        if (!nelCalendario(evento.getData())) {
+            logger.warn("Evento {} con data {} fuori dal calendario: non conteggiato", evento.getId(), evento.getData());
+            return;
+        }
+        int giorno = indice(evento.getData());
+        tutti.aggiungi(giorno, delta);
+        if (evento.getTipologiaEvento() != null) {
+            perTipologia.computeIfAbsent(evento.getTipologiaEvento().getId(), t -> new Calendario())
+                    .aggiungi(giorno, delta);
+        }
+    }
+
+    private static boolean nelCalendario(LocalDate data) {
+        return data != null && !data.isBefore(PRIMO_GIORNO) && !data.isAfter(ULTIMO_GIORNO);
+    }
+
+    private static int indice(LocalDate data) {
+        return (int) (data.toEpochDay() - BASE);
+    }
+
+    private static void verificaAnno(int anno) {
+        if (anno < PRIMO_GIORNO.getYear() || anno > ULTIMO_GIORNO.getYear()) {
+            throw new IllegalArgumentException("Anno non valido: " + anno
+                    + " (valori ammessi: " + PRIMO_GIORNO.getYear() + "-" + ULTIMO_GIORNO.getYear() + ")");
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.exception.EventoConflittoException;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RILEVAMENTO DELLE SOVRAPPOSIZIONI (DOPPIE PRENOTAZIONI) DI UNA LOCATION
+ *
+ * Due eventi nella stessa location, nella stessa data, con orari che si
+ * sovrappongono sono una doppia prenotazione. Un controllo "SELECT e poi
+ * INSERT" non basta: due POST contemporanei leggono entrambi "libero" e
+ * inseriscono entrambi.
+ *
+ * COME FUNZIONA:
+ * - Per ogni (location normalizzata, data) c'è un AlberoIntervalli con gli
+ *   orari [oraInizio, oraFine) degli eventi: il controllo costa O(log n)
+ * - Controllo e inserimento nell'albero avvengono sotto lo stesso lock, quindi
+ *   la seconda di due richieste concorrenti vede sempre la prima
+ * - I lock sono "a strisce": un array fisso di ReentrantLock, la location
+ *   sceglie la striscia con il suo hash. Location diverse finiscono quasi
+ *   sempre su strisce diverse e non si aspettano a vicenda
+ * - La prenotazione entra nell'albero PRIMA del commit (il lock dura pochi
+ *   microsecondi, non tutta la transazione); se la transazione fa rollback
+ *   viene tolta (o rimessa com'era) da una TransactionSynchronization
+ *
+ * "Villa Roma", "villa  roma" e "Villa Roma," sono la stessa location
+ * (NormalizzatoreTesto.chiave). Eventi che si toccano soltanto
+ * (10:00-12:00 e 12:00-14:00) non sono in conflitto.
+ *
+ * EVENTI CHE SUPERANO LA MEZZANOTTE (es. 20:00-01:00, presenti nei dati storici):
+ * stanno nel calendario del giorno in cui iniziano, con la fine spostata di
+ * 24 ore (72000-90000 secondi). Per questo il controllo su un giorno guarda
+ * anche il calendario del giorno prima, e quello del giorno dopo se il nuovo
+ * evento supera a sua volta la mezzanotte.
+ *
+ * CARICAMENTO:
+ * gli eventi già presenti nel database vengono caricati al primo controllo
+ * e di nuovo all'ApplicationReadyEvent (per includere quelli inseriti dai
+ * DataLoader). Eventuali sovrapposizioni già presenti vengono solo segnalate nel log.
+ */
+@Service
+public class EventoConflittiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoConflittiService.class);
+
+    private static final int PAGINA_CARICAMENTO = 2_000;
+    private static final int SECONDI_GIORNO = 24 * 60 * 60;
+
+    /**
+     * Location normalizzata + data: identifica un "calendario" di una sala
+     */
+    record ChiaveSala(String location, LocalDate data) {
+
+        static ChiaveSala di(EventoResponseDTO evento) {
+            return new ChiaveSala(NormalizzatoreTesto.chiave(evento.getLocation()), evento.getData());
+        }
+    }
+
+    /**
+     * Evento prenotato: la chiave e l'orario servono per toglierlo dall'albero.
+     * Secondi dalla mezzanotte del giorno dell'evento: "fine" supera
+     * SECONDI_GIORNO se l'evento finisce il giorno dopo.
+     */
+    private record Prenotazione(ChiaveSala chiave, int inizio, int fine, EventoResponseDTO evento) {
+
+        static Prenotazione di(EventoResponseDTO evento) {
+            int inizio = evento.getOraInizio().toSecondOfDay();
+            int fine = evento.getOraFine().toSecondOfDay();
+            if (fine <= inizio) {
+                fine += SECONDI_GIORNO;
+            }
+            return new Prenotazione(ChiaveSala.di(evento), inizio, fine, evento);
+        }
+    }
+
+    private final Map<ChiaveSala, AlberoIntervalli> calendari = new ConcurrentHashMap<>();
+    private final Map<Long, Prenotazione> prenotazioni = new ConcurrentHashMap<>();
+    private final ReentrantLock[] strisce;
+    private final ReentrantLock caricamentoLock = new ReentrantLock();
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+
+    private volatile boolean caricato;
+
+    public EventoConflittiService(EventoJdbcRepository eventoJdbcRepository,
+                                  @Value("${eventi.conflitti.strisce-lock:64}") int numeroStrisce) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+        this.strisce = new ReentrantLock[numeroStrisce];
+        for (int i = 0; i < numeroStrisce; i++) {
+            strisce[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * PRENOTA LA LOCATION PER UN NUOVO EVENTO
+     *
+     * Da chiamare dentro la transazione che salva l'evento (l'id deve essere
+     * già assegnato). Se la transazione fa rollback la prenotazione viene tolta.
+     *
+     * ESEMPIO:
+     * Evento salvato = eventoRepository.save(evento);
+     * eventoConflittiService.prenota(eventoMapper.toResponseDTO(salvato));
+     *
+     * @param evento Evento appena creato
+     * @throws EventoConflittoException se si sovrappone ad altri eventi (→ HTTP 409)
+     */
+    public void prenota(EventoResponseDTO evento) {
+        assicuraCaricato();
+        Prenotazione nuova = Prenotazione.di(evento);
+
+        ReentrantLock lock = strisciaDi(nuova.chiave());
+        lock.lock();
+        try {
+            verificaLibera(nuova);
+            inserisci(nuova);
+        } finally {
+            lock.unlock();
+        }
+
+        dopoRollback(() -> togli(nuova));
+    }
+
+    /**
+     * SPOSTA LA PRENOTAZIONE DI UN EVENTO MODIFICATO
+     *
+     * Toglie il vecchio orario, controlla il nuovo (l'evento non è in conflitto
+     * con sé stesso) e lo inserisce. Se location e data cambiano servono due
+     * strisce: vengono prese sempre in ordine di indice, così due spostamenti
+     * incrociati non si bloccano a vicenda.
+     *
+     * @param prima Stato precedente dell'evento
+     * @param dopo Stato nuovo dell'evento
+     * @throws EventoConflittoException se il nuovo orario si sovrappone ad altri eventi (→ HTTP 409)
+     */
+    public void sposta(EventoResponseDTO prima, EventoResponseDTO dopo) {
+        assicuraCaricato();
+        Prenotazione nuova = Prenotazione.di(dopo);
+        Prenotazione vecchia = prenotazioni.getOrDefault(prima.getId(), Prenotazione.di(prima));
+
+        ReentrantLock[] lock = strisceOrdinate(vecchia.chiave(), nuova.chiave());
+        for (ReentrantLock l : lock) {
+            l.lock();
+        }
+        try {
+            togliSenzaLock(vecchia);
+            try {
+                verificaLibera(nuova);
+            } catch (EventoConflittoException e) {
+                inserisci(vecchia);
+                throw e;
+            }
+            inserisci(nuova);
+        } finally {
+            for (int i = lock.length - 1; i >= 0; i--) {
+                lock[i].unlock();
+            }
+        }
+
+        dopoRollback(() -> {
+            togli(nuova);
+            ReentrantLock strisciaVecchia = strisciaDi(vecchia.chiave());
+            strisciaVecchia.lock();
+            try {
+                inserisci(vecchia);
+            } finally {
+                strisciaVecchia.unlock();
+            }
+        });
+    }
+
+    /**
+     * LIBERA LA LOCATION DI UN EVENTO ELIMINATO (solo dopo il commit)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventoModificato(EventoModificatoEvent evento) {
+        if (evento.getTipo() == EventoModificatoEvent.Tipo.ELIMINATO) {
+            Prenotazione prenotazione = prenotazioni.get(evento.getId());
+            if (prenotazione != null) {
+                togli(prenotazione);
+            }
+        }
+    }
+
+    /**
+     * CARICA GLI EVENTI DEL DATABASE NON ANCORA PRESENTI
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carica() {
+        caricamentoLock.lock();
+        try {
+            caricaDalDatabase();
+        } finally {
+            caricamentoLock.unlock();
+        }
+    }
+
+    private void caricaDalDatabase() {
+        long inizio = System.nanoTime();
+        int sovrapposizioni = 0;
+
+        List<EventoResponseDTO> pagina = eventoJdbcRepository.findFirstPage(PAGINA_CARICAMENTO);
+        while (!pagina.isEmpty()) {
+            for (EventoResponseDTO evento : pagina) {
+                if (prenotazioni.containsKey(evento.getId())) {
+                    continue;
+                }
+                Prenotazione prenotazione = Prenotazione.di(evento);
+                ReentrantLock lock = strisciaDi(prenotazione.chiave());
+                lock.lock();
+                try {
+                    if (!prenotazioni.containsKey(evento.getId())) {
+                        if (!sovrapposti(prenotazione).isEmpty()) {
+                            sovrapposizioni++;
+                        }
+                        inserisci(prenotazione);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (pagina.size() < PAGINA_CARICAMENTO) {
+                break;
+            }
+            EventoResponseDTO ultimo = pagina.get(pagina.size() - 1);
+            pagina = eventoJdbcRepository.findPageAfter(
+                    ultimo.getData(), ultimo.getOraInizio(), ultimo.getId(), PAGINA_CARICAMENTO);
+        }
+        caricato = true;
+
+        if (sovrapposizioni > 0) {
+            logger.warn("{} eventi già presenti nel database si sovrappongono ad altri nella stessa location",
+                    sovrapposizioni);
+        }
+        logger.info("Calendario delle location caricato: {} eventi in {} location/giorno ({} ms)",
+                prenotazioni.size(), calendari.size(), (System.nanoTime() - inizio) / 1_000_000);
+    }
+
+    private void assicuraCaricato() {
+        if (!caricato) {
+            carica();
+        }
+    }
+
+    /**
+     * Lancia EventoConflittoException se la prenotazione si sovrappone ad altri
+     * eventi. Chiamato sotto il lock della striscia.
+     */
+    private void verificaLibera(Prenotazione prenotazione) {
+        List<EventoResponseDTO> conflitti = sovrapposti(prenotazione);
+        if (!conflitti.isEmpty()) {
+            throw new EventoConflittoException(prenotazione.evento().getLocation(), conflitti);
+        }
+    }
+
+    /**
+     * Eventi della stessa location che si sovrappongono alla prenotazione:
+     * giorno prima (eventi notturni), stesso giorno, giorno dopo (se la
+     * prenotazione supera la mezzanotte). Ordinati per data e ora di inizio.
+     */
+    private List<EventoResponseDTO> sovrapposti(Prenotazione prenotazione) {
+        ChiaveSala chiave = prenotazione.chiave();
+        List<EventoResponseDTO> conflitti = new ArrayList<>();
+        aggiungiSovrapposti(new ChiaveSala(chiave.location(), chiave.data().minusDays(1)),
+                prenotazione.inizio() + SECONDI_GIORNO, prenotazione.fine() + SECONDI_GIORNO,
+                prenotazione, conflitti);
+        aggiungiSovrapposti(chiave, prenotazione.inizio(), prenotazione.fine(), prenotazione, conflitti);
+        if (prenotazione.fine() > SECONDI_GIORNO) {
+            aggiungiSovrapposti(new ChiaveSala(chiave.location(), chiave.data().plusDays(1)),
+                    prenotazione.inizio() - SECONDI_GIORNO, prenotazione.fine() - SECONDI_GIORNO,
+                    prenotazione, conflitti);
+        }
+        return conflitti;
+    }
+
+    private void aggiungiSovrapposti(ChiaveSala chiave, int inizio, int fine,
+                                     Prenotazione prenotazione, List<EventoResponseDTO> conflitti) {
+        AlberoIntervalli albero = calendari.get(chiave);
+        if (albero == null) {
+            return;
+        }
+        for (Long id : albero.sovrapposti(inizio, fine)) {
+            Prenotazione esistente = prenotazioni.get(id);
+            if (esistente != null && !id.equals(prenotazione.evento().getId())) {
+                conflitti.add(esistente.evento());
+            }
+        }
+    }
+
+    private void inserisci(Prenotazione prenotazione) {
+        calendari.computeIfAbsent(prenotazione.chiave(), k -> new AlberoIntervalli())
+                .aggiungi(prenotazione.inizio(), prenotazione.fine(), prenotazione.evento().getId());
+        prenotazioni.put(prenotazione.evento().getId(), prenotazione);
+    }
+
+    private void togli(Prenotazione prenotazione) {
+        ReentrantLock lock = strisciaDi(prenotazione.chiave());
+        lock.lock();
+        try {
+            togliSenzaLock(prenotazione);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void togliSenzaLock(Prenotazione prenotazione) {
+        AlberoIntervalli albero = calendari.get(prenotazione.chiave());
+        if (albero != null && albero.rimuovi(prenotazione.inizio(), prenotazione.evento().getId())) {
+            prenotazioni.remove(prenotazione.evento().getId(), prenotazione);
+            if (albero.isEmpty()) {
+                calendari.remove(prenotazione.chiave());
+            }
+        }
+    }
+
+    private ReentrantLock strisciaDi(ChiaveSala chiave) {
+        return strisce[indiceStriscia(chiave)];
+    }
+
+    /**
+     * La striscia dipende solo dalla location (non dalla data): così un solo
+     * lock protegge anche i calendari del giorno prima e del giorno dopo
+     */
+    private int indiceStriscia(ChiaveSala chiave) {
+        int hash = chiave.location().hashCode();
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, strisce.length);
+    }
+
+    /**
+     * Strisce di due chiavi in ordine di indice (una sola se coincidono)
+     */
+    private ReentrantLock[] strisceOrdinate(ChiaveSala prima, ChiaveSala seconda) {
+        int a = indiceStriscia(prima);
+        int b = indiceStriscia(seconda);
+        if (a == b) {
+            return new ReentrantLock[]{strisce[a]};
+        }
+        return new ReentrantLock[]{strisce[Math.min(a, b)], strisce[Math.max(a, b)]};
+    }
+
+    /**
+     * Esegue "azione" se la transazione corrente termina con un rollback
+     * (nessun effetto se non c'è una transazione attiva)
+     */
+    private static void dopoRollback(Runnable azione) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    azione.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,230 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.DisponibilitaDTO;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import com.eventpro.catering.repository.EventoOccupazione;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SERVICE PER LA RICERCA DI DISPONIBILITÀ (FINESTRE LIBERE)
+ *
+ * Risponde a domande come "quali sabati del 2027 è libera Villa Roma
+ * dalle 18:00 alle 23:00?" con UNA sola query, invece di una chiamata
+ * GET /api/eventi?data= per ogni data.
+ *
+ * COME FUNZIONA:
+ * 1. Una query sul range di date legge solo (data, oraInizio, oraFine, location)
+ *    degli eventi, già ordinati per data e ora di inizio
+ * 2. Ogni evento viene ritagliato sulla fascia oraria richiesta e assegnato al
+ *    suo giorno (gli eventi oltre la mezzanotte occupano anche l'inizio del
+ *    giorno dopo: per questo la query parte dal giorno prima di "da")
+ * 3. Per ogni giorno uno "sweep" sugli intervalli ordinati: un cursore parte
+ *    dall'inizio della fascia, ogni buco prima dell'intervallo successivo è
+ *    una finestra libera, il cursore avanza fino alla fine più lontana vista
+ *
+ * La location viene confrontata in forma normalizzata (come il controllo
+ * delle doppie prenotazioni): "Villa Roma" trova anche "villa roma,".
+ * Senza location conta qualsiasi evento (disponibilità del servizio catering).
+ */
+@Service
+public class EventoDisponibilitaService {
+
+    private static final int SECONDI_GIORNO = 24 * 60 * 60;
+
+    // Fine giornata nella risposta quando oraFine non è indicata (24:00 non esiste in LocalTime)
+    private static final LocalTime FINE_GIORNATA = LocalTime.of(23, 59, 59);
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+
+    // Numero massimo di giorni in una richiesta (un anno, anche bisestile)
+    @Value("${eventi.disponibilita.max-giorni:366}")
+    private int maxGiorni;
+
+    public EventoDisponibilitaService(EventoJdbcRepository eventoJdbcRepository) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+    }
+
+    /**
+     * CALCOLA LE FINESTRE LIBERE IN UN RANGE DI DATE
+     *
+     * ESEMPIO DI USO:
+     * DisponibilitaDTO sabati = disponibilitaService.cerca(
+     *         LocalDate.of(2027, 1, 1), LocalDate.of(2027, 12, 31), List.of("sabato"),
+     *         LocalTime.of(18, 0), LocalTime.of(23, 0), "Villa Roma", null, null, true);
+     *
+     * @param da Prima data (inclusa)
+     * @param a Ultima data (inclusa)
+     * @param giorni Giorni della settimana ("SATURDAY", "sabato", "6"...; vuoto = tutti)
+     * @param oraInizio Inizio della fascia oraria (null = 00:00)
+     * @param oraFine Fine della fascia oraria (null = fine giornata)
+     * @param location Location (null = qualsiasi evento occupa la fascia)
+     * @param tipologiaId Considera solo gli eventi di questa tipologia (null = tutti)
+     * @param durataMinima Minuti minimi di una finestra libera (null = qualsiasi durata)
+     * @param soloLiberi true = restituisce solo i giorni con la fascia completamente libera
+     * @return Disponibilità giorno per giorno
+     * @throws IllegalArgumentException se i parametri non sono validi (→ HTTP 400)
+     */
+    public DisponibilitaDTO cerca(LocalDate da, LocalDate a, List<String> giorni,
+                                  LocalTime oraInizio, LocalTime oraFine,
+                                  String location, Long tipologiaId,
+                                  Integer durataMinima, boolean soloLiberi) {
+        if (da == null || a == null) {
+            throw new IllegalArgumentException("Le date 'da' e 'a' sono obbligatorie");
+        }
+        if (da.isAfter(a)) {
+            throw new IllegalArgumentException("La data 'da' deve precedere o coincidere con la data 'a'");
+        }
+        long numeroGiorni = ChronoUnit.DAYS.between(da, a) + 1;
+        if (numeroGiorni > maxGiorni) {
+            throw new IllegalArgumentException(
+                    "Intervallo troppo lungo: " + numeroGiorni + " giorni (massimo " + maxGiorni + ")");
+        }
+        int inizioFascia = oraInizio != null ? oraInizio.toSecondOfDay() : 0;
+        int fineFascia = oraFine != null ? oraFine.toSecondOfDay() : SECONDI_GIORNO;
+        if (fineFascia <= inizioFascia) {
+            throw new IllegalArgumentException("L'ora di fine deve essere successiva all'ora di inizio");
+        }
+        if (durataMinima != null && durataMinima < 0) {
+            throw new IllegalArgumentException("Il parametro durataMinima non può essere negativo");
+        }
+        int secondiMinimi = durataMinima != null ? durataMinima * 60 : 0;
+        Set<DayOfWeek> giorniSettimana = giorniSettimana(giorni);
+        String chiaveLocation = location != null && !location.isBlank() ? NormalizzatoreTesto.chiave(location) : null;
+
+        // STEP 1: una sola query (dal giorno prima, per gli eventi notturni)
+        List<EventoOccupazione> occupazioni = eventoJdbcRepository.findOccupazioni(da.minusDays(1), a, tipologiaId);
+
+        // STEP 2: intervalli occupati per giorno, ritagliati sulla fascia (in ordine di inizio)
+        Map<LocalDate, List<int[]>> occupatiPerGiorno = new HashMap<>();
+        for (EventoOccupazione occupazione : occupazioni) {
+            if (chiaveLocation != null && !chiaveLocation.equals(NormalizzatoreTesto.chiave(occupazione.location()))) {
+                continue;
+            }
+            int inizio = occupazione.oraInizio().toSecondOfDay();
+            int fine = occupazione.oraFine().toSecondOfDay();
+            if (fine <= inizio) {
+                fine += SECONDI_GIORNO;
+            }
+            occupa(occupatiPerGiorno, occupazione.data(), inizio, Math.min(fine, SECONDI_GIORNO),
+                    inizioFascia, fineFascia);
+            if (fine > SECONDI_GIORNO) {
+                occupa(occupatiPerGiorno, occupazione.data().plusDays(1), 0, fine - SECONDI_GIORNO,
+                        inizioFascia, fineFascia);
+            }
+        }
+
+        // STEP 3: sweep giorno per giorno
+        List<DisponibilitaDTO.GiornoDTO> risultato = new ArrayList<>();
+        for (LocalDate data = da; !data.isAfter(a); data = data.plusDays(1)) {
+            if (!giorniSettimana.contains(data.getDayOfWeek())) {
+                continue;
+            }
+            List<int[]> occupati = occupatiPerGiorno.getOrDefault(data, List.of());
+            boolean libero = occupati.isEmpty();
+            if (soloLiberi && !libero) {
+                continue;
+            }
+            risultato.add(new DisponibilitaDTO.GiornoDTO(data, libero,
+                    finestreLibere(occupati, inizioFascia, fineFascia, secondiMinimi)));
+        }
+
+        return new DisponibilitaDTO(da, a, ora(inizioFascia), ora(fineFascia), location, tipologiaId, risultato);
+    }
+
+    /**
+     * Aggiunge [inizio, fine) al giorno, ritagliato sulla fascia (se la tocca)
+     */
+    private static void occupa(Map<LocalDate, List<int[]>> occupatiPerGiorno, LocalDate data,
+                               int inizio, int fine, int inizioFascia, int fineFascia) {
+        int da = Math.max(inizio, inizioFascia);
+        int a = Math.min(fine, fineFascia);
+        if (da < a) {
+            occupatiPerGiorno.computeIfAbsent(data, d -> new ArrayList<>()).add(new int[]{da, a});
+        }
+    }
+
+    /**
+     * SWEEP: FINESTRE LIBERE TRA INTERVALLI OCCUPATI ORDINATI PER INIZIO
+     *
+     * ESEMPIO (fascia 18:00-23:00, occupati 17:00-19:00 e 18:30-20:00):
+     * cursore 18:00 → 20:00, poi finestra libera [20:00, 23:00)
+     */
+    private static List<DisponibilitaDTO.FinestraDTO> finestreLibere(List<int[]> occupati,
+                                                                    int inizioFascia, int fineFascia,
+                                                                    int secondiMinimi) {
+        List<DisponibilitaDTO.FinestraDTO> finestre = new ArrayList<>();
+        int cursore = inizioFascia;
+        for (int[] intervallo : occupati) {
+            if (intervallo[0] > cursore) {
+                aggiungiFinestra(finestre, cursore, intervallo[0], secondiMinimi);
+            }
+            cursore = Math.max(cursore, intervallo[1]);
+        }
+        if (cursore < fineFascia) {
+            aggiungiFinestra(finestre, cursore, fineFascia, secondiMinimi);
+        }
+        return finestre;
+    }
+
+    private static void aggiungiFinestra(List<DisponibilitaDTO.FinestraDTO> finestre,
+                                         int inizio, int fine, int secondiMinimi) {
+        if (fine - inizio >= secondiMinimi) {
+            finestre.add(new DisponibilitaDTO.FinestraDTO(ora(inizio), ora(fine)));
+        }
+    }
+
+    private static LocalTime ora(int secondi) {
+        return secondi >= SECONDI_GIORNO ? FINE_GIORNATA : LocalTime.ofSecondOfDay(secondi);
+    }
+
+    /**
+     * GIORNI DELLA SETTIMANA DAL PARAMETRO "giorni"
+     *
+     * Accetta il nome inglese (SATURDAY), il nome italiano con o senza
+     * accento (sabato, lunedì, lunedi), le prime tre lettere (sab, SAT)
+     * e il numero ISO (1 = lunedì ... 7 = domenica). Vuoto = tutti i giorni.
+     *
+     * @throws IllegalArgumentException se un valore non è riconosciuto (→ HTTP 400)
+     */
+    static Set<DayOfWeek> giorniSettimana(List<String> valori) {
+        if (valori == null || valori.isEmpty()) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        Set<DayOfWeek> giorni = EnumSet.noneOf(DayOfWeek.class);
+        for (String valore : valori) {
+            if (valore == null || valore.isBlank()) {
+                continue;
+            }
+            giorni.add(giornoSettimana(valore));
+        }
+        return giorni.isEmpty() ? EnumSet.allOf(DayOfWeek.class) : giorni;
+    }
+
+    private static DayOfWeek giornoSettimana(String valore) {
+        String testo = NormalizzatoreTesto.chiave(valore);
+        for (DayOfWeek giorno : DayOfWeek.values()) {
+            String inglese = giorno.name().toLowerCase(Locale.ROOT);
+            String italiano = NormalizzatoreTesto.chiave(giorno.getDisplayName(TextStyle.FULL, Locale.ITALIAN));
+            if (testo.equals(inglese) || testo.equals(italiano)
+                    || testo.equals(inglese.substring(0, 3)) || testo.equals(italiano.substring(0, 3))
+                    || testo.equals(String.valueOf(giorno.getValue()))) {
+                return giorno;
+            }
+        }
+        throw new IllegalArgumentException("Giorno della settimana non valido: " + valore);
+    }
+}
@@ -0,0 +1,90 @@
+package com.eventpro.catering.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * ETAG E CACHE-CONTROL PER LE LETTURE DEGLI EVENTI
+ *
+ * Il frontend interroga GET /api/eventi e GET /api/eventi/{id} ogni pochi
+ * secondi. Con un ETag il client può chiedere "è cambiato qualcosa?"
+ * (If-None-Match) e, se la risposta è no, riceve 304 senza body.
+ *
+ * COME VIENE CALCOLATO L'ETAG (senza leggere le righe):
+ * - Singolo evento: id + colonna "versione" (@Version, incrementata da
+ *   Hibernate a ogni modifica) → basta leggere (id, versione, data) per chiave
+ * - Collezione: valore di contatore_modifiche (la versione di modifica
+ *   committata più alta, vedi EventoModificheService) → una lettura per
+ *   chiave primaria di una riga
+ * - In entrambi entra anche l'ETag del registro tipologie, perché il nome
+ *   della tipologia fa parte del JSON dell'evento
+ *
+ * PIÙ ISTANZE: l'ETag di collezione viene dal database, quindi è lo stesso
+ * su tutte le istanze e cambia con i commit di ognuna. Le scritture fatte
+ * con SQL diretto devono incrementare anche contatore_modifiche (come fa
+ * ogni scrittura che passa da Hibernate), altrimenti non cambiano l'ETag.
+ */
+@Service
+public class EventoEtagService {
+
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+
+    @Value("${eventi.cache.passati.max-age-secondi:86400}")
+    private long maxAgeEventiPassati;
+
+    public EventoEtagService(TipologiaEventoRegistry tipologiaEventoRegistry) {
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+    }
+
+    /**
+     * ETAG DI UNA LISTA DI EVENTI
+     *
+     * La versione va letta PRIMA di eseguire la query: se una modifica arriva
+     * nel mezzo, il client riceve dati nuovi con l'ETag vecchio e al giro
+     * successivo li richiede di nuovo (mai il contrario).
+     *
+     * ESEMPIO: "c-42-9f86d081"
+     *
+     * @param versioneModifica Versione di modifica committata (EventoModificheService.leggiVersioneCorrente)
+     */
+    public String etagCollezione(long versioneModifica) {
+        return "\"c-" + versioneModifica + "-" + versioneTipologie() + "\"";
+    }
+
+    /**
+     * ETAG DI UN SINGOLO EVENTO
+     *
+     * ESEMPIO: "e-15-3-9f86d081" (evento 15, versione 3)
+     */
+    public String etagEvento(Long id, Long versione) {
+        return "\"e-" + id + "-" + versione + "-" + versioneTipologie() + "\"";
+    }
+
+    /**
+     * CACHE-CONTROL IN BASE ALLA DATA DEGLI EVENTI
+     *
+     * - Data passata: l'evento è concluso e non cambia più → il client lo riusa
+     *   per "eventi.cache.passati.max-age-secondi" senza richiederlo
+     * - Data odierna o futura (o lista mista): no-cache → il client rivalida
+     *   ogni volta con If-None-Match (risposta 304 se nulla è cambiato)
+     *
+     * @param data Data degli eventi della risposta (null = lista con date diverse)
+     */
+    public CacheControl cacheControlPer(LocalDate data) {
+        if (data != null && data.isBefore(LocalDate.now())) {
+            return CacheControl.maxAge(Duration.ofSeconds(maxAgeEventiPassati)).cachePrivate();
+        }
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Primi 8 caratteri dell'ETag delle tipologie (senza virgolette)
+     */
+    private String versioneTipologie() {
+        return tipologiaEventoRegistry.getEtag().substring(1, 9);
+    }
+}
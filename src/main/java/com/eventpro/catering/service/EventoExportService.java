@@ -0,0 +1,186 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.model.Evento;
+import com.eventpro.catering.repository.EventoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * SERVICE PER L'EXPORT DEGLI EVENTI (NDJSON / CSV)
+ *
+ * Pensato per l'export di un intero anno fiscale: scrive gli eventi sulla
+ * risposta HTTP riga per riga, senza mai costruire la lista completa.
+ *
+ * COME FUNZIONA:
+ * 1. Apre uno Stream<Evento> sul range di date (cursore JDBC con fetch size)
+ * 2. Per ogni riga: converte in DTO, scrive la riga, stacca l'entity dal
+ *    persistence context (detach) così non resta in memoria
+ * 3. Il Writer bufferizzato invia i byte al client man mano che si riempie
+ *
+ * La memoria usata è la stessa con 1.000 o 5.000.000 di righe:
+ * in ogni momento esistono solo la riga corrente e il buffer di scrittura.
+ */
+@Service
+public class EventoExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoExportService.class);
+
+    private static final int BUFFER_SCRITTURA = 16 * 1024;
+
+    // Stesso formato orario del JSON (HH:mm:ss)
+    private static final DateTimeFormatter FORMATO_ORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final String INTESTAZIONE_CSV =
+            "id,nome,data,oraInizio,oraFine,location,note,eventoGiornaliero,tipologiaId,tipologiaNome";
+
+    /**
+     * FORMATI DI EXPORT SUPPORTATI
+     */
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String estensione;
+
+        Formato(String contentType, String estensione) {
+            this.contentType = contentType;
+            this.estensione = estensione;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEstensione() {
+            return estensione;
+        }
+
+        /**
+         * Converte il parametro della richiesta ("ndjson", "csv") nel formato
+         *
+         * @throws IllegalArgumentException se il formato non è supportato (→ HTTP 400)
+         */
+        public static Formato from(String valore) {
+            try {
+                return Formato.valueOf(valore.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato di export non supportato: " + valore);
+            }
+        }
+    }
+
+    private final EventoRepository eventoRepository;
+    private final EventoMapper eventoMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public EventoExportService(EventoRepository eventoRepository,
+                               EventoMapper eventoMapper,
+                               EntityManager entityManager,
+                               ObjectMapper objectMapper) {
+        this.eventoRepository = eventoRepository;
+        this.eventoMapper = eventoMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * ESPORTA GLI EVENTI DI UN RANGE DI DATE
+     *
+     * @param dataInizio Data di inizio (inclusa)
+     * @param dataFine Data di fine (inclusa)
+     * @param formato NDJSON (un oggetto JSON per riga) o CSV
+     * @param out Stream di output della risposta HTTP
+     * @return Numero di eventi scritti
+     */
+    @Transactional(readOnly = true)
+    public long esporta(LocalDate dataInizio, LocalDate dataFine, Formato formato,
+                        OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SCRITTURA);
+
+        if (formato == Formato.CSV) {
+            writer.write(INTESTAZIONE_CSV);
+            writer.write('\n');
+        }
+
+        long righe = 0;
+        try (Stream<Evento> eventi = eventoRepository.streamByDataBetween(dataInizio, dataFine)) {
+            for (Evento evento : (Iterable<Evento>) eventi::iterator) {
+                EventoResponseDTO dto = eventoMapper.toResponseDTO(evento);
+                if (formato == Formato.NDJSON) {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                } else {
+                    scriviRigaCsv(writer, dto);
+                }
+                writer.write('\n');
+
+                // Stacca l'entity: il persistence context non cresce con l'export
+                entityManager.detach(evento);
+                righe++;
+            }
+        }
+
+        writer.flush();
+        logger.info("Export eventi {} - {} ({}): {} righe scritte",
+                dataInizio, dataFine, formato, righe);
+        return righe;
+    }
+
+    /**
+     * Scrive una riga CSV (RFC 4180: virgola come separatore, virgolette raddoppiate)
+     */
+    private void scriviRigaCsv(Writer writer, EventoResponseDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(csv(dto.getNome()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getData()));
+        writer.write(',');
+        writer.write(FORMATO_ORA.format(dto.getOraInizio()));
+        writer.write(',');
+        writer.write(FORMATO_ORA.format(dto.getOraFine()));
+        writer.write(',');
+        writer.write(csv(dto.getLocation()));
+        writer.write(',');
+        writer.write(csv(dto.getNote()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getEventoGiornaliero()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getTipologiaEvento().getId()));
+        writer.write(',');
+        writer.write(csv(dto.getTipologiaEvento().getNome()));
+    }
+
+    /**
+     * Racchiude il valore tra virgolette solo se contiene caratteri speciali
+     */
+    private static String csv(String valore) {
+        if (valore == null) {
+            return "";
+        }
+        boolean daQuotare = valore.indexOf(',') >= 0 || valore.indexOf('"') >= 0
+                || valore.indexOf('\n') >= 0 || valore.indexOf('\r') >= 0;
+        if (!daQuotare) {
+            return valore;
+        }
+        return '"' + valore.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,337 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoModificheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CACHE DEL JSON GIÀ SERIALIZZATO DEGLI EVENTI
+ *
+ * GET /api/eventi/{id} e GET /api/eventi?data= rifacevano a ogni richiesta
+ * query, conversione in DTO e serializzazione Jackson, anche se gli eventi
+ * cambiano di rado. Qui si tengono direttamente i byte UTF-8 della risposta.
+ *
+ * DUE CACHE (Caffeine, eviction W-TinyLFU: tiene le chiavi lette spesso
+ * anche se non sono le più recenti):
+ * - eventi: id → JSON di UN evento (frammento), limitata in BYTE totali
+ * - giorni: data → id degli eventi di quel giorno, in ordine di lista
+ *
+ * LISTA DI UN GIORNO = "[" + frammento1 + "," + frammento2 + ... + "]":
+ * nessun oggetto viene serializzato, si copiano solo byte. Se un frammento
+ * manca (evento modificato o espulso dalla cache) o ha ormai un'altra data,
+ * il giorno viene riletto dal database con una sola query.
+ *
+ * INVALIDAZIONE (EventoListener, dopo il commit): JSON dell'evento e lista
+ * del suo giorno. Se cambia una tipologia (il nome è nel JSON) si svuota tutto.
+ *
+ * COERENZA CON IL DATABASE (scritture che non passano da questa istanza):
+ * - commit di altre istanze: ogni "eventi.json-cache.sincronizzazione-ms"
+ *   (5 s) si rilegge contatore_modifiche; se è cresciuto si leggono id e data
+ *   degli eventi toccati nel frattempo e si invalidano solo quelli
+ * - le liste ?data= si allineano prima di rispondere alla versione usata per
+ *   l'ETag, e una richiesta condizionale su /{id} che trova l'evento cambiato
+ *   lo rilegge: lì nessun ritardo
+ * - SQL diretto che non incrementa contatore_modifiche: non lo vede nessuno,
+ *   ma ogni voce scade comunque dopo "eventi.json-cache.ttl-secondi" (10 min)
+ * Quindi GET /{id} senza If-None-Match può restituire un evento vecchio al
+ * massimo per l'intervallo di sincronizzazione (o per il TTL nel caso dell'SQL
+ * diretto), insieme all'ETag della stessa versione vecchia.
+ *
+ * LETTURE CONCORRENTI A UNA MODIFICA:
+ * un contatore "generazione" cresce a ogni invalidazione. Chi ha letto dal
+ * database mette il risultato in cache solo se nel frattempo non ci sono
+ * state invalidazioni: così un JSON vecchio non può rientrare dopo il commit.
+ */
+@Component
+public class EventoJsonCache {
+
+    /**
+     * JSON di un evento, con i dati che servono senza rileggerlo (ETag, giorno)
+     */
+    public record EventoJson(Long id, Long versione, LocalDate data, byte[] json) {
+    }
+
+    /**
+     * Eventi di un giorno, come id in ordine di lista
+     */
+    private record Giorno(long[] ids) {
+    }
+
+    private static final byte[] LISTA_VUOTA = {'[', ']'};
+    private static final int MAX_INVALIDAZIONI = 1000;
+
+    private final Cache<Long, EventoJson> eventi;
+    private final Cache<LocalDate, Giorno> giorni;
+    private final AtomicLong generazione = new AtomicLong();
+
+    // Versione di modifica fino alla quale le invalidazioni sono state applicate
+    private final AtomicLong versioneAllineata = new AtomicLong(-1);
+    private final ReentrantLock allineamento = new ReentrantLock();
+
+    private final EventoService eventoService;
+    private final EventoModificheService eventoModificheService;
+    private final EventoModificheRepository eventoModificheRepository;
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+    private final ObjectMapper objectMapper;
+
+    private volatile String etagTipologie;
+
+    public EventoJsonCache(EventoService eventoService,
+                           EventoModificheService eventoModificheService,
+                           EventoModificheRepository eventoModificheRepository,
+                           TipologiaEventoRegistry tipologiaEventoRegistry,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${eventi.json-cache.max-bytes:16777216}") long maxBytes,
+                           @Value("${eventi.json-cache.max-giorni:5000}") long maxGiorni,
+                           @Value("${eventi.json-cache.ttl-secondi:600}") long ttlSecondi) {
+        this.eventoService = eventoService;
+        this.eventoModificheService = eventoModificheService;
+        this.eventoModificheRepository = eventoModificheRepository;
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+        this.objectMapper = objectMapper;
+
+        this.eventi = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, EventoJson evento) -> evento.json().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSecondi))
+                .recordStats()
+                .build();
+        this.giorni = Caffeine.newBuilder()
+                .maximumSize(maxGiorni)
+                .expireAfterWrite(Duration.ofSeconds(ttlSecondi))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, eventi, "eventi.json.eventi");
+        CaffeineCacheMetrics.monitor(meterRegistry, giorni, "eventi.json.giorni");
+        Gauge.builder("eventi.json.cache.bytes", eventi,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Byte di JSON degli eventi in cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("eventi.json.cache.hit.ratio", eventi, c -> c.stats().hitRate())
+                .tag("cache", "eventi.json.eventi")
+                .description("Frazione di letture servite dalla cache")
+                .register(meterRegistry);
+        Gauge.builder("eventi.json.cache.hit.ratio", giorni, c -> c.stats().hitRate())
+                .tag("cache", "eventi.json.giorni")
+                .description("Frazione di letture servite dalla cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Parte allineata alla versione di modifica attuale: da qui in poi
+     * contano solo i commit successivi
+     */
+    @PostConstruct
+    void leggiVersioneIniziale() {
+        versioneAllineata.set(eventoModificheService.leggiVersioneCorrente());
+    }
+
+    /**
+     * JSON DI UN EVENTO (dalla cache, o letto e messo in cache)
+     *
+     * @throws com.eventpro.catering.exception.EventoNotFoundException se l'evento non esiste (→ HTTP 404)
+     */
+    public EventoJson evento(Long id) {
+        return evento(id, null);
+    }
+
+    /**
+     * JSON DI UN EVENTO ALMENO ALLA VERSIONE INDICATA
+     *
+     * Se la copia in cache è più vecchia di "versioneMinima" (l'evento è
+     * cambiato su un'altra istanza) viene riletta dal database.
+     *
+     * @param versioneMinima Versione (@Version) appena letta dal database, null = qualsiasi
+     * @throws com.eventpro.catering.exception.EventoNotFoundException se l'evento non esiste (→ HTTP 404)
+     */
+    public EventoJson evento(Long id, Long versioneMinima) {
+        verificaTipologie();
+        EventoJson evento = eventi.getIfPresent(id);
+        if (evento != null && (versioneMinima == null || evento.versione() >= versioneMinima)) {
+            return evento;
+        }
+
+        long letturaGenerazione = generazione.get();
+        evento = serializza(eventoService.getEventoById(id));
+        metti(eventi, id, evento, letturaGenerazione);
+        return evento;
+    }
+
+    /**
+     * JSON DELLA LISTA DEGLI EVENTI DI UN GIORNO (array, anche vuoto)
+     *
+     * @param versioneModifica Versione di modifica dell'ETag della risposta:
+     *                         prima di usare la cache la si allinea almeno a questa
+     */
+    public byte[] eventiDelGiorno(LocalDate data, long versioneModifica) {
+        verificaTipologie();
+        allineaA(versioneModifica);
+        Giorno giorno = giorni.getIfPresent(data);
+        if (giorno != null) {
+            byte[] json = componi(giorno, data);
+            if (json != null) {
+                return json;
+            }
+        }
+
+        long letturaGenerazione = generazione.get();
+        List<EventoResponseDTO> lista = eventoService.getEventiByData(data);
+        List<EventoJson> frammenti = new ArrayList<>(lista.size());
+        long[] ids = new long[lista.size()];
+        for (int i = 0; i < lista.size(); i++) {
+            EventoJson evento = serializza(lista.get(i));
+            frammenti.add(evento);
+            ids[i] = evento.id();
+            metti(eventi, evento.id(), evento, letturaGenerazione);
+        }
+        metti(giorni, data, new Giorno(ids), letturaGenerazione);
+        return concatena(frammenti);
+    }
+
+    /**
+     * RILEGGE IL CONTATORE DELLE MODIFICHE E SCARTA CIÒ CHE È CAMBIATO ALTROVE
+     */
+    @Scheduled(initialDelayString = "${eventi.json-cache.sincronizzazione-ms:5000}",
+            fixedDelayString = "${eventi.json-cache.sincronizzazione-ms:5000}")
+    public void sincronizza() {
+        allineaA(eventoModificheService.leggiVersioneCorrente());
+    }
+
+    /**
+     * INVALIDA GLI EVENTI TOCCATI FINO ALLA VERSIONE INDICATA
+     *
+     * Solo se la versione è più alta di quella già allineata: nel caso
+     * normale (nessun commit nuovo) non fa query. Con troppi eventi toccati
+     * (es. import massivo) conviene svuotare tutto.
+     */
+    void allineaA(long versioneModifica) {
+        if (versioneModifica <= versioneAllineata.get()) {
+            return;
+        }
+        allineamento.lock();
+        try {
+            long da = versioneAllineata.get();
+            if (versioneModifica <= da) {
+                return;
+            }
+            List<EventoModificheRepository.EventoToccato> toccati =
+                    eventoModificheRepository.findToccati(da, versioneModifica, MAX_INVALIDAZIONI + 1);
+            if (toccati.size() > MAX_INVALIDAZIONI) {
+                invalidaTutto();
+            } else {
+                toccati.forEach(evento -> invalida(evento.id(), evento.data()));
+            }
+            versioneAllineata.set(versioneModifica);
+        } finally {
+            allineamento.unlock();
+        }
+    }
+
+    /**
+     * INVALIDA UN EVENTO E IL SUO GIORNO (chiamato dopo il commit)
+     */
+    public void invalida(Long id, LocalDate data) {
+        generazione.incrementAndGet();
+        if (id != null) {
+            eventi.invalidate(id);
+        }
+        if (data != null) {
+            giorni.invalidate(data);
+        }
+    }
+
+    /**
+     * SVUOTA ENTRAMBE LE CACHE
+     */
+    public void invalidaTutto() {
+        generazione.incrementAndGet();
+        eventi.invalidateAll();
+        giorni.invalidateAll();
+    }
+
+    /**
+     * Lista del giorno dai frammenti in cache (null se ne manca uno o non è più di quel giorno)
+     */
+    private byte[] componi(Giorno giorno, LocalDate data) {
+        List<EventoJson> frammenti = new ArrayList<>(giorno.ids().length);
+        for (long id : giorno.ids()) {
+            EventoJson evento = eventi.getIfPresent(id);
+            if (evento == null || !data.equals(evento.data())) {
+                return null;
+            }
+            frammenti.add(evento);
+        }
+        return concatena(frammenti);
+    }
+
+    private static byte[] concatena(List<EventoJson> frammenti) {
+        if (frammenti.isEmpty()) {
+            return LISTA_VUOTA;
+        }
+        int lunghezza = 1 + frammenti.size();   // "[" + virgole + "]"
+        for (EventoJson evento : frammenti) {
+            lunghezza += evento.json().length;
+        }
+        byte[] json = new byte[lunghezza];
+        int posizione = 0;
+        json[posizione++] = '[';
+        for (EventoJson evento : frammenti) {
+            if (posizione > 1) {
+                json[posizione++] = ',';
+            }
+            System.arraycopy(evento.json(), 0, json, posizione, evento.json().length);
+            posizione += evento.json().length;
+        }
+        json[posizione] = ']';
+        return json;
+    }
+
+    /**
+     * Mette in cache solo se dalla lettura non ci sono state invalidazioni.
+     * compute è atomico rispetto a invalidate sulla stessa chiave.
+     */
+    private <K, V> void metti(Cache<K, V> cache, K chiave, V valore, long letturaGenerazione) {
+        cache.asMap().compute(chiave, (k, attuale) ->
+                generazione.get() == letturaGenerazione ? valore : attuale);
+    }
+
+    private EventoJson serializza(EventoResponseDTO evento) {
+        try {
+            return new EventoJson(evento.getId(), evento.getVersione(), evento.getData(),
+                    objectMapper.writeValueAsBytes(evento));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializzazione dell'evento " + evento.getId() + " non riuscita", e);
+        }
+    }
+
+    /**
+     * Il nome della tipologia è nel JSON: se il registro è cambiato, tutto il JSON è vecchio
+     */
+    private void verificaTipologie() {
+        String etag = tipologiaEventoRegistry.getEtag();
+        if (!etag.equals(etagTipologie)) {
+            invalidaTutto();
+            etagTipologie = etag;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.model.Evento;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+/**
+ * LISTENER JPA CHE INVALIDA IL JSON IN CACHE DEGLI EVENTI
+ *
+ * Registrato su Evento con @EntityListeners: Hibernate lo chiama dopo ogni
+ * INSERT, UPDATE e DELETE della riga, qualunque sia il percorso (singola
+ * creazione, batch, modifica, eliminazione).
+ *
+ * L'invalidazione avviene DOPO il commit: prima, un'altra richiesta potrebbe
+ * rileggere dal database la versione vecchia e rimetterla in cache.
+ * Se la transazione fallisce non si invalida nulla (il database non è cambiato).
+ *
+ * Per una modifica basta conoscere la data NUOVA: il giorno vecchio contiene
+ * ancora l'id dell'evento, ma il suo JSON non è più in cache (o ha un'altra
+ * data) e il giorno viene ricostruito alla prima lettura.
+ */
+public class EventoListener {
+
+    private final ObjectProvider<EventoJsonCache> cache;
+
+    public EventoListener(ObjectProvider<EventoJsonCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void eventoModificato(Evento evento) {
+        Long id = evento.getId();
+        LocalDate data = evento.getData();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.ifAvailable(c -> c.invalida(id, data));
+                }
+            });
+        } else {
+            cache.ifAvailable(c -> c.invalida(id, data));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.model.Evento;
+import org.springframework.stereotype.Component;
+
+/**
+ * CONVERTITORE ENTITY → DTO PER GLI EVENTI
+ *
+ * Centralizza la conversione da Evento a EventoResponseDTO,
+ * così service, export e altri percorsi di lettura producono
+ * esattamente lo stesso JSON.
+ */
+@Component
+public class EventoMapper {
+
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+
+    public EventoMapper(TipologiaEventoRegistry tipologiaEventoRegistry) {
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+    }
+
+    /**
+     * CONVERTE ENTITY → DTO
+     *
+     * La tipologia viene presa dal registro in memoria usando solo l'id
+     * (getId() su un proxy Hibernate non esegue query).
+     */
+    public EventoResponseDTO toResponseDTO(Evento evento) {
+        // Crea DTO per TipologiaEvento (dal registro, senza query)
+        Long tipologiaId = evento.getTipologiaEvento().getId();
+        EventoResponseDTO.TipologiaEventoDTO tipologiaDTO =
+                tipologiaEventoRegistry.getTipologiaEventoDTO(tipologiaId);
+        if (tipologiaDTO == null) {
+            // Tipologia appena creata e registro non ancora ricaricato
+            tipologiaDTO = new EventoResponseDTO.TipologiaEventoDTO(
+                    tipologiaId, evento.getTipologiaEvento().getNome());
+        }
+
+        // Crea il DTO completo (senza cliente)
+        EventoResponseDTO dto = new EventoResponseDTO(
+                evento.getId(),
+                evento.getNome(),
+                evento.getData(),
+                evento.getOraInizio(),
+                evento.getOraFine(),
+                evento.getLocation(),
+                evento.getNote(),
+                evento.getEventoGiornaliero(),
+                tipologiaDTO
+        );
+        dto.setVersione(evento.getVersione());
+        return dto;
+    }
+}
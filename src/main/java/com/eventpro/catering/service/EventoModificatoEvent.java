@@ -0,0 +1,65 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+
+/**
+ * EVENTO APPLICATIVO: UN EVENTO È STATO CREATO, MODIFICATO O ELIMINATO
+ *
+ * Pubblicato da EventoService con ApplicationEventPublisher dentro la
+ * transazione della modifica. Chi deve reagire (versione della collezione,
+ * cache, indici in memoria, ...) lo ascolta con
+ * @TransactionalEventListener, così riceve la notifica solo DOPO il commit.
+ *
+ * CONTENUTO:
+ * - tipo: CREATO, MODIFICATO o ELIMINATO
+ * - prima: stato precedente (null per CREATO)
+ * - dopo: stato nuovo (null per ELIMINATO)
+ */
+public class EventoModificatoEvent {
+
+    public enum Tipo {
+        CREATO,
+        MODIFICATO,
+        ELIMINATO
+    }
+
+    private final Tipo tipo;
+    private final Long id;
+    private final EventoResponseDTO prima;
+    private final EventoResponseDTO dopo;
+
+    private EventoModificatoEvent(Tipo tipo, Long id, EventoResponseDTO prima, EventoResponseDTO dopo) {
+        this.tipo = tipo;
+        this.id = id;
+        this.prima = prima;
+        this.dopo = dopo;
+    }
+
+    public static EventoModificatoEvent creato(EventoResponseDTO dopo) {
+        return new EventoModificatoEvent(Tipo.CREATO, dopo.getId(), null, dopo);
+    }
+
+    public static EventoModificatoEvent modificato(EventoResponseDTO prima, EventoResponseDTO dopo) {
+        return new EventoModificatoEvent(Tipo.MODIFICATO, dopo.getId(), prima, dopo);
+    }
+
+    public static EventoModificatoEvent eliminato(EventoResponseDTO prima) {
+        return new EventoModificatoEvent(Tipo.ELIMINATO, prima.getId(), prima, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public EventoResponseDTO getPrima() {
+        return prima;
+    }
+
+    public EventoResponseDTO getDopo() {
+        return dopo;
+    }
+}
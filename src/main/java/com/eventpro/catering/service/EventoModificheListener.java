@@ -0,0 +1,45 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.model.Evento;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * LISTENER JPA CHE TRACCIA LE MODIFICHE AGLI EVENTI (SINCRONIZZAZIONE DELTA)
+ *
+ * Registrato su Evento con @EntityListeners, come EventoListener, così vale
+ * per ogni percorso di scrittura (creazione, batch, modifica, eliminazione,
+ * DataLoader) senza che il service se ne debba ricordare.
+ *
+ * - prima di INSERT e UPDATE: segnala l'evento a EventoModificheService, che
+ *   gli assegna la versione della transazione subito prima del commit
+ * - prima di DELETE: segnala id e data per il tombstone
+ *
+ * Le scritture di contatore, versioni e tombstone avvengono nella stessa
+ * transazione dell'evento: se questa fallisce, tornano indietro insieme.
+ */
+public class EventoModificheListener {
+
+    private final ObjectProvider<EventoModificheService> modifiche;
+
+    public EventoModificheListener(ObjectProvider<EventoModificheService> modifiche) {
+        this.modifiche = modifiche;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void registraScrittura(Evento evento) {
+        if (evento.getVersioneModifica() == null) {
+            // Segnaposto per la colonna NOT NULL: la versione vera arriva prima del commit
+            evento.setVersioneModifica(0L);
+        }
+        modifiche.getObject().registraScrittura(evento);
+    }
+
+    @PreRemove
+    void registraEliminazione(Evento evento) {
+        modifiche.getObject().registraEliminazione(evento.getId(), evento.getData());
+    }
+}
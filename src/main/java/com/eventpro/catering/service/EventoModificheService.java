@@ -0,0 +1,382 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoModificheCursor;
+import com.eventpro.catering.dto.EventoModificheDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoEliminato;
+import com.eventpro.catering.repository.EventoModificato;
+import com.eventpro.catering.model.Evento;
+import com.eventpro.catering.repository.EventoModificheRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SINCRONIZZAZIONE DELTA DEGLI EVENTI (GET /api/eventi/changes)
+ *
+ * Prima a ogni aggiornamento il client riscaricava tutto il calendario.
+ * Ora ogni scrittura porta una "versione di modifica" crescente e il client
+ * chiede solo quello che è cambiato dopo l'ultima versione che conosce.
+ *
+ * VERSIONI (scrittura):
+ * - durante la transazione EventoModificheListener si limita a ricordare gli
+ *   eventi scritti e cancellati: nessun accesso al contatore
+ * - subito prima del commit (beforeCommit) si fa il flush di Hibernate, si
+ *   incrementa il contatore nel database (contatore_modifiche) e con una
+ *   UPDATE per blocco di id si assegna il nuovo valore a tutti gli eventi
+ *   scritti: quelli creati, modificati o cancellati insieme (es. un batch)
+ *   hanno la stessa versione
+ * - la UPDATE del contatore blocca la riga fino al commit, quindi le versioni
+ *   diventano visibili nello stesso ordine in cui sono state assegnate. Il
+ *   lock dura solo quelle poche istruzioni finali: due transazioni su location
+ *   diverse lavorano in parallelo e si mettono in fila solo per il commit
+ *   (prima il lock partiva dalla prima scrittura e durava tutta la transazione)
+ * - le cancellazioni lasciano un tombstone (evento_eliminato) con la versione,
+ *   scritto nello stesso momento
+ *
+ * Fino al beforeCommit le righe scritte hanno ancora la versione precedente
+ * (0 per quelle nuove): nessun'altra transazione le vede prima del commit.
+ * Anche l'entity in memoria tiene quel valore, perché la versione è assegnata
+ * con SQL diretto; chi la vuole la rilegge dal database.
+ *
+ * LETTURA:
+ * - "ultimaVersione" in memoria = versione più alta già committata
+ *   (aggiornata dopo ogni commit e riconciliata periodicamente col database)
+ * - since == ultimaVersione → risposta vuota SENZA query (il caso normale:
+ *   il client sincronizza e non è cambiato niente)
+ * - altrimenti due query indicizzate (eventi e tombstone) con
+ *   since < versione <= ultimaVersione, più la lettura per chiave della
+ *   versione dei tombstone già cancellati (vedi PULIZIA DEI TOMBSTONE). Tutte le versioni fino a
+ *   ultimaVersione sono già committate: nessuna modifica può "comparire dopo"
+ *   con una versione già restituita al client. Per questo non serve una
+ *   transazione che tenga ferme le due query
+ *
+ * PIÙ ISTANZE: ognuna vede subito i propri commit; quelli delle altre
+ * istanze arrivano con la riconciliazione ("eventi.modifiche.riconciliazione-ms"),
+ * oppure subito se un client chiede una versione più alta di quella nota.
+ *
+ * PULIZIA DEI TOMBSTONE:
+ * quelli più vecchi di "eventi.modifiche.conservazione-tombstone-giorni"
+ * vengono cancellati periodicamente, e la versione più alta cancellata resta
+ * nel database (contatore "evento-eliminati-rimossi"). Un client con una since
+ * più bassa riceve un invio completo invece di un delta a cui mancherebbero
+ * delle cancellazioni. Così la tabella non cresce per sempre.
+ */
+@Service
+public class EventoModificheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoModificheService.class);
+
+    // Chiave delle modifiche della transazione corrente (risorsa di TransactionSynchronizationManager)
+    private static final Object MODIFICHE_TRANSAZIONE = new Object();
+
+    private final AtomicLong ultimaVersione = new AtomicLong(-1);
+
+    private final EventoModificheRepository eventoModificheRepository;
+    private final EntityManager entityManager;
+
+    // Modifiche per pagina quando il client non specifica "limit"
+    @Value("${eventi.modifiche.default-limit:500}")
+    private int defaultLimit;
+
+    // Massimo di modifiche per pagina
+    @Value("${eventi.modifiche.max-limit:2000}")
+    private int maxLimit;
+
+    // Giorni per cui si conservano i tombstone degli eventi cancellati
+    @Value("${eventi.modifiche.conservazione-tombstone-giorni:90}")
+    private int conservazioneTombstoneGiorni;
+
+    public EventoModificheService(EventoModificheRepository eventoModificheRepository,
+                                  EntityManager entityManager) {
+        this.eventoModificheRepository = eventoModificheRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * REGISTRA UN EVENTO CHE STA PER ESSERE INSERITO O AGGIORNATO
+     *
+     * Chiamata da EventoModificheListener prima di ogni INSERT e UPDATE.
+     * L'evento riceve la versione della transazione subito prima del commit.
+     * Si tiene l'entity e non l'id: in @PrePersist l'id non è ancora generato.
+     *
+     * @throws IllegalStateException se non c'è una transazione attiva
+     */
+    public void registraScrittura(Evento evento) {
+        modificheTransazione().scritti.add(evento);
+    }
+
+    /**
+     * REGISTRA UN EVENTO CHE STA PER ESSERE CANCELLATO (il tombstone si scrive prima del commit)
+     *
+     * @throws IllegalStateException se non c'è una transazione attiva
+     */
+    public void registraEliminazione(Long id, LocalDate data) {
+        modificheTransazione().eliminati.put(id, data);
+    }
+
+    /**
+     * MODIFICHE DELLA TRANSAZIONE CORRENTE (creata alla prima scrittura)
+     */
+    private ModificheTransazione modificheTransazione() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Le modifiche agli eventi richiedono una transazione");
+        }
+        ModificheTransazione modifiche =
+                (ModificheTransazione) TransactionSynchronizationManager.getResource(MODIFICHE_TRANSAZIONE);
+        if (modifiche != null) {
+            return modifiche;
+        }
+
+        ModificheTransazione nuove = new ModificheTransazione();
+        TransactionSynchronizationManager.bindResource(MODIFICHE_TRANSAZIONE, nuove);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                assegnaVersione(nuove);
+            }
+
+            @Override
+            public void afterCommit() {
+                if (nuove.versione > 0) {
+                    ultimaVersione.accumulateAndGet(nuove.versione, Math::max);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MODIFICHE_TRANSAZIONE);
+            }
+        });
+        return nuove;
+    }
+
+    /**
+     * ASSEGNA LA VERSIONE ALLE MODIFICHE DELLA TRANSAZIONE, COME ULTIME ISTRUZIONI PRIMA DEL COMMIT
+     *
+     * 1. flush: le INSERT/UPDATE/DELETE ancora in sospeso partono adesso (i
+     *    callback del listener possono aggiungere altri eventi alla lista)
+     * 2. incremento del contatore: da qui la riga resta bloccata fino al commit
+     * 3. versione sulle righe degli eventi scritti e tombstone dei cancellati
+     */
+    private void assegnaVersione(ModificheTransazione modifiche) {
+        entityManager.flush();
+        if (modifiche.scritti.isEmpty() && modifiche.eliminati.isEmpty()) {
+            return;
+        }
+        long versione = eventoModificheRepository.incrementaVersione();
+        eventoModificheRepository.assegnaVersione(
+                modifiche.scritti.stream().map(Evento::getId).toList(), versione);
+        modifiche.eliminati.forEach((id, data) -> eventoModificheRepository.inserisciEliminato(id, data, versione));
+        modifiche.versione = versione;
+    }
+
+    /**
+     * MODIFICHE DOPO UNA VERSIONE (prima pagina) O DOPO UN CURSORE (pagine successive)
+     *
+     * COME FUNZIONA:
+     * 1. Con il cursore riprende dalla posizione e dal limite della prima pagina
+     * 2. Senza cursore: since uguale all'ultima versione → nessuna modifica, nessuna query.
+     *    since più alta dell'ultima versione nota → rilegge il contatore; se è
+     *    ancora più alta (database ricreato) riparte da zero con completa = true
+     * 3. Legge limit + 1 eventi e limit + 1 tombstone dopo la posizione e li
+     *    unisce in ordine (versione, id): se avanza qualcosa c'è una pagina successiva
+     * 4. Se la posizione è più vecchia dei tombstone conservati (pulizia) il
+     *    client potrebbe perdere delle cancellazioni: invio completo da zero
+     *
+     * @param since Ultima versione ricevuta dal client (0 = tutto)
+     * @param cursor Cursore della pagina precedente (ha la precedenza su since)
+     * @param limit Massimo di modifiche nella risposta (null = default)
+     * @return Eventi modificati, eventi eliminati e versione da usare la volta successiva
+     * @throws IllegalArgumentException se mancano since e cursor, since < 0,
+     *         limit <= 0 o il cursore non è valido (→ HTTP 400)
+     */
+    public EventoModificheDTO getModifiche(Long since, String cursor, Integer limit) {
+        int righe = normalizzaLimit(limit);
+
+        EventoModificheCursor posizione;
+        boolean primaPagina = false;
+        if (cursor != null && !cursor.isBlank()) {
+            posizione = EventoModificheCursor.decode(cursor);
+        } else {
+            if (since == null) {
+                throw new IllegalArgumentException("Serve il parametro since (o cursor)");
+            }
+            if (since < 0) {
+                throw new IllegalArgumentException("Il parametro since non può essere negativo");
+            }
+            long limite = ultimaVersione();
+            if (since > limite) {
+                limite = riconcilia();
+            }
+            if (since == limite) {
+                return EventoModificheDTO.nessuna(since);
+            }
+            long partenza = since;
+            if (since > limite) {
+                logger.info("Sincronizzazione da una versione sconosciuta ({} > {}): invio completo", since, limite);
+                partenza = 0;
+            }
+            // id massimo: della versione "partenza" il client ha già tutto
+            posizione = new EventoModificheCursor(limite, partenza, Long.MAX_VALUE, partenza == 0);
+            primaPagina = true;
+        }
+        return pagina(posizione, primaPagina, righe);
+    }
+
+    /**
+     * UNA PAGINA DI MODIFICHE DOPO LA POSIZIONE DEL CURSORE
+     *
+     * Un invio completo non legge i tombstone: il client svuota comunque la
+     * propria copia. Uno parziale controlla, DOPO aver letto i tombstone, che
+     * la pulizia non abbia cancellato quelli dopo la sua posizione; se l'ha
+     * fatto ricomincia con un invio completo (completa = true).
+     */
+    private EventoModificheDTO pagina(EventoModificheCursor posizione, boolean primaPagina, int righe) {
+        List<EventoModificato> modificati = eventoModificheRepository.findModificati(
+                posizione.versione(), posizione.id(), posizione.limite(), righe + 1);
+        List<EventoEliminato> eliminati = List.of();
+        if (!posizione.completa()) {
+            eliminati = eventoModificheRepository.findEliminati(
+                    posizione.versione(), posizione.id(), posizione.limite(), righe + 1);
+            long rimossi = eventoModificheRepository.versioneTombstoneRimossi();
+            if (posizione.versione() < rimossi) {
+                logger.info("Sincronizzazione da una versione i cui tombstone sono stati cancellati ({} < {}): "
+                        + "invio completo", posizione.versione(), rimossi);
+                return pagina(new EventoModificheCursor(ultimaVersione(), 0, Long.MAX_VALUE, true), true, righe);
+            }
+        }
+        boolean completa = primaPagina && posizione.completa();
+
+        // Unione delle due liste in ordine (versione, id), al massimo "righe" elementi
+        List<EventoResponseDTO> paginaModificati = new ArrayList<>();
+        List<EventoModificheDTO.EliminatoDTO> paginaEliminati = new ArrayList<>();
+        int m = 0;
+        int e = 0;
+        long ultimaVersioneLetta = posizione.versione();
+        long ultimoIdLetto = posizione.id();
+        while (m + e < righe && (m < modificati.size() || e < eliminati.size())) {
+            boolean prendiModificato = e >= eliminati.size()
+                    || (m < modificati.size() && precede(modificati.get(m), eliminati.get(e)));
+            if (prendiModificato) {
+                EventoModificato modificato = modificati.get(m++);
+                paginaModificati.add(modificato.evento());
+                ultimaVersioneLetta = modificato.versioneModifica();
+                ultimoIdLetto = modificato.evento().getId();
+            } else {
+                EventoEliminato eliminato = eliminati.get(e++);
+                paginaEliminati.add(new EventoModificheDTO.EliminatoDTO(eliminato.id(), eliminato.data()));
+                ultimaVersioneLetta = eliminato.versioneModifica();
+                ultimoIdLetto = eliminato.id();
+            }
+        }
+
+        boolean hasNext = m < modificati.size() || e < eliminati.size();
+        String nextCursor = hasNext
+                ? new EventoModificheCursor(posizione.limite(), ultimaVersioneLetta, ultimoIdLetto,
+                        posizione.completa()).encode()
+                : null;
+        return new EventoModificheDTO(posizione.limite(), completa, paginaModificati, paginaEliminati,
+                hasNext, nextCursor);
+    }
+
+    /**
+     * CANCELLA I TOMBSTONE PIÙ VECCHI DEL PERIODO DI CONSERVAZIONE
+     *
+     * Con più istanze la pulizia può girare su tutte: cancellare due volte
+     * non fa danni e il contatore prende sempre il valore più alto.
+     */
+    @Scheduled(initialDelayString = "${eventi.modifiche.pulizia-tombstone-ms:3600000}",
+            fixedDelayString = "${eventi.modifiche.pulizia-tombstone-ms:3600000}")
+    public void pulisciTombstone() {
+        long rimossi = eventoModificheRepository.eliminaTombstonePrimaDi(
+                Instant.now().minus(Duration.ofDays(conservazioneTombstoneGiorni)));
+        if (rimossi > 0) {
+            logger.info("Tombstone cancellati fino alla versione {}", rimossi);
+        }
+    }
+
+    /**
+     * VERSIONE PIÙ ALTA GIÀ COMMITTATA (dalla memoria; la prima volta dal database)
+     */
+    public long ultimaVersione() {
+        long versione = ultimaVersione.get();
+        return versione >= 0 ? versione : riconcilia();
+    }
+
+    /**
+     * VERSIONE PIÙ ALTA GIÀ COMMITTATA, RILETTA DAL DATABASE
+     *
+     * Una lettura per chiave primaria di contatore_modifiche: a differenza di
+     * ultimaVersione() comprende subito anche i commit delle altre istanze.
+     * Usata per l'ETag delle liste di eventi.
+     */
+    public long leggiVersioneCorrente() {
+        return riconcilia();
+    }
+
+    /**
+     * RILEGGE IL CONTATORE DAL DATABASE (all'avvio e poi periodicamente)
+     *
+     * Il valore letto è committato: tutte le versioni fino a lì sono visibili.
+     * Serve per i commit fatti da altre istanze dell'applicazione.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${eventi.modifiche.riconciliazione-ms:60000}",
+            fixedDelayString = "${eventi.modifiche.riconciliazione-ms:60000}")
+    public void riconciliaPeriodicamente() {
+        riconcilia();
+    }
+
+    private long riconcilia() {
+        return ultimaVersione.accumulateAndGet(eventoModificheRepository.versioneCorrente(), Math::max);
+    }
+
+    /**
+     * Eventi scritti e cancellati dalla transazione corrente, in attesa della versione
+     */
+    private static final class ModificheTransazione {
+        private final Set<Evento> scritti = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<Long, LocalDate> eliminati = new LinkedHashMap<>();
+        private long versione;
+    }
+
+    private static boolean precede(EventoModificato modificato, EventoEliminato eliminato) {
+        if (modificato.versioneModifica() != eliminato.versioneModifica()) {
+            return modificato.versioneModifica() < eliminato.versioneModifica();
+        }
+        return modificato.evento().getId() < eliminato.id();
+    }
+
+    /**
+     * Applica default e limite massimo al numero di modifiche richiesto
+     */
+    private int normalizzaLimit(Integer limit) {
+        if (limit == null) {
+            return defaultLimit;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Il parametro limit deve essere maggiore di 0");
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
@@ -0,0 +1,345 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoNotificaDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.exception.ServizioSovraccaricoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * NOTIFICHE PUSH DELLE MODIFICHE AGLI EVENTI (SERVER-SENT EVENTS)
+ *
+ * Il frontend scopriva le nuove prenotazioni solo interrogando GET /api/eventi
+ * a intervalli. Ora tiene aperta GET /api/eventi/stream e riceve subito,
+ * dopo il commit, ogni creazione, modifica e cancellazione che gli interessa.
+ *
+ * COME FUNZIONA:
+ * - ogni client connesso è un "iscritto" con un filtro (intervallo di date,
+ *   tipologie) e una coda di notifiche in attesa di invio
+ * - dopo il commit (EventoModificatoEvent) la notifica viene messa nella coda
+ *   degli iscritti interessati: chi la pubblica non scrive mai sulla rete
+ * - l'invio lo fa un virtual thread per iscritto, solo finché la sua coda ha
+ *   qualcosa: un client lento fa aspettare soltanto sé stesso
+ *
+ * CLIENT LENTI (coda piena, "eventi.sse.buffer" notifiche):
+ * la notifica più vecchia viene scartata e al client arriva un evento
+ * "resync": deve recuperare le modifiche perse con
+ * GET /api/eventi/changes?since=<ultima versione nota>. La memoria usata
+ * per iscritto resta limitata, qualunque sia la velocità del client.
+ *
+ * HEARTBEAT: ogni "eventi.sse.heartbeat-ms" un commento SSE (": ping") tiene
+ * viva la connessione attraverso proxy e load balancer e fa scoprire le
+ * connessioni chiuse dal client (l'invio fallisce → iscritto rimosso).
+ *
+ * Le notifiche sono quelle di QUESTA istanza: con più istanze dietro un load
+ * balancer le modifiche fatte altrove si recuperano con /changes.
+ */
+@Service
+public class EventoNotificheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoNotificheService.class);
+
+    /**
+     * Cosa interessa a un iscritto (null = nessun limite)
+     */
+    record Filtro(LocalDate da, LocalDate a, Set<Long> tipologie) {
+
+        boolean accetta(EventoResponseDTO evento) {
+            if (evento == null) {
+                return false;
+            }
+            if (da != null && evento.getData().isBefore(da)) {
+                return false;
+            }
+            if (a != null && evento.getData().isAfter(a)) {
+                return false;
+            }
+            return tipologie == null
+                    || (evento.getTipologiaEvento() != null && tipologie.contains(evento.getTipologiaEvento().getId()));
+        }
+    }
+
+    private final Set<Iscritto> iscritti = ConcurrentHashMap.newKeySet();
+
+    // Un virtual thread per ogni svuotamento di coda: le scritture bloccanti sulla rete non occupano thread veri
+    private final ExecutorService invii = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+
+    private final EventoModificheService eventoModificheService;
+    private final Counter notificheScartate;
+    private final Counter resyncInviati;
+
+    // Notifiche in attesa per iscritto: oltre, si scarta la più vecchia
+    @Value("${eventi.sse.buffer:256}")
+    private int capacitaCoda;
+
+    // Connessioni aperte al massimo (oltre → 503 con Retry-After)
+    @Value("${eventi.sse.max-iscritti:1000}")
+    private int maxIscritti;
+
+    // Durata massima di una connessione: poi il client (EventSource) si riconnette da solo
+    @Value("${eventi.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public EventoNotificheService(EventoModificheService eventoModificheService, MeterRegistry meterRegistry) {
+        this.eventoModificheService = eventoModificheService;
+        Gauge.builder("eventi.sse.iscritti", iscritti, Set::size)
+                .description("Connessioni SSE aperte")
+                .register(meterRegistry);
+        this.notificheScartate = Counter.builder("eventi.sse.notifiche.scartate")
+                .description("Notifiche scartate perché la coda dell'iscritto era piena")
+                .register(meterRegistry);
+        this.resyncInviati = Counter.builder("eventi.sse.resync")
+                .description("Eventi resync inviati a client rimasti indietro")
+                .register(meterRegistry);
+    }
+
+    /**
+     * APRE UNA CONNESSIONE DI NOTIFICA
+     *
+     * Il primo evento SSE è "connesso" con la versione di modifica attuale:
+     * il client recupera con /changes quello che ha perso mentre era
+     * disconnesso, poi riceve solo le notifiche.
+     *
+     * @param da Solo eventi da questa data (inclusa, null = nessun limite)
+     * @param a Solo eventi fino a questa data (inclusa, null = nessun limite)
+     * @param tipologie Solo eventi di queste tipologie (null o vuota = tutte)
+     * @return L'emitter da restituire dal controller
+     * @throws IllegalArgumentException se "da" è successiva ad "a" (→ HTTP 400)
+     * @throws ServizioSovraccaricoException se ci sono già troppe connessioni (→ HTTP 503)
+     */
+    public SseEmitter iscrivi(LocalDate da, LocalDate a, List<Long> tipologie) {
+        if (da != null && a != null && da.isAfter(a)) {
+            throw new IllegalArgumentException("La data di inizio deve precedere la data di fine");
+        }
+        if (iscritti.size() >= maxIscritti) {
+            throw new ServizioSovraccaricoException("Troppe connessioni di notifica aperte", Duration.ofSeconds(30));
+        }
+
+        Filtro filtro = new Filtro(da, a, tipologie == null || tipologie.isEmpty() ? null : Set.copyOf(tipologie));
+        SseEmitter emitter = creaEmitter(timeoutMs);
+        Iscritto iscritto = new Iscritto(emitter, filtro);
+        emitter.onCompletion(() -> iscritti.remove(iscritto));
+        emitter.onTimeout(() -> iscritti.remove(iscritto));
+        emitter.onError(errore -> iscritti.remove(iscritto));
+
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("connesso")
+                    .data(Map.of("versione", eventoModificheService.ultimaVersione()), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        iscritti.add(iscritto);
+        return emitter;
+    }
+
+    /**
+     * Crea l'emitter di una connessione (nei test: uno che registra o rallenta gli invii)
+     */
+    SseEmitter creaEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * DOPO IL COMMIT: METTE LA NOTIFICA NELLE CODE DEGLI ISCRITTI INTERESSATI
+     *
+     * Un evento spostato fuori dal filtro viene notificato lo stesso (il client
+     * deve toglierlo); uno spostato dentro arriva come nuovo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventoModificato(EventoModificatoEvent evento) {
+        if (iscritti.isEmpty()) {
+            return;
+        }
+        EventoNotificaDTO notifica = new EventoNotificaDTO(
+                evento.getTipo().name(),
+                evento.getId(),
+                evento.getDopo(),
+                evento.getPrima() != null ? evento.getPrima().getData() : null);
+        for (Iscritto iscritto : iscritti) {
+            if (iscritto.filtro.accetta(evento.getPrima()) || iscritto.filtro.accetta(evento.getDopo())) {
+                iscritto.accoda(notifica);
+            }
+        }
+    }
+
+    /**
+     * HEARTBEAT PERIODICO A TUTTI GLI ISCRITTI
+     */
+    @Scheduled(initialDelayString = "${eventi.sse.heartbeat-ms:15000}",
+            fixedRateString = "${eventi.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Iscritto iscritto : iscritti) {
+            iscritto.segnalaHeartbeat();
+        }
+    }
+
+    /**
+     * NUMERO DI CONNESSIONI APERTE
+     */
+    public int getIscritti() {
+        return iscritti.size();
+    }
+
+    /**
+     * ALLO SPEGNIMENTO: chiude le connessioni (i client si riconnetteranno altrove)
+     *
+     * Su ContextClosedEvent e non in @PreDestroy: lo shutdown graceful di Tomcat,
+     * che viene prima, aspetterebbe fino al timeout le richieste SSE ancora aperte.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void chiudi() {
+        for (Iscritto iscritto : iscritti) {
+            iscritto.emitter.complete();
+        }
+        iscritti.clear();
+        invii.shutdownNow();
+    }
+
+    /**
+     * UN CLIENT CONNESSO: FILTRO, CODA LIMITATA E STATO DI INVIO
+     *
+     * Tutto lo stato della coda è protetto da "lock". Al massimo un
+     * svuotamento per volta ("inInvio"): chi accoda avvia lo svuotamento
+     * solo se non ce n'è già uno in corso.
+     */
+    private final class Iscritto {
+
+        private final SseEmitter emitter;
+        private final Filtro filtro;
+        private final ArrayDeque<EventoNotificaDTO> coda = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean inInvio;
+        private boolean notifichePerse;
+        private boolean heartbeatDovuto;
+
+        Iscritto(SseEmitter emitter, Filtro filtro) {
+            this.emitter = emitter;
+            this.filtro = filtro;
+        }
+
+        void accoda(EventoNotificaDTO notifica) {
+            boolean avvia;
+            lock.lock();
+            try {
+                if (coda.size() >= capacitaCoda) {
+                    coda.pollFirst();
+                    notifichePerse = true;
+                    notificheScartate.increment();
+                }
+                coda.addLast(notifica);
+                avvia = avviaInvio();
+            } finally {
+                lock.unlock();
+            }
+            if (avvia) {
+                invii.execute(this::svuota);
+            }
+        }
+
+        void segnalaHeartbeat() {
+            boolean avvia;
+            lock.lock();
+            try {
+                heartbeatDovuto = true;
+                avvia = avviaInvio();
+            } finally {
+                lock.unlock();
+            }
+            if (avvia) {
+                invii.execute(this::svuota);
+            }
+        }
+
+        /**
+         * true se tocca al chiamante avviare lo svuotamento (da chiamare con il lock)
+         */
+        private boolean avviaInvio() {
+            if (inInvio) {
+                return false;
+            }
+            inInvio = true;
+            return true;
+        }
+
+        /**
+         * Invia tutto quello che è in coda; esce quando la coda resta vuota
+         */
+        private void svuota() {
+            while (true) {
+                List<EventoNotificaDTO> daInviare;
+                boolean resync;
+                boolean ping;
+                lock.lock();
+                try {
+                    if (coda.isEmpty() && !notifichePerse && !heartbeatDovuto) {
+                        inInvio = false;
+                        return;
+                    }
+                    daInviare = new ArrayList<>(coda);
+                    coda.clear();
+                    resync = notifichePerse;
+                    ping = heartbeatDovuto && daInviare.isEmpty() && !resync;
+                    notifichePerse = false;
+                    heartbeatDovuto = false;
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    if (resync) {
+                        resyncInviati.increment();
+                        emitter.send(SseEmitter.event()
+                                .name("resync")
+                                .data(Map.of("motivo", "notifiche perse: usare GET /api/eventi/changes"),
+                                        MediaType.APPLICATION_JSON));
+                    }
+                    for (EventoNotificaDTO notifica : daInviare) {
+                        emitter.send(SseEmitter.event().name("evento").data(notifica, MediaType.APPLICATION_JSON));
+                    }
+                    if (ping) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client disconnesso (o emitter già chiuso): niente più invii
+                    logger.debug("Connessione SSE chiusa: {}", e.getMessage());
+                    iscritti.remove(this);
+                    lock.lock();
+                    try {
+                        coda.clear();
+                        inInvio = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoResponseDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * MOTORE DI LETTURA DELLE LISTE DI EVENTI
+ *
+ * Astrae "come" vengono lette le liste di eventi (per data e paginate),
+ * così EventoService può usare indifferentemente:
+ * - "jpa":  entity Hibernate + EventoMapper (JpaEventoReadEngine)
+ * - "jdbc": una query SQL con JOIN e row mapper diretto su DTO (JdbcEventoReadEngine)
+ *
+ * Il motore attivo si sceglie con la proprietà eventi.read-engine.
+ */
+public interface EventoReadEngine {
+
+    /**
+     * Nome del motore, usato nella proprietà eventi.read-engine
+     */
+    String nome();
+
+    /**
+     * Eventi di una data, in ordine di (oraInizio, id)
+     */
+    List<EventoResponseDTO> findByData(LocalDate data);
+
+    /**
+     * Prima pagina in ordine di (data, oraInizio, id)
+     */
+    List<EventoResponseDTO> findFirstPage(int limit);
+
+    /**
+     * Pagina successiva al cursore, in ordine di (data, oraInizio, id)
+     */
+    List<EventoResponseDTO> findPageAfter(EventoCursor after, int limit);
+}
@@ -0,0 +1,458 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * INDICE INVERTITO IN MEMORIA PER LA RICERCA TESTUALE DEGLI EVENTI
+ *
+ * findByLocationContaining genera "LIKE '%roma%'", che nessun indice può
+ * aiutare: il database legge tutta la tabella. Questo indice risponde in
+ * memoria, senza query.
+ *
+ * STRUTTURE:
+ * - termine → eventi che lo contengono (in nome, location o note), in un
+ *   insieme GIÀ ORDINATO per (data, oraInizio, id), l'ordine dei risultati
+ * - trigramma → termini che lo contengono (per la ricerca "dentro" le parole)
+ * - id → evento (il DTO restituito, così la ricerca non tocca il database)
+ *
+ * COME SI CERCA:
+ * 1. Ogni termine della query diventa l'elenco dei termini del vocabolario che lo
+ *    contengono: con 3+ caratteri intersecando gli insiemi dei suoi trigrammi
+ *    ("rimon" → "matrimonio"), con 2 caratteri per prefisso ("ro" → "roma", "rossi")
+ * 2. Si scorrono in ordine gli eventi del termine più raro e si tengono quelli che
+ *    contengono anche tutti gli altri termini (AND)
+ * 3. Ci si ferma appena trovati "limit" risultati: gli insiemi sono già ordinati,
+ *    quindi non si ordina nulla e il costo NON cresce con il numero di eventi trovati
+ *
+ * AGGIORNAMENTO:
+ * - All'avvio (ApplicationReadyEvent, dopo i DataLoader) l'indice viene
+ *   ricostruito leggendo gli eventi a pagine: mentre si legge la pagina
+ *   successiva dal database, le precedenti vengono indicizzate in parallelo
+ * - Dopo ogni commit (EventoModificatoEvent) si aggiorna solo l'evento toccato
+ *
+ * CONCORRENZA:
+ * le letture non prendono lock (strutture concorrenti); le scritture sono
+ * serializzate da un lock unico, perché aggiungere e togliere termini dallo
+ * stesso insieme in parallelo potrebbe perdere aggiornamenti. Durante
+ * l'aggiornamento di un evento una ricerca concorrente può non vederlo
+ * per un istante.
+ */
+@Component
+public class EventoSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoSearchIndex.class);
+
+    // Eventi letti dal database per ogni pagina durante la ricostruzione
+    private static final int PAGINA_RICOSTRUZIONE = 2_000;
+
+    /**
+     * Posizione di un evento nell'ordine dei risultati (stesso ORDER BY delle liste)
+     */
+    private record Chiave(LocalDate data, LocalTime oraInizio, long id) implements Comparable<Chiave> {
+
+        static Chiave di(EventoResponseDTO evento) {
+            return new Chiave(evento.getData(), evento.getOraInizio(), evento.getId());
+        }
+
+        @Override
+        public int compareTo(Chiave altra) {
+            int confronto = data.compareTo(altra.data);
+            if (confronto == 0) {
+                confronto = oraInizio.compareTo(altra.oraInizio);
+            }
+            return confronto != 0 ? confronto : Long.compare(id, altra.id);
+        }
+    }
+
+    /**
+     * Evento indicizzato, con chiave e termini (servono per toglierlo dall'indice)
+     */
+    private record Documento(EventoResponseDTO evento, Chiave chiave, List<String> termini) {
+    }
+
+    /**
+     * Eventi di un termine, ordinati, con la dimensione tenuta a parte
+     * (size() di ConcurrentSkipListSet scorre tutto l'insieme)
+     */
+    private static final class Elenco {
+        final NavigableSet<Chiave> chiavi = new ConcurrentSkipListSet<>();
+        volatile int dimensione;
+    }
+
+    private final Map<Long, Documento> documenti = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Elenco> eventiPerTermine = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> terminiPerTrigramma = new ConcurrentHashMap<>();
+
+    // Eventi eliminati mentre la ricostruzione è in corso: non vanno reinseriti
+    private final Set<Long> eliminatiDuranteRicostruzione = ConcurrentHashMap.newKeySet();
+    private volatile boolean ricostruzioneInCorso;
+
+    private final Object scrittura = new Object();
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+
+    @Value("${eventi.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${eventi.search.max-limit:200}")
+    private int maxLimit;
+
+    public EventoSearchIndex(EventoJdbcRepository eventoJdbcRepository) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+    }
+
+    /**
+     * CERCA GLI EVENTI CHE CONTENGONO TUTTI I TERMINI DELLA QUERY
+     *
+     * ESEMPIO:
+     * cerca("matrimonio roma", null) → eventi con "matrimonio" E "roma"
+     * in nome, location o note, ordinati per data e ora di inizio
+     *
+     * @param query Testo cercato (obbligatorio)
+     * @param limit Numero massimo di risultati (null = default, tetto "eventi.search.max-limit")
+     * @return Eventi trovati (lista vuota se la query contiene solo parole vuote)
+     * @throws IllegalArgumentException se la query è vuota o limit <= 0 (→ HTTP 400)
+     */
+    public List<EventoResponseDTO> cerca(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Il parametro q è obbligatorio");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Il parametro limit deve essere maggiore di 0");
+        }
+        int massimo = limit == null ? defaultLimit : Math.min(limit, maxLimit);
+
+        List<String> termini = NormalizzatoreTesto.termini(query);
+        if (termini.isEmpty()) {
+            return List.of();
+        }
+
+        // Per ogni termine della query: gli elenchi di eventi dei termini che lo contengono
+        List<List<Elenco>> gruppi = new ArrayList<>(termini.size());
+        for (String termine : termini) {
+            List<Elenco> elenchi = elenchiCon(termine);
+            if (elenchi.isEmpty()) {
+                return List.of();
+            }
+            gruppi.add(elenchi);
+        }
+        // Si scorre il gruppo più piccolo, gli altri si usano solo per i controlli
+        gruppi.sort(Comparator.comparingLong(EventoSearchIndex::dimensione));
+
+        List<EventoResponseDTO> risultati = new ArrayList<>(massimo);
+        Iterator<Chiave> candidati = inOrdine(gruppi.get(0));
+        while (candidati.hasNext() && risultati.size() < massimo) {
+            Chiave chiave = candidati.next();
+            if (contenutaInTutti(chiave, gruppi)) {
+                Documento documento = documenti.get(chiave.id());
+                if (documento != null) {
+                    risultati.add(documento.evento());
+                }
+            }
+        }
+        return risultati;
+    }
+
+    /**
+     * Numero di eventi attualmente indicizzati
+     */
+    public int getNumeroEventi() {
+        return documenti.size();
+    }
+
+    /**
+     * AGGIUNGE O AGGIORNA UN EVENTO NELL'INDICE
+     *
+     * Se l'indice contiene già una versione più recente dello stesso evento
+     * (es. ricostruzione che legge un dato vecchio mentre arriva una modifica)
+     * l'evento viene ignorato.
+     */
+    public void indicizza(EventoResponseDTO evento) {
+        // Tokenizzazione fuori dal lock: è la parte che costa
+        aggiungi(new Documento(evento, Chiave.di(evento), terminiDi(evento)));
+    }
+
+    /**
+     * TOGLIE UN EVENTO DALL'INDICE
+     */
+    public void rimuovi(Long id) {
+        synchronized (scrittura) {
+            if (ricostruzioneInCorso) {
+                eliminatiDuranteRicostruzione.add(id);
+            }
+            Documento vecchio = documenti.remove(id);
+            if (vecchio != null) {
+                togliTermini(vecchio);
+            }
+        }
+    }
+
+    /**
+     * AGGIORNA L'INDICE DOPO IL COMMIT DI UNA MODIFICA
+     *
+     * fallbackExecution = true: anche le modifiche pubblicate fuori transazione.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventoModificato(EventoModificatoEvent evento) {
+        if (evento.getTipo() == EventoModificatoEvent.Tipo.ELIMINATO) {
+            rimuovi(evento.getId());
+        } else {
+            indicizza(evento.getDopo());
+        }
+    }
+
+    /**
+     * RICOSTRUISCE L'INDICE DA TUTTI GLI EVENTI DEL DATABASE
+     *
+     * COME FUNZIONA:
+     * 1. Legge gli eventi in pagine da PAGINA_RICOSTRUZIONE (keyset, sempre veloce)
+     * 2. Ogni pagina letta viene passata a un task sul ForkJoinPool comune, che
+     *    la tokenizza e la inserisce, mentre il thread principale legge la successiva
+     * 3. Attende la fine di tutti i task
+     *
+     * Le modifiche che arrivano nel frattempo vengono applicate normalmente:
+     * il controllo sulla versione impedisce che una pagina letta prima le sovrascriva.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ricostruisci() {
+        long inizio = System.nanoTime();
+        ricostruzioneInCorso = true;
+        try {
+            List<CompletableFuture<Void>> lavori = new ArrayList<>();
+
+            List<EventoResponseDTO> pagina = eventoJdbcRepository.findFirstPage(PAGINA_RICOSTRUZIONE);
+            while (!pagina.isEmpty()) {
+                List<EventoResponseDTO> daIndicizzare = pagina;
+                lavori.add(CompletableFuture.runAsync(() -> daIndicizzare.forEach(this::indicizza)));
+
+                if (pagina.size() < PAGINA_RICOSTRUZIONE) {
+                    break;
+                }
+                EventoResponseDTO ultimo = pagina.get(pagina.size() - 1);
+                pagina = eventoJdbcRepository.findPageAfter(
+                        ultimo.getData(), ultimo.getOraInizio(), ultimo.getId(), PAGINA_RICOSTRUZIONE);
+            }
+
+            CompletableFuture.allOf(lavori.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            ricostruzioneInCorso = false;
+            eliminatiDuranteRicostruzione.clear();
+        }
+
+        logger.info("Indice di ricerca eventi costruito: {} eventi, {} termini in {} ms",
+                documenti.size(), eventiPerTermine.size(), (System.nanoTime() - inizio) / 1_000_000);
+    }
+
+    /**
+     * Termini di nome, location e note (senza duplicati)
+     */
+    private static List<String> terminiDi(EventoResponseDTO evento) {
+        Set<String> termini = new LinkedHashSet<>();
+        termini.addAll(NormalizzatoreTesto.termini(evento.getNome()));
+        termini.addAll(NormalizzatoreTesto.termini(evento.getLocation()));
+        termini.addAll(NormalizzatoreTesto.termini(evento.getNote()));
+        return List.copyOf(termini);
+    }
+
+    private void aggiungi(Documento documento) {
+        Long id = documento.evento().getId();
+        synchronized (scrittura) {
+            if (ricostruzioneInCorso && eliminatiDuranteRicostruzione.contains(id)) {
+                return;
+            }
+            Documento vecchio = documenti.get(id);
+            if (vecchio != null) {
+                if (versione(vecchio.evento()) > versione(documento.evento())) {
+                    return;
+                }
+                togliTermini(vecchio);
+            }
+            documenti.put(id, documento);
+            for (String termine : documento.termini()) {
+                Elenco elenco = eventiPerTermine.computeIfAbsent(termine, t -> {
+                    for (String trigramma : NormalizzatoreTesto.trigrammi(t)) {
+                        terminiPerTrigramma.computeIfAbsent(trigramma, k -> ConcurrentHashMap.newKeySet()).add(t);
+                    }
+                    return new Elenco();
+                });
+                if (elenco.chiavi.add(documento.chiave())) {
+                    elenco.dimensione++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Toglie l'evento dagli insiemi dei suoi termini; i termini rimasti senza
+     * eventi escono dal vocabolario (e dai trigrammi), così l'indice non cresce
+     * con parole che non esistono più. Chiamato sotto il lock di scrittura.
+     */
+    private void togliTermini(Documento documento) {
+        for (String termine : documento.termini()) {
+            Elenco elenco = eventiPerTermine.get(termine);
+            if (elenco == null || !elenco.chiavi.remove(documento.chiave())) {
+                continue;
+            }
+            if (--elenco.dimensione == 0) {
+                eventiPerTermine.remove(termine);
+                for (String trigramma : NormalizzatoreTesto.trigrammi(termine)) {
+                    Set<String> conTrigramma = terminiPerTrigramma.get(trigramma);
+                    if (conTrigramma != null) {
+                        conTrigramma.remove(termine);
+                        if (conTrigramma.isEmpty()) {
+                            terminiPerTrigramma.remove(trigramma);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * ELENCHI DI EVENTI DEI TERMINI CHE CONTENGONO "frammento"
+     */
+    private List<Elenco> elenchiCon(String frammento) {
+        Iterable<String> termini = frammento.length() < 3
+                // Troppo corto per i trigrammi: termini che iniziano con il frammento
+                ? eventiPerTermine.subMap(frammento, frammento + Character.MAX_VALUE).keySet()
+                : terminiCheContengono(frammento);
+
+        List<Elenco> elenchi = new ArrayList<>();
+        for (String termine : termini) {
+            Elenco elenco = eventiPerTermine.get(termine);
+            if (elenco != null) {
+                elenchi.add(elenco);
+            }
+        }
+        return elenchi;
+    }
+
+    /**
+     * Termini del vocabolario che contengono il frammento (3+ caratteri),
+     * trovati intersecando gli insiemi dei suoi trigrammi
+     */
+    private List<String> terminiCheContengono(String frammento) {
+        List<Set<String>> insiemi = new ArrayList<>();
+        for (String trigramma : NormalizzatoreTesto.trigrammi(frammento)) {
+            Set<String> termini = terminiPerTrigramma.get(trigramma);
+            if (termini == null) {
+                return List.of();
+            }
+            insiemi.add(termini);
+        }
+        insiemi.sort(Comparator.comparingInt(Set::size));
+
+        List<String> risultato = new ArrayList<>();
+        for (String termine : insiemi.get(0)) {
+            // Il controllo finale scarta i falsi positivi ("abcxbcd" ha "abc" e "bcd" ma non "abcd")
+            if (termine.contains(frammento)) {
+                risultato.add(termine);
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * UNIONE ORDINATA (SENZA DUPLICATI) DI PIÙ ELENCHI GIÀ ORDINATI
+     *
+     * Fusione a k vie con una coda di priorità: legge solo gli elementi
+     * effettivamente richiesti dal chiamante.
+     */
+    private static Iterator<Chiave> inOrdine(List<Elenco> elenchi) {
+        if (elenchi.size() == 1) {
+            return elenchi.get(0).chiavi.iterator();
+        }
+
+        record Testa(Chiave chiave, Iterator<Chiave> resto) {
+        }
+        PriorityQueue<Testa> coda = new PriorityQueue<>(Comparator.comparing(Testa::chiave));
+        for (Elenco elenco : elenchi) {
+            Iterator<Chiave> iteratore = elenco.chiavi.iterator();
+            if (iteratore.hasNext()) {
+                coda.add(new Testa(iteratore.next(), iteratore));
+            }
+        }
+
+        return new Iterator<>() {
+            private Chiave ultima;
+
+            @Override
+            public boolean hasNext() {
+                while (!coda.isEmpty() && coda.peek().chiave().equals(ultima)) {
+                    avanza();
+                }
+                return !coda.isEmpty();
+            }
+
+            @Override
+            public Chiave next() {
+                hasNext();
+                ultima = avanza();
+                return ultima;
+            }
+
+            private Chiave avanza() {
+                Testa testa = coda.poll();
+                if (testa.resto().hasNext()) {
+                    coda.add(new Testa(testa.resto().next(), testa.resto()));
+                }
+                return testa.chiave();
+            }
+        };
+    }
+
+    /**
+     * La chiave compare in almeno un elenco di ogni gruppo (escluso il primo, già scorso)?
+     */
+    private static boolean contenutaInTutti(Chiave chiave, List<List<Elenco>> gruppi) {
+        for (int i = 1; i < gruppi.size(); i++) {
+            boolean trovata = false;
+            for (Elenco elenco : gruppi.get(i)) {
+                if (elenco.chiavi.contains(chiave)) {
+                    trovata = true;
+                    break;
+                }
+            }
+            if (!trovata) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long dimensione(List<Elenco> elenchi) {
+        long totale = 0;
+        for (Elenco elenco : elenchi) {
+            totale += elenco.dimensione;
+        }
+        return totale;
+    }
+
+    private static long versione(EventoResponseDTO evento) {
+        return evento.getVersione() != null ? evento.getVersione() : 0L;
+    }
+}
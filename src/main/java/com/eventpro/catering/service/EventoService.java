@@ -1,17 +1,30 @@
 package com.eventpro.catering.service;
 
+import com.eventpro.catering.dto.EventoBatchResponseDTO;
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoPageDTO;
 import com.eventpro.catering.dto.EventoRequestDTO;
 import com.eventpro.catering.dto.EventoResponseDTO;
 import com.eventpro.catering.exception.EventoNotFoundException;
 import com.eventpro.catering.model.Evento;
 import com.eventpro.catering.model.TipologiaEvento;
 import com.eventpro.catering.repository.EventoRepository;
+import com.eventpro.catering.repository.EventoVersione;
 import com.eventpro.catering.repository.TipologiaEventoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -23,36 +36,283 @@ import java.util.stream.Collectors;
 @Transactional
 public class EventoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EventoService.class);
+
     private final EventoRepository eventoRepository;
     private final TipologiaEventoRepository tipologiaEventoRepository;
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+    private final EventoMapper eventoMapper;
+    private final EventoReadEngine readEngine;
+    private final EventoConflittiService eventoConflittiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    // Dimensione di pagina usata quando il client non specifica "size"
+    @Value("${eventi.page.default-size:50}")
+    private int defaultPageSize;
+
+    // Dimensione massima di pagina accettata (protegge da size=1000000)
+    @Value("${eventi.page.max-size:500}")
+    private int maxPageSize;
+
+    // Numero massimo di righe restituite dalla lista NON paginata (deprecata)
+    @Value("${eventi.lista-completa.max-righe:1000}")
+    private int maxRigheListaCompleta;
+
+    // Numero massimo di eventi in una singola richiesta batch
+    @Value("${eventi.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // Eventi inviati al database per ogni batch JDBC (stesso valore di Hibernate)
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
 
     public EventoService(EventoRepository eventoRepository,
-                         TipologiaEventoRepository tipologiaEventoRepository) {
+                         TipologiaEventoRepository tipologiaEventoRepository,
+                         TipologiaEventoRegistry tipologiaEventoRegistry,
+                         EventoMapper eventoMapper,
+                         List<EventoReadEngine> readEngines,
+                         EventoConflittiService eventoConflittiService,
+                         ApplicationEventPublisher eventPublisher,
+                         Validator validator,
+                         EntityManager entityManager,
+                         @Value("${eventi.read-engine:jdbc}") String nomeReadEngine) {
         this.eventoRepository = eventoRepository;
         this.tipologiaEventoRepository = tipologiaEventoRepository;
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+        this.eventoMapper = eventoMapper;
+        this.eventoConflittiService = eventoConflittiService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.entityManager = entityManager;
+
+        // Sceglie il motore di lettura configurato ("jpa" o "jdbc")
+        this.readEngine = readEngines.stream()
+                .filter(engine -> engine.nome().equalsIgnoreCase(nomeReadEngine))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "eventi.read-engine non valido: " + nomeReadEngine + " (valori ammessi: jpa, jdbc)"));
+        logger.info("Motore di lettura eventi: {}", this.readEngine.nome());
     }
 
     /**
      * CREA UN NUOVO EVENTO
      */
     public EventoResponseDTO createEvento(EventoRequestDTO requestDTO) {
-        // VALIDAZIONE 1: Verifica che ora fine sia dopo ora inizio
-        if (requestDTO.getOraFine().isBefore(requestDTO.getOraInizio()) ||
-                requestDTO.getOraFine().equals(requestDTO.getOraInizio())) {
+        // VALIDAZIONE: campi obbligatori, orari, tipologia (nessuna query)
+        String errore = verificaRichiesta(requestDTO);
+        if (errore != null) {
+            throw new IllegalArgumentException(errore);
+        }
+
+        // SALVATAGGIO: Converte DTO → Entity e salva nel database
+        Evento eventoSalvato = eventoRepository.save(nuovoEvento(requestDTO));
+
+        // CONVERSIONE: Entity → DTO per la risposta
+        EventoResponseDTO response = eventoMapper.toResponseDTO(eventoSalvato);
+
+        // DOPPIA PRENOTAZIONE: la location deve essere libera in quell'orario
+        // (altrimenti EventoConflittoException → HTTP 409 e rollback, nessuna INSERT)
+        eventoConflittiService.prenota(response);
+
+        // NOTIFICA: i listener la ricevono dopo il commit
+        eventPublisher.publishEvent(EventoModificatoEvent.creato(response));
+
+        return response;
+    }
+
+    /**
+     * MODIFICA UN EVENTO ESISTENTE
+     *
+     * COME FUNZIONA:
+     * 1. Stessa validazione della creazione (nessuna query)
+     * 2. Carica l'evento e ne copia lo stato attuale (serve a chi ascolta la modifica)
+     * 3. Sovrascrive tutti i campi con quelli della richiesta
+     * 4. saveAndFlush: la UPDATE parte subito, così "versione" è già
+     *    incrementata nella risposta (e nel nuovo ETag)
+     *
+     * Se un'altra richiesta ha modificato l'evento nel frattempo, il controllo
+     * di @Version fallisce (OptimisticLockingFailureException → HTTP 409).
+     * Se il nuovo orario si sovrappone a un altro evento nella stessa location
+     * la modifica viene annullata (EventoConflittoException → HTTP 409).
+     *
+     * @param id ID dell'evento da modificare
+     * @param requestDTO Nuovi dati dell'evento (tutti i campi)
+     * @return L'evento modificato
+     * @throws EventoNotFoundException se l'evento non esiste (→ HTTP 404)
+     * @throws IllegalArgumentException se la richiesta non è valida (→ HTTP 400)
+     */
+    public EventoResponseDTO updateEvento(Long id, EventoRequestDTO requestDTO) {
+        String errore = verificaRichiesta(requestDTO);
+        if (errore != null) {
+            throw new IllegalArgumentException(errore);
+        }
+
+        Evento evento = eventoRepository.findById(id)
+                .orElseThrow(() -> new EventoNotFoundException(id));
+        EventoResponseDTO prima = eventoMapper.toResponseDTO(evento);
+
+        copiaCampi(requestDTO, evento);
+        eventoRepository.saveAndFlush(evento);
+
+        EventoResponseDTO dopo = eventoMapper.toResponseDTO(evento);
+        eventoConflittiService.sposta(prima, dopo);
+        eventPublisher.publishEvent(EventoModificatoEvent.modificato(prima, dopo));
+        return dopo;
+    }
+
+    /**
+     * ELIMINA UN EVENTO
+     *
+     * Carica l'evento prima di cancellarlo: il suo ultimo stato viene
+     * pubblicato (EventoModificatoEvent.eliminato) e, dopo il commit, indice di
+     * ricerca, calendario, statistiche e prenotazioni della location lo tolgono.
+     *
+     * @param id ID dell'evento da eliminare
+     * @throws EventoNotFoundException se l'evento non esiste (→ HTTP 404)
+     */
+    public void deleteEvento(Long id) {
+        Evento evento = eventoRepository.findById(id)
+                .orElseThrow(() -> new EventoNotFoundException(id));
+        EventoResponseDTO prima = eventoMapper.toResponseDTO(evento);
+
+        eventoRepository.delete(evento);
+        eventPublisher.publishEvent(EventoModificatoEvent.eliminato(prima));
+    }
+
+    /**
+     * CREA PIÙ EVENTI IN UNA SOLA TRANSAZIONE (BATCH)
+     *
+     * COME FUNZIONA:
+     * 1. Valida TUTTI gli elementi prima di scrivere qualsiasi cosa
+     *    (le tipologie vengono dal registro in memoria: nessuna query)
+     * 2. Se anche un solo elemento non è valido, non salva niente e
+     *    restituisce l'esito di ogni elemento (creati = 0)
+     * 3. Altrimenti salva gli eventi a blocchi di "hibernate.jdbc.batch_size":
+     *    per ogni blocco saveAll + flush (Hibernate invia le INSERT in batch JDBC),
+     *    poi clear per non far crescere il persistence context
+     * 4. Ogni evento prenota la propria location: se si sovrappone a un evento
+     *    esistente (o a un altro evento dello stesso batch) l'intero batch
+     *    viene annullato (EventoConflittoException → HTTP 409)
+     *
+     * ESEMPIO DI USO:
+     * EventoBatchResponseDTO esito = eventoService.createEventiBatch(richieste);
+     * if (esito.getErrori() > 0) { ... nessun evento salvato ... }
+     *
+     * @param richieste Eventi da creare (massimo "eventi.batch.max-size")
+     * @return Esito per ogni elemento, nello stesso ordine della richiesta
+     * @throws IllegalArgumentException se la lista è vuota o troppo lunga (→ HTTP 400)
+     */
+    public EventoBatchResponseDTO createEventiBatch(List<EventoRequestDTO> richieste) {
+        if (richieste == null || richieste.isEmpty()) {
+            throw new IllegalArgumentException("La richiesta batch non contiene eventi");
+        }
+        if (richieste.size() > maxBatchSize) {
             throw new IllegalArgumentException(
-                    "L'ora di fine deve essere successiva all'ora di inizio"
-            );
+                    "Troppi eventi in una richiesta batch: " + richieste.size() + " (massimo " + maxBatchSize + ")");
         }
 
-        // VALIDAZIONE 2: Recupera e verifica TipologiaEvento
-        TipologiaEvento tipologia = tipologiaEventoRepository
-                .findById(requestDTO.getTipologiaEventoId())
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "TipologiaEvento non trovata con ID: " + requestDTO.getTipologiaEventoId()
-                ));
+        // FASE 1: validazione di tutti gli elementi
+        List<EventoBatchResponseDTO.EsitoDTO> esitiValidazione = new ArrayList<>(richieste.size());
+        boolean tuttiValidi = true;
+        for (int i = 0; i < richieste.size(); i++) {
+            String errore = verificaRichiesta(richieste.get(i));
+            if (errore == null) {
+                esitiValidazione.add(EventoBatchResponseDTO.EsitoDTO.valido(i));
+            } else {
+                esitiValidazione.add(EventoBatchResponseDTO.EsitoDTO.errore(i, errore));
+                tuttiValidi = false;
+            }
+        }
+        if (!tuttiValidi) {
+            return new EventoBatchResponseDTO(esitiValidazione);
+        }
+
+        // FASE 2: inserimento a blocchi (batch JDBC)
+        List<EventoBatchResponseDTO.EsitoDTO> esiti = new ArrayList<>(richieste.size());
+        for (int inizio = 0; inizio < richieste.size(); inizio += jdbcBatchSize) {
+            List<Evento> blocco = richieste.subList(inizio, Math.min(inizio + jdbcBatchSize, richieste.size()))
+                    .stream()
+                    .map(this::nuovoEvento)
+                    .toList();
+
+            eventoRepository.saveAll(blocco);
 
-        // CREAZIONE ENTITY: Converte DTO → Entity
+            // Prenotazioni prima del flush: in caso di conflitto il blocco non arriva al database
+            List<EventoResponseDTO> creati = new ArrayList<>(blocco.size());
+            for (Evento evento : blocco) {
+                EventoResponseDTO response = eventoMapper.toResponseDTO(evento);
+                eventoConflittiService.prenota(response);
+                creati.add(response);
+            }
+            entityManager.flush();
+
+            for (EventoResponseDTO response : creati) {
+                esiti.add(EventoBatchResponseDTO.EsitoDTO.creato(esiti.size(), response));
+                eventPublisher.publishEvent(EventoModificatoEvent.creato(response));
+            }
+            entityManager.clear();
+        }
+
+        logger.info("Batch eventi: {} eventi creati", esiti.size());
+        return new EventoBatchResponseDTO(esiti);
+    }
+
+    /**
+     * VALIDA UNA RICHIESTA DI CREAZIONE
+     *
+     * Controlla, senza accedere al database:
+     * 1. I vincoli di EventoRequestDTO (@NotBlank, @NotNull)
+     * 2. Che l'ora di fine sia dopo l'ora di inizio
+     * 3. Che la tipologia esista (registro in memoria)
+     *
+     * @return Il messaggio di errore, oppure null se la richiesta è valida
+     */
+    private String verificaRichiesta(EventoRequestDTO requestDTO) {
+        if (requestDTO == null) {
+            return "Evento mancante";
+        }
+
+        // VALIDAZIONE 1: Campi obbligatori
+        Set<ConstraintViolation<EventoRequestDTO>> violazioni = validator.validate(requestDTO);
+        if (!violazioni.isEmpty()) {
+            return violazioni.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        // VALIDAZIONE 2: Verifica che ora fine sia dopo ora inizio
+        if (!requestDTO.getOraFine().isAfter(requestDTO.getOraInizio())) {
+            return "L'ora di fine deve essere successiva all'ora di inizio";
+        }
+
+        // VALIDAZIONE 3: Verifica TipologiaEvento sul registro in memoria (nessuna query)
+        if (!tipologiaEventoRegistry.esiste(requestDTO.getTipologiaEventoId())) {
+            return "TipologiaEvento non trovata con ID: " + requestDTO.getTipologiaEventoId();
+        }
+
+        return null;
+    }
+
+    /**
+     * CONVERTE UNA RICHIESTA (GIÀ VALIDATA) IN ENTITY
+     */
+    private Evento nuovoEvento(EventoRequestDTO requestDTO) {
         Evento evento = new Evento();
+        copiaCampi(requestDTO, evento);
+        return evento;
+    }
+
+    /**
+     * COPIA I CAMPI DI UNA RICHIESTA (GIÀ VALIDATA) SULL'ENTITY
+     */
+    private void copiaCampi(EventoRequestDTO requestDTO, Evento evento) {
+        // Riferimento alla tipologia: Hibernate usa solo l'id per la foreign key
+        TipologiaEvento tipologia = tipologiaEventoRepository
+                .getReferenceById(requestDTO.getTipologiaEventoId());
+
         evento.setNome(requestDTO.getNome());
         evento.setData(requestDTO.getData());
         evento.setOraInizio(requestDTO.getOraInizio());
@@ -62,12 +322,6 @@ public class EventoService {
         evento.setEventoGiornaliero(requestDTO.getEventoGiornaliero());
         evento.setTipologiaEvento(tipologia);
         // Cliente rimosso - solo gestione eventi
-
-        // SALVATAGGIO: Salva nel database
-        Evento eventoSalvato = eventoRepository.save(evento);
-
-        // CONVERSIONE: Entity → DTO per la risposta
-        return convertToResponseDTO(eventoSalvato);
     }
 
     /**
@@ -77,37 +331,106 @@ public class EventoService {
         Evento evento = eventoRepository.findById(id)
                 .orElseThrow(() -> new EventoNotFoundException(id));
 
-        return convertToResponseDTO(evento);
+        return eventoMapper.toResponseDTO(evento);
+    }
+
+    /**
+     * RECUPERA SOLO (id, versione, data) DI UN EVENTO
+     *
+     * Lettura per chiave primaria di tre colonne: usata dal controller per
+     * calcolare l'ETag e rispondere 304 senza caricare l'evento completo.
+     *
+     * @param id ID dell'evento
+     * @return La proiezione (id, versione, data)
+     * @throws EventoNotFoundException se l'evento non esiste (→ HTTP 404)
+     */
+    @Transactional(readOnly = true)
+    public EventoVersione getVersioneEvento(Long id) {
+        return eventoRepository.findVersioneById(id)
+                .orElseThrow(() -> new EventoNotFoundException(id));
     }
 
     /**
      * RECUPERA TUTTI GLI EVENTI
      *
-     * Questo metodo restituisce tutti gli eventi presenti nel database
+     * Questo metodo restituisce gli eventi presenti nel database
      * ordinati per data crescente.
      *
+     * DEPRECATO: la lista completa cresce con la tabella (tempo e memoria).
+     * Ora legge al massimo "eventi.lista-completa.max-righe" righe;
+     * i client devono passare a getEventiPaginati().
+     *
      * COME FUNZIONA:
-     * 1. Chiama il repository per recuperare tutti gli eventi ordinati
-     * 2. Usa stream() per convertire ogni Evento in EventoResponseDTO
-     * 3. Raccoglie i risultati in una lista
+     * 1. Chiede al motore di lettura la prima "pagina" lunga quanto il tetto massimo
+     * 2. Se il tetto viene raggiunto scrive un warning nel log
      *
      * ESEMPIO DI USO:
      * List<EventoResponseDTO> eventi = eventoService.getAllEventi();
-     * // eventi contiene tutti gli eventi del database
+     * // eventi contiene al massimo 1000 eventi del database
      *
      * @return Lista di EventoResponseDTO ordinati per data
      */
+    @Deprecated
     public List<EventoResponseDTO> getAllEventi() {
-        // STEP 1: Recupera tutti gli eventi dal repository ordinati per data
-        List<Evento> eventi = eventoRepository.findAllByOrderByDataAsc();
-
-        // STEP 2: Converte ogni Evento in EventoResponseDTO usando stream
-        // - stream(): crea uno stream dalla lista
-        // - map(this::convertToResponseDTO): applica la conversione a ogni elemento
-        // - collect(Collectors.toList()): raccoglie i risultati in una lista
-        return eventi.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        // STEP 1: Recupera gli eventi ordinati per data (con tetto massimo)
+        List<EventoResponseDTO> eventi = readEngine.findFirstPage(maxRigheListaCompleta);
+
+        // STEP 2: Segnala nel log che la lista è stata troncata
+        if (eventi.size() == maxRigheListaCompleta) {
+            logger.warn("Lista eventi non paginata troncata a {} righe: usare ?size=&cursor=",
+                    maxRigheListaCompleta);
+        }
+
+        return eventi;
+    }
+
+    /**
+     * RECUPERA UNA PAGINA DI EVENTI (PAGINAZIONE KEYSET)
+     *
+     * COME FUNZIONA:
+     * 1. Senza cursore legge la prima pagina, con cursore riparte da
+     *    (data, oraInizio, id) dell'ultimo evento già visto
+     * 2. Legge size + 1 righe: se arriva la riga in più esiste una pagina successiva
+     * 3. Il nextCursor punta all'ultimo evento della pagina restituita
+     *
+     * Il costo di ogni pagina è lo stesso sia alla prima che alla millesima,
+     * perché il database non deve mai scorrere le righe già restituite.
+     *
+     * @param cursor Cursore opaco ricevuto nella pagina precedente (null = prima pagina)
+     * @param size Numero di eventi richiesti (null = dimensione di default)
+     * @return EventoPageDTO con gli eventi e il cursore per la pagina successiva
+     */
+    public EventoPageDTO getEventiPaginati(String cursor, Integer size) {
+        int pageSize = normalizzaPageSize(size);
+
+        List<EventoResponseDTO> eventi;
+        if (cursor == null || cursor.isBlank()) {
+            eventi = readEngine.findFirstPage(pageSize + 1);
+        } else {
+            eventi = readEngine.findPageAfter(EventoCursor.decode(cursor), pageSize + 1);
+        }
+
+        boolean hasNext = eventi.size() > pageSize;
+        List<EventoResponseDTO> pagina = hasNext ? eventi.subList(0, pageSize) : eventi;
+
+        String nextCursor = hasNext
+                ? EventoCursor.dopo(pagina.get(pagina.size() - 1)).encode()
+                : null;
+
+        return new EventoPageDTO(pagina, pageSize, hasNext, nextCursor);
+    }
+
+    /**
+     * Applica default e limite massimo alla dimensione di pagina richiesta
+     */
+    private int normalizzaPageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Il parametro size deve essere maggiore di 0");
+        }
+        return Math.min(size, maxPageSize);
     }
 
     /**
@@ -117,9 +440,8 @@ public class EventoService {
      * in una specifica data.
      *
      * COME FUNZIONA:
-     * 1. Chiama il repository per recuperare eventi filtrati per data
-     * 2. Usa stream() per convertire ogni Evento in EventoResponseDTO
-     * 3. Raccoglie i risultati in una lista
+     * 1. Chiede al motore di lettura (JPA o JDBC) gli eventi filtrati per data
+     * 2. Il motore restituisce direttamente i DTO
      *
      * ESEMPIO DI USO:
      * LocalDate data = LocalDate.of(2024, 6, 15);
@@ -130,37 +452,6 @@ public class EventoService {
      * @return Lista di EventoResponseDTO per quella data
      */
     public List<EventoResponseDTO> getEventiByData(LocalDate data) {
-        // STEP 1: Recupera eventi filtrati per data dal repository
-        List<Evento> eventi = eventoRepository.findByData(data);
-
-        // STEP 2: Converte ogni Evento in EventoResponseDTO usando stream
-        return eventi.stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors. toList());
-    }
-
-    /**
-     * CONVERTE ENTITY → DTO
-     */
-    private EventoResponseDTO convertToResponseDTO(Evento evento) {
-        // Crea DTO per TipologiaEvento
-        EventoResponseDTO.TipologiaEventoDTO tipologiaDTO =
-                new EventoResponseDTO.TipologiaEventoDTO(
-                        evento.getTipologiaEvento().getId(),
-                        evento.getTipologiaEvento().getNome()
-                );
-
-        // Crea e restituisce il DTO completo (senza cliente)
-        return new EventoResponseDTO(
-                evento.getId(),
-                evento.getNome(),
-                evento.getData(),
-                evento.getOraInizio(),
-                evento.getOraFine(),
-                evento.getLocation(),
-                evento.getNote(),
-                evento.getEventoGiornaliero(),
-                tipologiaDTO
-        );
+        return readEngine.findByData(data);
     }
 }
@@ -0,0 +1,208 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.dto.StatisticheEventiDTO;
+import com.eventpro.catering.dto.TipologiaEventoResponseDTO;
+import com.eventpro.catering.repository.EventoConteggioMensile;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * STATISTICHE DEGLI EVENTI SENZA QUERY (DASHBOARD)
+ *
+ * Prima ogni riquadro della dashboard chiamava countByTipologiaEvento una
+ * volta per tipologia: N tipologie = N query a ogni caricamento. Ora i numeri
+ * stanno in memoria e GET /api/eventi/stats non tocca il database.
+ *
+ * COME FUNZIONA:
+ * - Un contatore LongAdder per ogni (tipologia, mese, evento giornaliero sì/no).
+ *   LongAdder non usa lock: più thread che incrementano insieme non si
+ *   aspettano (ognuno scrive su una propria cella, la somma si fa in lettura)
+ * - All'avvio i contatori vengono riempiti da UNA query GROUP BY
+ * - Dopo ogni commit (EventoModificatoEvent) creazione +1, cancellazione -1,
+ *   modifica -1 sulla vecchia chiave e +1 sulla nuova
+ * - Ogni "eventi.stats.riconciliazione-ms" la stessa query GROUP BY viene
+ *   rieseguita e i contatori che si sono discostati dal database vengono corretti
+ *
+ * RICONCILIAZIONE SENZA LOCK:
+ * i contatori vengono letti prima e dopo la query. Se un contatore è cambiato
+ * nel frattempo (una modifica in corso) viene lasciato stare e controllato al
+ * giro successivo; altrimenti gli si aggiunge la differenza con il database.
+ */
+@Service
+public class EventoStatisticheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoStatisticheService.class);
+
+    /**
+     * Granularità dei contatori
+     */
+    private record Chiave(Long tipologiaId, YearMonth mese, boolean giornaliero) {
+
+        static Chiave di(EventoResponseDTO evento) {
+            Long tipologiaId = evento.getTipologiaEvento() != null ? evento.getTipologiaEvento().getId() : null;
+            return new Chiave(tipologiaId, YearMonth.from(evento.getData()),
+                    Boolean.TRUE.equals(evento.getEventoGiornaliero()));
+        }
+    }
+
+    private final Map<Chiave, LongAdder> contatori = new ConcurrentHashMap<>();
+
+    // Una riconciliazione alla volta (lock e non synchronized: dentro c'è una query)
+    private final ReentrantLock riconciliazioneLock = new ReentrantLock();
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+    private final TipologiaEventoRegistry tipologiaEventoRegistry;
+
+    private volatile Instant ultimaRiconciliazione;
+
+    public EventoStatisticheService(EventoJdbcRepository eventoJdbcRepository,
+                                    TipologiaEventoRegistry tipologiaEventoRegistry) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+        this.tipologiaEventoRegistry = tipologiaEventoRegistry;
+    }
+
+    /**
+     * STATISTICHE CORRENTI (dalla memoria, nessuna query)
+     *
+     * @param anno Solo gli eventi di quest'anno (null = tutti)
+     * @return Totali, conteggi per tipologia (anche quelle senza eventi) e per mese
+     */
+    public StatisticheEventiDTO getStatistiche(Integer anno) {
+        Map<Long, long[]> perTipologia = new HashMap<>();
+        Map<YearMonth, Long> perMese = new TreeMap<>();
+        long totale = 0;
+        long giornalieri = 0;
+
+        for (Map.Entry<Chiave, LongAdder> voce : contatori.entrySet()) {
+            Chiave chiave = voce.getKey();
+            long eventi = voce.getValue().sum();
+            if (eventi == 0 || (anno != null && chiave.mese().getYear() != anno)) {
+                continue;
+            }
+            long[] tipologia = perTipologia.computeIfAbsent(chiave.tipologiaId(), t -> new long[2]);
+            tipologia[0] += eventi;
+            totale += eventi;
+            if (chiave.giornaliero()) {
+                tipologia[1] += eventi;
+                giornalieri += eventi;
+            }
+            perMese.merge(chiave.mese(), eventi, Long::sum);
+        }
+
+        // Tutte le tipologie del registro (anche a zero), poi eventuali tipologie non più registrate
+        Map<Long, String> nomi = new LinkedHashMap<>();
+        for (TipologiaEventoResponseDTO tipologia : tipologiaEventoRegistry.getTutte()) {
+            nomi.put(tipologia.getId(), tipologia.getNome());
+        }
+        perTipologia.keySet().forEach(id -> nomi.putIfAbsent(id, null));
+
+        List<StatisticheEventiDTO.TipologiaDTO> tipologie = new ArrayList<>(nomi.size());
+        nomi.forEach((id, nome) -> {
+            long[] conteggi = perTipologia.getOrDefault(id, new long[2]);
+            tipologie.add(new StatisticheEventiDTO.TipologiaDTO(id, nome, conteggi[0], conteggi[1]));
+        });
+
+        List<StatisticheEventiDTO.MeseDTO> mesi = new ArrayList<>(perMese.size());
+        perMese.forEach((mese, eventi) -> mesi.add(new StatisticheEventiDTO.MeseDTO(mese, eventi)));
+
+        return new StatisticheEventiDTO(anno, totale, giornalieri, tipologie, mesi, ultimaRiconciliazione);
+    }
+
+    /**
+     * AGGIORNA I CONTATORI DOPO IL COMMIT DI UNA CREAZIONE, MODIFICA O CANCELLAZIONE
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventoModificato(EventoModificatoEvent evento) {
+        if (evento.getPrima() != null) {
+            contatore(Chiave.di(evento.getPrima())).decrement();
+        }
+        if (evento.getDopo() != null) {
+            contatore(Chiave.di(evento.getDopo())).increment();
+        }
+    }
+
+    /**
+     * RICONCILIA I CONTATORI CON IL DATABASE (all'avvio e poi periodicamente)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${eventi.stats.riconciliazione-ms:600000}",
+            fixedDelayString = "${eventi.stats.riconciliazione-ms:600000}")
+    public void riconcilia() {
+        riconciliazioneLock.lock();
+        try {
+            riconciliaContatori();
+        } finally {
+            riconciliazioneLock.unlock();
+        }
+    }
+
+    private void riconciliaContatori() {
+        long inizio = System.nanoTime();
+
+        Map<Chiave, Long> prima = fotografia();
+        Map<Chiave, Long> database = new HashMap<>();
+        for (EventoConteggioMensile riga : eventoJdbcRepository.findConteggiMensili()) {
+            Chiave chiave = new Chiave(riga.tipologiaId(), YearMonth.of(riga.anno(), riga.mese()), riga.giornaliero());
+            database.merge(chiave, riga.eventi(), Long::sum);
+        }
+        Map<Chiave, Long> dopo = fotografia();
+
+        Set<Chiave> chiavi = new HashSet<>(database.keySet());
+        chiavi.addAll(dopo.keySet());
+        int corretti = 0;
+        int rimandati = 0;
+        for (Chiave chiave : chiavi) {
+            long valorePrima = prima.getOrDefault(chiave, 0L);
+            long valoreDopo = dopo.getOrDefault(chiave, 0L);
+            if (valorePrima != valoreDopo) {
+                rimandati++;
+                continue;
+            }
+            long differenza = database.getOrDefault(chiave, 0L) - valoreDopo;
+            if (differenza != 0) {
+                contatore(chiave).add(differenza);
+                corretti++;
+            }
+        }
+        // Al primo giro i contatori partono da zero: le "correzioni" sono il caricamento iniziale
+        boolean primoCaricamento = ultimaRiconciliazione == null;
+        ultimaRiconciliazione = Instant.now();
+
+        if (!primoCaricamento && corretti > 0) {
+            logger.warn("Statistiche eventi: {} contatori corretti dalla riconciliazione", corretti);
+        }
+        logger.info("Statistiche eventi riconciliate: {} contatori, {} rimandati al prossimo giro ({} ms)",
+                chiavi.size(), rimandati, (System.nanoTime() - inizio) / 1_000_000);
+    }
+
+    private LongAdder contatore(Chiave chiave) {
+        return contatori.computeIfAbsent(chiave, k -> new LongAdder());
+    }
+
+    private Map<Chiave, Long> fotografia() {
+        Map<Chiave, Long> valori = new HashMap<>(contatori.size() * 2);
+        contatori.forEach((chiave, contatore) -> valori.put(chiave, contatore.sum()));
+        return valori;
+    }
+}
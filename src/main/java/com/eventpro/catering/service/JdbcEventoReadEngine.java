@@ -0,0 +1,48 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * MOTORE DI LETTURA JDBC (SENZA HIBERNATE)
+ *
+ * Delega a EventoJdbcRepository: una query con JOIN per pagina,
+ * nessuna entity managed, DTO costruiti direttamente dal ResultSet.
+ */
+@Component
+public class JdbcEventoReadEngine implements EventoReadEngine {
+
+    public static final String NOME = "jdbc";
+
+    private final EventoJdbcRepository eventoJdbcRepository;
+
+    public JdbcEventoReadEngine(EventoJdbcRepository eventoJdbcRepository) {
+        this.eventoJdbcRepository = eventoJdbcRepository;
+    }
+
+    @Override
+    public String nome() {
+        return NOME;
+    }
+
+    @Override
+    public List<EventoResponseDTO> findByData(LocalDate data) {
+        return eventoJdbcRepository.findByData(data);
+    }
+
+    @Override
+    public List<EventoResponseDTO> findFirstPage(int limit) {
+        return eventoJdbcRepository.findFirstPage(limit);
+    }
+
+    @Override
+    public List<EventoResponseDTO> findPageAfter(EventoCursor after, int limit) {
+        return eventoJdbcRepository.findPageAfter(
+                after.getData(), after.getOraInizio(), after.getId(), limit);
+    }
+}
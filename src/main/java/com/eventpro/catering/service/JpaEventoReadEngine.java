@@ -0,0 +1,58 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * MOTORE DI LETTURA JPA
+ *
+ * Legge le entity Evento tramite EventoRepository e le converte in DTO con EventoMapper.
+ */
+@Component
+public class JpaEventoReadEngine implements EventoReadEngine {
+
+    public static final String NOME = "jpa";
+
+    private final EventoRepository eventoRepository;
+    private final EventoMapper eventoMapper;
+
+    public JpaEventoReadEngine(EventoRepository eventoRepository, EventoMapper eventoMapper) {
+        this.eventoRepository = eventoRepository;
+        this.eventoMapper = eventoMapper;
+    }
+
+    @Override
+    public String nome() {
+        return NOME;
+    }
+
+    @Override
+    public List<EventoResponseDTO> findByData(LocalDate data) {
+        return eventoRepository.findByDataOrderByOraInizioAscIdAsc(data).stream()
+                .map(eventoMapper::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<EventoResponseDTO> findFirstPage(int limit) {
+        return eventoRepository.findAllByOrderByDataAscOraInizioAscIdAsc(Limit.of(limit)).stream()
+                .map(eventoMapper::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<EventoResponseDTO> findPageAfter(EventoCursor after, int limit) {
+        return eventoRepository.findPageAfter(
+                        after.getData(), after.getOraInizio(), after.getId(), Limit.of(limit))
+                .stream()
+                .map(eventoMapper::toResponseDTO)
+                .collect(Collectors.toList());
+    }
+}
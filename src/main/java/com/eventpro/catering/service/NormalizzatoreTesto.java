@@ -0,0 +1,111 @@
+package com.eventpro.catering.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * NORMALIZZAZIONE E TOKENIZZAZIONE DEL TESTO (ITALIANO)
+ *
+ * Trasforma un testo libero (nome, location, note di un evento, oppure la
+ * query di ricerca) nella lista di "termini" usati da EventoSearchIndex.
+ * Indice e query passano dalla STESSA funzione, quindi si confrontano sempre
+ * termini normalizzati allo stesso modo.
+ *
+ * PASSAGGI:
+ * 1. Minuscolo (Locale italiano)
+ * 2. Accenti rimossi: "caffè" → "caffe", "città" → "citta", "perché" → "perche"
+ *    (così "citta" trova anche "Città" e viceversa)
+ * 3. Divisione su tutto ciò che non è lettera o cifra: spazi, punteggiatura e
+ *    apostrofi dell'elisione ("dell'Hotel" → "dell", "hotel"; vale anche per ’)
+ * 4. Scarto di termini di una lettera e delle parole vuote italiane
+ *    (articoli, preposizioni semplici e articolate, congiunzioni)
+ *
+ * ESEMPIO:
+ * termini("Cena all'Hotel Città di Roma") → [cena, hotel, citta, roma]
+ */
+final class NormalizzatoreTesto {
+
+    private static final Pattern DIACRITICI = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORI = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> PAROLE_VUOTE = Set.of(
+            // articoli
+            "il", "lo", "la", "gli", "le", "un", "uno", "una",
+            // preposizioni semplici
+            "di", "da", "in", "con", "su", "per", "tra", "fra",
+            // preposizioni articolate (anche nella forma elisa: dell', nell', ...)
+            "del", "dello", "della", "dei", "degli", "delle", "dell",
+            "al", "allo", "alla", "ai", "agli", "alle", "all",
+            "dal", "dallo", "dalla", "dai", "dagli", "dalle", "dall",
+            "nel", "nello", "nella", "nei", "negli", "nelle", "nell",
+            "sul", "sullo", "sulla", "sui", "sugli", "sulle", "sull",
+            // congiunzioni e altre parole frequenti
+            "ed", "che", "non", "ma", "se", "quest", "quell"
+    );
+
+    private NormalizzatoreTesto() {
+    }
+
+    /**
+     * TERMINI DI UN TESTO, SENZA DUPLICATI, NELL'ORDINE IN CUI COMPAIONO
+     *
+     * @param testo Testo libero (può essere null)
+     * @return Termini normalizzati (lista vuota se non ce ne sono)
+     */
+    static List<String> termini(String testo) {
+        if (testo == null || testo.isBlank()) {
+            return List.of();
+        }
+        String normalizzato = Normalizer.normalize(testo.toLowerCase(Locale.ITALIAN), Normalizer.Form.NFD);
+        normalizzato = DIACRITICI.matcher(normalizzato).replaceAll("");
+
+        Set<String> termini = new LinkedHashSet<>();
+        for (String parola : SEPARATORI.split(normalizzato)) {
+            if (parola.length() > 1 && !PAROLE_VUOTE.contains(parola)) {
+                termini.add(parola);
+            }
+        }
+        return new ArrayList<>(termini);
+    }
+
+    /**
+     * FORMA CANONICA DI UN TESTO BREVE, DA USARE COME CHIAVE
+     *
+     * Come termini() ma senza scartare nulla: minuscolo, senza accenti,
+     * punteggiatura e spazi multipli ridotti a uno spazio.
+     *
+     * ESEMPIO: chiave("Villa Roma,  Via dei Fiori 123") → "villa roma via dei fiori 123"
+     *
+     * @param testo Testo libero (può essere null)
+     * @return Testo normalizzato ("" se null o vuoto)
+     */
+    static String chiave(String testo) {
+        if (testo == null || testo.isBlank()) {
+            return "";
+        }
+        String normalizzato = Normalizer.normalize(testo.toLowerCase(Locale.ITALIAN), Normalizer.Form.NFD);
+        normalizzato = DIACRITICI.matcher(normalizzato).replaceAll("");
+        return SEPARATORI.matcher(normalizzato).replaceAll(" ").trim();
+    }
+
+    /**
+     * TRIGRAMMI DI UN TERMINE (sequenze di 3 caratteri consecutivi)
+     *
+     * ESEMPIO: trigrammi("roma") → [rom, oma]
+     *
+     * @param termine Termine già normalizzato
+     * @return Trigrammi distinti (vuoto se il termine ha meno di 3 caratteri)
+     */
+    static Set<String> trigrammi(String termine) {
+        Set<String> trigrammi = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= termine.length(); i++) {
+            trigrammi.add(termine.substring(i, i + 3));
+        }
+        return trigrammi;
+    }
+}
@@ -0,0 +1,48 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.model.TipologiaEvento;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * LISTENER JPA CHE TIENE AGGIORNATO IL TipologiaEventoRegistry
+ *
+ * Registrato su TipologiaEvento con @EntityListeners. Hibernate lo crea
+ * tramite Spring, quindi può ricevere bean nel costruttore.
+ *
+ * COME FUNZIONA:
+ * 1. Una tipologia viene inserita, modificata o eliminata
+ * 2. Il listener NON ricarica subito: la transazione potrebbe ancora fallire
+ * 3. Registra una callback che ricarica il registro DOPO il commit
+ *
+ * ObjectProvider: il registro dipende dal repository, che dipende da
+ * Hibernate; risolverlo solo quando serve evita una dipendenza circolare.
+ */
+public class TipologiaEventoListener {
+
+    private final ObjectProvider<TipologiaEventoRegistry> registry;
+
+    public TipologiaEventoListener(ObjectProvider<TipologiaEventoRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void tipologiaModificata(TipologiaEvento tipologia) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registry.ifAvailable(TipologiaEventoRegistry::ricarica);
+                }
+            });
+        } else {
+            registry.ifAvailable(TipologiaEventoRegistry::ricarica);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.dto.TipologiaEventoResponseDTO;
+import com.eventpro.catering.model.TipologiaEvento;
+import com.eventpro.catering.repository.TipologiaEventoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * REGISTRO IN MEMORIA DELLE TIPOLOGIE EVENTO
+ *
+ * La tabella TIPOLOGIA_EVENTO contiene pochi record di riferimento che
+ * cambiano raramente. Invece di leggerla dal database a ogni evento creato
+ * o convertito in DTO, viene caricata tutta in memoria all'avvio.
+ *
+ * COME FUNZIONA:
+ * 1. All'avvio legge tutte le tipologie e costruisce uno "snapshot" immutabile
+ *    (mappe per id, lista ordinata, ETag)
+ * 2. Le letture usano lo snapshot corrente: nessuna query, nessun lock
+ * 3. Quando una tipologia viene salvata o eliminata, TipologiaEventoListener
+ *    chiama ricarica() dopo il commit: viene costruito un NUOVO snapshot e
+ *    sostituito in un colpo solo (campo volatile)
+ *
+ * Chi sta leggendo durante una ricarica vede il vecchio snapshot completo
+ * o quello nuovo completo, mai uno stato a metà.
+ */
+@Component
+public class TipologiaEventoRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TipologiaEventoRegistry.class);
+
+    private final TipologiaEventoRepository tipologiaEventoRepository;
+
+    private final ReentrantLock ricaricaLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.vuoto();
+
+    public TipologiaEventoRegistry(TipologiaEventoRepository tipologiaEventoRepository) {
+        this.tipologiaEventoRepository = tipologiaEventoRepository;
+    }
+
+    /**
+     * Carica le tipologie all'avvio dell'applicazione
+     */
+    @PostConstruct
+    void caricaAllAvvio() {
+        ricarica();
+    }
+
+    /**
+     * RICARICA IL REGISTRO DAL DATABASE
+     *
+     * Legge tutte le tipologie e sostituisce lo snapshot corrente.
+     * Il lock impedisce che due ricariche concorrenti si sovrappongano
+     * (l'ultima a finire vede sempre lo stato più recente). È un
+     * ReentrantLock e non synchronized: la query dentro un blocco synchronized
+     * bloccherebbe ("pinned") anche il carrier di un thread virtuale.
+     *
+     * REQUIRES_NEW: viene chiamato dopo il commit di un'altra transazione,
+     * quindi legge in una transazione propria.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void ricarica() {
+        ricaricaLock.lock();
+        try {
+            List<TipologiaEvento> tipologie = tipologiaEventoRepository.findAll();
+            this.snapshot = Snapshot.di(tipologie);
+            logger.info("Registro tipologie evento caricato: {} tipologie (ETag {})",
+                    tipologie.size(), snapshot.etag);
+        } finally {
+            ricaricaLock.unlock();
+        }
+    }
+
+    /**
+     * SNAPSHOT CORRENTE
+     *
+     * Da usare quando servono più valori coerenti tra loro (es. lista + ETag):
+     * due chiamate separate potrebbero leggere snapshot diversi.
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * TUTTE LE TIPOLOGIE, ORDINATE PER NOME
+     *
+     * @return Lista immutabile
+     */
+    public List<TipologiaEventoResponseDTO> getTutte() {
+        return snapshot.ordinate;
+    }
+
+    /**
+     * TROVA UNA TIPOLOGIA PER ID (SENZA QUERY)
+     *
+     * @param id ID della tipologia
+     * @return La tipologia, se esiste
+     */
+    public Optional<TipologiaEventoResponseDTO> findById(Long id) {
+        return Optional.ofNullable(snapshot.perId.get(id));
+    }
+
+    /**
+     * VERIFICA SE UNA TIPOLOGIA ESISTE (SENZA QUERY)
+     */
+    public boolean esiste(Long id) {
+        return snapshot.perId.containsKey(id);
+    }
+
+    /**
+     * DTO SINTETICO (id, nome) DA ANNIDARE IN EventoResponseDTO
+     *
+     * L'istanza è condivisa: non va modificata.
+     *
+     * @param id ID della tipologia
+     * @return Il DTO, oppure null se la tipologia non è nel registro
+     */
+    public EventoResponseDTO.TipologiaEventoDTO getTipologiaEventoDTO(Long id) {
+        return snapshot.sintetichePerId.get(id);
+    }
+
+    /**
+     * ETAG DEL CONTENUTO ATTUALE
+     *
+     * Cambia solo se cambia almeno una tipologia (id, nome o descrizione).
+     *
+     * @return ETag forte, già tra virgolette
+     */
+    public String getEtag() {
+        return snapshot.etag;
+    }
+
+    /**
+     * FOTOGRAFIA IMMUTABILE DEL REGISTRO
+     */
+    public static final class Snapshot {
+
+        private final Map<Long, TipologiaEventoResponseDTO> perId;
+        private final Map<Long, EventoResponseDTO.TipologiaEventoDTO> sintetichePerId;
+        private final List<TipologiaEventoResponseDTO> ordinate;
+        private final String etag;
+
+        private Snapshot(Map<Long, TipologiaEventoResponseDTO> perId,
+                         Map<Long, EventoResponseDTO.TipologiaEventoDTO> sintetichePerId,
+                         List<TipologiaEventoResponseDTO> ordinate,
+                         String etag) {
+            this.perId = perId;
+            this.sintetichePerId = sintetichePerId;
+            this.ordinate = ordinate;
+            this.etag = etag;
+        }
+
+        /**
+         * Tipologie ordinate per nome (lista immutabile)
+         */
+        public List<TipologiaEventoResponseDTO> getTutte() {
+            return ordinate;
+        }
+
+        /**
+         * ETag forte del contenuto, già tra virgolette
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        static Snapshot vuoto() {
+            return di(List.of());
+        }
+
+        static Snapshot di(List<TipologiaEvento> tipologie) {
+            List<TipologiaEventoResponseDTO> ordinate = tipologie.stream()
+                    .map(t -> new TipologiaEventoResponseDTO(t.getId(), t.getNome(), t.getDescrizione()))
+                    .sorted(Comparator.comparing(TipologiaEventoResponseDTO::getNome)
+                            .thenComparing(TipologiaEventoResponseDTO::getId))
+                    .toList();
+
+            Map<Long, TipologiaEventoResponseDTO> perId = new LinkedHashMap<>();
+            Map<Long, EventoResponseDTO.TipologiaEventoDTO> sintetichePerId = new LinkedHashMap<>();
+            StringBuilder contenuto = new StringBuilder();
+            for (TipologiaEventoResponseDTO t : ordinate) {
+                perId.put(t.getId(), t);
+                sintetichePerId.put(t.getId(), new EventoResponseDTO.TipologiaEventoDTO(t.getId(), t.getNome()));
+                contenuto.append(t.getId()).append('|')
+                        .append(t.getNome()).append('|')
+                        .append(t.getDescrizione()).append('\n');
+            }
+
+            String etag = '"' + DigestUtils.md5DigestAsHex(
+                    contenuto.toString().getBytes(StandardCharsets.UTF_8)) + '"';
+
+            return new Snapshot(Map.copyOf(perId), Map.copyOf(sintetichePerId), ordinate, etag);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- ============================================================================
+-- V1: SCHEMA INIZIALE (H2)
+-- ============================================================================
+-- Stesse tabelle della versione MySQL (db/migration/mysql/V1__schema_iniziale.sql).
+-- Il database H2 è in memoria: a ogni avvio Flyway riparte da qui.
+-- ============================================================================
+
+CREATE TABLE cliente (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(100),
+    cognome VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE tipologia_evento (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    descrizione VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_tipologia_evento_nome UNIQUE (nome)
+);
+
+CREATE TABLE evento (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(200) NOT NULL,
+    data DATE NOT NULL,
+    ora_inizio TIME NOT NULL,
+    ora_fine TIME NOT NULL,
+    location VARCHAR(300) NOT NULL,
+    note TEXT,
+    evento_giornaliero BOOLEAN DEFAULT FALSE NOT NULL,
+    tipologia_evento_id BIGINT NOT NULL,
+    cliente_id BIGINT,
+    versione BIGINT DEFAULT 0 NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_evento_tipologia FOREIGN KEY (tipologia_evento_id)
+        REFERENCES tipologia_evento (id) ON DELETE RESTRICT,
+    CONSTRAINT fk_evento_cliente FOREIGN KEY (cliente_id)
+        REFERENCES cliente (id) ON DELETE SET NULL
+);
+
+CREATE TABLE utente (
+    id BIGINT NOT NULL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_utente_email UNIQUE (email)
+);
@@ -0,0 +1,14 @@
+-- ============================================================================
+-- V2: INDICI SULLA TABELLA EVENTO (H2)
+-- ============================================================================
+-- Stessi indici, con gli stessi nomi e le stesse colonne, della versione MySQL:
+-- il motivo di ciascuno è spiegato in db/migration/mysql/V2__indici_evento.sql.
+-- I nomi contano: VerificaIndiciDatabase li controlla all'avvio.
+-- ============================================================================
+
+CREATE INDEX idx_evento_lista ON evento
+    (data, ora_inizio, id, ora_fine, evento_giornaliero, tipologia_evento_id, versione, nome, location);
+
+CREATE INDEX idx_evento_tipologia ON evento (tipologia_evento_id, data);
+
+CREATE INDEX idx_evento_location ON evento (location, data);
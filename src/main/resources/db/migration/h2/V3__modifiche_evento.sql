@@ -0,0 +1,29 @@
+-- ============================================================================
+-- V3: TRACCIAMENTO DELLE MODIFICHE AGLI EVENTI (H2)
+-- ============================================================================
+-- Stesse colonne, tabelle e indici della versione MySQL: il significato di
+-- ciascuno è spiegato in db/migration/mysql/V3__modifiche_evento.sql.
+-- ============================================================================
+
+ALTER TABLE evento ADD COLUMN versione_modifica BIGINT DEFAULT 1 NOT NULL;
+ALTER TABLE evento ADD COLUMN updated_at TIMESTAMP;
+
+UPDATE evento SET updated_at = created_at;
+
+CREATE INDEX idx_evento_modifica ON evento (versione_modifica, id);
+
+CREATE TABLE contatore_modifiche (
+    nome VARCHAR(50) NOT NULL PRIMARY KEY,
+    valore BIGINT NOT NULL
+);
+
+INSERT INTO contatore_modifiche (nome, valore) VALUES ('evento', 1);
+
+CREATE TABLE evento_eliminato (
+    id BIGINT NOT NULL PRIMARY KEY,
+    data DATE NOT NULL,
+    versione_modifica BIGINT NOT NULL,
+    eliminato_il TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_evento_eliminato_modifica ON evento_eliminato (versione_modifica, id);
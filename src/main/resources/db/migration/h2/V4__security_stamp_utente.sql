@@ -0,0 +1,9 @@
+-- ============================================================================
+-- V4: SECURITY STAMP E ABILITAZIONE DEGLI UTENTI (H2)
+-- ============================================================================
+-- Stesse colonne della versione MySQL: il significato è spiegato in
+-- db/migration/mysql/V4__security_stamp_utente.sql.
+-- ============================================================================
+
+ALTER TABLE utente ADD COLUMN security_stamp BIGINT DEFAULT 1 NOT NULL;
+ALTER TABLE utente ADD COLUMN abilitato BOOLEAN DEFAULT TRUE NOT NULL;
@@ -0,0 +1,14 @@
+-- ============================================================================
+-- V5: TOKEN JWT REVOCATI (LOGOUT) (H2)
+-- ============================================================================
+-- Stessa tabella della versione MySQL: il significato delle colonne è
+-- spiegato in db/migration/mysql/V5__token_revocato.sql.
+-- ============================================================================
+
+CREATE TABLE token_revocato (
+    jti VARCHAR(64) NOT NULL PRIMARY KEY,
+    scadenza TIMESTAMP NOT NULL,
+    revocato_il TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_token_revocato_scadenza ON token_revocato (scadenza);
@@ -0,0 +1,10 @@
+-- ============================================================================
+-- V6: PULIZIA DEI TOMBSTONE (H2)
+-- ============================================================================
+-- Stessa riga e stesso indice della versione MySQL: il significato è
+-- spiegato in db/migration/mysql/V6__pulizia_tombstone.sql.
+-- ============================================================================
+
+INSERT INTO contatore_modifiche (nome, valore) VALUES ('evento-eliminati-rimossi', 0);
+
+CREATE INDEX idx_evento_eliminato_il ON evento_eliminato (eliminato_il);
@@ -0,0 +1,20 @@
+-- ============================================================================
+-- V1.1: ID TSID SUI DATABASE CREATI CON AUTO_INCREMENT
+-- ============================================================================
+-- I database creati con la vecchia versione dello script manuale hanno
+-- "id BIGINT AUTO_INCREMENT": qui lo togliamo, perché gli id li assegna
+-- l'applicazione (@Tsid). Sui database creati da V1 non cambia nulla.
+--
+-- Le righe esistenti tengono il loro id: i TSID generati sono sempre
+-- maggiori di 10^17, quindi non collidono e restano ordinati dopo.
+-- ============================================================================
+
+-- MySQL non modifica colonne referenziate da foreign key con i controlli attivi
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE cliente MODIFY id BIGINT NOT NULL;
+ALTER TABLE tipologia_evento MODIFY id BIGINT NOT NULL;
+ALTER TABLE evento MODIFY id BIGINT NOT NULL;
+ALTER TABLE utente MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,31 @@
+-- ============================================================================
+-- V1.2: COLONNA "VERSIONE" SUI DATABASE CREATI CON LO SCRIPT MANUALE
+-- ============================================================================
+-- I database creati con il vecchio schema_sql_test_login_local.sql vengono
+-- registrati da Flyway come baseline (versione 1) e V1 non gira mai su di
+-- loro: la tabella evento resta senza "versione" (@Version di Evento, ETag).
+-- Senza questa migrazione V2 fallirebbe creando idx_evento_lista, e anche
+-- ddl-auto=validate rifiuterebbe lo schema.
+--
+-- Lo script manuale è stato aggiornato a metà strada con la colonna già
+-- presente: per questo la si aggiunge SOLO se manca (MySQL 8 non ha
+-- "ADD COLUMN IF NOT EXISTS"). Sui database creati da V1 non cambia nulla.
+--
+-- Le altre colonne aggiunte dopo V1 (versione_modifica, updated_at,
+-- security_stamp, abilitato) e le tabelle nuove arrivano già con ALTER /
+-- CREATE nelle migrazioni V3, V4 e V5.
+-- ============================================================================
+
+SET @manca_versione = (SELECT COUNT(*) = 0
+                       FROM information_schema.columns
+                       WHERE table_schema = DATABASE()
+                         AND table_name = 'evento'
+                         AND column_name = 'versione');
+
+SET @sql = IF(@manca_versione,
+              'ALTER TABLE evento ADD COLUMN versione BIGINT NOT NULL DEFAULT 0',
+              'DO 0');
+
+PREPARE aggiungi_versione FROM @sql;
+EXECUTE aggiungi_versione;
+DEALLOCATE PREPARE aggiungi_versione;
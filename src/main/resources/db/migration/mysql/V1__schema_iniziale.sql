@@ -0,0 +1,54 @@
+-- ============================================================================
+-- V1: SCHEMA INIZIALE (MYSQL)
+-- ============================================================================
+-- Stesso schema dello script manuale schema_sql_test_login_local.sql,
+-- già con gli id TSID (nessun AUTO_INCREMENT).
+--
+-- DATABASE GIÀ ESISTENTI:
+-- se il database "catering" contiene già le tabelle (create a mano con lo
+-- script), Flyway NON esegue questo file: lo registra come "baseline"
+-- (spring.flyway.baseline-on-migrate=true) e applica solo le versioni successive.
+-- ============================================================================
+
+CREATE TABLE cliente (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(100),
+    cognome VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE = InnoDB;
+
+CREATE TABLE tipologia_evento (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    descrizione VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_tipologia_evento_nome UNIQUE (nome)
+) ENGINE = InnoDB;
+
+CREATE TABLE evento (
+    id BIGINT NOT NULL PRIMARY KEY,
+    nome VARCHAR(200) NOT NULL,
+    data DATE NOT NULL,
+    ora_inizio TIME NOT NULL,
+    ora_fine TIME NOT NULL,
+    location VARCHAR(300) NOT NULL,
+    note TEXT,
+    evento_giornaliero BOOLEAN NOT NULL DEFAULT FALSE,
+    tipologia_evento_id BIGINT NOT NULL,
+    cliente_id BIGINT,
+    versione BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_evento_tipologia FOREIGN KEY (tipologia_evento_id)
+        REFERENCES tipologia_evento (id) ON DELETE RESTRICT,
+    CONSTRAINT fk_evento_cliente FOREIGN KEY (cliente_id)
+        REFERENCES cliente (id) ON DELETE SET NULL
+) ENGINE = InnoDB;
+
+CREATE TABLE utente (
+    id BIGINT NOT NULL PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_utente_email UNIQUE (email)
+) ENGINE = InnoDB;
@@ -0,0 +1,33 @@
+-- ============================================================================
+-- V2: INDICI SULLA TABELLA EVENTO
+-- ============================================================================
+-- Senza questi indici findByData, findByDataBetween, la lista ordinata e la
+-- paginazione a cursore leggono tutta la tabella (full scan + filesort).
+--
+-- idx_evento_lista (data, ora_inizio, id, ora_fine, evento_giornaliero,
+--                   tipologia_evento_id, versione, nome, location)
+--   - I primi tre campi sono esattamente l'ORDER BY di tutte le liste
+--     → WHERE data = ?, WHERE data BETWEEN ? AND ?, keyset (data, ora_inizio, id) > ?
+--       usano l'indice e leggono le righe già in ordine (niente filesort)
+--   - Serve anche come indice su "data" e su "(data, ora_inizio)": un indice
+--     separato su quei soli campi sarebbe un prefisso di questo, quindi ridondante
+--   - Gli altri campi rendono l'indice "coprente" per la proiezione della lista:
+--     tutte le colonne lette sono nell'indice tranne "note" (TEXT, non indicizzabile
+--     per intero in MySQL), che viene letta solo per le righe della pagina
+--   - Dimensione della chiave: (200 + 300) caratteri utf8mb4 + colonne fisse,
+--     sotto il limite di 3072 byte di InnoDB
+--
+-- idx_evento_tipologia (tipologia_evento_id, data)
+--   - findByTipologiaEvento e filtri per tipologia in un intervallo di date
+--   - Sostituisce l'indice creato automaticamente da MySQL per la foreign key
+--
+-- idx_evento_location (location, data)
+--   - Eventi nella stessa sala nello stesso giorno (controlli di sovrapposizione)
+-- ============================================================================
+
+CREATE INDEX idx_evento_lista ON evento
+    (data, ora_inizio, id, ora_fine, evento_giornaliero, tipologia_evento_id, versione, nome, location);
+
+CREATE INDEX idx_evento_tipologia ON evento (tipologia_evento_id, data);
+
+CREATE INDEX idx_evento_location ON evento (location, data);
@@ -0,0 +1,53 @@
+-- ============================================================================
+-- V3: TRACCIAMENTO DELLE MODIFICHE AGLI EVENTI (SINCRONIZZAZIONE DELTA)
+-- ============================================================================
+-- GET /api/eventi/changes?since=<versione> restituisce solo gli eventi
+-- creati, modificati o eliminati dopo quella versione.
+--
+-- evento.versione_modifica
+--   - numero crescente condiviso da TUTTI gli eventi (non per evento come
+--     "versione"): ogni transazione che scrive eventi prende il valore
+--     successivo di contatore_modifiche e lo assegna alle righe che tocca
+--   - le righe già presenti partono da 1 (la versione iniziale del contatore)
+--
+-- evento.updated_at
+--   - ora dell'ultima modifica (created_at esisteva già, ora è mappata)
+--
+-- contatore_modifiche
+--   - una riga per contatore ("evento"). UPDATE valore = valore + 1 blocca
+--     la riga fino al commit: le transazioni che scrivono eventi ottengono le
+--     versioni nello stesso ordine in cui fanno commit, quindi chi legge
+--     "tutte le versioni <= N" non può perdere una transazione ancora aperta
+--
+-- evento_eliminato (tombstone)
+--   - id, data e versione_modifica degli eventi cancellati, per comunicare
+--     la cancellazione ai client che sincronizzano dopo
+--
+-- idx_evento_modifica / idx_evento_eliminato_modifica
+--   - WHERE versione_modifica > ? ORDER BY versione_modifica, id: la query
+--     delle modifiche legge solo le righe nuove, già in ordine
+-- ============================================================================
+
+ALTER TABLE evento
+    ADD COLUMN versione_modifica BIGINT NOT NULL DEFAULT 1,
+    ADD COLUMN updated_at TIMESTAMP NULL;
+
+UPDATE evento SET updated_at = created_at;
+
+CREATE INDEX idx_evento_modifica ON evento (versione_modifica, id);
+
+CREATE TABLE contatore_modifiche (
+    nome VARCHAR(50) NOT NULL PRIMARY KEY,
+    valore BIGINT NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO contatore_modifiche (nome, valore) VALUES ('evento', 1);
+
+CREATE TABLE evento_eliminato (
+    id BIGINT NOT NULL PRIMARY KEY,
+    data DATE NOT NULL,
+    versione_modifica BIGINT NOT NULL,
+    eliminato_il TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_evento_eliminato_modifica ON evento_eliminato (versione_modifica, id);
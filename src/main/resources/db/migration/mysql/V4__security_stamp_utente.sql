@@ -0,0 +1,21 @@
+-- ============================================================================
+-- V4: SECURITY STAMP E ABILITAZIONE DEGLI UTENTI
+-- ============================================================================
+-- Le richieste autenticate non rileggono più l'utente dal database: ruoli e
+-- id arrivano dal token JWT. Per poter comunque revocare i token quando
+-- cambia qualcosa di importante:
+--
+-- utente.security_stamp
+--   - numero scritto nel token al login (claim "stamp")
+--   - cresce a ogni cambio di ruolo, password o abilitazione: i token con lo
+--     stamp vecchio vengono rifiutati
+--   - chi aggiorna ruolo/password/abilitato con SQL diretto deve fare anche
+--     security_stamp = security_stamp + 1
+--
+-- utente.abilitato
+--   - false = niente login e token già emessi rifiutati
+-- ============================================================================
+
+ALTER TABLE utente
+    ADD COLUMN security_stamp BIGINT NOT NULL DEFAULT 1,
+    ADD COLUMN abilitato BOOLEAN NOT NULL DEFAULT TRUE;
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- V5: TOKEN JWT REVOCATI (LOGOUT)
+-- ============================================================================
+-- Ogni token ha un id (claim "jti"). POST /api/auth/logout scrive qui l'id
+-- del token e la sua scadenza; all'avvio la tabella viene ricaricata in
+-- memoria (TokenRevocationService) e le richieste non la leggono mai.
+--
+-- scadenza
+--   - dopo questa data il token verrebbe comunque rifiutato: la riga non
+--     serve più e viene cancellata dalla pulizia periodica
+--
+-- idx_token_revocato_scadenza
+--   - WHERE scadenza > ? (ricarica) e WHERE scadenza <= ? (pulizia)
+-- ============================================================================
+
+CREATE TABLE token_revocato (
+    jti VARCHAR(64) NOT NULL PRIMARY KEY,
+    scadenza TIMESTAMP NOT NULL,
+    revocato_il TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_token_revocato_scadenza ON token_revocato (scadenza);
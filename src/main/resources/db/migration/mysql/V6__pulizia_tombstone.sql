@@ -0,0 +1,21 @@
+-- ============================================================================
+-- V6: PULIZIA DEI TOMBSTONE (evento_eliminato)
+-- ============================================================================
+-- I tombstone servono solo ai client che sincronizzano con una since
+-- precedente alla cancellazione. Quelli più vecchi di
+-- "eventi.modifiche.conservazione-tombstone-giorni" vengono cancellati dalla
+-- pulizia periodica (EventoModificheService.pulisciTombstone).
+--
+-- contatore_modifiche, riga "evento-eliminati-rimossi"
+--   - versione di modifica più alta tra i tombstone cancellati: sono
+--     conservati tutti quelli con versione maggiore. Un client con una since
+--     più bassa potrebbe aver perso delle cancellazioni e riceve un invio
+--     completo (completa = true)
+--
+-- idx_evento_eliminato_il
+--   - WHERE eliminato_il < ? della pulizia, senza leggere tutta la tabella
+-- ============================================================================
+
+INSERT INTO contatore_modifiche (nome, valore) VALUES ('evento-eliminati-rimossi', 0);
+
+CREATE INDEX idx_evento_eliminato_il ON evento_eliminato (eliminato_il);
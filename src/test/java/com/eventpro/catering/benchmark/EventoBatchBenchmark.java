@@ -0,0 +1,108 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.dto.EventoBatchResponseDTO;
+import com.eventpro.catering.dto.EventoRequestDTO;
+import com.eventpro.catering.service.EventoService;
+import com.eventpro.catering.service.TipologiaEventoRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BENCHMARK: CREAZIONE EVENTI SINGOLA vs BATCH
+ *
+ * Confronta le righe al secondo di:
+ * - createEvento chiamato N volte (una transazione per evento, come N POST /api/eventi)
+ * - createEventiBatch a blocchi (una transazione per richiesta, batch JDBC)
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=EventoBatchBenchmark -Dspring.profiles.active=h2
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.eventpro.catering=INFO"
+})
+@ActiveProfiles("h2")
+class EventoBatchBenchmark {
+
+    private static final int EVENTI = 5_000;
+    private static final int DIMENSIONE_RICHIESTA = 1_000;
+
+    // Ogni evento ha una location diversa: il benchmark misura l'inserimento, non i conflitti
+    private static final AtomicInteger LOCATION = new AtomicInteger();
+
+    @Autowired
+    private EventoService eventoService;
+
+    @Autowired
+    private TipologiaEventoRegistry tipologiaEventoRegistry;
+
+    @Test
+    void confrontaInserimenti() {
+        Long tipologiaId = tipologiaEventoRegistry.getTutte().get(0).getId();
+
+        // Riscaldamento (JIT, connessioni, statement cache)
+        for (int i = 0; i < 200; i++) {
+            eventoService.createEvento(richiesta(i, tipologiaId));
+        }
+        eventoService.createEventiBatch(richieste(0, 200, tipologiaId));
+
+        // Inserimento singolo
+        long inizio = System.nanoTime();
+        for (int i = 0; i < EVENTI; i++) {
+            eventoService.createEvento(richiesta(i, tipologiaId));
+        }
+        long singolo = System.nanoTime() - inizio;
+
+        // Inserimento batch
+        inizio = System.nanoTime();
+        int creati = 0;
+        for (int da = 0; da < EVENTI; da += DIMENSIONE_RICHIESTA) {
+            EventoBatchResponseDTO esito = eventoService.createEventiBatch(
+                    richieste(da, DIMENSIONE_RICHIESTA, tipologiaId));
+            creati += esito.getCreati();
+        }
+        long batch = System.nanoTime() - inizio;
+        assertEquals(EVENTI, creati);
+
+        System.out.println();
+        System.out.printf("%-36s %12s %14s%n", "percorso", "ms totali", "righe/sec");
+        System.out.printf("%-36s %12d %14.0f%n", "createEvento x " + EVENTI,
+                singolo / 1_000_000, EVENTI / (singolo / 1e9));
+        System.out.printf("%-36s %12d %14.0f%n", "createEventiBatch (" + DIMENSIONE_RICHIESTA + "/richiesta)",
+                batch / 1_000_000, EVENTI / (batch / 1e9));
+        System.out.println();
+    }
+
+    private static List<EventoRequestDTO> richieste(int da, int quante, Long tipologiaId) {
+        List<EventoRequestDTO> richieste = new ArrayList<>(quante);
+        for (int i = da; i < da + quante; i++) {
+            richieste.add(richiesta(i, tipologiaId));
+        }
+        return richieste;
+    }
+
+    private static EventoRequestDTO richiesta(int i, Long tipologiaId) {
+        EventoRequestDTO richiesta = new EventoRequestDTO();
+        richiesta.setNome("Evento batch " + i);
+        richiesta.setData(LocalDate.of(2032, 1, 1).plusDays(i % 365));
+        richiesta.setOraInizio(LocalTime.of(9, 0));
+        richiesta.setOraFine(LocalTime.of(13, 0));
+        richiesta.setLocation("Sala " + LOCATION.incrementAndGet());
+        richiesta.setNote("Note " + i);
+        richiesta.setEventoGiornaliero(false);
+        richiesta.setTipologiaEventoId(tipologiaId);
+        return richiesta;
+    }
+}
@@ -0,0 +1,127 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.model.id.TsidGenerator;
+import com.eventpro.catering.service.EventoReadEngine;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BENCHMARK: MOTORE DI LETTURA JPA vs JDBC
+ *
+ * Confronta i due motori di lettura degli eventi sulle stesse query
+ * (prima pagina, pagina profonda, eventi di una data) con ~20.000 eventi su H2.
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=EventoReadEngineBenchmark -Dspring.profiles.active=h2
+ *
+ * I numeri assoluti dipendono dalla macchina: conta il rapporto tra i due motori.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventoReadEngineBenchmark {
+
+    private static final int EVENTI = 20_000;
+    private static final int PAGINA = 500;
+    private static final int RISCALDAMENTO = 200;
+    private static final int MISURE = 500;
+
+    @Autowired
+    private List<EventoReadEngine> engines;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private final LocalDate dataIniziale = LocalDate.of(2030, 1, 1);
+
+    @BeforeAll
+    void popolaDatabase() {
+        Long tipologiaId = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento")
+                .query(Long.class)
+                .optional()
+                .orElse(null);
+        if (tipologiaId == null) {
+            jdbcClient.sql("INSERT INTO tipologia_evento (id, nome, descrizione) VALUES (:id, 'Benchmark', 'Benchmark')")
+                    .param("id", TsidGenerator.getDefault().nextId())
+                    .update();
+            tipologiaId = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        }
+
+        // 20 eventi al giorno per 1.000 giorni
+        for (int i = 0; i < EVENTI; i++) {
+            jdbcClient.sql("INSERT INTO evento (id, nome, data, ora_inizio, ora_fine, location, note, " +
+                            "evento_giornaliero, tipologia_evento_id, versione) " +
+                            "VALUES (:id, :nome, :data, :oraInizio, :oraFine, :location, :note, false, :tipologia, 0)")
+                    .param("id", TsidGenerator.getDefault().nextId())
+                    .param("nome", "Evento benchmark " + i)
+                    .param("data", dataIniziale.plusDays(i / 20))
+                    .param("oraInizio", LocalTime.of(8 + (i % 10), 0))
+                    .param("oraFine", LocalTime.of(9 + (i % 10), 0))
+                    .param("location", "Sala " + (i % 7))
+                    .param("note", "Note dell'evento " + i)
+                    .param("tipologia", tipologiaId)
+                    .update();
+        }
+    }
+
+    @Test
+    void confrontaMotori() {
+        EventoCursor cursoreProfondo = new EventoCursor(dataIniziale.plusDays(500), LocalTime.of(12, 0), 0L);
+        LocalDate dataCercata = dataIniziale.plusDays(250);
+
+        System.out.println();
+        System.out.printf("%-6s %-28s %12s%n", "motore", "query", "us/op");
+        for (EventoReadEngine engine : engines) {
+            misura(engine, "prima pagina (" + PAGINA + ")", () -> engine.findFirstPage(PAGINA));
+            misura(engine, "pagina profonda (" + PAGINA + ")", () -> engine.findPageAfter(cursoreProfondo, PAGINA));
+            misura(engine, "eventi di una data", () -> engine.findByData(dataCercata));
+        }
+        System.out.println();
+
+        // I due motori devono restituire gli stessi dati, nello stesso ordine
+        EventoReadEngine primo = engines.get(0);
+        for (EventoReadEngine altro : engines) {
+            assertEquals(ids(primo.findFirstPage(PAGINA)), ids(altro.findFirstPage(PAGINA)));
+            assertEquals(ids(primo.findPageAfter(cursoreProfondo, PAGINA)),
+                    ids(altro.findPageAfter(cursoreProfondo, PAGINA)));
+            // 20 eventi nella data, due per ogni ora di inizio: conta anche l'ordine per id
+            assertEquals(ids(primo.findByData(dataCercata)), ids(altro.findByData(dataCercata)));
+        }
+    }
+
+    private void misura(EventoReadEngine engine, String query, Supplier<List<EventoResponseDTO>> lettura) {
+        for (int i = 0; i < RISCALDAMENTO; i++) {
+            lettura.get();
+        }
+        long inizio = System.nanoTime();
+        int righe = 0;
+        for (int i = 0; i < MISURE; i++) {
+            righe += lettura.get().size();
+        }
+        long durata = System.nanoTime() - inizio;
+        System.out.printf("%-6s %-28s %12.1f   (%d righe/op)%n",
+                engine.nome(), query, durata / 1_000.0 / MISURE, righe / MISURE);
+    }
+
+    private static List<Long> ids(List<EventoResponseDTO> eventi) {
+        return eventi.stream().map(EventoResponseDTO::getId).toList();
+    }
+}
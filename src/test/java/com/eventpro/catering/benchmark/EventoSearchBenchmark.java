@@ -0,0 +1,86 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.service.EventoSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * BENCHMARK: LATENZA DELLA RICERCA TESTUALE IN MEMORIA
+ *
+ * Indicizza direttamente EVENTI eventi sintetici (senza passare dal database)
+ * e misura il tempo medio di EventoSearchIndex.cerca per alcune query tipiche:
+ * termine intero, frammento (trigrammi), prefisso corto, più termini in AND.
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=EventoSearchBenchmark -Dspring.profiles.active=h2
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@ActiveProfiles("h2")
+class EventoSearchBenchmark {
+
+    private static final int EVENTI = 100_000;
+    private static final int RIPETIZIONI = 2_000;
+
+    private static final String[] TIPI = {"Matrimonio", "Compleanno", "Cena aziendale", "Battesimo", "Convegno"};
+    private static final String[] CITTA = {"Roma", "Milano", "Napoli", "Torino", "Firenze", "Bologna", "Città di Castello"};
+    private static final String[] SALE = {"Villa", "Hotel", "Palazzo", "Agriturismo", "Castello", "Caffè"};
+
+    @Autowired
+    private EventoSearchIndex eventoSearchIndex;
+
+    @Test
+    void misuraRicerca() {
+        long inizio = System.nanoTime();
+        for (int i = 0; i < EVENTI; i++) {
+            eventoSearchIndex.indicizza(evento(i));
+        }
+        long indicizzazione = System.nanoTime() - inizio;
+
+        String[] query = {"matrimonio", "rimon", "ro", "villa roma", "convegno castello 4711", "famiglia 99999"};
+
+        System.out.println();
+        System.out.printf("Indicizzati %d eventi in %d ms%n", eventoSearchIndex.getNumeroEventi(),
+                indicizzazione / 1_000_000);
+        System.out.printf("%-28s %10s %12s%n", "query", "risultati", "us/op");
+        for (String q : query) {
+            // Riscaldamento (il JIT compila cerca() e le strutture dell'indice)
+            for (int i = 0; i < RIPETIZIONI * 5; i++) {
+                eventoSearchIndex.cerca(q, 20);
+            }
+            int risultati = 0;
+            inizio = System.nanoTime();
+            for (int i = 0; i < RIPETIZIONI; i++) {
+                risultati = eventoSearchIndex.cerca(q, 20).size();
+            }
+            double microsecondi = (System.nanoTime() - inizio) / 1_000.0 / RIPETIZIONI;
+            System.out.printf("%-28s %10d %12.1f%n", q, risultati, microsecondi);
+        }
+        System.out.println();
+    }
+
+    private static EventoResponseDTO evento(int i) {
+        String citta = CITTA[i % CITTA.length];
+        EventoResponseDTO evento = new EventoResponseDTO(
+                1_000_000_000L + i,
+                TIPI[i % TIPI.length] + " famiglia " + i,
+                LocalDate.of(2030, 1, 1).plusDays(i % 730),
+                LocalTime.of(8 + i % 12, 0),
+                LocalTime.of(20, 0),
+                SALE[i % SALE.length] + " " + citta + ", via " + (i % 500),
+                i % 3 == 0 ? "Menu di pesce, " + (i % 200) + " invitati" : null,
+                false,
+                new EventoResponseDTO.TipologiaEventoDTO(1L, TIPI[i % TIPI.length]));
+        evento.setVersione(0L);
+        return evento;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.dto.EventoListaCompattaDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * BENCHMARK: DIMENSIONE E TEMPO DI CODIFICA DELLE LISTE DI EVENTI
+ *
+ * Per una lista di eventi confronta JSON, Smile e CBOR, ognuno nella forma
+ * normale (array di EventoResponseDTO) e in quella compatta
+ * (EventoListaCompattaDTO, ?formato=compatto). Per ogni combinazione:
+ * - byte della risposta, senza e con gzip (come con server.compression)
+ * - tempo medio di serializzazione (senza gzip)
+ *
+ * Gli ObjectMapper sono configurati come quelli di Spring Boot (date ISO,
+ * JavaTimeModule), quindi le dimensioni sono quelle reali delle risposte.
+ * Non serve il contesto Spring: si misura solo la codifica.
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=FormatoPayloadBenchmark
+ */
+class FormatoPayloadBenchmark {
+
+    private static final int[] EVENTI = {10, 500};
+    private static final int RIPETIZIONI = 2_000;
+    private static final LocalDate PRIMO_GIORNO = LocalDate.of(2031, 1, 1);
+
+    @Test
+    void confrontaFormati() throws IOException {
+        ObjectMapper json = mapper(new JsonFactory());
+        ObjectMapper smile = mapper(new SmileFactory());
+        ObjectMapper cbor = mapper(new CBORFactory());
+
+        List<String> righe = new ArrayList<>();
+        for (int numero : EVENTI) {
+            List<EventoResponseDTO> eventi = eventi(numero);
+            EventoListaCompattaDTO compatta = EventoListaCompattaDTO.da(eventi);
+
+            long riferimento = json.writeValueAsBytes(eventi).length;
+            righe.add(misura(numero, "JSON", json, eventi, riferimento));
+            righe.add(misura(numero, "JSON compatto", json, compatta, riferimento));
+            righe.add(misura(numero, "Smile", smile, eventi, riferimento));
+            righe.add(misura(numero, "Smile compatto", smile, compatta, riferimento));
+            righe.add(misura(numero, "CBOR", cbor, eventi, riferimento));
+            righe.add(misura(numero, "CBOR compatto", cbor, compatta, riferimento));
+        }
+
+        System.out.println();
+        System.out.println("=== FORMATO DELLE LISTE DI EVENTI ===");
+        System.out.println("eventi  formato           byte   % JSON    gzip   codifica (us)");
+        righe.forEach(System.out::println);
+    }
+
+    private static String misura(int numero, String nome, ObjectMapper mapper, Object valore,
+                                 long riferimento) throws IOException {
+        byte[] codificato = mapper.writeValueAsBytes(valore);
+
+        // Riscaldamento (JIT, serializzatori in cache nel mapper)
+        for (int i = 0; i < RIPETIZIONI; i++) {
+            mapper.writeValueAsBytes(valore);
+        }
+        long inizio = System.nanoTime();
+        for (int i = 0; i < RIPETIZIONI; i++) {
+            mapper.writeValueAsBytes(valore);
+        }
+        double microsecondi = (System.nanoTime() - inizio) / 1_000.0 / RIPETIZIONI;
+
+        return String.format(Locale.ROOT, "%6d  %-15s %7d %7.0f%% %7d %12.1f",
+                numero, nome, codificato.length, 100.0 * codificato.length / riferimento,
+                gzip(codificato), microsecondi);
+    }
+
+    /**
+     * Stessa configurazione dell'ObjectMapper di Spring Boot, con un'altra factory
+     */
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * Eventi realistici: poche tipologie, id TSID, note a volte assenti
+     */
+    private static List<EventoResponseDTO> eventi(int numero) {
+        String[] tipologie = {"Matrimonio", "Evento Aziendale", "Compleanno", "Battesimo", "Altro"};
+        List<EventoResponseDTO> eventi = new ArrayList<>(numero);
+        for (int i = 0; i < numero; i++) {
+            int tipologia = i % tipologie.length;
+            EventoResponseDTO evento = new EventoResponseDTO(
+                    369_627_940_182_282_240L + i * 4_096L,
+                    tipologie[tipologia] + " " + i,
+                    PRIMO_GIORNO.plusDays(i / 4),
+                    LocalTime.of(10 + (i % 4) * 3, 0),
+                    LocalTime.of(12 + (i % 4) * 3, 30),
+                    "Villa " + (i % 37) + ", Via dei Fiori " + i + ", Roma",
+                    i % 3 == 0 ? null : "Menu per " + (20 + i % 80) + " ospiti",
+                    false,
+                    new EventoResponseDTO.TipologiaEventoDTO(369_627_940_000_000_000L + tipologia, tipologie[tipologia]));
+            evento.setVersione((long) (i % 3));
+            eventi.add(evento);
+        }
+        return eventi;
+    }
+
+    private static int gzip(byte[] dati) throws IOException {
+        ByteArrayOutputStream compresso = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compresso)) {
+            out.write(dati);
+        }
+        return compresso.size();
+    }
+}
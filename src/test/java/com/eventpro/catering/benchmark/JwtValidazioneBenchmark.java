@@ -0,0 +1,108 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.security.JwtService;
+import com.eventpro.catering.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BENCHMARK (JMH): VALIDAZIONE DEL TOKEN JWT A OGNI RICHIESTA
+ *
+ * Confronta il lavoro che JwtAuthenticationFilter fa su ogni richiesta
+ * autenticata:
+ * - prima: extractUsername + validateToken (che rifaceva extractUsername
+ *   ed extractExpiration) → tre decodifiche e tre verifiche HMAC, ognuna
+ *   con una SecretKey e un JwtParser costruiti da capo
+ * - dopo: JwtService.verify → una decodifica con chiave e parser creati
+ *   all'avvio
+ * - cache: VerifiedTokenCache.verify con il token già in cache → SHA-256
+ *   del token e una lettura (il caso normale: lo stesso token per tutta
+ *   la sessione)
+ *
+ * Il "prima" è ricostruito qui sotto con le stesse chiamate JJWT del vecchio
+ * JwtService, così il confronto resta ripetibile anche dopo la modifica.
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=JwtValidazioneBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtValidazioneBenchmark {
+
+    private static final String SECRET = "EventProCateringSecretKeyForJWT2024ThisIsAVeryLongSecretKey123456789";
+    private static final String EMAIL = "mario.rossi@example.com";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+
+    @Setup
+    public void prepara() {
+        jwtService = new JwtService(SECRET, 86_400_000L);
+        token = jwtService.generateToken(EMAIL, 1L, List.of("ROLE_USER"), 1);
+        verifiedTokenCache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 10_000);
+    }
+
+    @Benchmark
+    public boolean primaTreDecodifiche() {
+        String username = vecchioParse(token).getSubject();         // extractUsername nel filtro
+        String ancora = vecchioParse(token).getSubject();           // extractUsername in validateToken
+        Date scadenza = vecchioParse(token).getExpiration();        // isTokenExpired
+        return username.equals(EMAIL) && ancora.equals(EMAIL) && !scadenza.before(new Date());
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken dopoVerify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken cacheVerify() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    /**
+     * Come il vecchio extractAllClaims: chiave e parser nuovi a ogni chiamata
+     */
+    private static Claims vecchioParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Test
+    void confronta() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidazioneBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
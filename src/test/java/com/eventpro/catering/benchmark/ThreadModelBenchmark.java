@@ -0,0 +1,163 @@
+package com.eventpro.catering.benchmark;
+
+import com.eventpro.catering.EventProCateringApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * BENCHMARK: PLATFORM THREAD vs VIRTUAL THREAD
+ *
+ * Avvia l'applicazione due volte (spring.threads.virtual.enabled=false e poi
+ * true) su una porta casuale e la colpisce con molte richieste HTTP
+ * concorrenti, più dei 200 thread di Tomcat:
+ * - POST /api/auth/login         (BCrypt: tutto CPU, con concorrenza ridotta)
+ * - GET  /api/eventi/{id}        (una query breve)
+ * - GET  /api/eventi?data=...    (lista di una data)
+ *
+ * NON fa parte della suite normale (Surefire esegue solo *Test / *Tests).
+ * Per lanciarlo:
+ *   mvn test -Dtest=ThreadModelBenchmark -Dspring.profiles.active=h2
+ *
+ * ATTENZIONE AI NUMERI: H2 in memoria non fa I/O, quindi le richieste non
+ * "aspettano" mai il database e i virtual thread hanno poco da guadagnare.
+ * Il vantaggio si vede con un database vero (MySQL in rete), dove un thread
+ * passa la maggior parte del tempo fermo in attesa delle risposte.
+ * Sul lavoro di CPU (BCrypt) i virtual thread non aiutano: lo scheduler non
+ * interrompe un virtual thread che calcola, quindi le richieste in coda
+ * aspettano che le precedenti finiscano.
+ */
+class ThreadModelBenchmark {
+
+    private static final int CONCORRENZA = 400;
+    private static final int RICHIESTE = 4_000;
+    // Il login è BCrypt (tutto CPU): con 1-2 core 400 login in coda superano
+    // qualsiasi timeout, con o senza virtual thread
+    private static final int CONCORRENZA_LOGIN = 50;
+    private static final int RICHIESTE_LOGIN = 200;
+    private static final String EMAIL = "benchmark.thread@eventpro.it";
+    private static final String PASSWORD = "Benchmark123!";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void confrontaModelliDiThread() throws Exception {
+        Map<String, Map<String, Double>> risultati = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            risultati.put(virtual ? "virtual thread" : "platform thread", misura(virtual));
+        }
+
+        System.out.println();
+        System.out.println("=== THROUGHPUT (richieste/s, " + CONCORRENZA + " client concorrenti, "
+                + Runtime.getRuntime().availableProcessors() + " CPU) ===");
+        risultati.forEach((modello, perEndpoint) -> perEndpoint.forEach((endpoint, rps) ->
+                System.out.printf("%-16s %-28s %10.0f req/s%n", modello, endpoint, rps)));
+    }
+
+    private Map<String, Double> misura(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventProCateringApplication.class)
+                .profiles("h2")
+                // Argomenti da riga di comando: hanno la precedenza su application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.com.eventpro.catering=INFO");
+             ExecutorService client = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).executor(client).build();
+
+            String credenziali = objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", PASSWORD));
+            invia(http, post(base + "/api/auth/register", credenziali, null));
+            String token = objectMapper.readTree(invia(http, post(base + "/api/auth/login", credenziali, null)).body())
+                    .get("accessToken").asText();
+
+            String lista = base + "/api/eventi?data=2024-08-20";
+            JsonNode eventi = objectMapper.readTree(invia(http, get(lista, token)).body());
+            String dettaglio = base + "/api/eventi/" + eventi.get(0).get("id").asText();
+
+            Map<String, Double> perEndpoint = new LinkedHashMap<>();
+            perEndpoint.put("POST /api/auth/login",
+                    carico(http, client, CONCORRENZA_LOGIN, RICHIESTE_LOGIN, () -> post(base + "/api/auth/login", credenziali, null)));
+            perEndpoint.put("GET /api/eventi/{id}",
+                    carico(http, client, CONCORRENZA, RICHIESTE, () -> get(dettaglio, token)));
+            perEndpoint.put("GET /api/eventi?data=",
+                    carico(http, client, CONCORRENZA, RICHIESTE, () -> get(lista, token)));
+            return perEndpoint;
+        }
+    }
+
+    /**
+     * Esegue "richieste" chiamate con al massimo "concorrenza" in volo e restituisce le richieste/s
+     */
+    private double carico(HttpClient http, ExecutorService client, int concorrenza, int richieste,
+                          Supplier<HttpRequest> richiesta) throws Exception {
+        // Riscaldamento (JIT, cache, pool di connessioni)
+        for (int i = 0; i < 20; i++) {
+            invia(http, richiesta.get());
+        }
+
+        AtomicInteger rimanenti = new AtomicInteger(richieste);
+        long inizio = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>(concorrenza);
+        for (int w = 0; w < concorrenza; w++) {
+            workers.add(client.submit(() -> {
+                while (rimanenti.getAndDecrement() > 0) {
+                    invia(http, richiesta.get());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        return richieste / ((System.nanoTime() - inizio) / 1e9);
+    }
+
+    private static HttpResponse<String> invia(HttpClient http, HttpRequest richiesta) throws Exception {
+        HttpResponse<String> risposta = http.send(richiesta, HttpResponse.BodyHandlers.ofString());
+        assertEquals(2, risposta.statusCode() / 100,
+                richiesta.method() + " " + richiesta.uri() + " -> " + risposta.statusCode());
+        return risposta;
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(String url, String corpo, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
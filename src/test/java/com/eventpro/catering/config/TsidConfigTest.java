@@ -0,0 +1,67 @@
+package com.eventpro.catering.config;
+
+import com.eventpro.catering.model.id.TsidGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * NODO TSID: VALIDATO ALL'AVVIO; SE MANCA È AMMESSO SOLO IN SVILUPPO
+ */
+class TsidConfigTest {
+
+    @Test
+    void nodoMancanteAmmessoConProfiliDiSviluppo() {
+        TsidGenerator prima = TsidGenerator.getDefault();
+
+        new TsidConfig("", ambiente("h2"));
+        new TsidConfig(" ", ambiente("dev"));
+
+        assertThat(TsidGenerator.getDefault()).isSameAs(prima);
+    }
+
+    @Test
+    void nodoMancanteBloccaLAvvioConGliAltriProfili() {
+        assertThatThrownBy(() -> new TsidConfig("", ambiente("prod")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("tsid.node-id");
+        assertThatThrownBy(() -> new TsidConfig("", new MockEnvironment()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void nodoConfiguratoDiventaIlDefault() {
+        TsidGenerator prima = TsidGenerator.getDefault();
+        try {
+            new TsidConfig(" 17 ", ambiente("prod"));
+
+            assertThat(TsidGenerator.getDefault().getNodo()).isEqualTo(17);
+        } finally {
+            TsidGenerator.setDefault(prima);
+        }
+    }
+
+    @Test
+    void nodoNonValidoBloccaLAvvio() {
+        TsidGenerator prima = TsidGenerator.getDefault();
+
+        assertThatThrownBy(() -> new TsidConfig("nodo-1", ambiente("prod")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("non è un numero");
+        assertThatThrownBy(() -> new TsidConfig("1024", ambiente("h2")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("0-1023");
+        assertThatThrownBy(() -> new TsidConfig("-1", ambiente("prod")))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(TsidGenerator.getDefault()).isSameAs(prima);
+    }
+
+    private static MockEnvironment ambiente(String profilo) {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles(profilo);
+        return environment;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.model.Utente;
+import com.eventpro.catering.repository.UtenteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * REGISTRAZIONE: CAMPI DECISI DAL SERVER, THREAD DEL SALVATAGGIO,
+ * EMAIL DUPLICATA IN CONCORRENZA, ERRORI
+ *
+ * UtenteRepository è uno spy: i metodi veri girano sul database H2, quelli
+ * sostituiti simulano la corsa tra existsByEmail e save o un errore SQL.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AuthControllerRegistrazioneTest {
+
+    private static final String EMAIL = "registrazione.test@eventpro.local";
+    private static final String CREDENZIALI = """
+            {"email": "%s", "password": "Password123!"}
+            """.formatted(EMAIL);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @MockitoSpyBean
+    private UtenteRepository utenteRepository;
+
+    @AfterEach
+    void eliminaUtente() {
+        jdbcClient.sql("DELETE FROM utente WHERE email = :email").param("email", EMAIL).update();
+    }
+
+    @Test
+    void ruoloEAbilitazioneNelBodyIgnorati() throws Exception {
+        MvcResult avvio = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "password": "Password123!",
+                                 "role": "ADMIN", "abilitato": false, "securityStamp": 42}
+                                """.formatted(EMAIL)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(avvio)).andExpect(status().isCreated());
+
+        Utente salvato = utenteRepository.findByEmail(EMAIL).orElseThrow();
+        assertThat(salvato.getRole()).isEqualTo("USER");
+        assertThat(salvato.isAbilitato()).isTrue();
+        assertThat(salvato.getSecurityStamp()).isEqualTo(1);
+    }
+
+    @Test
+    void emailOPasswordMancantiRisponde400() throws Exception {
+        MvcResult avvio = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"email\": \"%s\"}".formatted(EMAIL)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(avvio)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void salvataggioFuoriDalPoolBcrypt() throws Exception {
+        AtomicReference<String> threadSalvataggio = new AtomicReference<>();
+        doAnswer(invocazione -> {
+            // Il repository è un proxy di interfaccia: basta registrare il thread
+            threadSalvataggio.set(Thread.currentThread().getName());
+            return invocazione.getArgument(0);
+        }).when(utenteRepository).save(any(Utente.class));
+
+        registra().andExpect(status().isCreated());
+
+        assertThat(threadSalvataggio.get()).isNotNull().doesNotStartWith("hash-password-");
+    }
+
+    @Test
+    void emailRegistrataDaUnaRichiestaConcorrenteRisponde400() throws Exception {
+        registra().andExpect(status().isCreated());
+
+        // La seconda richiesta supera il controllo iniziale, come se fosse arrivata insieme alla prima
+        doReturn(false).when(utenteRepository).existsByEmail(anyString());
+
+        registra()
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email già registrata"));
+    }
+
+    @Test
+    void erroreInternoSenzaDettagliNellaRisposta() throws Exception {
+        doThrow(new IllegalStateException("SQL: INSERT INTO utente ... dettaglio interno"))
+                .when(utenteRepository).save(any(Utente.class));
+
+        String corpo = registra()
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("Errore durante la registrazione"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(corpo).doesNotContain("SQL");
+    }
+
+    private ResultActions registra() throws Exception {
+        MvcResult avvio = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON).content(CREDENZIALI))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(avvio));
+    }
+}
@@ -0,0 +1,98 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * LOGIN E REGISTRAZIONE CON IL POOL BCRYPT SATURO → 503 + Retry-After
+ *
+ * Pool da un thread, coda da un posto, attesa massima 200 ms: il test
+ * occupa il thread e riempie la coda direttamente dall'executor.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "auth.hash.thread=1",
+        "auth.hash.coda=1",
+        "auth.hash.attesa-massima-ms=200"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class AuthControllerSovraccaricoTest {
+
+    private static final String CREDENZIALI = """
+            {"email": "sovraccarico@eventpro.local", "password": "Password123!"}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    private final CountDownLatch sblocca = new CountDownLatch(1);
+
+    @AfterEach
+    void liberaIlPool() {
+        sblocca.countDown();
+    }
+
+    @Test
+    void codaPienaLoginERegistrazioneRispondono503() throws Exception {
+        occupaIlThread();
+        passwordHashingExecutor.esegui("test", () -> "in coda");
+
+        // Rifiuto immediato: nessuna risposta asincrona
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(CREDENZIALI))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(CREDENZIALI))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void loginRimastoInCodaTroppoALungoRisponde503() throws Exception {
+        occupaIlThread();
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON).content(CREDENZIALI))
+                .andReturn();
+        Thread.sleep(300);
+        sblocca.countDown();
+
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    private void occupaIlThread() throws InterruptedException {
+        CountDownLatch partito = new CountDownLatch(1);
+        passwordHashingExecutor.esegui("test", () -> {
+            partito.countDown();
+            try {
+                return sblocca.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        assertThat(partito.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,50 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DI CALENDARIO E DISPONIBILITÀ
+ *
+ * La heatmap del mese risponde dal calendario in memoria: zero query.
+ * La disponibilità di un anno intero legge le occupazioni con UNA query.
+ */
+class EventoCalendarioQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    @BeforeEach
+    void creaEventi() {
+        eventi.crea("Pranzo", LocalDate.of(2044, 2, 10), "12:00", "15:00", "Sala calendario");
+        eventi.crea("Cena", LocalDate.of(2044, 2, 10), "19:00", "23:00", "Sala calendario");
+        eventi.crea("Festa", LocalDate.of(2044, 2, 27), "19:00", "22:00", "Sala calendario");
+    }
+
+    @Test
+    @QueryBudget(0)
+    void calendarioMese() throws Exception {
+        mockMvc.perform(get("/api/eventi/calendario/mese").param("anno", "2044").param("mese", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.giorniOccupati").value(2))
+                .andExpect(jsonPath("$.totaleEventi").value(3));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void disponibilitaDiUnAnno() throws Exception {
+        // 53 sabati nel 2044: solo quello del 27 febbraio è occupato
+        mockMvc.perform(get("/api/eventi/disponibilita")
+                        .param("da", "2044-01-01").param("a", "2044-12-31")
+                        .param("giorni", "sabato")
+                        .param("oraInizio", "18:00").param("oraFine", "23:00")
+                        .param("location", "Sala calendario"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.giorni.length()").value(53))
+                .andExpect(jsonPath("$.giorniLiberi").value(52));
+    }
+}
@@ -0,0 +1,62 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.service.EventoEtagService;
+import com.eventpro.catering.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DEL DETTAGLIO DI UN EVENTO (GET /api/eventi/{id})
+ *
+ * Un dettaglio costa al massimo UNA query: il caricamento completo, oppure
+ * solo (id, versione, data) quando arriva If-None-Match. Un dettaglio già
+ * letto arriva dalla cache del JSON: zero query.
+ */
+class EventoDettaglioQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    @Autowired
+    private EventoEtagService eventoEtagService;
+
+    private EventoResponseDTO evento;
+
+    @BeforeEach
+    void creaEvento() {
+        evento = eventi.crea("Dettaglio", LocalDate.of(2041, 3, 10), "10:00", "12:00", "Sala dettaglio");
+    }
+
+    @Test
+    @QueryBudget(1)
+    void dettaglioEvento() throws Exception {
+        mockMvc.perform(get("/api/eventi/{id}", evento.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tipologiaEvento.nome").exists());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void dettaglioEventoDallaCache() throws Exception {
+        // La seconda lettura usa il JSON in cache (EventoJsonCache): nessuna query
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/eventi/{id}", evento.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(evento.getId().toString()));
+        }
+    }
+
+    @Test
+    @QueryBudget(1)
+    void dettaglioEventoNonModificato() throws Exception {
+        String etag = eventoEtagService.etagEvento(evento.getId(), evento.getVersione());
+
+        mockMvc.perform(get("/api/eventi/{id}", evento.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
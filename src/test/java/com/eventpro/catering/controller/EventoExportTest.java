@@ -0,0 +1,151 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.service.EventoService;
+import com.eventpro.catering.support.EventiDiProva;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * EXPORT IN STREAMING DEGLI EVENTI (GET /api/eventi/export)
+ *
+ * La risposta è uno StreamingResponseBody: la richiesta parte in modalità
+ * asincrona e il corpo si legge dopo asyncDispatch. Gli eventi sono nel
+ * 2048, anno che usa solo questa classe; l'evento del 2049 verifica che il
+ * range venga rispettato.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser
+class EventoExportTest {
+
+    private static final LocalDate DA = LocalDate.of(2048, 3, 1);
+    private static final LocalDate A = LocalDate.of(2048, 3, 31);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private EventoService eventoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private EventiDiProva eventi;
+    private EventoResponseDTO mattina;
+    private EventoResponseDTO sera;
+
+    @BeforeEach
+    void creaEventi() {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        eventi = new EventiDiProva(eventoService, tipologia);
+        sera = eventi.crea("Cena \"di gala\", sala grande", DA.plusDays(9), "19:00", "23:00", "Villa Export");
+        mattina = eventi.crea("Colazione", DA.plusDays(9), "08:00", "10:00", "Villa Export");
+        eventi.crea("Fuori range", LocalDate.of(2049, 1, 5), "08:00", "10:00", "Villa Export");
+    }
+
+    @AfterEach
+    void eliminaEventi() {
+        eventi.eliminaTutti();
+    }
+
+    @Test
+    void ndjsonUnOggettoPerRigaConIntestazioniDiDownload() throws Exception {
+        MvcResult avvio = mockMvc.perform(get("/api/eventi/export")
+                        .param("da", DA.toString()).param("a", A.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(avvio))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"eventi_2048-03-01_2048-03-31.ndjson\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(corpo).endsWith("\n");
+        List<JsonNode> righe = new ArrayList<>();
+        for (String riga : corpo.split("\n")) {
+            righe.add(objectMapper.readTree(riga));
+        }
+        // Ordine per data e ora di inizio; l'evento del 2049 è fuori range
+        assertThat(righe).extracting(riga -> riga.get("id").asText())
+                .containsExactly(mattina.getId().toString(), sera.getId().toString());
+        assertThat(righe.get(1).get("nome").asText()).isEqualTo("Cena \"di gala\", sala grande");
+        assertThat(righe.get(1).get("tipologiaEvento").get("nome").isTextual()).isTrue();
+    }
+
+    @Test
+    void csvConIntestazioneEValoriQuotati() throws Exception {
+        MvcResult avvio = mockMvc.perform(get("/api/eventi/export")
+                        .param("da", DA.toString()).param("a", A.toString()).param("formato", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(avvio))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"eventi_2048-03-01_2048-03-31.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] righe = corpo.split("\n");
+        assertThat(righe).hasSize(3);
+        assertThat(righe[0])
+                .isEqualTo("id,nome,data,oraInizio,oraFine,location,note,eventoGiornaliero,tipologiaId,tipologiaNome");
+        assertThat(righe[1]).startsWith(mattina.getId() + ",Colazione,2048-03-10,08:00:00,10:00:00,Villa Export,,false,");
+        assertThat(righe[2]).startsWith(sera.getId() + ",\"Cena \"\"di gala\"\", sala grande\",2048-03-10,19:00:00,");
+    }
+
+    @Test
+    void rangeVuotoSoloIntestazione() throws Exception {
+        MvcResult avvio = mockMvc.perform(get("/api/eventi/export")
+                        .param("da", "2048-04-01").param("a", "2048-04-30").param("formato", "csv"))
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(avvio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(corpo.split("\n")).hasSize(1);
+    }
+
+    @Test
+    void parametriNonValidiRifiutatiPrimaDelloStreaming() throws Exception {
+        mockMvc.perform(get("/api/eventi/export")
+                        .param("da", A.toString()).param("a", DA.toString()))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/eventi/export")
+                        .param("da", DA.toString()).param("a", A.toString()).param("formato", "xml"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+}
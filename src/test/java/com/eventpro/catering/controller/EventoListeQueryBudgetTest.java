@@ -0,0 +1,95 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.service.EventoEtagService;
+import com.eventpro.catering.service.EventoModificheService;
+import com.eventpro.catering.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DELLE LISTE DI EVENTI (GET /api/eventi)
+ *
+ * Lista per data e pagine a cursore: UNA query con evento + tipologia.
+ * Una lista non modificata (If-None-Match) legge solo la riga di
+ * contatore_modifiche (JdbcClient, quindi fuori dal conteggio): il budget 0
+ * verifica che non si legga nessun evento.
+ */
+class EventoListeQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    private static final LocalDate DATA = LocalDate.of(2042, 4, 15);
+
+    @Autowired
+    private EventoEtagService eventoEtagService;
+
+    @Autowired
+    private EventoModificheService eventoModificheService;
+
+    private EventoResponseDTO primo;
+
+    @BeforeEach
+    void creaEventi() {
+        eventi.crea("Lista pomeriggio", DATA, "15:00", "17:00", "Sala liste");
+        primo = eventi.crea("Lista mattina", DATA, "09:00", "11:00", "Sala liste");
+        eventi.crea("Lista sera", DATA, "19:00", "23:00", "Sala liste");
+    }
+
+    @Test
+    @QueryBudget(0)
+    void listaNonModificata() throws Exception {
+        mockMvc.perform(get("/api/eventi").param("size", "50")
+                        .header("If-None-Match", eventoEtagService.etagCollezione(
+                                eventoModificheService.leggiVersioneCorrente())))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listaCambiataSuUnAltraIstanza() throws Exception {
+        String etag = eventoEtagService.etagCollezione(eventoModificheService.leggiVersioneCorrente());
+
+        // Commit di un'altra istanza: nel database cresce solo il contatore
+        jdbcClient.sql("UPDATE contatore_modifiche SET valore = valore + 1 WHERE nome = 'evento'").update();
+
+        mockMvc.perform(get("/api/eventi").param("size", "50").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void eventiPerData() throws Exception {
+        mockMvc.perform(get("/api/eventi").param("data", DATA.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].nome").value("Lista mattina"))
+                .andExpect(jsonPath("$[0].tipologiaEvento.nome").exists());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void primaPagina() throws Exception {
+        mockMvc.perform(get("/api/eventi").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventi[0].tipologiaEvento.nome").exists());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void paginaSuccessiva() throws Exception {
+        // Cursore sull'ultimo istante del giorno prima: la pagina parte dagli eventi di prova
+        String cursor = new EventoCursor(DATA.minusDays(1), LocalTime.MAX, Long.MAX_VALUE).encode();
+
+        mockMvc.perform(get("/api/eventi").param("size", "50").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventi[0].id").value(primo.getId().toString()))
+                .andExpect(jsonPath("$.eventi[0].tipologiaEvento.nome").exists());
+    }
+}
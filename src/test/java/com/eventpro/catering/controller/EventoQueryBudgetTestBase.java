@@ -0,0 +1,64 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.service.EventoService;
+import com.eventpro.catering.support.EventiDiProva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * BASE DEI TEST SUL BUDGET DI QUERY SQL DEGLI ENDPOINT EVENTI
+ *
+ * Ogni test dichiara con @QueryBudget quanti statement SQL può eseguire
+ * l'endpoint. Le letture devono caricare evento + tipologia con UNA query:
+ * se qualcuno reintroduce un fetch EAGER o un accesso lazy fuori query
+ * (N+1), il budget viene superato e la build fallisce.
+ *
+ * Usa il motore di lettura "jpa": le query JdbcClient non passano da
+ * Hibernate e non verrebbero contate.
+ *
+ * DATI DI PROVA:
+ * ogni test crea i propri eventi nel @BeforeEach (fuori dal budget) e li
+ * cancella nel @AfterEach, in un anno che usa solo la propria classe:
+ * nessun test dipende dai dati di esempio o dall'ordine di esecuzione.
+ * Non si usa @Transactional: la richiesta girerebbe nella transazione del
+ * test e gli aggiornamenti dopo il commit (cache del JSON, indici in
+ * memoria) non partirebbero mai.
+ */
+@SpringBootTest(properties = {
+        "eventi.read-engine=jpa",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser
+abstract class EventoQueryBudgetTestBase {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcClient jdbcClient;
+
+    @Autowired
+    private EventoService eventoService;
+
+    protected EventiDiProva eventi;
+
+    @BeforeEach
+    void preparaEventiDiProva() {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        eventi = new EventiDiProva(eventoService, tipologia);
+    }
+
+    @AfterEach
+    void eliminaEventiDiProva() {
+        eventi.eliminaTutti();
+    }
+}
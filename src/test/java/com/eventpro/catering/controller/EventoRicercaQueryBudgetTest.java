@@ -0,0 +1,37 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DELLA RICERCA TESTUALE (GET /api/eventi/search)
+ *
+ * La ricerca risponde dall'indice in memoria: zero query.
+ */
+class EventoRicercaQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    private EventoResponseDTO evento;
+
+    @BeforeEach
+    void creaEvento() {
+        evento = eventi.crea("Degustazione zafferano", LocalDate.of(2046, 9, 5), "18:00", "21:00", "Sala ricerca");
+    }
+
+    @Test
+    @QueryBudget(0)
+    void ricercaTestuale() throws Exception {
+        mockMvc.perform(get("/api/eventi/search").param("q", "zafferano"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(evento.getId().toString()))
+                .andExpect(jsonPath("$[0].tipologiaEvento.nome").exists());
+    }
+}
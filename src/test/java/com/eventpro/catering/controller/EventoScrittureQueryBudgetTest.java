@@ -0,0 +1,81 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.support.QueryBudget;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DELLE SCRITTURE (POST, PUT, DELETE /api/eventi)
+ *
+ * La tipologia arriva dal registro in memoria e il controllo delle
+ * sovrapposizioni dal calendario delle location: una creazione è solo
+ * l'INSERT, una creazione rifiutata non tocca il database.
+ */
+class EventoScrittureQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    private static final String BODY = """
+            {"nome": "%s", "data": "%s", "oraInizio": "%s",
+             "oraFine": "%s", "location": "%s", "eventoGiornaliero": false,
+             "tipologiaEventoId": %s}
+            """;
+
+    private EventoResponseDTO esistente;
+
+    @BeforeEach
+    void creaPrenotazioneEsistente() {
+        esistente = eventi.crea("Prima prenotazione", LocalDate.of(2043, 3, 12), "10:00", "12:00", "Sala scritture");
+    }
+
+    @Test
+    @QueryBudget(1)
+    void creaEvento() throws Exception {
+        String creato = mockMvc.perform(post("/api/eventi").contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Budget test", "2043-03-10", "10:00:00", "12:00:00", "Sala scritture")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        eventi.registra(Long.valueOf(JsonPath.<String>read(creato, "$.id")));
+    }
+
+    @Test
+    @QueryBudget(0)
+    void eventoSovrappostoRifiutato() throws Exception {
+        // Controllo in memoria: nessuna query per la richiesta rifiutata
+        mockMvc.perform(post("/api/eventi").contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Doppia prenotazione", "2043-03-12", "11:00:00", "13:00:00", "Sala scritture")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflitti[0].nome").value("Prima prenotazione"));
+    }
+
+    @Test
+    @QueryBudget(2)
+    void modificaEvento() throws Exception {
+        // SELECT dell'evento + UPDATE
+        mockMvc.perform(put("/api/eventi/{id}", esistente.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Budget test modificato", "2043-03-11", "10:00:00", "12:00:00", "Sala scritture")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void eliminaEvento() throws Exception {
+        // SELECT dell'evento + DELETE
+        mockMvc.perform(delete("/api/eventi/{id}", esistente.getId()))
+                .andExpect(status().isNoContent());
+    }
+
+    private String body(String nome, String data, String oraInizio, String oraFine, String location) {
+        return BODY.formatted(nome, data, oraInizio, oraFine, location, eventi.getTipologiaId());
+    }
+}
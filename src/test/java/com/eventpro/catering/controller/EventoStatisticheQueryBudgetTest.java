@@ -0,0 +1,34 @@
+package com.eventpro.catering.controller;
+
+import com.eventpro.catering.support.QueryBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * BUDGET DI QUERY DELLE STATISTICHE (GET /api/eventi/stats)
+ *
+ * I contatori stanno in memoria: zero query.
+ */
+class EventoStatisticheQueryBudgetTest extends EventoQueryBudgetTestBase {
+
+    @BeforeEach
+    void creaEventi() {
+        eventi.crea("Statistiche gennaio", LocalDate.of(2045, 1, 20), "10:00", "12:00", "Sala statistiche");
+        eventi.crea("Statistiche marzo", LocalDate.of(2045, 3, 20), "10:00", "12:00", "Sala statistiche");
+    }
+
+    @Test
+    @QueryBudget(0)
+    void statistiche() throws Exception {
+        mockMvc.perform(get("/api/eventi/stats").param("anno", "2045"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totale").value(2))
+                .andExpect(jsonPath("$.perMese.length()").value(2));
+    }
+}
@@ -0,0 +1,68 @@
+package com.eventpro.catering.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CODIFICA E DECODIFICA DEL CURSORE DELLA PAGINAZIONE KEYSET
+ */
+class EventoCursorTest {
+
+    @Test
+    void codificaEDecodificaRestituisconoLaStessaPosizione() {
+        EventoCursor cursore = new EventoCursor(LocalDate.of(2024, 6, 15), LocalTime.of(18, 0), 1L);
+
+        String codificato = cursore.encode();
+        EventoCursor letto = EventoCursor.decode(codificato);
+
+        // Esempio della documentazione: URL-safe e senza padding
+        assertThat(codificato).isEqualTo("MjAyNC0wNi0xNXwxODowMHwx");
+        assertThat(letto.getData()).isEqualTo(LocalDate.of(2024, 6, 15));
+        assertThat(letto.getOraInizio()).isEqualTo(LocalTime.of(18, 0));
+        assertThat(letto.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void idTsidGrandeSopravviveAllaCodifica() {
+        long id = 0x7FFF_FFFF_FFFF_FFF0L;
+        EventoCursor letto = EventoCursor.decode(
+                new EventoCursor(LocalDate.of(2041, 1, 1), LocalTime.of(23, 59, 30), id).encode());
+
+        assertThat(letto.getId()).isEqualTo(id);
+        assertThat(letto.getOraInizio()).isEqualTo(LocalTime.of(23, 59, 30));
+    }
+
+    @Test
+    void cursoreNonBase64Rifiutato() {
+        assertThatThrownBy(() -> EventoCursor.decode("non è base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Cursore non valido");
+    }
+
+    @Test
+    void cursoreManomessoRifiutato() {
+        assertThatThrownBy(() -> EventoCursor.decode(codifica("2024-06-15|18:00")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventoCursor.decode(codifica("2024-06-15|18:00|1|2")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventoCursor.decode(codifica("2024-13-45|18:00|1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventoCursor.decode(codifica("2024-06-15|25:00|1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventoCursor.decode(codifica("2024-06-15|18:00|uno")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventoCursor.decode(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String codifica(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
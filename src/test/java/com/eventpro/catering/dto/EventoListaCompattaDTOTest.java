@@ -0,0 +1,112 @@
+package com.eventpro.catering.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CAMPI E VALORI DELLA LISTA EVENTI COMPATTA (?formato=compatto)
+ *
+ * Il JSON è quello che legge il frontend: i nomi dei campi sono parte del
+ * contratto e un campo in più o in meno è un cambiamento dell'API.
+ */
+class EventoListaCompattaDTOTest {
+
+    private static final List<String> CAMPI_LISTA = List.of(
+            "righe", "tipologie", "id", "nome", "data", "oraInizio", "oraFine",
+            "location", "note", "eventoGiornaliero", "tipologia", "versione");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final EventoResponseDTO.TipologiaEventoDTO matrimonio =
+            new EventoResponseDTO.TipologiaEventoDTO(369627940182282240L, "Matrimonio");
+
+    @Test
+    void listaSoloConICampiDelleColonne() throws Exception {
+        JsonNode json = json(EventoListaCompattaDTO.da(List.of(evento(1L, "11:00", "15:00", matrimonio))));
+
+        assertThat(nomiCampi(json)).containsExactlyInAnyOrderElementsOf(CAMPI_LISTA);
+    }
+
+    @Test
+    void paginaConHasNextENextCursor() throws Exception {
+        EventoPageDTO pagina = new EventoPageDTO(
+                List.of(evento(1L, "11:00", "15:00", matrimonio)), 1, true, "MjAyNC0wNi0xNXwxODowMHwx");
+
+        JsonNode json = json(EventoListaCompattaDTO.da(pagina));
+
+        List<String> attesi = new ArrayList<>(CAMPI_LISTA);
+        attesi.add("hasNext");
+        attesi.add("nextCursor");
+        assertThat(nomiCampi(json)).containsExactlyInAnyOrderElementsOf(attesi);
+        assertThat(json.get("hasNext").asBoolean()).isTrue();
+        assertThat(json.get("nextCursor").asText()).isEqualTo("MjAyNC0wNi0xNXwxODowMHwx");
+    }
+
+    @Test
+    void ultimaPaginaSenzaNextCursor() throws Exception {
+        EventoPageDTO pagina = new EventoPageDTO(List.of(evento(1L, "11:00", "15:00", matrimonio)), 10, false, null);
+
+        JsonNode json = json(EventoListaCompattaDTO.da(pagina));
+
+        assertThat(json.get("hasNext").asBoolean()).isFalse();
+        assertThat(json.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void colonneAllineateEValoriCodificati() throws Exception {
+        EventoResponseDTO senzaTipologia = evento(369627940182282301L, "19:00", "23:00", null);
+        senzaTipologia.setNote("Menu vegetariano");
+        senzaTipologia.setVersione(2L);
+
+        JsonNode json = json(EventoListaCompattaDTO.da(List.of(
+                evento(369627940182282300L, "11:00", "15:00", matrimonio),
+                senzaTipologia,
+                evento(369627940182282302L, "18:30", "20:00", matrimonio))));
+
+        assertThat(json.get("righe").asInt()).isEqualTo(3);
+        // Id come stringhe: oltre 2^53 un number JavaScript perderebbe le ultime cifre
+        assertThat(json.get("id").get(0).isTextual()).isTrue();
+        assertThat(json.get("id").get(0).asText()).isEqualTo("369627940182282300");
+        assertThat(json.get("data").get(0).asLong()).isEqualTo(LocalDate.of(2024, 6, 15).toEpochDay());
+        assertThat(json.get("oraInizio").get(2).asInt()).isEqualTo(1110);
+        assertThat(json.get("oraFine").get(1).asInt()).isEqualTo(1380);
+        assertThat(json.get("note").get(0).isNull()).isTrue();
+        assertThat(json.get("note").get(1).asText()).isEqualTo("Menu vegetariano");
+        assertThat(json.get("versione").get(1).asLong()).isEqualTo(2);
+        // Dizionario con una voce sola; -1 = evento senza tipologia
+        assertThat(json.get("tipologie")).hasSize(1);
+        assertThat(json.get("tipologie").get(0).get("id").asText()).isEqualTo("369627940182282240");
+        assertThat(json.get("tipologia").get(0).asInt()).isZero();
+        assertThat(json.get("tipologia").get(1).asInt()).isEqualTo(-1);
+        assertThat(json.get("tipologia").get(2).asInt()).isZero();
+        for (String colonna : List.of("id", "nome", "data", "oraInizio", "oraFine",
+                "location", "note", "eventoGiornaliero", "tipologia", "versione")) {
+            assertThat(json.get(colonna)).as(colonna).hasSize(3);
+        }
+    }
+
+    private JsonNode json(EventoListaCompattaDTO compatta) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsString(compatta));
+    }
+
+    private static List<String> nomiCampi(JsonNode json) {
+        List<String> nomi = new ArrayList<>();
+        json.fieldNames().forEachRemaining(nomi::add);
+        return nomi;
+    }
+
+    private static EventoResponseDTO evento(Long id, String inizio, String fine,
+                                            EventoResponseDTO.TipologiaEventoDTO tipologia) {
+        return new EventoResponseDTO(id, "Evento " + id, LocalDate.of(2024, 6, 15),
+                LocalTime.parse(inizio), LocalTime.parse(fine), "Villa Roma", null, false, tipologia);
+    }
+}
@@ -0,0 +1,118 @@
+package com.eventpro.catering.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TSID: SEQUENZA ESAURITA E OROLOGIO CHE TORNA INDIETRO
+ *
+ * L'orologio è un AtomicLong controllato dal test: nessuna dipendenza dal
+ * tempo reale.
+ */
+class TsidGeneratorTest {
+
+    private static final long ADESSO = Instant.parse("2025-03-01T10:00:00Z").toEpochMilli();
+    private static final int NODO = 5;
+
+    @Test
+    void idCompostoDaTimestampNodoESequenza() {
+        AtomicLong orologio = new AtomicLong(ADESSO);
+        TsidGenerator generator = new TsidGenerator(NODO, orologio::get);
+
+        long primo = generator.nextId();
+        long secondo = generator.nextId();
+
+        assertThat(TsidGenerator.istanteDi(primo)).isEqualTo(Instant.ofEpochMilli(ADESSO));
+        assertThat(nodo(primo)).isEqualTo(NODO);
+        assertThat(sequenza(primo)).isZero();
+        assertThat(sequenza(secondo)).isEqualTo(1);
+        assertThat(primo).isGreaterThanOrEqualTo(TsidGenerator.primoIdDopo(Instant.ofEpochMilli(ADESSO)));
+    }
+
+    @Test
+    void sequenzaEsauritaPassaAlMillisecondoSuccessivo() {
+        // Il tempo resta fermo per le prime letture, poi avanza di un millisecondo
+        AtomicLong letture = new AtomicLong();
+        int idNelMillisecondo = TsidGenerator.MAX_SEQUENZA + 1;
+        TsidGenerator generator = new TsidGenerator(NODO,
+                () -> letture.incrementAndGet() > idNelMillisecondo + 10 ? ADESSO + 1 : ADESSO);
+
+        long precedente = -1;
+        for (int i = 0; i < idNelMillisecondo; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(precedente);
+            assertThat(TsidGenerator.istanteDi(id)).isEqualTo(Instant.ofEpochMilli(ADESSO));
+            precedente = id;
+        }
+        assertThat(sequenza(precedente)).isEqualTo(TsidGenerator.MAX_SEQUENZA);
+
+        // Il 4097° id aspetta che l'orologio avanzi
+        long successivo = generator.nextId();
+        assertThat(successivo).isGreaterThan(precedente);
+        assertThat(TsidGenerator.istanteDi(successivo)).isEqualTo(Instant.ofEpochMilli(ADESSO + 1));
+        assertThat(sequenza(successivo)).isZero();
+    }
+
+    @Test
+    void orologioCheTornaIndietroNonFaDiminuireGliId() {
+        AtomicLong orologio = new AtomicLong(ADESSO);
+        TsidGenerator generator = new TsidGenerator(NODO, orologio::get);
+
+        long prima = generator.nextId();
+        orologio.set(ADESSO - 1_000);
+        long dopo = generator.nextId();
+
+        // Si continua dall'ultimo timestamp usato, con la sequenza successiva
+        assertThat(dopo).isGreaterThan(prima);
+        assertThat(TsidGenerator.istanteDi(dopo)).isEqualTo(Instant.ofEpochMilli(ADESSO));
+        assertThat(sequenza(dopo)).isEqualTo(1);
+
+        // Quando l'orologio supera di nuovo l'ultimo timestamp si riparte da lì
+        orologio.set(ADESSO + 1);
+        long ripreso = generator.nextId();
+        assertThat(ripreso).isGreaterThan(dopo);
+        assertThat(sequenza(ripreso)).isZero();
+    }
+
+    @Test
+    void orologioIndietroConSequenzaEsauritaAvanzaLogicamente() {
+        AtomicLong orologio = new AtomicLong(ADESSO);
+        TsidGenerator generator = new TsidGenerator(NODO, orologio::get);
+
+        long precedente = -1;
+        for (int i = 0; i <= TsidGenerator.MAX_SEQUENZA; i++) {
+            precedente = generator.nextId();
+        }
+        // Sequenza esaurita mentre l'orologio torna indietro: niente attesa infinita
+        orologio.set(ADESSO - 5);
+        long successivo = generator.nextId();
+        long ancora = generator.nextId();
+
+        assertThat(successivo).isGreaterThan(precedente);
+        assertThat(TsidGenerator.istanteDi(successivo)).isEqualTo(Instant.ofEpochMilli(ADESSO + 1));
+        assertThat(sequenza(successivo)).isZero();
+        assertThat(ancora).isGreaterThan(successivo);
+        assertThat(TsidGenerator.istanteDi(ancora)).isEqualTo(Instant.ofEpochMilli(ADESSO + 1));
+    }
+
+    @Test
+    void nodoFuoriIntervalloRifiutato() {
+        assertThatThrownBy(() -> new TsidGenerator(TsidGenerator.MAX_NODO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TsidGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long nodo(long id) {
+        return (id >>> TsidGenerator.BIT_SEQUENZA) & TsidGenerator.MAX_NODO;
+    }
+
+    private static long sequenza(long id) {
+        return id & TsidGenerator.MAX_SEQUENZA;
+    }
+}
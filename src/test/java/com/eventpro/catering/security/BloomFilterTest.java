@@ -0,0 +1,63 @@
+package com.eventpro.catering.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BLOOM FILTER: NESSUN FALSO NEGATIVO, FALSI POSITIVI VICINI ALLA STIMA
+ */
+class BloomFilterTest {
+
+    @Test
+    void ogniElementoAggiuntoVieneTrovato() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        String[] aggiunti = new String[10_000];
+        for (int i = 0; i < aggiunti.length; i++) {
+            aggiunti[i] = UUID.randomUUID().toString();
+            filtro.add(aggiunti[i]);
+        }
+
+        for (String jti : aggiunti) {
+            assertThat(filtro.mightContain(jti)).isTrue();
+        }
+    }
+
+    @Test
+    void filtroVuotoNonContieneNulla() {
+        BloomFilter filtro = new BloomFilter(1_000, 0.01);
+
+        assertThat(filtro.mightContain(UUID.randomUUID().toString())).isFalse();
+        assertThat(filtro.mightContain("")).isFalse();
+    }
+
+    @Test
+    void falsiPositiviVicinoAllaProbabilitaRichiesta() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.add("revocato-" + i);
+        }
+
+        int falsiPositivi = 0;
+        int prove = 100_000;
+        for (int i = 0; i < prove; i++) {
+            if (filtro.mightContain("valido-" + i)) {
+                falsiPositivi++;
+            }
+        }
+        // Atteso ~1% (il numero di bit arrotondato a potenza di 2 lo abbassa): margine ampio
+        assertThat((double) falsiPositivi / prove).isLessThan(0.02);
+    }
+
+    @Test
+    void filtroSaturoRispondeSempreForse() {
+        BloomFilter filtro = new BloomFilter(1, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filtro.add("revocato-" + i);
+        }
+
+        assertThat(filtro.mightContain("mai-aggiunto")).isTrue();
+    }
+}
@@ -0,0 +1,98 @@
+package com.eventpro.catering.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * FILTRO JWT: UN TOKEN IN CACHE NON SCAVALCA REVOCA E SECURITY STAMP
+ *
+ * VerifiedTokenCache tiene solo il risultato della verifica (firma e
+ * scadenza). Revoca e stamp vengono controllati a ogni richiesta, anche
+ * quando il token arriva dalla cache: questi test lo verificano con la
+ * cache vera e i due servizi simulati.
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "ChiaveDiTestPerJwtAuthenticationFilterLungaAlmeno256Bit01234";
+
+    private JwtService jwtService;
+    private SecurityStampService securityStampService;
+    private TokenRevocationService tokenRevocationService;
+    private JwtAuthenticationFilter filtro;
+    private String token;
+
+    @BeforeEach
+    void creaFiltro() {
+        jwtService = spy(new JwtService(SECRET, 60_000));
+        securityStampService = mock(SecurityStampService.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        filtro = new JwtAuthenticationFilter(
+                new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 100),
+                mock(UserDetailsService.class), securityStampService, tokenRevocationService, true);
+        token = jwtService.generateToken("mario@eventpro.local", 7L, List.of("ROLE_USER"), 3);
+        when(securityStampService.isValido(7L, 3)).thenReturn(true);
+    }
+
+    @AfterEach
+    void pulisciContesto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenValidoAutenticato() throws Exception {
+        assertThat(autentica()).isNotNull();
+        assertThat(autentica().getName()).isEqualTo("mario@eventpro.local");
+    }
+
+    @Test
+    void tokenRevocatoRifiutatoAncheSeInCache() throws Exception {
+        assertThat(autentica()).isNotNull();
+
+        when(tokenRevocationService.isRevocato(anyString())).thenReturn(true);
+
+        assertThat(autentica()).isNull();
+        // Seconda richiesta servita dalla cache: il token è stato verificato una volta sola
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    @Test
+    void stampCambiatoRifiutatoAncheSeInCache() throws Exception {
+        assertThat(autentica()).isNotNull();
+
+        // Es. password cambiata o logout da tutti i dispositivi
+        when(securityStampService.isValido(anyLong(), anyLong())).thenReturn(false);
+
+        assertThat(autentica()).isNull();
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    /**
+     * Una richiesta con il token: l'autenticazione impostata dal filtro (null se rifiutato)
+     */
+    private Authentication autentica() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/eventi");
+        request.addHeader("Authorization", "Bearer " + token);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,124 @@
+package com.eventpro.catering.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * VERIFICA DEI TOKEN: CLAIM RESTITUITI E TOKEN RIFIUTATI
+ *
+ * I token "fatti a mano" (senza jti, senza uid...) sono firmati con la
+ * stessa chiave del service: vengono rifiutati per il contenuto, non
+ * per la firma.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET = "ChiaveDiTestPerJwtServiceLungaAlmeno256Bit0123456789abcdef";
+    private static final String EMAIL = "mario@eventpro.local";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000);
+
+    @Test
+    void tokenDiLoginVerificatoConTuttiIClaim() {
+        Instant prima = Instant.now();
+        String token = jwtService.generateToken(EMAIL, 7L, List.of("ROLE_USER", "ROLE_ADMIN"), 3);
+
+        JwtService.VerifiedToken verificato = jwtService.verify(token);
+
+        assertThat(verificato.subject()).isEqualTo(EMAIL);
+        assertThat(verificato.userId()).isEqualTo(7L);
+        assertThat(verificato.roles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(verificato.securityStamp()).isEqualTo(3L);
+        assertThat(verificato.tokenId()).isNotBlank();
+        assertThat(verificato.isStateless()).isTrue();
+        // "exp" ha la precisione del secondo
+        assertThat(verificato.expiresAt()).isAfter(prima.plusSeconds(58)).isBefore(prima.plusSeconds(61));
+    }
+
+    @Test
+    void tokenScadutoRifiutato() {
+        String scaduto = new JwtService(SECRET, -1_000).generateToken(EMAIL, 7L, List.of("ROLE_USER"), 1);
+
+        assertThatThrownBy(() -> jwtService.verify(scaduto)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void firmaNonValidaRifiutata() {
+        String firmatoAltrove = new JwtService(SECRET.replace('0', '9'), 60_000)
+                .generateToken(EMAIL, 7L, List.of("ROLE_USER"), 1);
+        assertThatThrownBy(() -> jwtService.verify(firmatoAltrove)).isInstanceOf(SignatureException.class);
+
+        // Payload modificato (ruolo ADMIN) con la firma originale
+        String token = jwtService.generateToken(EMAIL, 7L, List.of("ROLE_USER"), 1);
+        String[] parti = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parti[1]), StandardCharsets.UTF_8)
+                .replace("ROLE_USER", "ROLE_ADMIN");
+        String manomesso = parti[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parti[2];
+        assertThatThrownBy(() -> jwtService.verify(manomesso)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void tokenSenzaJtiRifiutato() {
+        String senzaJti = firmato(Jwts.builder()
+                .subject(EMAIL)
+                .claim(JwtService.USER_ID_CLAIM, "7"));
+
+        assertThatThrownBy(() -> jwtService.verify(senzaJti))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token senza jti");
+    }
+
+    @Test
+    void tokenSenzaUidRifiutato() {
+        assertThatThrownBy(() -> jwtService.verify(jwtService.generateToken(EMAIL)))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token senza uid");
+        assertThatThrownBy(() -> jwtService.verify(jwtService.generateToken(EMAIL, List.of("ROLE_USER"))))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token senza uid");
+    }
+
+    @Test
+    void uidNonNumericoOSubjectMancanteRifiutati() {
+        String uidNonValido = firmato(Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(EMAIL)
+                .claim(JwtService.USER_ID_CLAIM, "sette"));
+        String senzaSubject = firmato(Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .claim(JwtService.USER_ID_CLAIM, "7"));
+
+        assertThatThrownBy(() -> jwtService.verify(uidNonValido)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.verify(senzaSubject))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token senza subject");
+    }
+
+    @Test
+    void tokenNonJwtRifiutato() {
+        assertThatThrownBy(() -> jwtService.verify("non.un.token")).isInstanceOf(JwtException.class);
+    }
+
+    private static String firmato(JwtBuilder builder) {
+        return builder
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
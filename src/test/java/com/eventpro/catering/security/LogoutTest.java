@@ -0,0 +1,109 @@
+package com.eventpro.catering.security;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * LOGOUT: IL TOKEN REVOCATO VIENE RIFIUTATO CON 401
+ *
+ * Percorso completo con i filtri veri di Spring Security: registrazione,
+ * login, richiesta autenticata, logout, stessa richiesta con lo stesso token.
+ * Vale anche per il logout da tutti i dispositivi (security stamp cambiato).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LogoutTest {
+
+    private static final String EMAIL = "logout.test@eventpro.local";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @AfterEach
+    void eliminaUtente() {
+        jdbcClient.sql("DELETE FROM utente WHERE email = :email").param("email", EMAIL).update();
+    }
+
+    @Test
+    void tokenRifiutatoDopoIlLogout() throws Exception {
+        String token = registraEAccedi();
+
+        mockMvc.perform(get("/api/eventi/stats").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/eventi/stats").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenRifiutatoDopoIlLogoutDaTuttiIDispositivi() throws Exception {
+        String token = registraEAccedi();
+
+        // Prima richiesta: il token verificato finisce in VerifiedTokenCache
+        mockMvc.perform(get("/api/eventi/stats").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout-all").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Il security stamp è cambiato: il token in cache non basta più
+        mockMvc.perform(get("/api/eventi/stats").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void senzaTokenOConTokenNonValido401() throws Exception {
+        mockMvc.perform(get("/api/eventi/stats"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/eventi/stats").header("Authorization", "Bearer non.un.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutSenzaToken401() throws Exception {
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String registraEAccedi() throws Exception {
+        MvcResult registrazione = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "password": "Password123!"}
+                                """.formatted(EMAIL)))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(registrazione)).andExpect(status().isCreated());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email": "%s", "password": "Password123!"}
+                                """.formatted(EMAIL)))
+                .andReturn();
+        String risposta = mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(risposta, "$.accessToken");
+    }
+}
@@ -0,0 +1,132 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.exception.ServizioSovraccaricoException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * POOL BCRYPT: CODA PIENA, ATTESA MASSIMA, CHIUSURA
+ *
+ * Pool da un thread e coda da un posto: il thread viene occupato da un
+ * lavoro che aspetta un latch, così la coda si riempie in modo controllato.
+ */
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch sblocca = new CountDownLatch(1);
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void chiudi() {
+        sblocca.countDown();
+        executor.chiudi();
+    }
+
+    @Test
+    void risultatoEdEccezioniDelLavoroArrivanoAlFuture() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 5_000);
+
+        assertThat(executor.esegui("login", () -> "hash").get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+
+        CompletableFuture<Object> credenzialiSbagliate = executor.esegui("login", () -> {
+            throw new BadCredentialsException("Credenziali non valide");
+        });
+        assertThatThrownBy(() -> credenzialiSbagliate.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void codaPienaRifiutataSubito() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 5_000);
+        CompletableFuture<String> inEsecuzione = occupaIlThread();
+        CompletableFuture<String> inCoda = executor.esegui("login", () -> "in coda");
+
+        assertThatThrownBy(() -> executor.esegui("login", () -> "rifiutato"))
+                .isInstanceOf(ServizioSovraccaricoException.class)
+                .satisfies(e -> assertThat(((ServizioSovraccaricoException) e).getRiprovaTra()).isPositive());
+        assertThat(rifiutati("coda-piena")).isEqualTo(1.0);
+
+        // Liberato il thread, chi era già in coda viene servito
+        sblocca.countDown();
+        assertThat(inEsecuzione.get(5, TimeUnit.SECONDS)).isEqualTo("occupato");
+        assertThat(inCoda.get(5, TimeUnit.SECONDS)).isEqualTo("in coda");
+    }
+
+    @Test
+    void lavoroRimastoInCodaTroppoALungoNonVieneEseguito() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 50);
+        AtomicBoolean eseguito = new AtomicBoolean();
+        CompletableFuture<String> inEsecuzione = occupaIlThread();
+        CompletableFuture<String> inCoda = executor.esegui("login", () -> {
+            eseguito.set(true);
+            return "troppo tardi";
+        });
+
+        Thread.sleep(150);
+        sblocca.countDown();
+        inEsecuzione.get(5, TimeUnit.SECONDS);
+
+        assertThatThrownBy(() -> inCoda.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServizioSovraccaricoException.class);
+        assertThat(eseguito).isFalse();
+        assertThat(rifiutati("attesa")).isEqualTo(1.0);
+    }
+
+    @Test
+    void chiusuraFaFallireILavoriInCodaEInterrompeQuelloInCorso() throws Exception {
+        executor = new PasswordHashingExecutor(meterRegistry, 1, 1, 5_000);
+        CompletableFuture<String> inEsecuzione = occupaIlThread();
+        CompletableFuture<String> inCoda = executor.esegui("registrazione", () -> "mai eseguito");
+
+        executor.chiudi();
+
+        assertThatThrownBy(() -> inCoda.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ServizioSovraccaricoException.class);
+        assertThat(rifiutati("chiusura")).isEqualTo(1.0);
+        // Il lavoro in corso riceve l'interruzione: la sua eccezione arriva al future
+        assertThatThrownBy(() -> inEsecuzione.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(InterruptedException.class);
+        // Dopo la chiusura nessun nuovo lavoro viene accettato
+        assertThatThrownBy(() -> executor.esegui("login", () -> "dopo la chiusura"))
+                .isInstanceOf(ServizioSovraccaricoException.class);
+    }
+
+    /**
+     * Occupa l'unico thread del pool finché il test non apre il latch
+     */
+    private CompletableFuture<String> occupaIlThread() throws InterruptedException {
+        CountDownLatch partito = new CountDownLatch(1);
+        CompletableFuture<String> future = executor.esegui("login", () -> {
+            partito.countDown();
+            try {
+                sblocca.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrotto", e);
+            }
+            return "occupato";
+        });
+        assertThat(partito.await(5, TimeUnit.SECONDS)).isTrue();
+        return future;
+    }
+
+    private double rifiutati(String motivo) {
+        return meterRegistry.get("auth.hash.rifiutati").tag("motivo", motivo).counter().count();
+    }
+}
@@ -0,0 +1,111 @@
+package com.eventpro.catering.security;
+
+import com.eventpro.catering.repository.TokenRevocatoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * REVOCA DEI TOKEN: FILTRO, CONTROLLO ESATTO E SCADENZE
+ *
+ * Test senza Spring: il repository è un mock e il contatore dei falsi
+ * positivi (jwt.revoca.falsi.positivi) dice da quale strada è passato il
+ * controllo (filtro "sicuramente no" oppure "forse" + mappa esatta).
+ */
+class TokenRevocationServiceTest {
+
+    private TokenRevocatoRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void creaRepository() {
+        repository = mock(TokenRevocatoRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tokenRevocatoRifiutatoGliAltriNo() {
+        TokenRevocationService service = service(1_000);
+
+        service.revoca("jti-logout", Instant.now().plus(Duration.ofHours(1)));
+
+        assertThat(service.isRevocato("jti-logout")).isTrue();
+        assertThat(service.isRevocato("jti-altro")).isFalse();
+        assertThat(service.isRevocato(null)).isFalse();
+        verify(repository).inserisci(anyString(), any());
+    }
+
+    @Test
+    void tokenGiaScadutoNonVieneSalvato() {
+        TokenRevocationService service = service(1_000);
+
+        service.revoca("jti-scaduto", Instant.now().minusSeconds(1));
+        service.revoca(null, Instant.now().plus(Duration.ofHours(1)));
+
+        assertThat(service.isRevocato("jti-scaduto")).isFalse();
+        verify(repository, never()).inserisci(anyString(), any());
+    }
+
+    @Test
+    void falsoPositivoDelFiltroRisoltoDallaMappaEsatta() {
+        // Capacità 1: dopo 1000 revoche il filtro risponde "forse" a qualsiasi id
+        TokenRevocationService service = service(1);
+        Instant scadenza = Instant.now().plus(Duration.ofHours(1));
+        for (int i = 0; i < 1_000; i++) {
+            service.revoca("revocato-" + i, scadenza);
+        }
+
+        assertThat(service.isRevocato("mai-revocato")).isFalse();
+        assertThat(falsiPositivi()).isEqualTo(1.0);
+        assertThat(service.isRevocato("revocato-500")).isTrue();
+        assertThat(falsiPositivi()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sincronizzazioneTogliLeRevocheScadute() throws Exception {
+        TokenRevocationService service = service(1_000);
+        service.revoca("jti-breve", Instant.now().plusMillis(200));
+        service.revoca("jti-lungo", Instant.now().plus(Duration.ofHours(1)));
+        Thread.sleep(300);
+
+        service.sincronizza();
+
+        verify(repository).eliminaScaduti(any());
+        assertThat(service.isRevocato("jti-breve")).isFalse();
+        // Filtro ricostruito senza il token scaduto: "sicuramente no", nessun falso positivo
+        assertThat(falsiPositivi()).isZero();
+        assertThat(service.isRevocato("jti-lungo")).isTrue();
+        assertThat(meterRegistry.get("jwt.revoca.token").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void revocheDiAltreIstanzeCaricateDalDatabase() {
+        TokenRevocationService service = service(1_000);
+        when(repository.findNonScaduti(any())).thenReturn(List.of(
+                new TokenRevocatoRepository.TokenRevocato("jti-altra-istanza", Instant.now().plus(Duration.ofHours(1)))));
+
+        service.sincronizza();
+
+        assertThat(service.isRevocato("jti-altra-istanza")).isTrue();
+    }
+
+    private TokenRevocationService service(int capacita) {
+        return new TokenRevocationService(repository, meterRegistry, capacita);
+    }
+
+    private double falsiPositivi() {
+        return meterRegistry.get("jwt.revoca.falsi.positivi").counter().count();
+    }
+}
@@ -0,0 +1,87 @@
+package com.eventpro.catering.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * CACHE DEI TOKEN VERIFICATI: HIT, SCADENZA ESATTA, TOKEN NON VALIDI
+ *
+ * JwtService vero (spy per contare le verifiche). Il claim "exp" ha la
+ * precisione del secondo: il test sulla scadenza usa token da ~1 secondo
+ * e aspetta di aver superato expiresAt.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "ChiaveDiTestPerVerifiedTokenCacheLungaAlmeno256Bit0123456789";
+
+    @Test
+    void stessoTokenVerificatoUnaVoltaSola() {
+        JwtService jwtService = spy(new JwtService(SECRET, 60_000));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 100);
+        String token = jwtService.generateToken("mario@eventpro.local", 7L, List.of("ROLE_USER"), 1);
+
+        JwtService.VerifiedToken primo = cache.verify(token);
+        JwtService.VerifiedToken secondo = cache.verify(token);
+
+        assertThat(secondo).isSameAs(primo);
+        assertThat(secondo.userId()).isEqualTo(7L);
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    @Test
+    void tokenInCacheNonAccettatoDopoLaScadenza() throws Exception {
+        JwtService jwtService = spy(new JwtService(SECRET, 1_000));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 100);
+        String token = jwtService.generateToken("mario@eventpro.local", 7L, List.of("ROLE_USER"), 1);
+
+        Instant scadenza = cache.verify(token).expiresAt();
+        assertThat(cache.verify(token).expiresAt()).isEqualTo(scadenza);
+
+        while (!Instant.now().isAfter(scadenza)) {
+            Thread.sleep(50);
+        }
+
+        assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        // La seconda verifica vera è quella che rifiuta il token scaduto
+        verify(jwtService, times(2)).verify(token);
+    }
+
+    @Test
+    void tokenNonValidoNonFinisceInCache() {
+        JwtService jwtService = spy(new JwtService(SECRET, 60_000));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 100);
+        String firmatoAltrove = new JwtService(SECRET.replace('0', '9'), 60_000).generateToken("mario@eventpro.local", 7L, List.of("ROLE_USER"), 1);
+
+        assertThatThrownBy(() -> cache.verify("non.un.token")).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(firmatoAltrove)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(firmatoAltrove)).isInstanceOf(JwtException.class);
+
+        assertThat(cache.size()).isZero();
+        verify(jwtService, times(3)).verify(anyString());
+    }
+
+    @Test
+    void invalidateFaRiverificareIlToken() {
+        JwtService jwtService = spy(new JwtService(SECRET, 60_000));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 100);
+        String token = jwtService.generateToken("mario@eventpro.local", 7L, List.of("ROLE_USER"), 1);
+
+        cache.verify(token);
+        cache.invalidate(token);
+        cache.verify(token);
+
+        verify(jwtService, times(2)).verify(token);
+    }
+}
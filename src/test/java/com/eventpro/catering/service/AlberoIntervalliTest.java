@@ -0,0 +1,113 @@
+package com.eventpro.catering.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ALBERO DI INTERVALLI: SOVRAPPOSIZIONI, ESTREMI E RIMOZIONI
+ *
+ * Gli intervalli sono semiaperti [inizio, fine): quelli che si toccano
+ * soltanto non si sovrappongono. L'ultimo test confronta l'albero con una
+ * ricerca lineare su molte operazioni casuali (seme fisso, ripetibile).
+ */
+class AlberoIntervalliTest {
+
+    @Test
+    void intervalliCheSiToccanoNonSiSovrappongono() {
+        AlberoIntervalli albero = new AlberoIntervalli();
+        albero.aggiungi(10, 12, 1);
+
+        assertThat(albero.sovrapposti(12, 14)).isEmpty();
+        assertThat(albero.sovrapposti(8, 10)).isEmpty();
+        assertThat(albero.sovrapposti(11, 13)).containsExactly(1L);
+        assertThat(albero.sovrapposti(9, 11)).containsExactly(1L);
+    }
+
+    @Test
+    void intervalloCheLiContieneTuttiLiTrovaInOrdineDiInizio() {
+        AlberoIntervalli albero = new AlberoIntervalli();
+        albero.aggiungi(14, 16, 3);
+        albero.aggiungi(10, 12, 1);
+        albero.aggiungi(12, 14, 2);
+
+        assertThat(albero.sovrapposti(0, 24)).containsExactly(1L, 2L, 3L);
+        assertThat(albero.sovrapposti(11, 15)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void intervalloVuotoRifiutato() {
+        AlberoIntervalli albero = new AlberoIntervalli();
+
+        assertThatThrownBy(() -> albero.aggiungi(12, 12, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> albero.aggiungi(14, 12, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(albero.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rimuoveSoloLIdIndicatoTraQuelliConLoStessoInizio() {
+        AlberoIntervalli albero = new AlberoIntervalli();
+        albero.aggiungi(10, 12, 1);
+        albero.aggiungi(10, 18, 2);
+
+        assertThat(albero.rimuovi(10, 1)).isTrue();
+        assertThat(albero.rimuovi(10, 1)).isFalse();
+        assertThat(albero.rimuovi(11, 2)).isFalse();
+        assertThat(albero.sovrapposti(10, 11)).containsExactly(2L);
+        assertThat(albero.sovrapposti(16, 17)).containsExactly(2L);
+        assertThat(albero.dimensione()).isEqualTo(1);
+    }
+
+    @Test
+    void rimozioneDopoUnoSpostamento() {
+        AlberoIntervalli albero = new AlberoIntervalli();
+        albero.aggiungi(10, 12, 1);
+
+        // Spostamento: via il vecchio orario, dentro il nuovo
+        albero.rimuovi(10, 1);
+        albero.aggiungi(15, 17, 1);
+
+        assertThat(albero.sovrapposti(10, 12)).isEmpty();
+        assertThat(albero.rimuovi(10, 1)).isFalse();
+        assertThat(albero.rimuovi(15, 1)).isTrue();
+        assertThat(albero.sovrapposti(0, 24)).isEmpty();
+        assertThat(albero.isEmpty()).isTrue();
+    }
+
+    @Test
+    void stessiRisultatiDiUnaRicercaLineare() {
+        record Intervallo(int inizio, int fine, long id) {
+        }
+        Random random = new Random(42);
+        AlberoIntervalli albero = new AlberoIntervalli();
+        List<Intervallo> presenti = new ArrayList<>();
+
+        for (long id = 0; id < 2_000; id++) {
+            if (!presenti.isEmpty() && random.nextInt(3) == 0) {
+                Intervallo tolto = presenti.remove(random.nextInt(presenti.size()));
+                assertThat(albero.rimuovi(tolto.inizio(), tolto.id())).isTrue();
+            } else {
+                int inizio = random.nextInt(1_000);
+                Intervallo nuovo = new Intervallo(inizio, inizio + 1 + random.nextInt(60), id);
+                albero.aggiungi(nuovo.inizio(), nuovo.fine(), nuovo.id());
+                presenti.add(nuovo);
+            }
+
+            int a = random.nextInt(1_000);
+            int b = a + 1 + random.nextInt(60);
+            List<Long> attesi = presenti.stream()
+                    .filter(i -> i.inizio() < b && i.fine() > a)
+                    .sorted(Comparator.comparingInt(Intervallo::inizio).thenComparingLong(Intervallo::id))
+                    .map(Intervallo::id)
+                    .toList();
+            assertThat(albero.sovrapposti(a, b)).containsExactlyElementsOf(attesi);
+        }
+        assertThat(albero.dimensione()).isEqualTo(presenti.size());
+    }
+}
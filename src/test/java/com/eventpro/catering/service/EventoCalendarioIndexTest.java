@@ -0,0 +1,196 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.CalendarioDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoConteggioGiornaliero;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CALENDARIO IN MEMORIA: GIORNI ESATTI, CONFINI E AGGIORNAMENTI
+ *
+ * Test senza Spring: il calendario parte vuoto (o dai conteggi del
+ * repository mock) e riceve gli stessi EventoModificatoEvent pubblicati da
+ * EventoService. Le verifiche guardano il singolo giorno (eventiPerGiorno),
+ * non solo i totali: un errore di uno nell'indice del giorno non passa.
+ */
+class EventoCalendarioIndexTest {
+
+    private static final long MATRIMONIO = 1L;
+    private static final long CONFERENZA = 2L;
+
+    private final AtomicLong ultimoId = new AtomicLong();
+
+    private EventoJdbcRepository repository;
+    private EventoCalendarioIndex calendario;
+
+    @BeforeEach
+    void creaCalendario() {
+        repository = mock(EventoJdbcRepository.class);
+        calendario = new EventoCalendarioIndex(repository);
+    }
+
+    @Test
+    void ultimoGiornoDelMeseEPrimoDelSuccessivo() {
+        crea(LocalDate.of(2041, 1, 31), MATRIMONIO);
+        crea(LocalDate.of(2041, 2, 1), MATRIMONIO);
+        crea(LocalDate.of(2041, 2, 1), CONFERENZA);
+
+        CalendarioDTO gennaio = calendario.mese(2041, 1, null);
+        assertThat(gennaio.getEventiPerGiorno()).hasSize(31);
+        assertThat(giorniConEventi(gennaio)).containsExactly(31);
+        assertThat(gennaio.getEventiPerGiorno()[30]).isEqualTo(1);
+
+        CalendarioDTO febbraio = calendario.mese(2041, 2, null);
+        assertThat(febbraio.getEventiPerGiorno()).hasSize(28);
+        assertThat(giorniConEventi(febbraio)).containsExactly(1);
+        assertThat(febbraio.getEventiPerGiorno()[0]).isEqualTo(2);
+        assertThat(febbraio.getGiorniOccupati()).isEqualTo(1);
+        assertThat(febbraio.getTotaleEventi()).isEqualTo(2);
+    }
+
+    @Test
+    void anniBisestili() {
+        crea(LocalDate.of(2044, 2, 29), MATRIMONIO);
+        crea(LocalDate.of(2044, 3, 1), MATRIMONIO);
+        crea(LocalDate.of(2044, 12, 31), MATRIMONIO);
+
+        CalendarioDTO febbraio = calendario.mese(2044, 2, null);
+        assertThat(febbraio.getEventiPerGiorno()).hasSize(29);
+        assertThat(giorniConEventi(febbraio)).containsExactly(29);
+
+        assertThat(giorniConEventi(calendario.mese(2044, 3, null))).containsExactly(1);
+
+        CalendarioDTO anno = calendario.anno(2044, null);
+        assertThat(anno.getEventiPerGiorno()).hasSize(366);
+        // 29 febbraio = giorno 60 dell'anno, 1 marzo = 61, 31 dicembre = 366
+        assertThat(giorniConEventi(anno)).containsExactly(60, 61, 366);
+
+        assertThat(calendario.mese(2100, 2, null).getEventiPerGiorno()).hasSize(28);
+        assertThat(calendario.mese(2000, 2, null).getEventiPerGiorno()).hasSize(29);
+        assertThat(calendario.anno(2043, null).getEventiPerGiorno()).hasSize(365);
+    }
+
+    @Test
+    void giorniACavalloDiDueBlocchiDiContatori() {
+        // Giorni 511 e 512 dal 1900-01-01: ultimo del primo blocco e primo del secondo
+        crea(LocalDate.of(1901, 5, 27), MATRIMONIO);
+        crea(LocalDate.of(1901, 5, 28), MATRIMONIO);
+        crea(LocalDate.of(1901, 5, 28), MATRIMONIO);
+
+        CalendarioDTO maggio = calendario.mese(1901, 5, null);
+        assertThat(maggio.getEventiPerGiorno()[26]).isEqualTo(1);
+        assertThat(maggio.getEventiPerGiorno()[27]).isEqualTo(2);
+        assertThat(giorniConEventi(maggio)).containsExactly(27, 28);
+    }
+
+    @Test
+    void dateFuoriDalCalendarioIgnorate() {
+        crea(LocalDate.of(1899, 12, 31), MATRIMONIO);
+        crea(LocalDate.of(1900, 1, 1), MATRIMONIO);
+        crea(LocalDate.of(2999, 12, 31), MATRIMONIO);
+        crea(LocalDate.of(3000, 1, 1), MATRIMONIO);
+
+        assertThat(giorniConEventi(calendario.mese(1900, 1, null))).containsExactly(1);
+        assertThat(giorniConEventi(calendario.mese(2999, 12, null))).containsExactly(31);
+        assertThatThrownBy(() -> calendario.mese(1899, 12, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calendario.anno(3000, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calendario.mese(2041, 13, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void eliminazioneSpegneIlGiornoSoloConLUltimoEvento() {
+        LocalDate giorno = LocalDate.of(2041, 6, 14);
+        EventoResponseDTO primo = crea(giorno, MATRIMONIO);
+        EventoResponseDTO secondo = crea(giorno, CONFERENZA);
+
+        calendario.onEventoModificato(EventoModificatoEvent.eliminato(primo));
+        CalendarioDTO giugno = calendario.mese(2041, 6, null);
+        assertThat(giorniConEventi(giugno)).containsExactly(14);
+        assertThat(giugno.getEventiPerGiorno()[13]).isEqualTo(1);
+        assertThat(calendario.mese(2041, 6, List.of(MATRIMONIO)).getGiorniOccupati()).isZero();
+
+        calendario.onEventoModificato(EventoModificatoEvent.eliminato(secondo));
+        giugno = calendario.mese(2041, 6, null);
+        assertThat(giugno.getGiorniOccupati()).isZero();
+        assertThat(giugno.getTotaleEventi()).isZero();
+        assertThat(calendario.mese(2041, 6, List.of(CONFERENZA)).getGiorniOccupati()).isZero();
+    }
+
+    @Test
+    void spostamentoSpegneIlVecchioGiornoEAccendeIlNuovo() {
+        EventoResponseDTO prima = crea(LocalDate.of(2041, 6, 30), MATRIMONIO);
+        EventoResponseDTO dopo = evento(prima.getId(), LocalDate.of(2041, 7, 1), CONFERENZA);
+
+        calendario.onEventoModificato(EventoModificatoEvent.modificato(prima, dopo));
+
+        assertThat(calendario.mese(2041, 6, null).getGiorniOccupati()).isZero();
+        assertThat(giorniConEventi(calendario.mese(2041, 7, null))).containsExactly(1);
+        assertThat(calendario.mese(2041, 7, List.of(MATRIMONIO)).getGiorniOccupati()).isZero();
+        assertThat(giorniConEventi(calendario.mese(2041, 7, List.of(CONFERENZA)))).containsExactly(1);
+    }
+
+    @Test
+    void filtroPerPiuTipologieSommaIContatori() {
+        LocalDate giorno = LocalDate.of(2041, 9, 5);
+        crea(giorno, MATRIMONIO);
+        crea(giorno, CONFERENZA);
+        crea(giorno.plusDays(1), CONFERENZA);
+
+        CalendarioDTO entrambe = calendario.mese(2041, 9, List.of(MATRIMONIO, CONFERENZA, MATRIMONIO));
+        assertThat(entrambe.getTipologie()).containsExactly(MATRIMONIO, CONFERENZA);
+        assertThat(entrambe.getEventiPerGiorno()[4]).isEqualTo(2);
+        assertThat(entrambe.getEventiPerGiorno()[5]).isEqualTo(1);
+        assertThat(calendario.mese(2041, 9, List.of(99L)).getGiorniOccupati()).isZero();
+    }
+
+    @Test
+    void ricostruzioneDaiConteggiSostituisceIlCalendario() {
+        crea(LocalDate.of(2041, 3, 3), MATRIMONIO);
+        when(repository.findConteggiGiornalieri()).thenReturn(List.of(
+                new EventoConteggioGiornaliero(LocalDate.of(2041, 3, 10), MATRIMONIO, 2),
+                new EventoConteggioGiornaliero(LocalDate.of(2041, 3, 10), CONFERENZA, 1),
+                new EventoConteggioGiornaliero(LocalDate.of(1850, 3, 10), CONFERENZA, 4)));
+
+        calendario.ricostruisci();
+
+        CalendarioDTO marzo = calendario.mese(2041, 3, null);
+        assertThat(giorniConEventi(marzo)).containsExactly(10);
+        assertThat(marzo.getEventiPerGiorno()[9]).isEqualTo(3);
+        assertThat(calendario.mese(2041, 3, List.of(CONFERENZA)).getTotaleEventi()).isEqualTo(1);
+    }
+
+    private EventoResponseDTO crea(LocalDate data, long tipologia) {
+        EventoResponseDTO evento = evento(ultimoId.incrementAndGet(), data, tipologia);
+        calendario.onEventoModificato(EventoModificatoEvent.creato(evento));
+        return evento;
+    }
+
+    private static EventoResponseDTO evento(long id, LocalDate data, long tipologia) {
+        return new EventoResponseDTO(id, "Evento " + id, data, LocalTime.of(10, 0), LocalTime.of(12, 0),
+                "Sala", null, false, new EventoResponseDTO.TipologiaEventoDTO(tipologia, "Tipologia " + tipologia));
+    }
+
+    /**
+     * Giorni del periodo (1 = primo giorno) con almeno un evento
+     */
+    private static List<Integer> giorniConEventi(CalendarioDTO calendario) {
+        int[] eventi = calendario.getEventiPerGiorno();
+        return IntStream.range(0, eventi.length)
+                .filter(i -> eventi[i] > 0)
+                .mapToObj(i -> i + 1)
+                .toList();
+    }
+}
@@ -0,0 +1,206 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.exception.EventoConflittoException;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * SOVRAPPOSIZIONI DELLE PRENOTAZIONI DI UNA LOCATION
+ *
+ * Test senza Spring e senza transazione: il repository è un mock senza
+ * eventi, quindi il calendario parte vuoto e le prenotazioni restano
+ * (nessun rollback da annullare).
+ */
+class EventoConflittiServiceTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2041, 6, 14);
+    private static final String SALA = "Villa Roma";
+
+    private final AtomicLong ultimoId = new AtomicLong();
+
+    private EventoConflittiService service;
+
+    @BeforeEach
+    void creaService() {
+        service = new EventoConflittiService(mock(EventoJdbcRepository.class), 64);
+    }
+
+    @Test
+    void eventiCheSiToccanoNonSonoInConflitto() {
+        service.prenota(evento(SALA, GIORNO, "10:00", "12:00", false));
+
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "12:00", "14:00", false)))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "08:00", "10:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void sovrapposizioneRifiutataConGliEventiInConflitto() {
+        EventoResponseDTO esistente = prenotato(evento(SALA, GIORNO, "10:00", "12:00", false));
+
+        assertThatThrownBy(() -> service.prenota(evento("villa  roma,", GIORNO, "11:59", "13:00", false)))
+                .isInstanceOf(EventoConflittoException.class)
+                .extracting(e -> ((EventoConflittoException) e).getConflitti())
+                .satisfies(conflitti -> assertThat(conflitti).extracting(EventoResponseDTO::getId)
+                        .containsExactly(esistente.getId()));
+    }
+
+    @Test
+    void eventoDiTuttoIlGiornoOccupaLInteraGiornata() {
+        // 00:00-00:00: la fine passa al giorno dopo, cioè [0, 24h)
+        service.prenota(evento(SALA, GIORNO, "00:00", "00:00", true));
+
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO, "23:00", "23:30", false)))
+                .isInstanceOf(EventoConflittoException.class);
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO, "00:00", "00:30", false)))
+                .isInstanceOf(EventoConflittoException.class);
+        // Giorno prima fino a mezzanotte e giorno dopo da mezzanotte: si toccano soltanto
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO.minusDays(1), "20:00", "00:00", false)))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO.plusDays(1), "00:00", "02:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void eventoGiornalieroConOrarioOccupaSoloQuellaFascia() {
+        service.prenota(evento(SALA, GIORNO, "09:00", "18:00", true));
+
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO, "17:00", "19:00", false)))
+                .isInstanceOf(EventoConflittoException.class);
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "18:00", "23:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void eventoOltreLaMezzanotteBloccaIlGiornoDopo() {
+        service.prenota(evento(SALA, GIORNO, "20:00", "02:00", false));
+
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO.plusDays(1), "01:00", "03:00", false)))
+                .isInstanceOf(EventoConflittoException.class);
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO.plusDays(1), "02:00", "04:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void spostamentoAUnAltraDataLiberaLaVecchia() {
+        EventoResponseDTO prima = prenotato(evento(SALA, GIORNO, "10:00", "12:00", false));
+        EventoResponseDTO dopo = copia(prima, GIORNO.plusDays(7), "10:00", "12:00");
+
+        service.sposta(prima, dopo);
+
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "10:00", "12:00", false)))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO.plusDays(7), "11:00", "13:00", false)))
+                .isInstanceOf(EventoConflittoException.class);
+    }
+
+    @Test
+    void spostamentoSuUnOrarioOccupatoLasciaLaVecchiaPrenotazione() {
+        service.prenota(evento(SALA, GIORNO.plusDays(1), "10:00", "12:00", false));
+        EventoResponseDTO prima = prenotato(evento(SALA, GIORNO, "10:00", "12:00", false));
+
+        assertThatThrownBy(() -> service.sposta(prima, copia(prima, GIORNO.plusDays(1), "11:00", "13:00")))
+                .isInstanceOf(EventoConflittoException.class);
+        assertThatThrownBy(() -> service.prenota(evento(SALA, GIORNO, "10:00", "11:00", false)))
+                .isInstanceOf(EventoConflittoException.class);
+    }
+
+    @Test
+    void spostamentoNellaStessaFasciaNonEInConflittoConSeStesso() {
+        EventoResponseDTO prima = prenotato(evento(SALA, GIORNO, "10:00", "12:00", false));
+
+        assertThatCode(() -> service.sposta(prima, copia(prima, GIORNO, "11:00", "13:00")))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void eliminazioneDopoUnaModificaLiberaIlNuovoOrario() {
+        EventoResponseDTO prima = prenotato(evento(SALA, GIORNO, "10:00", "12:00", false));
+        EventoResponseDTO dopo = copia(prima, GIORNO, "15:00", "17:00");
+        service.sposta(prima, dopo);
+
+        // L'eliminazione arriva con lo stato letto dal database, cioè quello nuovo
+        service.onEventoModificato(EventoModificatoEvent.eliminato(dopo));
+
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "10:00", "12:00", false)))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> service.prenota(evento(SALA, GIORNO, "15:00", "17:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void prenotazioniConcorrentiSullaStessaFasciaNePassaUnaSola() throws Exception {
+        int richieste = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(richieste);
+        CountDownLatch partenza = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> esiti = new ArrayList<>();
+            for (int i = 0; i < richieste; i++) {
+                EventoResponseDTO evento = evento(SALA, GIORNO, "10:00", "12:00", false);
+                esiti.add(pool.submit(() -> {
+                    partenza.await();
+                    try {
+                        service.prenota(evento);
+                        return true;
+                    } catch (EventoConflittoException e) {
+                        return false;
+                    }
+                }));
+            }
+            partenza.countDown();
+
+            int riuscite = 0;
+            for (Future<Boolean> esito : esiti) {
+                if (esito.get()) {
+                    riuscite++;
+                }
+            }
+            assertThat(riuscite).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void locationDiverseNonSiBloccanoAVicenda() {
+        service.prenota(evento(SALA, GIORNO, "10:00", "12:00", false));
+
+        assertThatCode(() -> service.prenota(evento("Villa Milano", GIORNO, "10:00", "12:00", false)))
+                .doesNotThrowAnyException();
+    }
+
+    private EventoResponseDTO prenotato(EventoResponseDTO evento) {
+        service.prenota(evento);
+        return evento;
+    }
+
+    private EventoResponseDTO evento(String location, LocalDate data, String oraInizio, String oraFine,
+                                     boolean giornaliero) {
+        long id = ultimoId.incrementAndGet();
+        return new EventoResponseDTO(id, "Evento " + id, data, LocalTime.parse(oraInizio), LocalTime.parse(oraFine),
+                location, null, giornaliero, null);
+    }
+
+    private static EventoResponseDTO copia(EventoResponseDTO evento, LocalDate data, String oraInizio, String oraFine) {
+        return new EventoResponseDTO(evento.getId(), evento.getNome(), data, LocalTime.parse(oraInizio),
+                LocalTime.parse(oraFine), evento.getLocation(), null, evento.getEventoGiornaliero(), null);
+    }
+}
@@ -0,0 +1,148 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.DisponibilitaDTO;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import com.eventpro.catering.repository.EventoOccupazione;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * FINESTRE LIBERE: SWEEP SU PRENOTAZIONI ADIACENTI, SOVRAPPOSTE E A CAVALLO DEL GIORNO
+ *
+ * Test senza Spring: il repository è un mock che restituisce le occupazioni
+ * nell'ordine della query vera (data, ora di inizio). Le finestre si
+ * leggono come "inizio-fine".
+ */
+class EventoDisponibilitaServiceTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2041, 7, 12);
+    private static final String SALA = "Villa Roma";
+
+    private EventoJdbcRepository repository;
+    private EventoDisponibilitaService service;
+
+    @BeforeEach
+    void creaService() {
+        repository = mock(EventoJdbcRepository.class);
+        service = new EventoDisponibilitaService(repository);
+        ReflectionTestUtils.setField(service, "maxGiorni", 366);
+    }
+
+    @Test
+    void prenotazioniAdiacentiNonLascianoFinestreVuote() {
+        occupazioni(
+                occupazione(GIORNO, "10:00", "12:00"),
+                occupazione(GIORNO, "12:00", "14:00"));
+
+        assertThat(finestre(cerca("08:00", "18:00")))
+                .containsExactly("08:00-10:00", "14:00-18:00");
+    }
+
+    @Test
+    void prenotazioniSovrappostePortanoIlCursoreAllaFinePiuLontana() {
+        // La seconda inizia dentro la prima e finisce prima: non deve far tornare indietro il cursore
+        occupazioni(
+                occupazione(GIORNO, "10:00", "15:00"),
+                occupazione(GIORNO, "11:00", "12:00"),
+                occupazione(GIORNO, "14:30", "16:00"));
+
+        assertThat(finestre(cerca("09:00", "20:00")))
+                .containsExactly("09:00-10:00", "16:00-20:00");
+    }
+
+    @Test
+    void prenotazioniCheCopronoTuttaLaFasciaNessunaFinestra() {
+        occupazioni(
+                occupazione(GIORNO, "17:00", "19:00"),
+                occupazione(GIORNO, "18:30", "23:30"));
+
+        DisponibilitaDTO.GiornoDTO giorno = cerca("18:00", "23:00");
+        assertThat(giorno.isLibero()).isFalse();
+        assertThat(giorno.getFinestreLibere()).isEmpty();
+    }
+
+    @Test
+    void prenotazioniFuoriFasciaNonOccupano() {
+        // Finisce esattamente all'inizio della fascia e inizia esattamente alla fine
+        occupazioni(
+                occupazione(GIORNO, "16:00", "18:00"),
+                occupazione(GIORNO, "23:00", "23:30"));
+
+        DisponibilitaDTO.GiornoDTO giorno = cerca("18:00", "23:00");
+        assertThat(giorno.isLibero()).isTrue();
+        assertThat(finestre(giorno)).containsExactly("18:00-23:00");
+    }
+
+    @Test
+    void giornataInteraConPrenotazioniAiBordi() {
+        // Dalla mezzanotte e fino a mezzanotte (oraFine 00:00 = fine del giorno)
+        occupazioni(
+                occupazione(GIORNO, "00:00", "02:00"),
+                occupazione(GIORNO, "22:00", "00:00"));
+
+        DisponibilitaDTO.GiornoDTO giorno = cerca(null, null);
+        assertThat(finestre(giorno)).containsExactly("02:00-22:00");
+    }
+
+    @Test
+    void giornataInteraLiberaArrivaAFineGiornata() {
+        occupazioni();
+
+        assertThat(finestre(cerca(null, null))).containsExactly("00:00-23:59:59");
+    }
+
+    @Test
+    void eventoOltreLaMezzanotteOccupaLInizioDelGiornoDopo() {
+        // Evento del giorno prima (la query parte da "da" - 1) che finisce alle 03:00
+        occupazioni(
+                occupazione(GIORNO.minusDays(1), "21:00", "03:00"),
+                occupazione(GIORNO, "03:00", "05:00"));
+
+        assertThat(finestre(cerca(null, "12:00"))).containsExactly("05:00-12:00");
+    }
+
+    @Test
+    void durataMinimaScartaLeFinestreCorte() {
+        occupazioni(
+                occupazione(GIORNO, "10:30", "12:00"),
+                occupazione(GIORNO, "12:20", "18:00"));
+
+        DisponibilitaDTO risposta = service.cerca(GIORNO, GIORNO, null, LocalTime.of(10, 0), LocalTime.of(20, 0),
+                SALA, null, 60, false);
+        assertThat(finestre(risposta.getGiorni().get(0))).containsExactly("18:00-20:00");
+    }
+
+    private DisponibilitaDTO.GiornoDTO cerca(String oraInizio, String oraFine) {
+        DisponibilitaDTO risposta = service.cerca(GIORNO, GIORNO, null,
+                oraInizio != null ? LocalTime.parse(oraInizio) : null,
+                oraFine != null ? LocalTime.parse(oraFine) : null,
+                SALA, null, null, false);
+        assertThat(risposta.getGiorni()).hasSize(1);
+        return risposta.getGiorni().get(0);
+    }
+
+    private void occupazioni(EventoOccupazione... occupazioni) {
+        when(repository.findOccupazioni(any(), any(), isNull())).thenReturn(List.of(occupazioni));
+    }
+
+    private static EventoOccupazione occupazione(LocalDate data, String inizio, String fine) {
+        return new EventoOccupazione(data, LocalTime.parse(inizio), LocalTime.parse(fine), SALA);
+    }
+
+    private static List<String> finestre(DisponibilitaDTO.GiornoDTO giorno) {
+        return giorno.getFinestreLibere().stream()
+                .map(finestra -> finestra.getInizio() + "-" + finestra.getFine())
+                .toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.eventpro.catering.service;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CACHE DEL JSON E SCRITTURE FATTE DA UN'ALTRA ISTANZA
+ *
+ * Le modifiche "altrove" sono simulate con SQL diretto che fa quello che fa
+ * ogni scrittura via Hibernate: incrementa contatore_modifiche e scrive la
+ * nuova versione sulla riga. Questa istanza non riceve nessun callback JPA:
+ * deve accorgersene solo dal database.
+ *
+ * Ogni test crea il proprio evento (id e data fuori dai dati di esempio)
+ * e lo cancella alla fine.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@WithMockUser
+class EventoJsonCacheTest {
+
+    private static final long ID = 7_000_000_000_000_001L;
+    private static final LocalDate DATA = LocalDate.of(2040, 5, 14);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private EventoJsonCache eventoJsonCache;
+
+    @BeforeEach
+    void creaEvento() {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        jdbcClient.sql("INSERT INTO evento (id, nome, data, ora_inizio, ora_fine, location, evento_giornaliero, " +
+                        "tipologia_evento_id, versione, versione_modifica) " +
+                        "VALUES (:id, 'Originale', :data, '10:00:00', '12:00:00', 'Sala cache', FALSE, :tipologia, 0, 1)")
+                .param("id", ID)
+                .param("data", DATA)
+                .param("tipologia", tipologia)
+                .update();
+    }
+
+    @AfterEach
+    void eliminaEvento() {
+        jdbcClient.sql("DELETE FROM evento WHERE id = :id").param("id", ID).update();
+        jdbcClient.sql("DELETE FROM evento_eliminato WHERE id = :id").param("id", ID).update();
+        eventoJsonCache.invalidaTutto();
+    }
+
+    @Test
+    void richiestaCondizionaleVedeLaModificaDiUnAltraIstanza() throws Exception {
+        MvcResult prima = mockMvc.perform(get("/api/eventi/{id}", ID))
+                .andExpect(jsonPath("$.nome").value("Originale"))
+                .andReturn();
+        String etag = prima.getResponse().getHeader("ETag");
+
+        rinominaAltrove("Rinominato");
+
+        MvcResult dopo = mockMvc.perform(get("/api/eventi/{id}", ID).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Rinominato"))
+                .andReturn();
+        assertThat(dopo.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+    }
+
+    @Test
+    void listaDelGiornoSiAllineaAlContatorePrimaDiRispondere() throws Exception {
+        mockMvc.perform(get("/api/eventi").param("data", DATA.toString()))
+                .andExpect(jsonPath("$[0].nome").value("Originale"));
+
+        rinominaAltrove("Rinominato");
+
+        mockMvc.perform(get("/api/eventi").param("data", DATA.toString()))
+                .andExpect(jsonPath("$[0].nome").value("Rinominato"));
+    }
+
+    @Test
+    void sincronizzazioneScartaIlJsonDiUnEventoCambiatoAltrove() throws Exception {
+        mockMvc.perform(get("/api/eventi/{id}", ID)).andExpect(jsonPath("$.nome").value("Originale"));
+
+        rinominaAltrove("Rinominato");
+        eventoJsonCache.sincronizza();
+
+        mockMvc.perform(get("/api/eventi/{id}", ID)).andExpect(jsonPath("$.nome").value("Rinominato"));
+    }
+
+    @Test
+    void eventoCancellatoAltroveSparisceDallaLista() throws Exception {
+        String lista = mockMvc.perform(get("/api/eventi").param("data", DATA.toString()))
+                .andReturn().getResponse().getContentAsString();
+        assertThat((Integer) JsonPath.read(lista, "$.length()")).isEqualTo(1);
+
+        long versione = nuovaVersione();
+        jdbcClient.sql("INSERT INTO evento_eliminato (id, data, versione_modifica) VALUES (:id, :data, :versione)")
+                .param("id", ID).param("data", DATA).param("versione", versione)
+                .update();
+        jdbcClient.sql("DELETE FROM evento WHERE id = :id").param("id", ID).update();
+
+        mockMvc.perform(get("/api/eventi").param("data", DATA.toString()))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    /**
+     * Come un UPDATE fatto da un'altra istanza via Hibernate
+     */
+    private void rinominaAltrove(String nome) {
+        long versione = nuovaVersione();
+        jdbcClient.sql("UPDATE evento SET nome = :nome, versione = versione + 1, versione_modifica = :versione " +
+                        "WHERE id = :id")
+                .param("nome", nome).param("versione", versione).param("id", ID)
+                .update();
+    }
+
+    private long nuovaVersione() {
+        jdbcClient.sql("UPDATE contatore_modifiche SET valore = valore + 1 WHERE nome = 'evento'").update();
+        return jdbcClient.sql("SELECT valore FROM contatore_modifiche WHERE nome = 'evento'")
+                .query(Long.class).single();
+    }
+}
@@ -0,0 +1,255 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoModificheDTO;
+import com.eventpro.catering.dto.EventoRequestDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.support.EventiDiProva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * VERSIONI DI MODIFICA DEGLI EVENTI (SINCRONIZZAZIONE DELTA)
+ *
+ * Gli eventi passano da EventoService (EventiDiProva), con date nel 2047
+ * per non toccare gli altri test. Ogni test parte da "since" = versione
+ * corrente, così vede solo le proprie modifiche; i tombstone "vecchi" sono
+ * ottenuti spostando indietro eliminato_il.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("h2")
+class EventoModificheServiceTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2047, 4, 12);
+
+    @Autowired
+    private EventoService eventoService;
+
+    @Autowired
+    private EventoModificheService eventoModificheService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    private EventiDiProva eventi;
+
+    @BeforeEach
+    void preparaEventi() {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        eventi = new EventiDiProva(eventoService, tipologia);
+    }
+
+    @AfterEach
+    void eliminaEventi() {
+        eventi.eliminaTutti();
+    }
+
+    @Test
+    void scrittureSuLocationDiverseNonSiAspettano() throws Exception {
+        CountDownLatch scritto = new CountDownLatch(1);
+        CountDownLatch chiudi = new CountDownLatch(1);
+
+        // Transazione A: scrive e resta aperta finché B non ha finito
+        CompletableFuture<EventoResponseDTO> primo = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(stato -> {
+                    EventoResponseDTO evento = eventi.crea("Aperta", GIORNO, "10:00", "12:00", "Sala Nord");
+                    scritto.countDown();
+                    attendi(chiudi);
+                    return evento;
+                }));
+        assertThat(scritto.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Transazione B: location diversa, deve arrivare al commit mentre A è aperta
+        CompletableFuture<EventoResponseDTO> secondo = CompletableFuture.supplyAsync(() ->
+                eventi.crea("Parallela", GIORNO, "10:00", "12:00", "Sala Sud"));
+        EventoResponseDTO parallela = secondo.get(5, TimeUnit.SECONDS);
+
+        chiudi.countDown();
+        EventoResponseDTO aperta = primo.get(10, TimeUnit.SECONDS);
+
+        // Le versioni seguono l'ordine dei commit: B prima di A
+        long versioneParallela = versioneModifica(parallela.getId());
+        long versioneAperta = versioneModifica(aperta.getId());
+        assertThat(versioneParallela).isPositive();
+        assertThat(versioneAperta).isGreaterThan(versioneParallela);
+        assertThat(eventoModificheService.leggiVersioneCorrente()).isGreaterThanOrEqualTo(versioneAperta);
+        assertThat(eventoModificheService.getModifiche(versioneParallela - 1, null, null).getModificati())
+                .extracting(EventoResponseDTO::getId)
+                .containsSubsequence(parallela.getId(), aperta.getId());
+    }
+
+    @Test
+    void modificheEdEliminazioniUniteInOrdineDiVersioneSuPiuPagine() {
+        long since = eventoModificheService.leggiVersioneCorrente();
+        EventoResponseDTO cancellato = eventi.crea("Cancellato", GIORNO, "08:00", "09:00", "Sala Ovest");
+        EventoResponseDTO rimasto = eventi.crea("Rimasto", GIORNO, "09:00", "10:00", "Sala Ovest");
+        eventoService.deleteEvento(cancellato.getId());
+        EventoResponseDTO ultimo = eventi.crea("Ultimo", GIORNO, "10:00", "11:00", "Sala Ovest");
+
+        // Una modifica per pagina: rimasto (creato), cancellato (tombstone), ultimo (creato)
+        EventoModificheDTO prima = eventoModificheService.getModifiche(since, null, 1);
+        assertThat(prima.isCompleta()).isFalse();
+        assertThat(prima.getModificati()).extracting(EventoResponseDTO::getId).containsExactly(rimasto.getId());
+        assertThat(prima.getEliminati()).isEmpty();
+        assertThat(prima.isHasNext()).isTrue();
+
+        EventoModificheDTO seconda = eventoModificheService.getModifiche(null, prima.getNextCursor(), 1);
+        assertThat(seconda.getModificati()).isEmpty();
+        assertThat(seconda.getEliminati()).extracting(EventoModificheDTO.EliminatoDTO::getId)
+                .containsExactly(cancellato.getId());
+
+        EventoModificheDTO terza = eventoModificheService.getModifiche(null, seconda.getNextCursor(), 1);
+        assertThat(terza.getModificati()).extracting(EventoResponseDTO::getId).containsExactly(ultimo.getId());
+        assertThat(terza.isHasNext()).isFalse();
+        assertThat(terza.getNextCursor()).isNull();
+        assertThat(terza.getVersione()).isEqualTo(prima.getVersione());
+
+        // Alla sincronizzazione successiva non c'è più niente
+        assertThat(eventoModificheService.getModifiche(terza.getVersione(), null, 1).getModificati()).isEmpty();
+    }
+
+    @Test
+    void batchConLaStessaVersionePaginatoPerId() {
+        long since = eventoModificheService.leggiVersioneCorrente();
+        List<EventoRequestDTO> richieste = List.of(
+                richiesta("Batch 1", "08:00", "09:00"),
+                richiesta("Batch 2", "09:00", "10:00"),
+                richiesta("Batch 3", "10:00", "11:00"));
+        List<Long> ids = eventoService.createEventiBatch(richieste).getEsiti().stream()
+                .map(esito -> esito.getEvento().getId())
+                .toList();
+        ids.forEach(eventi::registra);
+        assertThat(ids.stream().map(this::versioneModifica).distinct()).hasSize(1);
+
+        EventoModificheDTO prima = eventoModificheService.getModifiche(since, null, 2);
+        EventoModificheDTO seconda = eventoModificheService.getModifiche(null, prima.getNextCursor(), 2);
+
+        List<Long> letti = new ArrayList<>();
+        prima.getModificati().forEach(evento -> letti.add(evento.getId()));
+        seconda.getModificati().forEach(evento -> letti.add(evento.getId()));
+        assertThat(prima.getModificati()).hasSize(2);
+        assertThat(seconda.isHasNext()).isFalse();
+        assertThat(letti).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @Test
+    void sinceSconosciutaRiceveUnInvioCompleto() {
+        eventi.crea("Qualsiasi", GIORNO, "08:00", "09:00", "Sala Est");
+
+        EventoModificheDTO risposta = eventoModificheService.getModifiche(Long.MAX_VALUE / 2, null, 1);
+
+        assertThat(risposta.isCompleta()).isTrue();
+        assertThat(risposta.getModificati()).hasSize(1);
+        assertThat(risposta.getEliminati()).isEmpty();
+        assertThat(risposta.getVersione()).isEqualTo(eventoModificheService.leggiVersioneCorrente());
+    }
+
+    @Test
+    void puliziaCancellaSoloITombstoneVecchi() {
+        EventoResponseDTO vecchio = eventi.crea("Vecchio", GIORNO, "08:00", "09:00", "Sala Est");
+        EventoResponseDTO recente = eventi.crea("Recente", GIORNO, "09:00", "10:00", "Sala Est");
+        eventoService.deleteEvento(vecchio.getId());
+        eventoService.deleteEvento(recente.getId());
+        long versioneVecchio = versioneTombstone(vecchio.getId());
+        long versioneRecente = versioneTombstone(recente.getId());
+        invecchiaTombstone(vecchio.getId());
+
+        eventoModificheService.pulisciTombstone();
+
+        // Registrata la versione del tombstone più recente tra quelli cancellati
+        assertThat(tombstone(vecchio.getId())).isZero();
+        assertThat(tombstone(recente.getId())).isEqualTo(1);
+        assertThat(tombstoneRimossi()).isEqualTo(versioneVecchio).isLessThan(versioneRecente);
+    }
+
+    @Test
+    void sinceOCursorePrecedentiAllaPuliziaRicevonoUnInvioCompleto() {
+        long since = eventoModificheService.leggiVersioneCorrente();
+        EventoResponseDTO cancellato = eventi.crea("Cancellato", GIORNO, "08:00", "09:00", "Sala Est");
+        EventoResponseDTO rimasto = eventi.crea("Rimasto", GIORNO, "09:00", "10:00", "Sala Est");
+        eventoService.deleteEvento(cancellato.getId());
+        long dopoLaCancellazione = eventoModificheService.leggiVersioneCorrente();
+
+        // Delta iniziato prima della pulizia: prima pagina con il solo evento rimasto
+        EventoModificheDTO prima = eventoModificheService.getModifiche(since, null, 1);
+        assertThat(prima.getModificati()).extracting(EventoResponseDTO::getId).containsExactly(rimasto.getId());
+
+        invecchiaTombstone(cancellato.getId());
+        eventoModificheService.pulisciTombstone();
+
+        // Il tombstone dopo il cursore non c'è più: si ricomincia da zero
+        EventoModificheDTO ripresa = eventoModificheService.getModifiche(null, prima.getNextCursor(), 1);
+        assertThat(ripresa.isCompleta()).isTrue();
+        assertThat(ripresa.getEliminati()).isEmpty();
+
+        EventoModificheDTO vecchia = eventoModificheService.getModifiche(since, null, 1);
+        assertThat(vecchia.isCompleta()).isTrue();
+        assertThat(vecchia.getEliminati()).isEmpty();
+
+        // Chi aveva già visto la cancellazione continua con il delta
+        eventi.crea("Nuovo", GIORNO, "10:00", "11:00", "Sala Est");
+        EventoModificheDTO delta = eventoModificheService.getModifiche(dopoLaCancellazione, null, 10);
+        assertThat(delta.isCompleta()).isFalse();
+        assertThat(delta.getModificati()).extracting(EventoResponseDTO::getNome).containsExactly("Nuovo");
+    }
+
+    private EventoRequestDTO richiesta(String nome, String oraInizio, String oraFine) {
+        return new EventoRequestDTO(nome, GIORNO, LocalTime.parse(oraInizio), LocalTime.parse(oraFine),
+                "Sala Batch", null, false, eventi.getTipologiaId());
+    }
+
+    private void invecchiaTombstone(Long id) {
+        jdbcClient.sql("UPDATE evento_eliminato SET eliminato_il = :quando WHERE id = :id")
+                .param("quando", Timestamp.valueOf("2000-01-01 00:00:00"))
+                .param("id", id)
+                .update();
+    }
+
+    private long versioneTombstone(Long id) {
+        return jdbcClient.sql("SELECT versione_modifica FROM evento_eliminato WHERE id = :id")
+                .param("id", id).query(Long.class).single();
+    }
+
+    private int tombstone(Long id) {
+        return jdbcClient.sql("SELECT COUNT(*) FROM evento_eliminato WHERE id = :id")
+                .param("id", id).query(Integer.class).single();
+    }
+
+    private long tombstoneRimossi() {
+        return jdbcClient.sql("SELECT valore FROM contatore_modifiche WHERE nome = 'evento-eliminati-rimossi'")
+                .query(Long.class).single();
+    }
+
+    private long versioneModifica(Long id) {
+        return jdbcClient.sql("SELECT versione_modifica FROM evento WHERE id = :id")
+                .param("id", id).query(Long.class).single();
+    }
+
+    private static void attendi(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoNotificaDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * CODE DEGLI ISCRITTI SSE CON CLIENT LENTI E CONNESSIONI CHIUSE
+ *
+ * Test senza Spring: l'emitter di ogni connessione è un EmitterDiProva che
+ * registra gli eventi inviati e, quando richiesto, blocca l'invio come una
+ * rete lenta. La coda di ogni iscritto contiene al massimo 3 notifiche.
+ */
+class EventoNotificheServiceTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(2041, 9, 20);
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventoNotificheService service;
+    private EmitterDiProva emitter;
+
+    @BeforeEach
+    void creaService() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EventoNotificheService(mock(EventoModificheService.class), meterRegistry) {
+            @Override
+            SseEmitter creaEmitter(long timeout) {
+                emitter = new EmitterDiProva(timeout);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "capacitaCoda", 3);
+        ReflectionTestUtils.setField(service, "maxIscritti", 10);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+    }
+
+    @AfterEach
+    void chiudiService() {
+        emitter.sblocca();
+        service.chiudi();
+    }
+
+    @Test
+    void clientLentoPerdeLeNotifichePiuVeccheERiceveResync() throws Exception {
+        service.iscrivi(null, null, null);
+        emitter.blocca();
+
+        // La prima notifica esce dalla coda e resta ferma nell'invio
+        service.onEventoModificato(creato(1L));
+        assertThat(emitter.inAttesa.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Cinque notifiche per tre posti: la 2 e la 3 vengono scartate
+        for (long id = 2; id <= 6; id++) {
+            service.onEventoModificato(creato(id));
+        }
+        emitter.sblocca();
+
+        attendi(() -> emitter.inviati.size() == 6);
+        assertThat(emitter.inviati)
+                .containsExactly("connesso", "evento:1", "resync", "evento:4", "evento:5", "evento:6");
+        assertThat(meterRegistry.counter("eventi.sse.notifiche.scartate").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("eventi.sse.resync").count()).isEqualTo(1);
+    }
+
+    @Test
+    void senzaScartiNessunResync() throws Exception {
+        service.iscrivi(null, null, null);
+        emitter.blocca();
+
+        service.onEventoModificato(creato(1L));
+        assertThat(emitter.inAttesa.await(5, TimeUnit.SECONDS)).isTrue();
+        service.onEventoModificato(creato(2L));
+        service.onEventoModificato(creato(3L));
+        emitter.sblocca();
+
+        attendi(() -> emitter.inviati.size() == 4);
+        assertThat(emitter.inviati).containsExactly("connesso", "evento:1", "evento:2", "evento:3");
+        assertThat(meterRegistry.counter("eventi.sse.notifiche.scartate").count()).isZero();
+    }
+
+    @Test
+    void invioFallitoRimuoveLIscritto() {
+        service.iscrivi(null, null, null);
+        emitter.fallisci = true;
+
+        service.onEventoModificato(creato(1L));
+
+        attendi(() -> service.getIscritti() == 0);
+        attendi(() -> emitter.chiusoConErrore);
+    }
+
+    @Test
+    void timeoutOErroreDellaConnessioneRimuovonoLIscritto() {
+        service.iscrivi(null, null, null);
+        EmitterDiProva primo = emitter;
+        service.iscrivi(null, null, null);
+        EmitterDiProva secondo = emitter;
+        assertThat(service.getIscritti()).isEqualTo(2);
+
+        // Callback che il container chiama alla scadenza o a un errore della connessione
+        primo.alTimeout.run();
+        assertThat(service.getIscritti()).isEqualTo(1);
+        secondo.allErrore.accept(new IOException("connessione interrotta"));
+        assertThat(service.getIscritti()).isZero();
+
+        // Nessuna coda resta a ricevere notifiche
+        service.onEventoModificato(creato(1L));
+        assertThat(primo.inviati).containsExactly("connesso");
+        assertThat(secondo.inviati).containsExactly("connesso");
+    }
+
+    private static EventoModificatoEvent creato(Long id) {
+        return EventoModificatoEvent.creato(new EventoResponseDTO(
+                id, "Evento " + id, GIORNO, LocalTime.of(10, 0), LocalTime.of(12, 0), "Sala", null, false, null));
+    }
+
+    private static void attendi(Supplier<Boolean> condizione) {
+        long fine = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condizione.get()) {
+            assertThat(System.nanoTime()).as("condizione non raggiunta in 5 secondi").isLessThan(fine);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Emitter senza rete: registra "nome" (o "evento:id") di ogni invio
+     */
+    private static final class EmitterDiProva extends SseEmitter {
+
+        final List<String> inviati = new CopyOnWriteArrayList<>();
+        final CountDownLatch inAttesa = new CountDownLatch(1);
+        private volatile CountDownLatch cancello = new CountDownLatch(0);
+        volatile boolean fallisci;
+        volatile boolean chiusoConErrore;
+        Runnable alTimeout;
+        Consumer<Throwable> allErrore;
+
+        EmitterDiProva(long timeout) {
+            super(timeout);
+        }
+
+        void blocca() {
+            cancello = new CountDownLatch(1);
+        }
+
+        void sblocca() {
+            cancello.countDown();
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            if (fallisci) {
+                throw new IOException("client disconnesso");
+            }
+            if (cancello.getCount() > 0) {
+                inAttesa.countDown();
+                try {
+                    cancello.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            inviati.add(descrivi(evento));
+        }
+
+        @Override
+        public void completeWithError(Throwable errore) {
+            chiusoConErrore = true;
+            super.completeWithError(errore);
+        }
+
+        @Override
+        public synchronized void onTimeout(Runnable callback) {
+            alTimeout = callback;
+            super.onTimeout(callback);
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            allErrore = callback;
+            super.onError(callback);
+        }
+
+        private static String descrivi(SseEventBuilder evento) {
+            String nome = null;
+            for (var parte : evento.build()) {
+                if (parte.getData() instanceof EventoNotificaDTO notifica) {
+                    return "evento:" + notifica.getId();
+                }
+                if (nome == null && parte.getData() instanceof String testo && testo.startsWith("event:")) {
+                    nome = testo.substring("event:".length(), testo.indexOf('\n'));
+                }
+            }
+            return nome;
+        }
+    }
+}
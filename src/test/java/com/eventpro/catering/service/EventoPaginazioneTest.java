@@ -0,0 +1,152 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoCursor;
+import com.eventpro.catering.dto.EventoPageDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.support.EventiDiProva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PAGINAZIONE KEYSET CON DATE E ORARI DUPLICATI
+ *
+ * Gli eventi sono nell'anno 3000, dopo quelli di tutti gli altri test: la
+ * scansione parte da un cursore posto alla fine del 2999 e l'ultima pagina
+ * è davvero l'ultima della tabella. Più eventi hanno la stessa (data,
+ * oraInizio), in location diverse: l'ordine tra loro lo decide l'id.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("h2")
+class EventoPaginazioneTest {
+
+    private static final LocalDate GIORNO = LocalDate.of(3000, 1, 10);
+    private static final String INIZIO = new EventoCursor(LocalDate.of(2999, 12, 31), LocalTime.MAX, Long.MAX_VALUE)
+            .encode();
+
+    @Autowired
+    private EventoService eventoService;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private JpaEventoReadEngine jpaEventoReadEngine;
+
+    @Autowired
+    private JdbcEventoReadEngine jdbcEventoReadEngine;
+
+    private EventiDiProva eventi;
+
+    private List<EventoResponseDTO> attesi;
+
+    @BeforeEach
+    void preparaEventi() {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        eventi = new EventiDiProva(eventoService, tipologia);
+
+        attesi = new ArrayList<>();
+        // Tre eventi con la stessa (data, oraInizio), creati in ordine di sala "inverso"
+        attesi.add(eventi.crea("Pari C", GIORNO, "18:00", "20:00", "Sala C"));
+        attesi.add(eventi.crea("Pari A", GIORNO, "18:00", "20:00", "Sala A"));
+        attesi.add(eventi.crea("Pari B", GIORNO, "18:00", "20:00", "Sala B"));
+        attesi.add(eventi.crea("Mattina", GIORNO, "09:00", "11:00", "Sala A"));
+        attesi.add(eventi.crea("Giorno dopo", GIORNO.plusDays(1), "09:00", "11:00", "Sala A"));
+        attesi.sort(Comparator.comparing(EventoResponseDTO::getData)
+                .thenComparing(EventoResponseDTO::getOraInizio)
+                .thenComparing(EventoResponseDTO::getId));
+    }
+
+    @AfterEach
+    void eliminaEventi() {
+        eventi.eliminaTutti();
+    }
+
+    @Test
+    void pagineConPariMeritoSenzaDuplicatiNeBuchi() {
+        List<EventoPageDTO> pagine = scorri(2);
+
+        assertThat(pagine).hasSize(3);
+        assertThat(pagine).extracting(pagina -> pagina.getEventi().size()).containsExactly(2, 2, 1);
+        assertThat(pagine.stream().flatMap(pagina -> pagina.getEventi().stream()))
+                .extracting(EventoResponseDTO::getId)
+                .containsExactlyElementsOf(attesi.stream().map(EventoResponseDTO::getId).toList());
+    }
+
+    @Test
+    void ultimaPaginaSenzaNextCursor() {
+        List<EventoPageDTO> pagine = scorri(2);
+
+        assertThat(pagine.subList(0, pagine.size() - 1))
+                .allSatisfy(pagina -> {
+                    assertThat(pagina.isHasNext()).isTrue();
+                    assertThat(pagina.getNextCursor()).isNotNull();
+                });
+        EventoPageDTO ultima = pagine.get(pagine.size() - 1);
+        assertThat(ultima.isHasNext()).isFalse();
+        assertThat(ultima.getNextCursor()).isNull();
+    }
+
+    @Test
+    void paginaPienaSenzaAltriEventiNonHaNext() {
+        // Tanti eventi quanti la dimensione della pagina: la riga in più non arriva
+        EventoPageDTO pagina = eventoService.getEventiPaginati(INIZIO, attesi.size());
+
+        assertThat(pagina.getEventi()).hasSize(attesi.size());
+        assertThat(pagina.isHasNext()).isFalse();
+        assertThat(pagina.getNextCursor()).isNull();
+    }
+
+    @Test
+    void nextCursorPuntaAllUltimoEventoDellaPagina() {
+        EventoPageDTO pagina = eventoService.getEventiPaginati(INIZIO, 2);
+
+        EventoCursor cursore = EventoCursor.decode(pagina.getNextCursor());
+        EventoResponseDTO ultimo = pagina.getEventi().get(1);
+        assertThat(cursore.getData()).isEqualTo(ultimo.getData());
+        assertThat(cursore.getOraInizio()).isEqualTo(ultimo.getOraInizio());
+        assertThat(cursore.getId()).isEqualTo(ultimo.getId());
+    }
+
+    @Test
+    void entrambiIMotoriRipartonoDentroUnGruppoDiPariMerito() {
+        // Cursore sul primo dei tre eventi delle 18:00: restano gli altri due e il giorno dopo
+        EventoCursor dentroIlGruppo = EventoCursor.dopo(attesi.get(1));
+        List<Long> resto = attesi.subList(2, attesi.size()).stream().map(EventoResponseDTO::getId).toList();
+
+        assertThat(jpaEventoReadEngine.findPageAfter(dentroIlGruppo, 10))
+                .extracting(EventoResponseDTO::getId).containsExactlyElementsOf(resto);
+        assertThat(jdbcEventoReadEngine.findPageAfter(dentroIlGruppo, 10))
+                .extracting(EventoResponseDTO::getId).containsExactlyElementsOf(resto);
+    }
+
+    @Test
+    void cursoreNonValidoRifiutato() {
+        assertThatThrownBy(() -> eventoService.getEventiPaginati("MjAyNC0wNi0xNQ", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<EventoPageDTO> scorri(int size) {
+        List<EventoPageDTO> pagine = new ArrayList<>();
+        String cursore = INIZIO;
+        do {
+            EventoPageDTO pagina = eventoService.getEventiPaginati(cursore, size);
+            pagine.add(pagina);
+            cursore = pagina.getNextCursor();
+        } while (cursore != null && pagine.size() <= attesi.size());
+        return pagine;
+    }
+}
@@ -0,0 +1,96 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ORDINE DEGLI EVENTI DI UNA DATA NEI DUE MOTORI DI LETTURA
+ *
+ * Il contratto di EventoReadEngine.findByData è (oraInizio, id). Gli eventi
+ * sono inseriti apposta in ordine diverso da quello atteso, con due eventi
+ * alla stessa ora: senza ORDER BY l'ordine dipenderebbe dal database.
+ *
+ * Su H2 idx_evento_lista (data, ora_inizio, id, ...) restituisce già le
+ * righe nell'ordine giusto e nasconderebbe un ORDER BY mancante; il secondo
+ * test lo rimuove per il tempo della lettura, così H2 legge in ordine di
+ * chiave primaria come può fare MySQL con un altro piano.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("h2")
+class EventoReadEngineTest {
+
+    private static final LocalDate DATA = LocalDate.of(2040, 6, 20);
+    private static final long PRIMO_ID = 7_000_000_000_000_101L;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private JpaEventoReadEngine jpaEventoReadEngine;
+
+    @Autowired
+    private JdbcEventoReadEngine jdbcEventoReadEngine;
+
+    @BeforeEach
+    void creaEventi() {
+        inserisci(PRIMO_ID + 3, "14:00:00");
+        inserisci(PRIMO_ID + 2, "09:00:00");
+        inserisci(PRIMO_ID, "14:00:00");
+        inserisci(PRIMO_ID + 1, "09:00:00");
+    }
+
+    @AfterEach
+    void eliminaEventi() {
+        jdbcClient.sql("DELETE FROM evento WHERE data = :data").param("data", DATA).update();
+    }
+
+    @Test
+    void entrambiIMotoriOrdinanoPerOraInizioPoiId() {
+        List<Long> attesi = List.of(PRIMO_ID + 1, PRIMO_ID + 2, PRIMO_ID, PRIMO_ID + 3);
+
+        assertThat(ids(jpaEventoReadEngine.findByData(DATA))).containsExactlyElementsOf(attesi);
+        assertThat(ids(jdbcEventoReadEngine.findByData(DATA))).containsExactlyElementsOf(attesi);
+    }
+
+    @Test
+    void lOrdineNonDipendeDallIndiceUsatoDalDatabase() {
+        List<Long> attesi = List.of(PRIMO_ID + 1, PRIMO_ID + 2, PRIMO_ID, PRIMO_ID + 3);
+
+        jdbcClient.sql("DROP INDEX idx_evento_lista").update();
+        try {
+            assertThat(ids(jpaEventoReadEngine.findByData(DATA))).containsExactlyElementsOf(attesi);
+            assertThat(ids(jdbcEventoReadEngine.findByData(DATA))).containsExactlyElementsOf(attesi);
+        } finally {
+            jdbcClient.sql("CREATE INDEX idx_evento_lista ON evento " +
+                    "(data, ora_inizio, id, ora_fine, evento_giornaliero, tipologia_evento_id, versione, nome, location)")
+                    .update();
+        }
+    }
+
+    private void inserisci(long id, String oraInizio) {
+        Long tipologia = jdbcClient.sql("SELECT MIN(id) FROM tipologia_evento").query(Long.class).single();
+        jdbcClient.sql("INSERT INTO evento (id, nome, data, ora_inizio, ora_fine, location, evento_giornaliero, " +
+                        "tipologia_evento_id, versione, versione_modifica) " +
+                        "VALUES (:id, 'Ordine', :data, :oraInizio, '18:00:00', 'Sala ordine', FALSE, :tipologia, 0, 0)")
+                .param("id", id)
+                .param("data", DATA)
+                .param("oraInizio", oraInizio)
+                .param("tipologia", tipologia)
+                .update();
+    }
+
+    private static List<Long> ids(List<EventoResponseDTO> eventi) {
+        return eventi.stream().map(EventoResponseDTO::getId).toList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.eventpro.catering.service;
+
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.repository.EventoJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * INDICE DI RICERCA: CORRISPONDENZE E ALLINEAMENTO DOPO LE MODIFICHE
+ *
+ * Test senza Spring: l'indice parte vuoto (repository mock) e viene
+ * aggiornato con gli stessi EventoModificatoEvent pubblicati da EventoService.
+ */
+class EventoSearchIndexTest {
+
+    private EventoSearchIndex indice;
+
+    @BeforeEach
+    void creaIndice() {
+        indice = new EventoSearchIndex(mock(EventoJdbcRepository.class));
+        ReflectionTestUtils.setField(indice, "defaultLimit", 20);
+        ReflectionTestUtils.setField(indice, "maxLimit", 200);
+    }
+
+    @Test
+    void trovaIgnorandoAccentiMaiuscoleEPunteggiatura() {
+        indice.indicizza(evento(1, "Matrimonio Rossi", "Villa Città", null, 10));
+
+        assertThat(ids(indice.cerca("CITTA", null))).containsExactly(1L);
+        assertThat(ids(indice.cerca("città,", null))).containsExactly(1L);
+        assertThat(ids(indice.cerca("matrimonio!", null))).containsExactly(1L);
+    }
+
+    @Test
+    void tuttiITerminiDellaQueryDevonoEssereNellEvento() {
+        indice.indicizza(evento(1, "Matrimonio Rossi", "Villa Roma", null, 10));
+        indice.indicizza(evento(2, "Matrimonio Bianchi", "Castello Milano", null, 11));
+        indice.indicizza(evento(3, "Cena aziendale", "Roma", "menu matrimonio", 12));
+
+        assertThat(ids(indice.cerca("matrimonio roma", null))).containsExactly(1L, 3L);
+        assertThat(ids(indice.cerca("roma matrimonio rossi", null))).containsExactly(1L);
+        assertThat(ids(indice.cerca("matrimonio napoli", null))).isEmpty();
+    }
+
+    @Test
+    void frammentiDentroLeParoleEPrefissiCorti() {
+        indice.indicizza(evento(1, "Matrimonio Rossi", "Villa Roma", null, 10));
+        indice.indicizza(evento(2, "Festa Rosa", "Sala Verdi", null, 11));
+
+        assertThat(ids(indice.cerca("rimon", null))).containsExactly(1L);
+        assertThat(ids(indice.cerca("ro", null))).containsExactly(1L, 2L);
+        assertThat(ids(indice.cerca("ro villa", null))).containsExactly(1L);
+    }
+
+    @Test
+    void risultatiInOrdineDiDataEOraConLimite() {
+        indice.indicizza(evento(3, "Cena di gala", "Roma", null, 20));
+        indice.indicizza(evento(1, "Cena di Natale", "Roma", null, 19));
+        indice.indicizza(evento(2, "Cena aziendale", "Roma", null, 12));
+
+        assertThat(ids(indice.cerca("cena", null))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(indice.cerca("cena", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void queryVuotaOSoloParoleVuote() {
+        assertThatThrownBy(() -> indice.cerca(" ", null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> indice.cerca("roma", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(indice.cerca("di la", null)).isEmpty();
+    }
+
+    @Test
+    void modificaSostituisceITerminiVecchi() {
+        EventoResponseDTO prima = evento(1, "Matrimonio Rossi", "Villa Roma", null, 10);
+        indice.onEventoModificato(EventoModificatoEvent.creato(prima));
+
+        EventoResponseDTO dopo = evento(1, "Battesimo Rossi", "Castello Milano", null, 10);
+        dopo.setVersione(1L);
+        indice.onEventoModificato(EventoModificatoEvent.modificato(prima, dopo));
+
+        assertThat(indice.cerca("matrimonio", null)).isEmpty();
+        assertThat(indice.cerca("roma", null)).isEmpty();
+        assertThat(ids(indice.cerca("battesimo milano", null))).containsExactly(1L);
+        assertThat(indice.cerca("rossi", null)).singleElement()
+                .extracting(EventoResponseDTO::getNome).isEqualTo("Battesimo Rossi");
+        assertThat(indice.getNumeroEventi()).isEqualTo(1);
+    }
+
+    @Test
+    void versioneVecchiaNonSovrascriveQuellaNuova() {
+        EventoResponseDTO nuovo = evento(1, "Battesimo", "Roma", null, 10);
+        nuovo.setVersione(2L);
+        indice.indicizza(nuovo);
+
+        // Es. ricostruzione che legge un dato precedente alla modifica
+        EventoResponseDTO vecchio = evento(1, "Matrimonio", "Roma", null, 10);
+        vecchio.setVersione(1L);
+        indice.indicizza(vecchio);
+
+        assertThat(indice.cerca("matrimonio", null)).isEmpty();
+        assertThat(ids(indice.cerca("battesimo", null))).containsExactly(1L);
+    }
+
+    @Test
+    void eventoEliminatoNonSiTrovaPiu() {
+        EventoResponseDTO evento = evento(1, "Matrimonio Rossi", "Villa Roma", null, 10);
+        indice.onEventoModificato(EventoModificatoEvent.creato(evento));
+        indice.onEventoModificato(EventoModificatoEvent.creato(evento(2, "Cena Rossi", "Milano", null, 11)));
+
+        indice.onEventoModificato(EventoModificatoEvent.eliminato(evento));
+
+        assertThat(indice.cerca("matrimonio", null)).isEmpty();
+        assertThat(indice.cerca("rimon", null)).isEmpty();
+        assertThat(ids(indice.cerca("rossi", null))).containsExactly(2L);
+        assertThat(indice.getNumeroEventi()).isEqualTo(1);
+    }
+
+    @Test
+    void eventoModificatoEPoiEliminato() {
+        EventoResponseDTO prima = evento(1, "Matrimonio", "Roma", null, 10);
+        indice.indicizza(prima);
+        EventoResponseDTO dopo = evento(1, "Battesimo", "Milano", null, 10);
+        dopo.setVersione(1L);
+        indice.onEventoModificato(EventoModificatoEvent.modificato(prima, dopo));
+
+        indice.onEventoModificato(EventoModificatoEvent.eliminato(dopo));
+
+        assertThat(indice.cerca("battesimo", null)).isEmpty();
+        assertThat(indice.cerca("matrimonio", null)).isEmpty();
+        assertThat(indice.getNumeroEventi()).isZero();
+    }
+
+    private static EventoResponseDTO evento(long id, String nome, String location, String note, int ora) {
+        EventoResponseDTO evento = new EventoResponseDTO(id, nome, LocalDate.of(2041, 5, 10), LocalTime.of(ora, 0),
+                LocalTime.of(ora + 2, 0), location, note, false, null);
+        evento.setVersione(0L);
+        return evento;
+    }
+
+    private static List<Long> ids(List<EventoResponseDTO> eventi) {
+        return eventi.stream().map(EventoResponseDTO::getId).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.eventpro.catering.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * NORMALIZZAZIONE DEL TESTO PER RICERCA E CHIAVI DELLE LOCATION
+ */
+class NormalizzatoreTestoTest {
+
+    @Test
+    void accentiEMaiuscoleRimossi() {
+        assertThat(NormalizzatoreTesto.termini("CAFFÈ Città Perché")).containsExactly("caffe", "citta", "perche");
+        // Stesso risultato con l'accento come carattere combinante (forma NFD)
+        assertThat(NormalizzatoreTesto.termini("Citta\u0300")).containsExactly("citta");
+    }
+
+    @Test
+    void punteggiaturaEApostrofiSeparanoLeParole() {
+        assertThat(NormalizzatoreTesto.termini("Cena all'Hotel Città di Roma"))
+                .containsExactly("cena", "hotel", "citta", "roma");
+        assertThat(NormalizzatoreTesto.termini("Festa nell’aula magna!!! (sala-2)"))
+                .containsExactly("festa", "aula", "magna", "sala");
+    }
+
+    @Test
+    void paroleVuoteTerminiCortiEDuplicatiScartati() {
+        assertThat(NormalizzatoreTesto.termini("Il pranzo e la cena, la CENA del 2 maggio"))
+                .containsExactly("pranzo", "cena", "maggio");
+        assertThat(NormalizzatoreTesto.termini("di la e")).isEmpty();
+        assertThat(NormalizzatoreTesto.termini(null)).isEmpty();
+        assertThat(NormalizzatoreTesto.termini("   ")).isEmpty();
+    }
+
+    @Test
+    void numeriConservati() {
+        assertThat(NormalizzatoreTesto.termini("Sala 12, piano 3B")).containsExactly("sala", "12", "piano", "3b");
+    }
+
+    @Test
+    void chiaveNonScartaNullaMaUniformaLaScrittura() {
+        assertThat(NormalizzatoreTesto.chiave("Villa Roma,  Via dei Fiori 123")).isEqualTo("villa roma via dei fiori 123");
+        assertThat(NormalizzatoreTesto.chiave(" VILLA  ROMA, ")).isEqualTo(NormalizzatoreTesto.chiave("villa roma"));
+        assertThat(NormalizzatoreTesto.chiave("Caffè dell'Arte")).isEqualTo("caffe dell arte");
+        assertThat(NormalizzatoreTesto.chiave(null)).isEmpty();
+    }
+
+    @Test
+    void trigrammiDiUnTermine() {
+        assertThat(NormalizzatoreTesto.trigrammi("roma")).containsExactly("rom", "oma");
+        assertThat(NormalizzatoreTesto.trigrammi("aaaa")).containsExactly("aaa");
+        assertThat(NormalizzatoreTesto.trigrammi("ro")).isEmpty();
+    }
+}
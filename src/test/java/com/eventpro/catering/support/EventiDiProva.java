@@ -0,0 +1,70 @@
+package com.eventpro.catering.support;
+
+import com.eventpro.catering.dto.EventoRequestDTO;
+import com.eventpro.catering.dto.EventoResponseDTO;
+import com.eventpro.catering.exception.EventoNotFoundException;
+import com.eventpro.catering.service.EventoService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EVENTI CREATI DA UN TEST E CANCELLATI ALLA FINE
+ *
+ * Gli eventi passano da EventoService come quelli delle richieste vere:
+ * dopo il commit si aggiornano anche le prenotazioni delle location, la
+ * ricerca, il calendario e le statistiche in memoria. Con un INSERT diretto
+ * quegli indici non vedrebbero l'evento (e, dopo un DELETE diretto,
+ * continuerebbero a vederlo).
+ *
+ * ESEMPIO DI USO:
+ * eventi = new EventiDiProva(eventoService, tipologiaId);
+ * EventoResponseDTO cena = eventi.crea("Cena", LocalDate.of(2041, 3, 10), "19:00", "23:00", "Sala A");
+ * ...
+ * @AfterEach void pulisci() { eventi.eliminaTutti(); }
+ */
+public class EventiDiProva {
+
+    private final EventoService eventoService;
+    private final Long tipologiaId;
+    private final List<Long> creati = new ArrayList<>();
+
+    public EventiDiProva(EventoService eventoService, Long tipologiaId) {
+        this.eventoService = eventoService;
+        this.tipologiaId = tipologiaId;
+    }
+
+    public EventoResponseDTO crea(String nome, LocalDate data, String oraInizio, String oraFine, String location) {
+        EventoResponseDTO evento = eventoService.createEvento(new EventoRequestDTO(
+                nome, data, LocalTime.parse(oraInizio), LocalTime.parse(oraFine), location, null, false, tipologiaId));
+        creati.add(evento.getId());
+        return evento;
+    }
+
+    /**
+     * Cancella alla fine anche un evento creato dal test con una richiesta HTTP
+     */
+    public void registra(Long id) {
+        creati.add(id);
+    }
+
+    public Long getTipologiaId() {
+        return tipologiaId;
+    }
+
+    /**
+     * Cancella tutti gli eventi creati o registrati (quelli già cancellati dal test vengono saltati)
+     */
+    public void eliminaTutti() {
+        for (Long id : creati) {
+            try {
+                eventoService.deleteEvento(id);
+            } catch (EventoNotFoundException e) {
+                // Già cancellato dal test
+            }
+        }
+        creati.clear();
+    }
+}
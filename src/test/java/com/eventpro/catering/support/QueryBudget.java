@@ -0,0 +1,40 @@
+package com.eventpro.catering.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * BUDGET DI QUERY SQL PER UN TEST
+ *
+ * Dichiara il numero massimo di statement SQL che Hibernate può preparare
+ * durante il metodo di test. Se il limite viene superato il test fallisce
+ * (e con lui la build): così una regressione N+1 viene scoperta subito.
+ *
+ * ESEMPIO DI USO:
+ * @Test
+ * @QueryBudget(1)
+ * void listaEventiPerData() throws Exception {
+ *     mockMvc.perform(get("/api/eventi?data=2024-06-15")).andExpect(status().isOk());
+ * }
+ *
+ * NOTA: conta solo le query che passano da Hibernate (JPA), non quelle
+ * eseguite direttamente con JdbcClient.
+ *
+ * @see QueryBudgetExtension
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    /**
+     * Numero massimo di statement SQL ammessi
+     */
+    int value();
+}
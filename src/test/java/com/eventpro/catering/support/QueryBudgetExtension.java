@@ -0,0 +1,60 @@
+package com.eventpro.catering.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+
+/**
+ * ESTENSIONE JUNIT CHE VERIFICA IL @QueryBudget
+ *
+ * COME FUNZIONA:
+ * 1. Prima del metodo di test: abilita e azzera le Statistics di Hibernate
+ * 2. Dopo il metodo di test: legge quanti statement SQL sono stati preparati
+ * 3. Se sono più del budget dichiarato, il test fallisce con il dettaglio
+ *    delle query eseguite
+ *
+ * Il conteggio parte dopo i metodi @BeforeEach e si chiude prima degli
+ * @AfterEach: i dati di prova creati e cancellati lì non consumano budget.
+ *
+ * Le Statistics sono globali per la SessionFactory: i test con @QueryBudget
+ * non vanno eseguiti in parallelo sullo stesso contesto Spring.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        Statistics statistics = statistics(context);
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+
+        Statistics statistics = statistics(context);
+        long eseguite = statistics.getPrepareStatementCount();
+        if (eseguite > budget.value()) {
+            throw new AssertionError(String.format(
+                    "%s: eseguiti %d statement SQL, budget %d. Query HQL: %s",
+                    context.getDisplayName(), eseguite, budget.value(),
+                    Arrays.toString(statistics.getQueries())));
+        }
+    }
+
+    private static Statistics statistics(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context)
+                .getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}